@@ -159,6 +159,6 @@ public class DefaultClientExtension implements ClientExtension {
         ClientExecutionService es = client.getClientExecutionService();
         ClassLoader classLoader = client.getClientConfig().getClassLoader();
 
-        return new DefaultNearCacheManager(ss, es, classLoader);
+        return new DefaultNearCacheManager(ss, es, classLoader, client.getProperties());
     }
 }
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.proxy;
+
+import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapGetAllCodec;
+import com.hazelcast.client.spi.ClientContext;
+import com.hazelcast.client.spi.impl.ClientInvocation;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.AbstractCompletableFuture;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.ConstructorFunction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import static com.hazelcast.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Coalesces the single-key {@code get} calls of a {@link ClientMapProxy} into {@code MapGetAll} requests per partition.
+ * <p>
+ * A call is added to the batch of its partition, which is sent when the batching window elapses or when it reaches
+ * the maximum batch size, whichever happens first. The batches of a partition are sent one at a time, in the order
+ * of their calls. The proxy flushes the batch of a partition before it sends any other single-key call on that
+ * partition, so a batched get doesn't observe a later update of the same caller.
+ * <p>
+ * Updates are not batched: {@code MapPutAll} ignores the locks of the keys.
+ *
+ * @see com.hazelcast.client.spi.properties.ClientProperty#MAP_BATCH_WINDOW_MICROS
+ * @see com.hazelcast.client.spi.properties.ClientProperty#MAP_BATCH_MAX_SIZE
+ */
+final class ClientMapBatcher {
+
+    private final ConstructorFunction<Integer, PartitionBatch> batchConstructor
+            = new ConstructorFunction<Integer, PartitionBatch>() {
+        @Override
+        public PartitionBatch createNew(Integer partitionId) {
+            return new PartitionBatch(partitionId);
+        }
+    };
+
+    private final ConcurrentMap<Integer, PartitionBatch> batches = new ConcurrentHashMap<Integer, PartitionBatch>();
+
+    private final String name;
+    private final HazelcastClientInstanceImpl client;
+    private final ClientContext context;
+    private final SerializationService serializationService;
+    private final Executor userExecutor;
+    private final ILogger logger;
+    private final long windowMicros;
+    private final int maxBatchSize;
+
+    ClientMapBatcher(String name, HazelcastClientInstanceImpl client, ClientContext context, long windowMicros,
+                     int maxBatchSize) {
+        this.name = name;
+        this.client = client;
+        this.context = context;
+        this.serializationService = context.getSerializationService();
+        this.userExecutor = context.getExecutionService().getUserExecutor();
+        this.logger = context.getLoggingService().getLogger(ClientMapBatcher.class);
+        this.windowMicros = windowMicros;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Adds a get call to the batch of the partition of the key.
+     *
+     * @param key         the key
+     * @param deserialize {@code true} if the future should return the deserialized value, {@code false} if it should
+     *                    return the serialized value
+     * @return the future of the value, which returns {@code null} if the map does not contain the key
+     */
+    BatchFuture get(Data key, boolean deserialize) {
+        BatchEntry entry = new BatchEntry(key, deserialize);
+        int partitionId = context.getPartitionService().getPartitionId(key);
+        getOrPutIfAbsent(batches, partitionId, batchConstructor).add(entry);
+        return entry.future;
+    }
+
+    /**
+     * Sends the pending calls of the given partition right away.
+     */
+    void flush(int partitionId) {
+        PartitionBatch batch = batches.get(partitionId);
+        if (batch != null) {
+            batch.flush();
+        }
+    }
+
+    private void send(int partitionId, final List<BatchEntry> entries) {
+        List<Data> keys = new ArrayList<Data>(entries.size());
+        for (BatchEntry entry : entries) {
+            keys.add(entry.key);
+        }
+        ClientMessage request = MapGetAllCodec.encodeRequest(name, keys);
+        invoke(request, partitionId, entries, new ExecutionCallback<ClientMessage>() {
+            @Override
+            public void onResponse(ClientMessage response) {
+                MapGetAllCodec.ResponseParameters resultParameters = MapGetAllCodec.decodeResponse(response);
+                Map<Data, Data> values = new HashMap<Data, Data>();
+                for (Map.Entry<Data, Data> entry : resultParameters.response) {
+                    values.put(entry.getKey(), entry.getValue());
+                }
+                for (BatchEntry entry : entries) {
+                    Data value = values.get(entry.key);
+                    entry.future.complete(entry.deserialize ? serializationService.toObject(value) : value);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                fail(entries, t);
+            }
+        });
+    }
+
+    private void invoke(ClientMessage request, int partitionId, List<BatchEntry> entries,
+                        ExecutionCallback<ClientMessage> callback) {
+        try {
+            new ClientInvocation(client, request, partitionId).invoke().andThen(callback);
+        } catch (Throwable t) {
+            fail(entries, t);
+        }
+    }
+
+    private static void fail(List<BatchEntry> entries, Throwable t) {
+        for (BatchEntry entry : entries) {
+            entry.future.complete(t);
+        }
+    }
+
+    /**
+     * The pending calls of a single partition.
+     */
+    private final class PartitionBatch implements Runnable {
+
+        private final int partitionId;
+        private List<BatchEntry> entries = new ArrayList<BatchEntry>();
+
+        PartitionBatch(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        /**
+         * Adds the entry to the batch and sends the batch if it is full. Schedules the batch to be sent at the end of
+         * the window when the first entry is added.
+         */
+        synchronized void add(BatchEntry entry) {
+            entries.add(entry);
+            if (entries.size() >= maxBatchSize) {
+                flush();
+            } else if (entries.size() == 1) {
+                context.getExecutionService().schedule(this, windowMicros, MICROSECONDS);
+            }
+        }
+
+        /**
+         * Sends the pending entries. The entries are sent while holding the lock, so the batches of the partition are
+         * sent in order.
+         */
+        synchronized void flush() {
+            if (entries.isEmpty()) {
+                return;
+            }
+            List<BatchEntry> drained = entries;
+            entries = new ArrayList<BatchEntry>();
+            send(partitionId, drained);
+        }
+
+        @Override
+        public void run() {
+            flush();
+        }
+    }
+
+    private final class BatchEntry {
+
+        private final Data key;
+        private final boolean deserialize;
+        private final BatchFuture future = new BatchFuture(userExecutor, logger);
+
+        BatchEntry(Data key, boolean deserialize) {
+            this.key = key;
+            this.deserialize = deserialize;
+        }
+    }
+
+    /**
+     * The future of a batched call.
+     */
+    static final class BatchFuture extends AbstractCompletableFuture<Object> {
+
+        BatchFuture(Executor userExecutor, ILogger logger) {
+            super(userExecutor, logger);
+        }
+
+        void complete(Object result) {
+            setResult(result);
+        }
+    }
+}
@@ -85,6 +85,7 @@ import com.hazelcast.client.impl.protocol.codec.MapValuesWithPredicateCodec;
 import com.hazelcast.client.impl.querycache.ClientQueryCacheContext;
 import com.hazelcast.client.impl.querycache.subscriber.ClientQueryCacheEndToEndConstructor;
 import com.hazelcast.client.map.impl.ClientMapPartitionIterator;
+import com.hazelcast.client.map.impl.ClientMapQueryIterator;
 import com.hazelcast.client.map.impl.ClientMapQueryPartitionIterator;
 import com.hazelcast.client.spi.ClientContext;
 import com.hazelcast.client.spi.ClientPartitionService;
@@ -93,6 +94,7 @@ import com.hazelcast.client.spi.EventHandler;
 import com.hazelcast.client.spi.impl.ClientInvocation;
 import com.hazelcast.client.spi.impl.ClientInvocationFuture;
 import com.hazelcast.client.spi.impl.ListenerMessageCodec;
+import com.hazelcast.client.spi.properties.ClientProperty;
 import com.hazelcast.client.util.ClientDelegatingFuture;
 import com.hazelcast.core.EntryEvent;
 import com.hazelcast.core.EntryEventType;
@@ -109,6 +111,7 @@ import com.hazelcast.core.ReadOnly;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.journal.EventJournalInitialSubscriberState;
 import com.hazelcast.journal.EventJournalReader;
+import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.EntryBackupProcessor;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.MapInterceptor;
@@ -144,7 +147,9 @@ import com.hazelcast.query.PartitionPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.ringbuffer.ReadResultSet;
 import com.hazelcast.ringbuffer.impl.client.PortableReadResultSet;
+import com.hazelcast.spi.impl.AbstractCompletableFuture;
 import com.hazelcast.spi.impl.UnmodifiableLazyList;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.CollectionUtil;
 import com.hazelcast.util.IterationType;
@@ -160,8 +165,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
@@ -235,6 +243,7 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
     private ClientMessageDecoder eventJournalSubscribeResponseDecoder;
     private ClientLockReferenceIdGenerator lockReferenceIdGenerator;
     private ClientQueryCacheContext queryCacheContext;
+    private ClientMapBatcher batcher;
 
     public ClientMapProxy(String serviceName, String name, ClientContext context) {
         super(serviceName, name, context);
@@ -246,6 +255,12 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
 
         lockReferenceIdGenerator = getClient().getLockReferenceIdGenerator();
         queryCacheContext = getContext().getQueryCacheContext();
+        HazelcastProperties properties = getClient().getProperties();
+        long batchWindowMicros = properties.getLong(ClientProperty.MAP_BATCH_WINDOW_MICROS);
+        if (batchWindowMicros > 0) {
+            int maxBatchSize = properties.getInteger(ClientProperty.MAP_BATCH_MAX_SIZE);
+            batcher = new ClientMapBatcher(name, getClient(), getContext(), batchWindowMicros, maxBatchSize);
+        }
         eventJournalReadResponseDecoder = new ClientMessageDecoder() {
             @Override
             public ReadResultSet<?> decodeClientMessage(ClientMessage message) {
@@ -300,6 +315,9 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
 
     protected Object getInternal(Object key) {
         Data keyData = toData(key);
+        if (batcher != null) {
+            return getBatched(batcher.get(keyData, false));
+        }
         ClientMessage request = MapGetCodec.encodeRequest(name, keyData, getThreadId());
         ClientMessage response = invoke(request, keyData);
         MapGetCodec.ResponseParameters resultParameters = MapGetCodec.decodeResponse(response);
@@ -382,9 +400,14 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
         return getAsyncInternal(key);
     }
 
+    @SuppressWarnings("unchecked")
     protected ICompletableFuture<V> getAsyncInternal(Object key) {
         try {
             Data keyData = toData(key);
+            if (batcher != null) {
+                ICompletableFuture future = batcher.get(keyData, true);
+                return future;
+            }
             ClientMessage request = MapGetCodec.encodeRequest(name, keyData, getThreadId());
             ClientInvocationFuture future = invokeOnKeyOwner(request, keyData);
             return new ClientDelegatingFuture<V>(future, getSerializationService(), GET_ASYNC_RESPONSE_DECODER);
@@ -393,12 +416,41 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
         }
     }
 
+    private static Object getBatched(Future<Object> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
     private ClientInvocationFuture invokeOnKeyOwner(ClientMessage request, Data keyData) {
         int partitionId = getContext().getPartitionService().getPartitionId(keyData);
+        return invokeOnPartitionAsync(request, partitionId);
+    }
+
+    /**
+     * Sends the batched gets of the partition before the call, so they don't observe its effect.
+     */
+    private ClientInvocationFuture invokeOnPartitionAsync(ClientMessage request, int partitionId) {
+        if (batcher != null) {
+            batcher.flush(partitionId);
+        }
         ClientInvocation clientInvocation = new ClientInvocation(getClient(), request, partitionId);
         return clientInvocation.invoke();
     }
 
+    /**
+     * Sends the batched gets of the partition before the call, so they don't observe its effect.
+     */
+    @Override
+    protected <T> T invokeOnPartition(ClientMessage clientMessage, int partitionId) {
+        if (batcher != null) {
+            batcher.flush(partitionId);
+        }
+        return super.invokeOnPartition(clientMessage, partitionId);
+    }
+
     @Override
     public ICompletableFuture<V> putAsync(K key, V value) {
         return putAsync(key, value, -1, TimeUnit.MILLISECONDS);
@@ -1078,7 +1130,7 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
             List<Data> keyList = entry.getValue();
             if (!keyList.isEmpty()) {
                 ClientMessage request = MapGetAllCodec.encodeRequest(name, keyList);
-                futures.add(new ClientInvocation(getClient(), request, partitionId).invoke());
+                futures.add(invokeOnPartitionAsync(request, partitionId));
             }
         }
 
@@ -1096,6 +1148,82 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
         }
     }
 
+    /**
+     * Asynchronously gets the values of the given keys. The keys are grouped by partition and the entries of each
+     * partition are passed to the given callback as soon as the partition responds, so the caller can start processing
+     * them before all partitions have responded.
+     * <p>
+     * The callback may be invoked concurrently from multiple threads. If a partition fails, its failure is passed to
+     * the callback and the returned future fails. The returned future also fails if the callback throws an exception. This method does not use the near cache.
+     *
+     * @param keys          the keys to get
+     * @param chunkCallback the callback which receives the entries of each partition, can be {@code null}
+     * @return the future of all entries
+     */
+    public ICompletableFuture<Map<K, V>> getAllAsync(Set<K> keys, final ExecutionCallback<Map<K, V>> chunkCallback) {
+        checkNotNull(keys, "keys can't be null");
+
+        final GetAllFuture<K, V> future = new GetAllFuture<K, V>(getContext().getExecutionService().getUserExecutor(),
+                getContext().getLoggingService().getLogger(GetAllFuture.class));
+        Map<Integer, List<Data>> partitionToKeyData = new HashMap<Integer, List<Data>>();
+        fillPartitionToKeyData(keys, partitionToKeyData, null, null);
+
+        final Map<K, V> result = new ConcurrentHashMap<K, V>(keys.size());
+        final AtomicInteger remaining = new AtomicInteger(partitionToKeyData.size());
+        if (partitionToKeyData.isEmpty()) {
+            future.complete(result);
+            return future;
+        }
+
+        ExecutionCallback<ClientMessage> partitionCallback = new ExecutionCallback<ClientMessage>() {
+            @Override
+            public void onResponse(ClientMessage response) {
+                try {
+                    MapGetAllCodec.ResponseParameters resultParameters = MapGetAllCodec.decodeResponse(response);
+                    Map<K, V> chunk = createHashMap(resultParameters.response.size());
+                    for (Entry<Data, Data> keyValue : resultParameters.response) {
+                        K key = toObject(keyValue.getKey());
+                        V value = toObject(keyValue.getValue());
+                        chunk.put(key, value);
+                    }
+                    result.putAll(chunk);
+                    if (chunkCallback != null) {
+                        chunkCallback.onResponse(chunk);
+                    }
+                } catch (Throwable t) {
+                    future.complete(t);
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        future.complete(result);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                try {
+                    if (chunkCallback != null) {
+                        chunkCallback.onFailure(t);
+                    }
+                } finally {
+                    future.complete(t);
+                }
+            }
+        };
+        for (Map.Entry<Integer, List<Data>> entry : partitionToKeyData.entrySet()) {
+            ClientMessage request = MapGetAllCodec.encodeRequest(name, entry.getValue());
+            ClientInvocationFuture invocationFuture;
+            try {
+                invocationFuture = invokeOnPartitionAsync(request, entry.getKey());
+            } catch (Exception e) {
+                partitionCallback.onFailure(e);
+                break;
+            }
+            invocationFuture.andThen(partitionCallback);
+        }
+        return future;
+    }
+
     protected void fillPartitionToKeyData(Set<K> keys, Map<Integer, List<Data>> partitionToKeyData, Map<Object, Data> keyMap,
                                           Map<Data, Object> reverseKeyMap) {
         ClientPartitionService partitionService = getContext().getPartitionService();
@@ -1498,6 +1626,12 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
             return emptyMap();
         }
         Collection<Data> dataCollection = objectToDataCollection(keys, getSerializationService());
+        if (batcher != null) {
+            ClientPartitionService partitionService = getContext().getPartitionService();
+            for (Data keyData : dataCollection) {
+                batcher.flush(partitionService.getPartitionId(keyData));
+            }
+        }
 
         ClientMessage request = MapExecuteOnKeysCodec.encodeRequest(name, toData(entryProcessor), dataCollection);
         ClientMessage response = invoke(request);
@@ -1555,7 +1689,7 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
             // if there is only one entry, consider how we can use MapPutRequest
             // without having to get back the return value
             ClientMessage request = MapPutAllCodec.encodeRequest(name, entry.getValue());
-            futures.add(new ClientInvocation(getClient(), request, partitionId).invoke());
+            futures.add(invokeOnPartitionAsync(request, partitionId));
         }
         try {
             for (Future<?> future : futures) {
@@ -1643,6 +1777,42 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
                 predicate, projection);
     }
 
+    /**
+     * Returns an iterator for iterating the result of the projection on entries of all partitions which
+     * satisfy the {@code predicate}.
+     * <p>
+     * Unlike {@link #values(Predicate)} and the other query methods, the result is neither built on the members nor
+     * materialized on the client: the partitions are queried one after another and the results are fetched in batches
+     * of {@code fetchSize}, the next batch being fetched only when the previous one has been consumed. So large
+     * results don't need to fit in memory and are not limited by the query result size limit.
+     * A too small {@code fetchSize} can affect performance since more data will have to be sent to and from the partition owner.
+     * A too high {@code fetchSize} means that more data will be sent which can block other operations from being sent,
+     * including internal operations.
+     * Predicates of type {@link PagingPredicate} are not supported.
+     * <p>
+     * <b>NOTE</b>
+     * Iterating the map should be done only when the {@link IMap} is not being
+     * mutated and the cluster is stable (there are no migrations or membership changes).
+     * In other cases, the iterator may not return some entries or may return an entry twice.
+     *
+     * @param fetchSize  the size of the batches which will be sent when iterating the data
+     * @param projection the projection to apply before returning the value. {@code null} value is not allowed
+     * @param predicate  the predicate which the entries must match. {@code null} value is not allowed
+     * @param <R>        the return type
+     * @return the iterator for the projected entries
+     * @throws UnsupportedOperationException if {@link Iterator#remove()} is invoked
+     * @throws IllegalArgumentException      if the predicate is of type {@link PagingPredicate}
+     * @see #iterator(int, int, Projection, Predicate)
+     */
+    public <R> Iterator<R> iterator(int fetchSize, Projection<Map.Entry<K, V>, R> projection, Predicate<K, V> predicate) {
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("Paging predicate is not allowed when iterating map by query");
+        }
+        return new ClientMapQueryIterator<K, V, R>(this, getContext(), fetchSize, predicate, projection);
+    }
+
     @Override
     public ICompletableFuture<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final ClientMessage request = MapEventJournalSubscribeCodec.encodeRequest(name);
@@ -1771,6 +1941,17 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V>, Eve
         }
     }
 
+    private static final class GetAllFuture<K, V> extends AbstractCompletableFuture<Map<K, V>> {
+
+        GetAllFuture(Executor userExecutor, ILogger logger) {
+            super(userExecutor, logger);
+        }
+
+        void complete(Object result) {
+            setResult(result);
+        }
+    }
+
     @Override
     protected void onDestroy() {
         try {
@@ -135,6 +135,7 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public ICompletableFuture<V> getAsyncInternal(Object keyParameter) {
         final Object key = serializeKeys ? toData(keyParameter) : keyParameter;
         Object value = getCachedValue(key, false);
@@ -154,7 +155,7 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
         }
 
         if (reservationId != NOT_RESERVED) {
-            ((ClientDelegatingFuture) future).andThenInternal(new ExecutionCallback<Object>() {
+            ExecutionCallback<Object> callback = new ExecutionCallback<Object>() {
                 @Override
                 public void onResponse(Object value) {
                     nearCache.tryPublishReserved(key, value, reservationId, false);
@@ -164,7 +165,13 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
                 public void onFailure(Throwable t) {
                     invalidateNearCache(key);
                 }
-            }, false);
+            };
+            if (future instanceof ClientDelegatingFuture) {
+                ((ClientDelegatingFuture) future).andThenInternal(callback, false);
+            } else {
+                // batched get, the future returns the deserialized value
+                ((ICompletableFuture<Object>) (ICompletableFuture) future).andThen(callback);
+            }
         }
 
         return future;
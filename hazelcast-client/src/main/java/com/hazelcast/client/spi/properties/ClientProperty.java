@@ -18,6 +18,7 @@ package com.hazelcast.client.spi.properties;
 
 import com.hazelcast.spi.properties.HazelcastProperty;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -159,6 +160,30 @@ public final class ClientProperty {
     public static final HazelcastProperty IO_BALANCER_INTERVAL_SECONDS
             = new HazelcastProperty("hazelcast.client.io.balancer.interval.seconds", 20, SECONDS);
 
+    /**
+     * The window in microseconds during which the single-key {@code get} calls of a client IMap proxy are collected
+     * and sent as a single {@code getAll} request per partition. Updates are never batched, since {@code putAll}
+     * ignores the locks of the keys. The batch of a partition is sent before any other single-key call on it.
+     * <p/>
+     * Batching reduces the number of messages sent to the cluster when many threads issue small calls concurrently,
+     * at the cost of up to the window of additional latency per call.
+     * <p/>
+     * The default is 0, which disables batching.
+     */
+    public static final HazelcastProperty MAP_BATCH_WINDOW_MICROS
+            = new HazelcastProperty("hazelcast.client.map.batch.window.micros", 0, MICROSECONDS);
+
+    /**
+     * The maximum number of calls which are batched into a single request for a partition. A batch is sent as soon as
+     * it reaches this size, without waiting for the end of the batching window.
+     * <p/>
+     * The default is 100.
+     *
+     * @see #MAP_BATCH_WINDOW_MICROS
+     */
+    public static final HazelcastProperty MAP_BATCH_MAX_SIZE
+            = new HazelcastProperty("hazelcast.client.map.batch.max.size", 100);
+
 
     private ClientProperty() {
     }
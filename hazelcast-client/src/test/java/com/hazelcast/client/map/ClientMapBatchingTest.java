@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.IMap;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_BATCH_MAX_SIZE;
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_BATCH_WINDOW_MICROS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapBatchingTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestHazelcastFactory factory;
+    private HazelcastInstance client;
+    private HazelcastInstance server;
+
+    @Before
+    public void setUp() {
+        factory = new TestHazelcastFactory();
+        server = factory.newHazelcastInstance(getConfig());
+
+        ClientConfig clientConfig = new ClientConfig()
+                .setProperty(MAP_BATCH_WINDOW_MICROS.getName(), "500")
+                .setProperty(MAP_BATCH_MAX_SIZE.getName(), "16");
+        client = factory.newHazelcastClient(clientConfig);
+    }
+
+    @After
+    public void tearDown() {
+        factory.shutdownAll();
+    }
+
+    @Test
+    public void testSetAndGet() {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+
+        map.set(1, 1);
+
+        assertEquals(1, (int) map.get(1));
+        assertNull(map.get(2));
+    }
+
+    @Test
+    public void testSetAsyncAndGetAsync() throws Exception {
+        String mapName = randomMapName();
+        IMap<Integer, Integer> map = client.getMap(mapName);
+
+        List<ICompletableFuture<Void>> setFutures = new ArrayList<ICompletableFuture<Void>>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            setFutures.add(map.setAsync(i, i));
+        }
+        for (ICompletableFuture<Void> future : setFutures) {
+            future.get();
+        }
+
+        List<ICompletableFuture<Integer>> getFutures = new ArrayList<ICompletableFuture<Integer>>(ENTRY_COUNT * 2);
+        for (int i = 0; i < ENTRY_COUNT * 2; i++) {
+            getFutures.add(map.getAsync(i));
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) getFutures.get(i).get());
+        }
+        for (int i = ENTRY_COUNT; i < ENTRY_COUNT * 2; i++) {
+            assertNull(getFutures.get(i).get());
+        }
+        assertEquals(ENTRY_COUNT, server.getMap(mapName).size());
+    }
+
+    @Test
+    public void testSetAsyncAndGetAsync_onSameKey_keepOrder() throws Exception {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+
+        map.setAsync(1, 1);
+        ICompletableFuture<Integer> first = map.getAsync(1);
+        map.setAsync(1, 2);
+        ICompletableFuture<Integer> second = map.getAsync(1);
+
+        assertEquals(1, (int) first.get());
+        assertEquals(2, (int) second.get());
+    }
+
+    @Test
+    public void testSet_withTtl() {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+
+        map.set(1, 1, 1, TimeUnit.SECONDS);
+
+        assertEquals(1000, map.getEntryView(1).getTtl());
+    }
+
+    @Test
+    public void testGetAsync_thenUpdates_onSameKey_keepOrder() throws Exception {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        map.set(1, 1);
+
+        ICompletableFuture<Integer> first = map.getAsync(1);
+        map.put(1, 2);
+        ICompletableFuture<Integer> second = map.getAsync(1);
+        map.removeAsync(1);
+        ICompletableFuture<Integer> third = map.getAsync(1);
+
+        assertEquals(1, (int) first.get());
+        assertEquals(2, (int) second.get());
+        assertNull(third.get());
+    }
+
+    @Test
+    public void testSetAsync_onLockedKey_waitsForLock() throws Exception {
+        String mapName = randomMapName();
+        IMap<Integer, Integer> serverMap = server.getMap(mapName);
+        serverMap.lock(1);
+
+        final ICompletableFuture<Void> future = client.<Integer, Integer>getMap(mapName).setAsync(1, 1);
+
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertFalse(future.isDone());
+            }
+        }, 2);
+        assertNull(serverMap.get(1));
+
+        serverMap.unlock(1);
+        future.get();
+        assertEquals(1, (int) serverMap.get(1));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.proxy.ClientMapProxy;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapGetAllAsyncTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestHazelcastFactory factory;
+    private HazelcastInstance client;
+
+    @Before
+    public void setUp() {
+        factory = new TestHazelcastFactory();
+        factory.newInstances(getConfig(), 2);
+        client = factory.newHazelcastClient();
+    }
+
+    @After
+    public void tearDown() {
+        factory.shutdownAll();
+    }
+
+    @Test
+    public void testGetAllAsync() throws Exception {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        Set<Integer> keys = new HashSet<Integer>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+            keys.add(i);
+        }
+        keys.add(ENTRY_COUNT);
+
+        final Map<Integer, Integer> streamed = new ConcurrentHashMap<Integer, Integer>();
+        final AtomicInteger chunks = new AtomicInteger();
+        Map<Integer, Integer> result = ((ClientMapProxy<Integer, Integer>) map).getAllAsync(keys,
+                new ExecutionCallback<Map<Integer, Integer>>() {
+                    @Override
+                    public void onResponse(Map<Integer, Integer> chunk) {
+                        streamed.putAll(chunk);
+                        chunks.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                    }
+                }).get();
+
+        assertEquals(ENTRY_COUNT, result.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) result.get(i));
+        }
+        assertEquals(result, streamed);
+        assertTrue(chunks.get() > 1);
+    }
+
+    @Test
+    public void testGetAllAsync_whenNoKeys() throws Exception {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+
+        Map<Integer, Integer> result = ((ClientMapProxy<Integer, Integer>) map)
+                .getAllAsync(Collections.<Integer>emptySet(), null).get();
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testGetAllAsync_whenCallbackThrows() throws Exception {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        Set<Integer> keys = new HashSet<Integer>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+            keys.add(i);
+        }
+
+        final AtomicInteger chunks = new AtomicInteger();
+        try {
+            ((ClientMapProxy<Integer, Integer>) map).getAllAsync(keys, new ExecutionCallback<Map<Integer, Integer>>() {
+                @Override
+                public void onResponse(Map<Integer, Integer> chunk) {
+                    chunks.incrementAndGet();
+                    throw new IllegalStateException("expected");
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                }
+            }).get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(chunks.get() > 0);
+    }
+}
@@ -541,6 +541,7 @@ public class ConfigXmlGenerator {
                     ? m.getCacheDeserializedValues().name().replaceAll("_", "-") : null;
             gen.open("map", "name", m.getName())
                     .node("in-memory-format", m.getInMemoryFormat())
+                    .node("record-storage-type", m.getRecordStorageType().name().replaceAll("_", "-"))
                     .node("statistics-enabled", m.isStatisticsEnabled())
                     .node("optimize-queries", m.isOptimizeQueries())
                     .node("cache-deserialized-values", cacheDeserializedVal)
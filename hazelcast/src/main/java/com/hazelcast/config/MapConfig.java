@@ -104,6 +104,11 @@ public class MapConfig implements IdentifiedDataSerializable {
      */
     public static final CacheDeserializedValues DEFAULT_CACHED_DESERIALIZED_VALUES = CacheDeserializedValues.INDEX_ONLY;
 
+    /**
+     * Default record storage is the segmented concurrent hash map.
+     */
+    public static final RecordStorageType DEFAULT_RECORD_STORAGE_TYPE = RecordStorageType.CONCURRENT_HASH_MAP;
+
     private String name;
 
     private int backupCount = DEFAULT_BACKUP_COUNT;
@@ -136,6 +141,8 @@ public class MapConfig implements IdentifiedDataSerializable {
 
     private InMemoryFormat inMemoryFormat = DEFAULT_IN_MEMORY_FORMAT;
 
+    private RecordStorageType recordStorageType = DEFAULT_RECORD_STORAGE_TYPE;
+
     private WanReplicationRef wanReplicationRef;
 
     private List<EntryListenerConfig> entryListenerConfigs;
@@ -183,6 +190,7 @@ public class MapConfig implements IdentifiedDataSerializable {
         this.evictionPolicy = config.evictionPolicy;
         this.mapEvictionPolicy = config.mapEvictionPolicy;
         this.inMemoryFormat = config.inMemoryFormat;
+        this.recordStorageType = config.recordStorageType;
         this.mapStoreConfig = config.mapStoreConfig != null ? new MapStoreConfig(config.mapStoreConfig) : null;
         this.nearCacheConfig = config.nearCacheConfig != null ? new NearCacheConfig(config.nearCacheConfig) : null;
         this.readBackupData = config.readBackupData;
@@ -260,6 +268,30 @@ public class MapConfig implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Returns the data structure used to hold the records of each partition of this map.
+     *
+     * @return the record storage type
+     * @since 3.9
+     */
+    public RecordStorageType getRecordStorageType() {
+        return recordStorageType;
+    }
+
+    /**
+     * Sets the data structure used to hold the records of each partition of this map.
+     * Default: {@link RecordStorageType#CONCURRENT_HASH_MAP}
+     *
+     * @param recordStorageType the record storage type
+     * @return this {@code MapConfig} instance
+     * @see RecordStorageType
+     * @since 3.9
+     */
+    public MapConfig setRecordStorageType(RecordStorageType recordStorageType) {
+        this.recordStorageType = isNotNull(recordStorageType, "recordStorageType");
+        return this;
+    }
+
     /**
      * Returns the backupCount for this {@link com.hazelcast.core.IMap}
      *
@@ -924,6 +956,9 @@ public class MapConfig implements IdentifiedDataSerializable {
         if (inMemoryFormat != mapConfig.inMemoryFormat) {
             return false;
         }
+        if (recordStorageType != mapConfig.recordStorageType) {
+            return false;
+        }
         if (wanReplicationRef != null ? !wanReplicationRef.equals(mapConfig.wanReplicationRef)
                 : mapConfig.wanReplicationRef != null) {
             return false;
@@ -971,6 +1006,7 @@ public class MapConfig implements IdentifiedDataSerializable {
         result = 31 * result + cacheDeserializedValues.hashCode();
         result = 31 * result + (mergePolicy != null ? mergePolicy.hashCode() : 0);
         result = 31 * result + inMemoryFormat.hashCode();
+        result = 31 * result + recordStorageType.hashCode();
         result = 31 * result + (wanReplicationRef != null ? wanReplicationRef.hashCode() : 0);
         result = 31 * result + getEntryListenerConfigs().hashCode();
         result = 31 * result + getPartitioningStrategyConfig().hashCode();
@@ -989,6 +1025,7 @@ public class MapConfig implements IdentifiedDataSerializable {
         return "MapConfig{"
                 + "name='" + name + '\''
                 + ", inMemoryFormat=" + inMemoryFormat + '\''
+                + ", recordStorageType=" + recordStorageType
                 + ", backupCount=" + backupCount
                 + ", asyncBackupCount=" + asyncBackupCount
                 + ", timeToLiveSeconds=" + timeToLiveSeconds
@@ -1049,6 +1086,7 @@ public class MapConfig implements IdentifiedDataSerializable {
         out.writeObject(partitioningStrategyConfig);
         out.writeUTF(quorumName);
         out.writeObject(hotRestartConfig);
+        out.writeUTF(recordStorageType.name());
     }
 
     @Override
@@ -1077,5 +1115,6 @@ public class MapConfig implements IdentifiedDataSerializable {
         partitioningStrategyConfig = in.readObject();
         quorumName = in.readUTF();
         hotRestartConfig = in.readObject();
+        recordStorageType = RecordStorageType.valueOf(in.readUTF());
     }
 }
@@ -134,6 +134,11 @@ public class MapConfigReadOnly extends MapConfig {
         throw new UnsupportedOperationException("This config is read-only map: " + getName());
     }
 
+    @Override
+    public MapConfig setRecordStorageType(RecordStorageType recordStorageType) {
+        throw new UnsupportedOperationException("This config is read-only map: " + getName());
+    }
+
     @Override
     public MapConfig setBackupCount(int backupCount) {
         throw new UnsupportedOperationException("This config is read-only map: " + getName());
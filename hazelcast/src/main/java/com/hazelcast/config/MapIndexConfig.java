@@ -89,6 +89,11 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
 
     /**
      * Sets the attribute that is going to be indexed.
+     * <p>
+     * A composite index on several attributes is configured by listing them separated by commas,
+     * e.g. {@code "customerId, status, date"}. A bitmap index, suited to attributes having few distinct values,
+     * is configured by prefixing the attribute with {@code bitmap:}, e.g. {@code "bitmap:status"}.
+     * See {@link com.hazelcast.core.IMap#addIndex(String, boolean)}.
      *
      * @param attribute the attribute that is going to be indexed
      * @return the updated MapIndexConfig
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.config;
+
+import com.hazelcast.util.StringUtil;
+
+import java.util.Arrays;
+
+/**
+ * Controls the data structure which holds the records of an {@link com.hazelcast.core.IMap} partition.
+ *
+ * @since 3.9
+ */
+public enum RecordStorageType {
+
+    /**
+     * Records are kept in a segmented concurrent hash map. Every entry costs a hash-entry node on top of
+     * the key and the record. Safe for concurrent readers such as partition scans run on generic threads.
+     */
+    CONCURRENT_HASH_MAP,
+
+    /**
+     * Records are kept in flat key-hash and record arrays using open addressing with linear probing.
+     * There is no per-entry node, which lowers the heap overhead and the GC pressure of large maps.
+     * The table is only ever mutated by the partition thread; readers on other threads get a weakly
+     * consistent view.
+     */
+    OPEN_ADDRESSING,
+
+    /**
+     * Same table layout as {@link #OPEN_ADDRESSING}, but the serialized keys and values are copied into
+     * native memory allocated through {@code malloc}, so only a small record header per entry stays on the heap.
+     * Reading a key or value creates a heap copy.
+     * <p>
+     * The native bytes are part of the entry memory cost statistics but not of the heap cost, so they are not
+     * taken into account by the {@code USED_HEAP_*} max-size policies. The native memory of all such maps of a
+     * member is limited to the size of the {@link NativeMemoryConfig}, an update which would exceed it fails with
+     * a {@link com.hazelcast.memory.NativeOutOfMemoryError}.
+     * <p>
+     * Can only be used with {@link InMemoryFormat#BINARY}, when {@code sun.misc.Unsafe} is available and when
+     * {@link MapConfig#isReadBackupData()} is disabled.
+     * Predicates on such maps are always evaluated on partition threads.
+     */
+    OFF_HEAP;
+
+    /**
+     * Create instance from String
+     *
+     * @param string the string representation
+     * @return instance of {@link RecordStorageType}
+     * @throws IllegalArgumentException when unknown value is passed
+     */
+    public static RecordStorageType parseString(String string) {
+        String upperCase = StringUtil.upperCaseInternal(string).replace('-', '_');
+        for (RecordStorageType type : values()) {
+            if (type.name().equals(upperCase)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown RecordStorageType option '" + string + "'. "
+                + "Possible options: " + Arrays.toString(RecordStorageType.values()));
+    }
+}
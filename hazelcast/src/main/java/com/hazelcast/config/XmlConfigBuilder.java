@@ -1208,6 +1208,8 @@ public class XmlConfigBuilder extends AbstractConfigBuilder implements ConfigBui
             } else if ("cache-deserialized-values".equals(nodeName)) {
                 CacheDeserializedValues cacheDeserializedValues = CacheDeserializedValues.parseString(value);
                 mapConfig.setCacheDeserializedValues(cacheDeserializedValues);
+            } else if ("record-storage-type".equals(nodeName)) {
+                mapConfig.setRecordStorageType(RecordStorageType.parseString(value));
             } else if ("wan-replication-ref".equals(nodeName)) {
                 mapWanReplicationRefHandle(node, mapConfig);
             } else if ("indexes".equals(nodeName)) {
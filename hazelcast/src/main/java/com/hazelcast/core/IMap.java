@@ -1590,6 +1590,30 @@ public interface IMap<K, V> extends ConcurrentMap<K, V>, LegacyAsyncMap<K, V> {
      * You should also make sure to add the indexes before adding
      * entries to this map.
      * <p>
+     * <b>Composite Indexes</b>
+     * <p>
+     * Several attributes can be indexed together by listing them separated by commas.
+     * <pre>
+     *   imap.addIndex("customerId, status, date", true);
+     * </pre>
+     * A composite index is used for queries having equality predicates on a prefix of its attributes,
+     * optionally followed by a range predicate on the next attribute if the index is ordered, e.g.
+     * {@code customerId = ? AND status = ?} or {@code customerId = ? AND status = ? AND date > ?}.
+     * An unordered composite index is only used when all of its attributes are matched by equality predicates.
+     * Multi-value attributes, like collections, can not be part of a composite index.
+     * <p>
+     * <b>Bitmap Indexes</b>
+     * <p>
+     * An attribute having few distinct values, like a status flag, can be indexed with a bitmap index
+     * by prefixing it with {@code bitmap:}.
+     * <pre>
+     *   imap.addIndex("bitmap:status", false);
+     * </pre>
+     * A bitmap index takes a few bits per entry and distinct value and evaluates the conjunctions and
+     * disjunctions of its predicates, e.g. {@code status IN (?, ?)} or {@code status = ? OR status = ?}, as bitmap
+     * operations. It is queried by the attribute name without the prefix, can not be ordered and
+     * can not be composite.
+     * <p>
      * <b>Time to Index</b>
      * <p>
      * Indexing time is executed in parallel on each partition by operation threads. The Map
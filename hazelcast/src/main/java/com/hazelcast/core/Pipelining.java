@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.core;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * The Pipelining can be used to speed up requests. It is built on top of asynchronous requests like e.g.
+ * {@link IMap#getAsync(Object)} or any other asynchronous call.
+ * <p>
+ * The main purpose of the Pipelining is to control the number of concurrent requests when using asynchronous
+ * invocations. This can be done by setting the depth using the constructor. So you could set the depth to e.g 100
+ * and do 1000 calls. That means that at any given moment, there will only be 100 concurrent requests. Calling
+ * {@link #add(RequestSupplier)} blocks until one of the in-flight requests completes when the depth is reached, and only
+ * then issues the next request. {@link #add(ICompletableFuture)} receives a request that has already been issued, so
+ * with it up to depth + 1 requests can be in flight.
+ * <p>
+ * It depends on the situation what the optimal depth (number of invocations in flight) should be. If it is too
+ * high, you can run into memory related problems or the members can reject the calls with a
+ * {@link HazelcastOverloadException}. If it is too low, it will provide little or no performance advantage at all.
+ * In most cases a Pipelining and a few hundred map/cache puts/gets should not lead to any problems.
+ * <p>
+ * The Pipelining can be used on members and on clients since it only relies on {@link ICompletableFuture}.
+ * <p>
+ * A Pipelining is not thread-safe. It should only be used by a single thread.
+ * <p>
+ * Example:
+ * <pre><code>
+ * Pipelining&lt;String&gt; pipelining = new Pipelining&lt;String&gt;(10);
+ * for (long k = 0; k &lt; 100; k++) {
+ *     final int key = random.nextInt();
+ *     pipelining.add(new Pipelining.RequestSupplier&lt;String&gt;() {
+ *         public ICompletableFuture&lt;String&gt; get() {
+ *             return map.getAsync(key);
+ *         }
+ *     });
+ * }
+ * // wait for completion
+ * List&lt;String&gt; results = pipelining.results();
+ * </code></pre>
+ *
+ * @param <E> the result type of the requests
+ * @since 3.9
+ */
+@Beta
+public class Pipelining<E> {
+
+    private final Semaphore permits;
+    private final List<ICompletableFuture<E>> futures = new ArrayList<ICompletableFuture<E>>();
+
+    /**
+     * Creates a Pipelining with the given depth.
+     *
+     * @param depth the maximum number of requests in flight
+     * @throws IllegalArgumentException if depth is smaller than 1
+     */
+    public Pipelining(int depth) {
+        checkPositive(depth, "depth must be positive");
+        this.permits = new Semaphore(depth);
+    }
+
+    /**
+     * Returns the results of the requests in the order they were added. Waits for the completion of all requests.
+     *
+     * @return the results
+     * @throws Exception if any of the requests failed
+     */
+    public List<E> results() throws Exception {
+        List<E> result = new ArrayList<E>(futures.size());
+        for (ICompletableFuture<E> future : futures) {
+            result.add(future.get());
+        }
+        return result;
+    }
+
+    /**
+     * Adds a request to this Pipelining. Blocks as long as the maximum number of requests are in flight.
+     * <p>
+     * The request has already been issued when this method blocks, so up to depth + 1 requests can be in flight. Use
+     * {@link #add(RequestSupplier)} to keep the number of requests in flight within the depth.
+     *
+     * @param future the future of the request
+     * @return the future
+     * @throws InterruptedException if the thread is interrupted while waiting for a request to complete
+     * @throws NullPointerException if future is null
+     */
+    public ICompletableFuture<E> add(ICompletableFuture<E> future) throws InterruptedException {
+        checkNotNull(future, "future can't be null");
+
+        permits.acquire();
+        register(future);
+        return future;
+    }
+
+    /**
+     * Adds a request to this Pipelining. Blocks as long as the maximum number of requests are in flight and only then
+     * issues the request by calling the given supplier.
+     *
+     * @param requestSupplier issues the request and returns its future
+     * @return the future
+     * @throws InterruptedException if the thread is interrupted while waiting for a request to complete
+     * @throws NullPointerException if requestSupplier is null or returns null
+     */
+    public ICompletableFuture<E> add(RequestSupplier<E> requestSupplier) throws InterruptedException {
+        checkNotNull(requestSupplier, "requestSupplier can't be null");
+
+        permits.acquire();
+        ICompletableFuture<E> future;
+        try {
+            future = checkNotNull(requestSupplier.get(), "future can't be null");
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        } catch (Error e) {
+            permits.release();
+            throw e;
+        }
+        register(future);
+        return future;
+    }
+
+    /**
+     * Issues a request added to a Pipelining with {@link #add(RequestSupplier)}.
+     *
+     * @param <E> the result type of the request
+     */
+    public interface RequestSupplier<E> {
+
+        /**
+         * Issues the request.
+         *
+         * @return the future of the request
+         */
+        ICompletableFuture<E> get();
+    }
+
+    private void register(ICompletableFuture<E> future) {
+        futures.add(future);
+        future.andThen(new ExecutionCallback<E>() {
+            @Override
+            public void onResponse(E response) {
+                permits.release();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                permits.release();
+            }
+        });
+    }
+}
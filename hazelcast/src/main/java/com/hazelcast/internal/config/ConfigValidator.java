@@ -24,6 +24,7 @@ import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.config.RecordStorageType;
 import com.hazelcast.instance.BuildInfoProvider;
 import com.hazelcast.internal.eviction.EvictionPolicyComparator;
 import com.hazelcast.logging.ILogger;
@@ -33,11 +34,14 @@ import java.util.EnumSet;
 
 import static com.hazelcast.config.EvictionPolicy.LFU;
 import static com.hazelcast.config.EvictionPolicy.LRU;
+import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.MapConfig.DEFAULT_EVICTION_PERCENTAGE;
 import static com.hazelcast.config.MapConfig.DEFAULT_MIN_EVICTION_CHECK_MILLIS;
 import static com.hazelcast.config.NearCacheConfig.LocalUpdatePolicy.INVALIDATE;
 import static com.hazelcast.instance.BuildInfoProvider.getBuildInfo;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
 import static com.hazelcast.util.StringUtil.isNullOrEmpty;
 import static java.lang.String.format;
 
@@ -63,6 +67,7 @@ public final class ConfigValidator {
      */
     public static void checkMapConfig(MapConfig mapConfig) {
         checkNotNative(mapConfig.getInMemoryFormat());
+        checkRecordStorageType(mapConfig);
 
         logIgnoredConfig(mapConfig);
     }
@@ -246,6 +251,25 @@ public final class ConfigValidator {
         }
     }
 
+    private static void checkRecordStorageType(MapConfig mapConfig) {
+        if (mapConfig.getRecordStorageType() != RecordStorageType.OFF_HEAP) {
+            return;
+        }
+        if (mapConfig.getInMemoryFormat() != BINARY) {
+            throw new IllegalArgumentException(format("OFF_HEAP record storage of map %s requires BINARY in-memory format,"
+                    + " but found %s", mapConfig.getName(), mapConfig.getInMemoryFormat()));
+        }
+        if (!UNSAFE_AVAILABLE || !MEM_AVAILABLE) {
+            throw new IllegalArgumentException(format("OFF_HEAP record storage of map %s requires sun.misc.Unsafe,"
+                    + " which is not available on this platform", mapConfig.getName()));
+        }
+        // backup reads run on the caller thread, where the native memory of a record may already be freed
+        if (mapConfig.isReadBackupData()) {
+            throw new IllegalArgumentException(format("OFF_HEAP record storage of map %s cannot be used"
+                    + " with read-backup-data enabled", mapConfig.getName()));
+        }
+    }
+
     /**
      * Throws {@link IllegalArgumentException} if the supplied {@link NearCacheConfig}
      * has an invalid {@link NearCachePreloaderConfig}.
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A Count-Min sketch which estimates the access frequency of keys in a bounded amount of memory.
+ * <p>
+ * Each {@code long} slot of the table packs sixteen 4-bit counters, so a key's frequency saturates at 15.
+ * A key is mapped to four counters in four different slots and its frequency is the minimum of them.
+ * <p>
+ * To keep the sketch responsive to changes in the access pattern all counters are halved (aged) after
+ * a number of increments proportional to the table size has been recorded.
+ * <p>
+ * Counter updates are lock-free. Concurrent resets may lose a few increments, which only affects the
+ * accuracy of an already approximate estimate.
+ */
+@SuppressWarnings("checkstyle:magicnumber")
+public final class FrequencySketch {
+
+    /**
+     * Upper bound of the table length, which limits the sketch to 8 MB.
+     */
+    static final int MAX_TABLE_LENGTH = 1 << 20;
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L,
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long COUNTER_MASK = 0xfL;
+    private static final int SAMPLE_SIZE_FACTOR = 10;
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * Creates a sketch for a cache holding up to {@code maximumSize} entries.
+     *
+     * @param maximumSize the maximum number of entries of the cache
+     */
+    public FrequencySketch(int maximumSize) {
+        int length = nextPowerOfTwo(Math.max(1, Math.min(maximumSize, MAX_TABLE_LENGTH)));
+        this.table = new AtomicLongArray(length);
+        this.tableMask = length - 1;
+        this.sampleSize = SAMPLE_SIZE_FACTOR * length;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of the given key, at most 15.
+     *
+     * @param key the key whose frequency is estimated
+     * @return the estimated frequency
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table.get(index) >>> ((start + i) << 2)) & COUNTER_MASK);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the estimated frequency of the given key and ages the sketch periodically.
+     *
+     * @param key the key which was accessed
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+
+        if (added) {
+            int count = additions.incrementAndGet();
+            if (count >= sampleSize && additions.compareAndSet(count, count >>> 1)) {
+                reset();
+            }
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = COUNTER_MASK << offset;
+        for (;;) {
+            long current = table.get(index);
+            if ((current & mask) == mask) {
+                return false;
+            }
+            if (table.compareAndSet(index, current, current + (1L << offset))) {
+                return true;
+            }
+        }
+    }
+
+    private void reset() {
+        for (int index = 0; index < table.length(); index++) {
+            for (;;) {
+                long current = table.get(index);
+                if (table.compareAndSet(index, current, (current >>> 1) & RESET_MASK)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    private static int spread(int hash) {
+        int h = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        return (h >>> 16) ^ h;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.admission;
+
+/**
+ * TinyLFU admission filter for sampling based eviction.
+ * <p>
+ * Every access to the cache, hit or miss, is recorded in a {@link FrequencySketch}. When the cache is full,
+ * a new key is only admitted if it has been accessed more often than the eviction victim picked by the
+ * configured eviction policy, otherwise the new key is dropped and the victim stays in the cache.
+ * This keeps one-hit wonders of scans from replacing entries which are accessed repeatedly.
+ */
+public final class TinyLfuAdmissionFilter {
+
+    private final FrequencySketch sketch;
+
+    public TinyLfuAdmissionFilter(int maximumSize) {
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Records an access to the given key.
+     *
+     * @param key the accessed key
+     */
+    public void recordAccess(Object key) {
+        sketch.increment(key);
+    }
+
+    /**
+     * Decides whether the candidate key should replace the victim key in a full cache.
+     *
+     * @param candidateKey the key which is about to be added
+     * @param victimKey    the key which would be evicted to make room for the candidate
+     * @return {@code true} if the candidate is accessed more frequently than the victim, {@code false} otherwise
+     */
+    public boolean admit(Object candidateKey, Object victimKey) {
+        return sketch.frequency(candidateKey) > sketch.frequency(victimKey);
+    }
+}
@@ -20,7 +20,10 @@ import com.hazelcast.internal.eviction.Evictable;
 import com.hazelcast.internal.eviction.EvictionCandidate;
 import com.hazelcast.internal.eviction.EvictionListener;
 import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.eviction.Expirable;
+import com.hazelcast.internal.eviction.impl.admission.TinyLfuAdmissionFilter;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
+import com.hazelcast.util.Clock;
 
 /**
  * This strategy samples {@link Evictable} entries from {@link SampleableEvictableStore}, orders candidates
@@ -60,6 +63,44 @@ public final class SamplingEvictionStrategy<A, E extends Evictable, S extends Sa
         }
     }
 
+    /**
+     * Does eviction if required and the {@link TinyLfuAdmissionFilter} admits the candidate key.
+     * <p>
+     * If the store is full, the victim selected by the {@link EvictionPolicyEvaluator} is only evicted
+     * when the candidate key has been accessed more often than the victim, or when the victim is expired.
+     *
+     * @param evictableStore          Store that holds {@link Evictable} entries
+     * @param evictionPolicyEvaluator {@link EvictionPolicyEvaluator} to evaluate
+     *                                {@link com.hazelcast.config.EvictionPolicy} on entries
+     * @param evictionChecker         {@link EvictionChecker} to check whether max size is reached
+     * @param evictionListener        {@link EvictionListener} to listen evicted entries
+     * @param admissionFilter         {@link TinyLfuAdmissionFilter} to decide between the candidate and the victim
+     * @param candidateKey            the key which is about to be added to the store
+     *
+     * @return true if the candidate key can be added to the store, false if it was rejected
+     */
+    public boolean evictIfAdmitted(S evictableStore, EvictionPolicyEvaluator<A, E> evictionPolicyEvaluator,
+                                   EvictionChecker evictionChecker, EvictionListener<A, E> evictionListener,
+                                   TinyLfuAdmissionFilter admissionFilter, Object candidateKey) {
+        if (!evictionChecker.isEvictionRequired()) {
+            return true;
+        }
+        Iterable<EvictionCandidate<A, E>> samples = evictableStore.sample(SAMPLE_COUNT);
+        EvictionCandidate<A, E> victim = evictionPolicyEvaluator.evaluate(samples);
+        if (victim == null) {
+            return true;
+        }
+        if (!isExpired(victim.getEvictable()) && !admissionFilter.admit(candidateKey, victim.getAccessor())) {
+            return false;
+        }
+        evictableStore.tryEvict(victim, evictionListener);
+        return true;
+    }
+
+    private static boolean isExpired(Evictable evictable) {
+        return evictable instanceof Expirable && ((Expirable) evictable).isExpiredAt(Clock.currentTimeMillis());
+    }
+
     /**
      * Processes sampling based eviction logic on {@link SampleableEvictableStore}.
      *
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * Limits the native memory allocated by a group of {@link UnsafeMallocMemoryManager}s,
+ * e.g. by all {@link com.hazelcast.config.RecordStorageType#OFF_HEAP} record stores of a member.
+ * <p>
+ * Thread-safe, the memory managers sharing a budget may be used by different threads.
+ */
+public final class NativeMemoryBudget {
+
+    private final long maxMemory;
+    private final AtomicLong usedMemory = new AtomicLong();
+
+    public NativeMemoryBudget(long maxMemory) {
+        checkPositive(maxMemory, "maxMemory must be positive");
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * Reserves the given number of bytes before they are allocated.
+     *
+     * @throws NativeOutOfMemoryError if the reservation would exceed the maximum memory of this budget
+     */
+    public void reserve(long size) {
+        for (; ; ) {
+            long used = usedMemory.get();
+            long newUsed = used + size;
+            if (newUsed > maxMemory) {
+                throw new NativeOutOfMemoryError("Cannot allocate " + size + " bytes of native memory! Used: " + used
+                        + " bytes, max: " + maxMemory + " bytes");
+            }
+            if (usedMemory.compareAndSet(used, newUsed)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases the given number of bytes after they are freed.
+     */
+    public void release(long size) {
+        usedMemory.addAndGet(-size);
+    }
+
+    /**
+     * @return the number of bytes reserved and not yet released
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+}
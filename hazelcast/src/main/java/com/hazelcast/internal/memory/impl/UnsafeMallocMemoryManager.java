@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+
+/**
+ * {@link MemoryManager} which allocates native memory straight from the operating system through
+ * {@code Unsafe.allocateMemory()} (i.e. the C library's {@code malloc}), and accesses it through the
+ * global {@link MemoryAccessor}.
+ * <p>
+ * Keeps track of the number of bytes currently allocated. Every allocation is reserved in the given
+ * {@link NativeMemoryBudget} first, which throws a {@link NativeOutOfMemoryError} when the budget is exhausted.
+ * An instance is meant to be used by a single thread; the allocated size can be read from any thread.
+ */
+public final class UnsafeMallocMemoryManager implements MemoryManager, MemoryAllocator {
+
+    private final NativeMemoryBudget budget;
+
+    private volatile long usedMemory;
+
+    public UnsafeMallocMemoryManager(NativeMemoryBudget budget) {
+        if (!UNSAFE_AVAILABLE || !MEM_AVAILABLE) {
+            throw new IllegalStateException(getClass().getName() + " can only be used when Unsafe is available!");
+        }
+        this.budget = budget;
+    }
+
+    @Override
+    public MemoryAllocator getAllocator() {
+        return this;
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return MEM;
+    }
+
+    @Override
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT", justification = "single-writer, many-reader")
+    public long allocate(long size) {
+        budget.reserve(size);
+        long address;
+        try {
+            address = allocate0(size);
+        } catch (NativeOutOfMemoryError e) {
+            budget.release(size);
+            throw e;
+        }
+        UNSAFE.setMemory(address, size, (byte) 0);
+        usedMemory += size;
+        return address;
+    }
+
+    @Override
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT", justification = "single-writer, many-reader")
+    public long reallocate(long address, long currentSize, long newSize) {
+        long delta = newSize - currentSize;
+        if (delta > 0) {
+            budget.reserve(delta);
+        }
+        long newAddress;
+        try {
+            newAddress = UNSAFE.reallocateMemory(address, newSize);
+        } catch (OutOfMemoryError e) {
+            if (delta > 0) {
+                budget.release(delta);
+            }
+            throw new NativeOutOfMemoryError("Cannot reallocate " + currentSize + " bytes to " + newSize
+                    + " bytes of native memory!", e);
+        }
+        if (newSize > currentSize) {
+            UNSAFE.setMemory(newAddress + currentSize, newSize - currentSize, (byte) 0);
+        }
+        if (delta < 0) {
+            budget.release(-delta);
+        }
+        usedMemory += delta;
+        return newAddress;
+    }
+
+    @Override
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT", justification = "single-writer, many-reader")
+    public void free(long address, long size) {
+        if (address == NULL_ADDRESS) {
+            return;
+        }
+        UNSAFE.freeMemory(address);
+        budget.release(size);
+        usedMemory -= size;
+    }
+
+    /**
+     * @return the number of bytes allocated and not yet freed through this memory manager
+     */
+    public long getUsedMemory() {
+        return usedMemory;
+    }
+
+    @Override
+    public void dispose() {
+        // blocks are owned and freed by their users, there is no pooled memory to release
+    }
+
+    private static long allocate0(long size) {
+        try {
+            return UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Cannot allocate " + size + " bytes of native memory!", e);
+        }
+    }
+}
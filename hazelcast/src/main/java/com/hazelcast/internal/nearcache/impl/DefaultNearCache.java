@@ -22,11 +22,15 @@ import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.AbstractNearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.NearCacheCompactDataRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheObjectRecordStore;
 import com.hazelcast.monitor.NearCacheStats;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.TaskScheduler;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
 import com.hazelcast.spi.serialization.SerializationService;
 
 import java.util.concurrent.ScheduledFuture;
@@ -39,11 +43,36 @@ import static com.hazelcast.util.Preconditions.checkNotNull;
 
 public class DefaultNearCache<K, V> implements NearCache<K, V> {
 
+    /**
+     * Makes Near Caches with {@link InMemoryFormat#BINARY} in-memory-format keep their entries in byte array slabs
+     * instead of a set of objects per entry. This uses less heap per entry, but copies the value on every hit and keeps
+     * the times with a precision of seconds.
+     * <p>
+     * Set it in the properties of the member or client config which owns the Near Caches.
+     *
+     * @see com.hazelcast.internal.nearcache.impl.store.CompactNearCacheRecordMap
+     */
+    public static final HazelcastProperty COMPACT_RECORDS
+            = new HazelcastProperty("hazelcast.nearcache.compact.records", false);
+
+    /**
+     * Enables the TinyLFU admission filter on Near Caches with an
+     * {@link com.hazelcast.config.EvictionConfig.MaxSizePolicy#ENTRY_COUNT} max-size policy. A new key is only
+     * added to a full Near Cache if it has been requested more often than the entry which would be evicted for it.
+     * <p>
+     * Set it in the properties of the member or client config which owns the Near Caches.
+     *
+     * @see com.hazelcast.internal.eviction.impl.admission.TinyLfuAdmissionFilter
+     */
+    public static final HazelcastProperty ADMISSION_FILTER
+            = new HazelcastProperty("hazelcast.nearcache.admission.filter", false);
+
     protected final String name;
     protected final NearCacheConfig nearCacheConfig;
     protected final SerializationService serializationService;
     protected final TaskScheduler scheduler;
     protected final ClassLoader classLoader;
+    protected final HazelcastProperties properties;
 
     protected NearCacheRecordStore<K, V> nearCacheRecordStore;
     protected ScheduledFuture expirationTaskFuture;
@@ -54,18 +83,19 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
 
     public DefaultNearCache(String name, NearCacheConfig nearCacheConfig,
                             SerializationService serializationService, TaskScheduler scheduler,
-                            ClassLoader classLoader) {
-        this(name, nearCacheConfig, null, serializationService, scheduler, classLoader);
+                            ClassLoader classLoader, HazelcastProperties properties) {
+        this(name, nearCacheConfig, null, serializationService, scheduler, classLoader, properties);
     }
 
     public DefaultNearCache(String name, NearCacheConfig nearCacheConfig, NearCacheRecordStore<K, V> nearCacheRecordStore,
                             SerializationService serializationService, TaskScheduler scheduler,
-                            ClassLoader classLoader) {
+                            ClassLoader classLoader, HazelcastProperties properties) {
         this.name = name;
         this.nearCacheConfig = nearCacheConfig;
         this.serializationService = serializationService;
         this.classLoader = classLoader;
         this.scheduler = scheduler;
+        this.properties = properties;
         this.nearCacheRecordStore = nearCacheRecordStore;
         this.serializeKeys = nearCacheConfig.isSerializeKeys();
     }
@@ -85,14 +115,24 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
         if (inMemoryFormat == null) {
             inMemoryFormat = DEFAULT_MEMORY_FORMAT;
         }
+        AbstractNearCacheRecordStore<K, V, ?, ?, ?> recordStore;
         switch (inMemoryFormat) {
             case BINARY:
-                return new NearCacheDataRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+                if (properties.getBoolean(COMPACT_RECORDS)) {
+                    recordStore = new NearCacheCompactDataRecordStore<K, V>(name, nearCacheConfig, serializationService,
+                            classLoader);
+                } else {
+                    recordStore = new NearCacheDataRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+                }
+                break;
             case OBJECT:
-                return new NearCacheObjectRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+                recordStore = new NearCacheObjectRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+                break;
             default:
                 throw new IllegalArgumentException("Invalid in memory format: " + inMemoryFormat);
         }
+        recordStore.setAdmissionFilterEnabled(properties.getBoolean(ADMISSION_FILTER));
+        return recordStore;
     }
 
     private ScheduledFuture createAndScheduleExpirationTask() {
@@ -23,6 +23,7 @@ import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheManager;
 import com.hazelcast.monitor.NearCacheStats;
 import com.hazelcast.spi.TaskScheduler;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.serialization.SerializationService;
 
 import java.util.Collection;
@@ -41,6 +42,7 @@ public class DefaultNearCacheManager implements NearCacheManager {
     protected final SerializationService serializationService;
     protected final TaskScheduler scheduler;
     protected final ClassLoader classLoader;
+    protected final HazelcastProperties properties;
 
     private final Queue<ScheduledFuture> preloadTaskFutures = new ConcurrentLinkedQueue<ScheduledFuture>();
     private final ConcurrentMap<String, NearCache> nearCacheMap = new ConcurrentHashMap<String, NearCache>();
@@ -48,13 +50,16 @@ public class DefaultNearCacheManager implements NearCacheManager {
 
     private volatile ScheduledFuture storageTaskFuture;
 
-    public DefaultNearCacheManager(SerializationService ss, TaskScheduler es, ClassLoader classLoader) {
+    public DefaultNearCacheManager(SerializationService ss, TaskScheduler es, ClassLoader classLoader,
+                                   HazelcastProperties properties) {
         assert ss != null;
         assert es != null;
+        assert properties != null;
 
         this.serializationService = ss;
         this.scheduler = es;
         this.classLoader = classLoader;
+        this.properties = properties;
     }
 
     @Override
@@ -94,7 +99,7 @@ public class DefaultNearCacheManager implements NearCacheManager {
     }
 
     protected <K, V> NearCache<K, V> createNearCache(String name, NearCacheConfig nearCacheConfig) {
-        return new DefaultNearCache<K, V>(name, nearCacheConfig, serializationService, scheduler, classLoader);
+        return new DefaultNearCache<K, V>(name, nearCacheConfig, serializationService, scheduler, classLoader, properties);
     }
 
     @Override
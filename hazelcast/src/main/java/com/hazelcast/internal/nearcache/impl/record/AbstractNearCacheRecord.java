@@ -167,6 +167,10 @@ public abstract class AbstractNearCacheRecord<V> implements NearCacheRecord<V> {
         this.sequence = sequence;
     }
 
+    public UUID getUuid() {
+        return uuid;
+    }
+
     @Override
     public void setUuid(UUID uuid) {
         this.uuid = uuid;
@@ -22,6 +22,7 @@ import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.IFunction;
 import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.eviction.impl.admission.TinyLfuAdmissionFilter;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
 import com.hazelcast.internal.eviction.impl.strategy.sampling.SamplingEvictionStrategy;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
@@ -38,6 +39,7 @@ import com.hazelcast.util.Clock;
 
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
+import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
 import static com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider.getEvictionPolicyEvaluator;
 import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
 import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
@@ -89,8 +91,11 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     protected EvictionChecker evictionChecker;
     protected SamplingEvictionStrategy<KS, R, NCRM> evictionStrategy;
     protected EvictionPolicyEvaluator<KS, R> evictionPolicyEvaluator;
+    protected TinyLfuAdmissionFilter admissionFilter;
     protected NCRM records;
 
+    private boolean admissionFilterEnabled;
+
     protected volatile StaleReadDetector staleReadDetector = ALWAYS_FRESH;
     protected volatile long reservationId;
 
@@ -120,9 +125,24 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         if (!evictionDisabled) {
             this.evictionStrategy = SamplingEvictionStrategy.INSTANCE;
             this.evictionPolicyEvaluator = getEvictionPolicyEvaluator(evictionConfig, classLoader);
+            if (evictionConfig.getMaximumSizePolicy() == ENTRY_COUNT && admissionFilterEnabled) {
+                this.admissionFilter = new TinyLfuAdmissionFilter(evictionConfig.getSize());
+            }
         }
     }
 
+    /**
+     * Enables the TinyLFU admission filter. It is only used with the
+     * {@link com.hazelcast.config.EvictionConfig.MaxSizePolicy#ENTRY_COUNT} max-size policy
+     * and has to be enabled before {@link #initialize()} is called.
+     *
+     * @param admissionFilterEnabled {@code true} to enable the admission filter
+     * @see com.hazelcast.internal.nearcache.impl.DefaultNearCache#ADMISSION_FILTER
+     */
+    public void setAdmissionFilterEnabled(boolean admissionFilterEnabled) {
+        this.admissionFilterEnabled = admissionFilterEnabled;
+    }
+
     @Override
     public void setStaleReadDetector(StaleReadDetector staleReadDetector) {
         this.staleReadDetector = staleReadDetector;
@@ -264,6 +284,9 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     @Override
     public V get(K key) {
         checkAvailable();
+        if (admissionFilter != null) {
+            admissionFilter.recordAccess(key);
+        }
 
         R record = null;
         V value = null;
@@ -307,6 +330,9 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         if (evictionDisabled && evictionChecker.isEvictionRequired() && !containsRecordKey(key)) {
             return;
         }
+        if (!isAdmitted(key)) {
+            return;
+        }
 
         R record = null;
         R oldRecord = null;
@@ -376,7 +402,8 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     public void doEvictionIfRequired() {
         checkAvailable();
 
-        if (!evictionDisabled) {
+        // with an admission filter the eviction is done on put, where the incoming key is known
+        if (!evictionDisabled && admissionFilter == null) {
             evictionStrategy.evict(records, evictionPolicyEvaluator, evictionChecker, this);
         }
     }
@@ -398,6 +425,9 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         if (evictionDisabled && evictionChecker.isEvictionRequired() && !containsRecordKey(key)) {
             return NOT_RESERVED;
         }
+        if (!isAdmitted(key)) {
+            return NOT_RESERVED;
+        }
 
         R reservedRecord = getOrCreateToReserve(key, keyData);
         long reservationId = nextReservationId();
@@ -413,6 +443,20 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         return updateAndGetReserved(key, value, reservationId, deserialize);
     }
 
+    /**
+     * Evicts an entry to make room for a new key if the Near Cache is full and the admission filter prefers
+     * the new key over the eviction victim.
+     *
+     * @return {@code true} if the key can be added, {@code false} if it was rejected by the admission filter
+     */
+    private boolean isAdmitted(K key) {
+        if (admissionFilter == null || containsRecordKey(key)) {
+            return true;
+        }
+        return evictionStrategy.evictIfAdmitted(records, evictionPolicyEvaluator, evictionChecker, this,
+                admissionFilter, key);
+    }
+
     protected void onRecordCreate(K key, Data keyData, R record) {
         record.setCreationTime(Clock.currentTimeMillis());
         initInvalidationMetaData(record, key, keyData);
@@ -0,0 +1,1059 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.core.IBiFunction;
+import com.hazelcast.core.IFunction;
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.SampleableNearCacheRecordMap;
+import com.hazelcast.internal.nearcache.impl.record.AbstractNearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheDataRecord;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * {@link SampleableNearCacheRecordMap} implementation which keeps the entries of a Near Cache in byte array slabs
+ * and primitive arrays instead of a set of objects per entry.
+ * <p>
+ * The map is split into segments, each guarded by its own lock. A segment writes the serialized key and value of an
+ * entry next to each other into its slab. The other fields of the entry are kept in parallel primitive arrays at the
+ * slot of the entry: the offset and lengths in the slab, the creation, access and expiration times as int seconds, the
+ * access hits, the record state and the invalidation metadata of the
+ * {@link com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector}. An open addressing index maps the key
+ * hashes to the slots. The space of removed and updated entries is reclaimed when a full slab is compacted.
+ * <p>
+ * The records returned by {@link #get(Object)}, {@link #applyIfAbsent(Object, IFunction)} and the samples are views of
+ * a slot, which see the changes of the entry and go stale when it is removed. The records returned by
+ * {@link #put(Object, NearCacheRecord)} and {@link #remove(Object)} are detached copies of the previous entry. The
+ * records put into this map have to be {@link AbstractNearCacheRecord}s with a {@link Data} value; their fields are
+ * copied into the slot. The values are copied out of the slab on every {@link NearCacheRecord#getValue()} call.
+ *
+ * @param <K> the type of the key stored in Near Cache
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class CompactNearCacheRecordMap<K> extends AbstractMap<K, NearCacheRecord>
+        implements SampleableNearCacheRecordMap<K, NearCacheRecord> {
+
+    /**
+     * Heap cost of an entry without its key and value bytes: ten int and four long slot fields plus two index slots.
+     */
+    static final int ENTRY_METADATA_COST = 12 * INT_SIZE_IN_BYTES + 4 * LONG_SIZE_IN_BYTES;
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final int SEGMENT_SHIFT = 28;
+    private static final int INITIAL_SLOT_CAPACITY = 16;
+    private static final int INITIAL_SLAB_LENGTH = 1024;
+    private static final int MAX_SLAB_LENGTH = 1 << 30;
+    private static final int NO_SLOT = -1;
+    private static final int NULL_VALUE = -1;
+
+    // times are stored as seconds relative to 2017-01-01T00:00:00Z, which covers about 68 years in both directions
+    private static final long EPOCH_MILLIS = 1483228800000L;
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final int SECONDS_NOT_SET = Integer.MIN_VALUE;
+
+    private final SerializationService serializationService;
+    private final boolean serializeKeys;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    /**
+     * @param serializationService the serialization service of the Near Cache
+     * @param serializeKeys        {@code true} if the keys of the Near Cache are {@link Data}, {@code false} if they have
+     *                             to be deserialized when they are read from the slab
+     */
+    CompactNearCacheRecordMap(SerializationService serializationService, boolean serializeKeys) {
+        this.serializationService = serializationService;
+        this.serializeKeys = serializeKeys;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public NearCacheRecord get(Object key) {
+        Data keyData = toKeyData(key);
+        Segment segment = segmentFor(keyData);
+        synchronized (segment) {
+            int slot = segment.find(keyData);
+            return slot == NO_SLOT ? null : new CompactRecord(segment, slot);
+        }
+    }
+
+    @Override
+    public NearCacheRecord put(K key, NearCacheRecord record) {
+        return put(key, record, false);
+    }
+
+    @Override
+    public NearCacheRecord putIfAbsent(K key, NearCacheRecord record) {
+        return put(key, record, true);
+    }
+
+    @Override
+    public NearCacheRecord replace(K key, NearCacheRecord record) {
+        Data keyData = toKeyData(key);
+        Segment segment = segmentFor(keyData);
+        synchronized (segment) {
+            int slot = segment.find(keyData);
+            if (slot == NO_SLOT) {
+                return null;
+            }
+            NearCacheRecord oldRecord = segment.copyOf(slot);
+            segment.write(slot, record);
+            return oldRecord;
+        }
+    }
+
+    @Override
+    public boolean replace(K key, NearCacheRecord oldRecord, NearCacheRecord newRecord) {
+        Data keyData = toKeyData(key);
+        Segment segment = segmentFor(keyData);
+        synchronized (segment) {
+            int slot = segment.find(keyData);
+            if (slot == NO_SLOT || !isViewOf(oldRecord, segment, slot)) {
+                return false;
+            }
+            segment.write(slot, newRecord);
+            return true;
+        }
+    }
+
+    @Override
+    public NearCacheRecord remove(Object key) {
+        Data keyData = toKeyData(key);
+        Segment segment = segmentFor(keyData);
+        synchronized (segment) {
+            int slot = segment.find(keyData);
+            if (slot == NO_SLOT) {
+                return null;
+            }
+            NearCacheRecord oldRecord = segment.copyOf(slot);
+            segment.remove(slot);
+            return oldRecord;
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Object record) {
+        Data keyData = toKeyData(key);
+        Segment segment = segmentFor(keyData);
+        synchronized (segment) {
+            int slot = segment.find(keyData);
+            if (slot == NO_SLOT || !isViewOf(record, segment, slot)) {
+                return false;
+            }
+            segment.remove(slot);
+            return true;
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the record of the key or, if there is none, adds the record created by the given function.
+     *
+     * @return a view of the existing or added record
+     */
+    public NearCacheRecord applyIfAbsent(K key, IFunction<? super K, ? extends NearCacheRecord> mappingFunction) {
+        Data keyData = toKeyData(key);
+        Segment segment = segmentFor(keyData);
+        synchronized (segment) {
+            int slot = segment.find(keyData);
+            if (slot == NO_SLOT) {
+                slot = segment.insert(keyData, mappingFunction.apply(key));
+            }
+            return new CompactRecord(segment, slot);
+        }
+    }
+
+    /**
+     * Applies the given function to the record of the key, if there is one. The entry is removed if the function
+     * returns {@code null} and overwritten if it returns another record than the given view.
+     *
+     * @return the record returned by the function or {@code null} if there is no record for the key
+     */
+    public NearCacheRecord applyIfPresent(K key,
+                                          IBiFunction<? super K, ? super NearCacheRecord, ? extends NearCacheRecord> function) {
+        Data keyData = toKeyData(key);
+        Segment segment = segmentFor(keyData);
+        synchronized (segment) {
+            int slot = segment.find(keyData);
+            if (slot == NO_SLOT) {
+                return null;
+            }
+            CompactRecord record = new CompactRecord(segment, slot);
+            NearCacheRecord newRecord = function.apply(key, record);
+            if (segment.isLive(slot, record.stamp)) {
+                if (newRecord == null) {
+                    segment.remove(slot);
+                } else if (newRecord != record) {
+                    segment.write(slot, newRecord);
+                }
+            }
+            return newRecord;
+        }
+    }
+
+    @Override
+    public Set<Entry<K, NearCacheRecord>> entrySet() {
+        return new AbstractSet<Entry<K, NearCacheRecord>>() {
+            @Override
+            public Iterator<Entry<K, NearCacheRecord>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return CompactNearCacheRecordMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends EvictionCandidate<K, NearCacheRecord>> Iterable<C> sample(int sampleCount) {
+        List<C> samples = new ArrayList<C>(sampleCount);
+        int randomNumber = ThreadLocalRandomProvider.get().nextInt(Integer.MAX_VALUE);
+        int firstSegment = randomNumber % SEGMENT_COUNT;
+        for (int i = 0; i < SEGMENT_COUNT && samples.size() < sampleCount; i++) {
+            Segment segment = segments[(firstSegment + i) % SEGMENT_COUNT];
+            synchronized (segment) {
+                int slotCount = segment.slotCount;
+                int firstSlot = slotCount == 0 ? 0 : randomNumber % slotCount;
+                for (int j = 0; j < slotCount && samples.size() < sampleCount; j++) {
+                    int slot = (firstSlot + j) % slotCount;
+                    if (segment.keyLengths[slot] > 0) {
+                        samples.add((C) new CompactEvictionCandidate(new CompactRecord(segment, slot)));
+                    }
+                }
+            }
+        }
+        return samples;
+    }
+
+    @Override
+    public <C extends EvictionCandidate<K, NearCacheRecord>> boolean tryEvict(C evictionCandidate,
+                                                                            EvictionListener<K, NearCacheRecord> listener) {
+        if (evictionCandidate == null) {
+            return false;
+        }
+        CompactRecord record = (CompactRecord) evictionCandidate.getEvictable();
+        Segment segment = record.segment;
+        Data keyData;
+        NearCacheRecord evictedRecord;
+        synchronized (segment) {
+            if (!segment.isLive(record.slot, record.stamp)) {
+                return false;
+            }
+            keyData = segment.keyOf(record.slot);
+            evictedRecord = segment.copyOf(record.slot);
+            segment.remove(record.slot);
+        }
+        if (listener != null) {
+            listener.onEvict(toKey(keyData), evictedRecord, false);
+        }
+        return true;
+    }
+
+    private NearCacheRecord put(K key, NearCacheRecord record, boolean onlyIfAbsent) {
+        Data keyData = toKeyData(key);
+        Segment segment = segmentFor(keyData);
+        synchronized (segment) {
+            int slot = segment.find(keyData);
+            if (slot == NO_SLOT) {
+                segment.insert(keyData, record);
+                return null;
+            }
+            if (onlyIfAbsent) {
+                return new CompactRecord(segment, slot);
+            }
+            NearCacheRecord oldRecord = segment.copyOf(slot);
+            segment.write(slot, record);
+            return oldRecord;
+        }
+    }
+
+    private Data toKeyData(Object key) {
+        checkNotNull(key, "key cannot be null");
+        return serializationService.toData(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K toKey(Data keyData) {
+        if (keyData == null || serializeKeys) {
+            return (K) keyData;
+        }
+        return serializationService.toObject(keyData);
+    }
+
+    private Segment segmentFor(Data keyData) {
+        return segments[keyData.hashCode() >>> SEGMENT_SHIFT];
+    }
+
+    private static boolean isViewOf(Object record, Segment segment, int slot) {
+        if (!(record instanceof CompactRecord)) {
+            return false;
+        }
+        CompactRecord view = (CompactRecord) record;
+        return view.segment == segment && view.slot == slot && segment.isLive(slot, view.stamp);
+    }
+
+    /**
+     * Converts the given time in milliseconds to seconds relative to the epoch of this map, rounding up.
+     */
+    static int toSeconds(long millis) {
+        if (millis == TIME_NOT_SET) {
+            return SECONDS_NOT_SET;
+        }
+        long delta = millis - EPOCH_MILLIS;
+        long seconds = delta / MILLIS_PER_SECOND;
+        if (seconds * MILLIS_PER_SECOND < delta) {
+            seconds++;
+        }
+        return (int) Math.max(SECONDS_NOT_SET + 1, Math.min(Integer.MAX_VALUE, seconds));
+    }
+
+    static long toMillis(int seconds) {
+        if (seconds == SECONDS_NOT_SET) {
+            return TIME_NOT_SET;
+        }
+        return EPOCH_MILLIS + (long) seconds * MILLIS_PER_SECOND;
+    }
+
+    /**
+     * A part of the map with its own slab, slot arrays and index. All methods have to be called with the lock of the
+     * segment held.
+     */
+    @SuppressWarnings("checkstyle:methodcount")
+    private static final class Segment {
+
+        // slot + 1 of the entries by the position of their hash, 0 for empty positions
+        int[] index;
+        // number of slots in use or on the free list
+        int slotCount;
+        // head of the free slot list, which is linked through the offsets
+        int freeSlot;
+        int count;
+        int lastStamp;
+        volatile int size;
+
+        int[] hashes;
+        int[] stamps;
+        int[] offsets;
+        // 0 for free slots, the keys are never empty
+        int[] keyLengths;
+        int[] valueLengths;
+        int[] creationTimes;
+        int[] expirationTimes;
+        int[] accessTimes;
+        int[] accessHits;
+        int[] partitionIds;
+        long[] recordStates;
+        long[] sequences;
+        long[] uuidMostSigBits;
+        long[] uuidLeastSigBits;
+
+        byte[] slab;
+        int slabTop;
+        int slabGarbage;
+
+        Segment() {
+            clear();
+        }
+
+        void clear() {
+            index = new int[2 * INITIAL_SLOT_CAPACITY];
+            slotCount = 0;
+            freeSlot = NO_SLOT;
+            count = 0;
+            size = 0;
+            resizeSlots(INITIAL_SLOT_CAPACITY);
+            Arrays.fill(keyLengths, 0);
+            slab = new byte[INITIAL_SLAB_LENGTH];
+            slabTop = 0;
+            slabGarbage = 0;
+        }
+
+        boolean isLive(int slot, int stamp) {
+            return slot < slotCount && stamps[slot] == stamp && keyLengths[slot] > 0;
+        }
+
+        int find(Data keyData) {
+            int hash = keyData.hashCode();
+            byte[] key = keyData.toByteArray();
+            int mask = index.length - 1;
+            for (int i = hash & mask; index[i] != 0; i = (i + 1) & mask) {
+                int slot = index[i] - 1;
+                if (hashes[slot] == hash && keyEquals(slot, key)) {
+                    return slot;
+                }
+            }
+            return NO_SLOT;
+        }
+
+        int insert(Data keyData, NearCacheRecord record) {
+            if (2 * (count + 1) > index.length) {
+                resizeIndex(2 * index.length);
+            }
+            int slot;
+            if (freeSlot != NO_SLOT) {
+                slot = freeSlot;
+                freeSlot = offsets[slot];
+            } else {
+                if (slotCount == hashes.length) {
+                    resizeSlots(slotCount + (slotCount >> 1));
+                }
+                slot = slotCount++;
+            }
+
+            byte[] key = keyData.toByteArray();
+            byte[] value = valueBytes(record);
+            int offset = allocate(key.length + (value == null ? 0 : value.length));
+            System.arraycopy(key, 0, slab, offset, key.length);
+            if (value != null) {
+                System.arraycopy(value, 0, slab, offset + key.length, value.length);
+            }
+            offsets[slot] = offset;
+            keyLengths[slot] = key.length;
+            valueLengths[slot] = value == null ? NULL_VALUE : value.length;
+            hashes[slot] = keyData.hashCode();
+            stamps[slot] = nextStamp();
+            writeFields(slot, record);
+            addToIndex(slot);
+            count++;
+            size = count;
+            return slot;
+        }
+
+        void write(int slot, NearCacheRecord record) {
+            setValue(slot, valueBytes(record));
+            writeFields(slot, record);
+        }
+
+        void remove(int slot) {
+            int mask = index.length - 1;
+            int position = hashes[slot] & mask;
+            while (index[position] != slot + 1) {
+                position = (position + 1) & mask;
+            }
+            removeFromIndex(position);
+            slabGarbage += entryLength(slot);
+            keyLengths[slot] = 0;
+            stamps[slot] = 0;
+            offsets[slot] = freeSlot;
+            freeSlot = slot;
+            count--;
+            size = count;
+        }
+
+        void setValue(int slot, byte[] value) {
+            int oldValueLength = valueLengths[slot];
+            int keyLength = keyLengths[slot];
+            if (value != null && value.length == oldValueLength) {
+                System.arraycopy(value, 0, slab, offsets[slot] + keyLength, value.length);
+                return;
+            }
+            int oldLength = entryLength(slot);
+            // the allocation can compact the slab and move the entry
+            int offset = allocate(keyLength + (value == null ? 0 : value.length));
+            System.arraycopy(slab, offsets[slot], slab, offset, keyLength);
+            if (value != null) {
+                System.arraycopy(value, 0, slab, offset + keyLength, value.length);
+            }
+            offsets[slot] = offset;
+            valueLengths[slot] = value == null ? NULL_VALUE : value.length;
+            slabGarbage += oldLength;
+        }
+
+        Data keyOf(int slot) {
+            int offset = offsets[slot];
+            return new HeapData(Arrays.copyOfRange(slab, offset, offset + keyLengths[slot]));
+        }
+
+        Data valueOf(int slot) {
+            int valueLength = valueLengths[slot];
+            if (valueLength == NULL_VALUE) {
+                return null;
+            }
+            int offset = offsets[slot] + keyLengths[slot];
+            return new HeapData(Arrays.copyOfRange(slab, offset, offset + valueLength));
+        }
+
+        UUID uuidOf(int slot) {
+            long mostSigBits = uuidMostSigBits[slot];
+            long leastSigBits = uuidLeastSigBits[slot];
+            return mostSigBits == 0 && leastSigBits == 0 ? null : new UUID(mostSigBits, leastSigBits);
+        }
+
+        void setUuid(int slot, UUID uuid) {
+            uuidMostSigBits[slot] = uuid == null ? 0 : uuid.getMostSignificantBits();
+            uuidLeastSigBits[slot] = uuid == null ? 0 : uuid.getLeastSignificantBits();
+        }
+
+        NearCacheRecord copyOf(int slot) {
+            NearCacheDataRecord record = new NearCacheDataRecord(valueOf(slot), toMillis(creationTimes[slot]),
+                    toMillis(expirationTimes[slot]));
+            record.setAccessTime(toMillis(accessTimes[slot]));
+            record.setAccessHit(accessHits[slot]);
+            record.casRecordState(READ_PERMITTED, recordStates[slot]);
+            record.setPartitionId(partitionIds[slot]);
+            record.setInvalidationSequence(sequences[slot]);
+            record.setUuid(uuidOf(slot));
+            return record;
+        }
+
+        private void writeFields(int slot, NearCacheRecord record) {
+            creationTimes[slot] = toSeconds(record.getCreationTime());
+            expirationTimes[slot] = toSeconds(record.getExpirationTime());
+            accessTimes[slot] = toSeconds(record.getLastAccessTime());
+            accessHits[slot] = record.getAccessHit();
+            recordStates[slot] = record.getRecordState();
+            partitionIds[slot] = record.getPartitionId();
+            sequences[slot] = record.getInvalidationSequence();
+            setUuid(slot, uuidOf(record));
+        }
+
+        private static UUID uuidOf(NearCacheRecord record) {
+            if (record instanceof CompactRecord) {
+                CompactRecord view = (CompactRecord) record;
+                synchronized (view.segment) {
+                    return view.isLive() ? view.segment.uuidOf(view.slot) : null;
+                }
+            }
+            return ((AbstractNearCacheRecord) record).getUuid();
+        }
+
+        private static byte[] valueBytes(NearCacheRecord record) {
+            Data value = (Data) record.getValue();
+            return value == null ? null : value.toByteArray();
+        }
+
+        private boolean keyEquals(int slot, byte[] key) {
+            if (keyLengths[slot] != key.length) {
+                return false;
+            }
+            int offset = offsets[slot];
+            for (int i = 0; i < key.length; i++) {
+                if (slab[offset + i] != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int entryLength(int slot) {
+            return keyLengths[slot] + Math.max(valueLengths[slot], 0);
+        }
+
+        private int nextStamp() {
+            lastStamp++;
+            if (lastStamp == 0) {
+                lastStamp++;
+            }
+            return lastStamp;
+        }
+
+        private int allocate(int length) {
+            if (length > slab.length - slabTop) {
+                compact(length);
+            }
+            int offset = slabTop;
+            slabTop += length;
+            return offset;
+        }
+
+        /**
+         * Copies the live entries into a new slab, which has room for at least the given length and a quarter of
+         * the live entries.
+         */
+        private void compact(int length) {
+            long required = (long) slabTop - slabGarbage + length;
+            long newLength = INITIAL_SLAB_LENGTH;
+            while (newLength < required + (required >> 2) && newLength < MAX_SLAB_LENGTH) {
+                newLength <<= 1;
+            }
+            if (newLength < required) {
+                throw new IllegalStateException("Near Cache segment can't hold more than " + MAX_SLAB_LENGTH + " bytes");
+            }
+            byte[] newSlab = new byte[(int) newLength];
+            int top = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (keyLengths[slot] > 0) {
+                    int entryLength = entryLength(slot);
+                    System.arraycopy(slab, offsets[slot], newSlab, top, entryLength);
+                    offsets[slot] = top;
+                    top += entryLength;
+                }
+            }
+            slab = newSlab;
+            slabTop = top;
+            slabGarbage = 0;
+        }
+
+        private void addToIndex(int slot) {
+            int mask = index.length - 1;
+            int position = hashes[slot] & mask;
+            while (index[position] != 0) {
+                position = (position + 1) & mask;
+            }
+            index[position] = slot + 1;
+        }
+
+        /**
+         * Removes the entry at the given position and moves the following entries of the probe sequence back, so no
+         * tombstones are needed.
+         */
+        private void removeFromIndex(int position) {
+            int mask = index.length - 1;
+            int hole = position;
+            for (int i = (position + 1) & mask; index[i] != 0; i = (i + 1) & mask) {
+                int home = hashes[index[i] - 1] & mask;
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    index[hole] = index[i];
+                    hole = i;
+                }
+            }
+            index[hole] = 0;
+        }
+
+        private void resizeIndex(int length) {
+            index = new int[length];
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (keyLengths[slot] > 0) {
+                    addToIndex(slot);
+                }
+            }
+        }
+
+        private void resizeSlots(int capacity) {
+            hashes = copyOf(hashes, capacity);
+            stamps = copyOf(stamps, capacity);
+            offsets = copyOf(offsets, capacity);
+            keyLengths = copyOf(keyLengths, capacity);
+            valueLengths = copyOf(valueLengths, capacity);
+            creationTimes = copyOf(creationTimes, capacity);
+            expirationTimes = copyOf(expirationTimes, capacity);
+            accessTimes = copyOf(accessTimes, capacity);
+            accessHits = copyOf(accessHits, capacity);
+            partitionIds = copyOf(partitionIds, capacity);
+            recordStates = copyOf(recordStates, capacity);
+            sequences = copyOf(sequences, capacity);
+            uuidMostSigBits = copyOf(uuidMostSigBits, capacity);
+            uuidLeastSigBits = copyOf(uuidLeastSigBits, capacity);
+        }
+
+        private static int[] copyOf(int[] array, int length) {
+            return array == null ? new int[length] : Arrays.copyOf(array, length);
+        }
+
+        private static long[] copyOf(long[] array, int length) {
+            return array == null ? new long[length] : Arrays.copyOf(array, length);
+        }
+    }
+
+    /**
+     * View of the entry in a slot. It goes stale when the entry is removed, even if the slot is reused, and then
+     * behaves like a record which is not readable.
+     */
+    private static final class CompactRecord implements NearCacheRecord<Data> {
+
+        private final Segment segment;
+        private final int slot;
+        private final int stamp;
+
+        CompactRecord(Segment segment, int slot) {
+            this.segment = segment;
+            this.slot = slot;
+            this.stamp = segment.stamps[slot];
+        }
+
+        boolean isLive() {
+            return segment.isLive(slot, stamp);
+        }
+
+        @Override
+        public Data getValue() {
+            synchronized (segment) {
+                return isLive() ? segment.valueOf(slot) : null;
+            }
+        }
+
+        @Override
+        public void setValue(Data value) {
+            synchronized (segment) {
+                if (isLive()) {
+                    segment.setValue(slot, value == null ? null : value.toByteArray());
+                }
+            }
+        }
+
+        @Override
+        public long getCreationTime() {
+            synchronized (segment) {
+                return isLive() ? toMillis(segment.creationTimes[slot]) : TIME_NOT_SET;
+            }
+        }
+
+        @Override
+        public void setCreationTime(long time) {
+            synchronized (segment) {
+                if (isLive()) {
+                    segment.creationTimes[slot] = toSeconds(time);
+                }
+            }
+        }
+
+        @Override
+        public long getExpirationTime() {
+            synchronized (segment) {
+                return isLive() ? toMillis(segment.expirationTimes[slot]) : TIME_NOT_SET;
+            }
+        }
+
+        @Override
+        public void setExpirationTime(long expirationTime) {
+            synchronized (segment) {
+                if (isLive()) {
+                    segment.expirationTimes[slot] = toSeconds(expirationTime);
+                }
+            }
+        }
+
+        @Override
+        public long getLastAccessTime() {
+            synchronized (segment) {
+                return isLive() ? toMillis(segment.accessTimes[slot]) : TIME_NOT_SET;
+            }
+        }
+
+        @Override
+        public void setAccessTime(long time) {
+            synchronized (segment) {
+                if (isLive()) {
+                    segment.accessTimes[slot] = toSeconds(time);
+                }
+            }
+        }
+
+        @Override
+        public int getAccessHit() {
+            synchronized (segment) {
+                return isLive() ? segment.accessHits[slot] : 0;
+            }
+        }
+
+        @Override
+        public void setAccessHit(int hit) {
+            synchronized (segment) {
+                if (isLive()) {
+                    segment.accessHits[slot] = hit;
+                }
+            }
+        }
+
+        @Override
+        public void incrementAccessHit() {
+            synchronized (segment) {
+                if (isLive()) {
+                    segment.accessHits[slot]++;
+                }
+            }
+        }
+
+        @Override
+        public void resetAccessHit() {
+            setAccessHit(0);
+        }
+
+        @Override
+        public boolean isExpiredAt(long now) {
+            long expirationTime = getExpirationTime();
+            return (expirationTime > TIME_NOT_SET) && (expirationTime <= now);
+        }
+
+        @Override
+        public boolean isIdleAt(long maxIdleMilliSeconds, long now) {
+            if (maxIdleMilliSeconds <= 0) {
+                return false;
+            }
+            long accessTime = getLastAccessTime();
+            if (accessTime > TIME_NOT_SET) {
+                return accessTime + maxIdleMilliSeconds < now;
+            }
+            return getCreationTime() + maxIdleMilliSeconds < now;
+        }
+
+        @Override
+        public long getRecordState() {
+            synchronized (segment) {
+                return isLive() ? segment.recordStates[slot] : NOT_RESERVED;
+            }
+        }
+
+        @Override
+        public boolean casRecordState(long expect, long update) {
+            synchronized (segment) {
+                if (!isLive() || segment.recordStates[slot] != expect) {
+                    return false;
+                }
+                segment.recordStates[slot] = update;
+                return true;
+            }
+        }
+
+        @Override
+        public int getPartitionId() {
+            synchronized (segment) {
+                return isLive() ? segment.partitionIds[slot] : 0;
+            }
+        }
+
+        @Override
+        public void setPartitionId(int partitionId) {
+            synchronized (segment) {
+                if (isLive()) {
+                    segment.partitionIds[slot] = partitionId;
+                }
+            }
+        }
+
+        @Override
+        public long getInvalidationSequence() {
+            synchronized (segment) {
+                return isLive() ? segment.sequences[slot] : 0;
+            }
+        }
+
+        @Override
+        public void setInvalidationSequence(long sequence) {
+            synchronized (segment) {
+                if (isLive()) {
+                    segment.sequences[slot] = sequence;
+                }
+            }
+        }
+
+        @Override
+        public void setUuid(UUID uuid) {
+            synchronized (segment) {
+                if (isLive()) {
+                    segment.setUuid(slot, uuid);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasSameUuid(UUID thatUuid) {
+            synchronized (segment) {
+                return isLive() && thatUuid != null && thatUuid.equals(segment.uuidOf(slot));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "CompactRecord{slot=" + slot + ", stamp=" + stamp + '}';
+        }
+    }
+
+    private final class CompactEvictionCandidate implements EvictionCandidate<K, NearCacheRecord> {
+
+        private final CompactRecord record;
+        private final long creationTime;
+        private final long lastAccessTime;
+        private final int accessHit;
+
+        // called with the lock of the segment held
+        CompactEvictionCandidate(CompactRecord record) {
+            Segment segment = record.segment;
+            int slot = record.slot;
+            this.record = record;
+            this.creationTime = toMillis(segment.creationTimes[slot]);
+            this.lastAccessTime = toMillis(segment.accessTimes[slot]);
+            this.accessHit = segment.accessHits[slot];
+        }
+
+        @Override
+        public K getAccessor() {
+            return toKey(keyData());
+        }
+
+        @Override
+        public NearCacheRecord getEvictable() {
+            return record;
+        }
+
+        @Override
+        public Object getKey() {
+            return serializationService.toObject(keyData());
+        }
+
+        @Override
+        public Object getValue() {
+            return serializationService.toObject(record.getValue());
+        }
+
+        @Override
+        public long getCreationTime() {
+            return creationTime;
+        }
+
+        @Override
+        public long getLastAccessTime() {
+            return lastAccessTime;
+        }
+
+        @Override
+        public long getAccessHit() {
+            return accessHit;
+        }
+
+        private Data keyData() {
+            synchronized (record.segment) {
+                return record.isLive() ? record.segment.keyOf(record.slot) : null;
+            }
+        }
+    }
+
+    private final class CompactEntry implements Entry<K, NearCacheRecord> {
+
+        private final CompactRecord record;
+        private K key;
+
+        CompactEntry(CompactRecord record) {
+            this.record = record;
+        }
+
+        /**
+         * Returns the key of the entry, which is {@code null} if it has been removed before the first call.
+         */
+        @Override
+        public K getKey() {
+            if (key == null) {
+                Data keyData;
+                synchronized (record.segment) {
+                    keyData = record.isLive() ? record.segment.keyOf(record.slot) : null;
+                }
+                key = toKey(keyData);
+            }
+            return key;
+        }
+
+        @Override
+        public NearCacheRecord getValue() {
+            return record;
+        }
+
+        @Override
+        public NearCacheRecord setValue(NearCacheRecord value) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Weakly consistent iterator over the entries of the segments.
+     */
+    private final class EntryIterator implements Iterator<Entry<K, NearCacheRecord>> {
+
+        private int segmentIndex;
+        private int slot;
+        private CompactRecord next;
+
+        EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, NearCacheRecord> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            CompactEntry entry = new CompactEntry(next);
+            advance();
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() {
+            next = null;
+            while (segmentIndex < SEGMENT_COUNT) {
+                Segment segment = segments[segmentIndex];
+                synchronized (segment) {
+                    while (slot < segment.slotCount) {
+                        int current = slot++;
+                        if (segment.keyLengths[current] > 0) {
+                            next = new CompactRecord(segment, current);
+                            return;
+                        }
+                    }
+                }
+                segmentIndex++;
+                slot = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.core.IBiFunction;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheDataRecord;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.Map;
+
+import static com.hazelcast.internal.nearcache.NearCache.CACHED_AS_NULL;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.internal.nearcache.impl.store.CompactNearCacheRecordMap.ENTRY_METADATA_COST;
+import static com.hazelcast.util.Clock.currentTimeMillis;
+import static java.lang.String.format;
+
+/**
+ * {@link com.hazelcast.internal.nearcache.NearCacheRecordStore} implementation for Near Caches
+ * with {@link com.hazelcast.config.InMemoryFormat#BINARY} in-memory-format, which keeps its entries in a
+ * {@link CompactNearCacheRecordMap}.
+ * <p>
+ * The keys and values are kept as bytes in the slabs of the map, so keys which are not {@link Data} are serialized on
+ * every access and every hit copies the value out of the slab.
+ *
+ * @param <K> the type of the key stored in Near Cache
+ * @param <V> the type of the value stored in Near Cache
+ * @see com.hazelcast.internal.nearcache.impl.DefaultNearCache#COMPACT_RECORDS
+ */
+public class NearCacheCompactDataRecordStore<K, V>
+        extends AbstractNearCacheRecordStore<K, V, K, NearCacheRecord, CompactNearCacheRecordMap<K>> {
+
+    private final NearCachePreloader<K> nearCachePreloader;
+
+    public NearCacheCompactDataRecordStore(String name,
+                                           NearCacheConfig nearCacheConfig,
+                                           SerializationService serializationService,
+                                           ClassLoader classLoader) {
+        super(nearCacheConfig, serializationService, classLoader);
+
+        NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
+        this.nearCachePreloader = preloaderConfig.isEnabled() ? new NearCachePreloader<K>(name, preloaderConfig, nearCacheStats,
+                serializationService) : null;
+    }
+
+    @Override
+    protected EvictionChecker createNearCacheEvictionChecker(EvictionConfig evictionConfig, NearCacheConfig nearCacheConfig) {
+        MaxSizePolicy maxSizePolicy = evictionConfig.getMaximumSizePolicy();
+        if (maxSizePolicy != MaxSizePolicy.ENTRY_COUNT) {
+            throw new IllegalArgumentException(format("Invalid max-size policy (%s) for %s! Only %s is supported.",
+                    maxSizePolicy, getClass().getName(), MaxSizePolicy.ENTRY_COUNT));
+        }
+        return new EntryCountNearCacheEvictionChecker(evictionConfig.getSize(), records);
+    }
+
+    @Override
+    protected CompactNearCacheRecordMap<K> createNearCacheRecordMap(NearCacheConfig nearCacheConfig) {
+        return new CompactNearCacheRecordMap<K>(serializationService, nearCacheConfig.isSerializeKeys());
+    }
+
+    @Override
+    protected long getKeyStorageMemoryCost(K key) {
+        if (key instanceof Data) {
+            // bytes of this key in the slab
+            return ((Data) key).totalSize();
+        } else {
+            // memory cost for non-data typed instance is not supported
+            return 0L;
+        }
+    }
+
+    @Override
+    protected long getRecordStorageMemoryCost(NearCacheRecord record) {
+        if (record == null) {
+            return 0L;
+        }
+        Data value = (Data) record.getValue();
+        // slot fields and index of the entry
+        return ENTRY_METADATA_COST
+                // bytes of this value in the slab
+                + (value != null ? value.totalSize() : 0);
+    }
+
+    /**
+     * Creates a detached record, which is copied into the slot of the entry when it is put.
+     */
+    @Override
+    protected NearCacheRecord valueToRecord(V value) {
+        Data dataValue = toData(value);
+        long creationTime = currentTimeMillis();
+        if (timeToLiveMillis > 0) {
+            return new NearCacheDataRecord(dataValue, creationTime, creationTime + timeToLiveMillis);
+        } else {
+            return new NearCacheDataRecord(dataValue, creationTime, TIME_NOT_SET);
+        }
+    }
+
+    @Override
+    protected V recordToValue(NearCacheRecord record) {
+        Data value = (Data) record.getValue();
+        if (value == null) {
+            return (V) CACHED_AS_NULL;
+        }
+        return dataToValue(value);
+    }
+
+    @Override
+    protected void updateRecordValue(NearCacheRecord record, V value) {
+        record.setValue(toData(value));
+    }
+
+    @Override
+    public NearCacheRecord getRecord(K key) {
+        return records.get(key);
+    }
+
+    @Override
+    protected NearCacheRecord putRecord(K key, NearCacheRecord record) {
+        NearCacheRecord oldRecord = records.put(key, record);
+        nearCacheStats.incrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, record));
+        if (oldRecord != null) {
+            nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, oldRecord));
+        }
+        return oldRecord;
+    }
+
+    @Override
+    protected NearCacheRecord removeRecord(K key) {
+        NearCacheRecord removedRecord = records.remove(key);
+        if (removedRecord != null && removedRecord.getRecordState() == READ_PERMITTED) {
+            nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, removedRecord));
+        }
+        return removedRecord;
+    }
+
+    @Override
+    protected boolean containsRecordKey(K key) {
+        return records.containsKey(key);
+    }
+
+    @Override
+    public void onEvict(K key, NearCacheRecord record, boolean wasExpired) {
+        super.onEvict(key, record, wasExpired);
+        nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, record));
+    }
+
+    @Override
+    public void doExpiration() {
+        for (Map.Entry<K, NearCacheRecord> entry : records.entrySet()) {
+            NearCacheRecord value = entry.getValue();
+            if (isRecordExpired(value)) {
+                // the key is only deserialized for the expired entries
+                K key = entry.getKey();
+                if (key != null) {
+                    remove(key);
+                    onExpire(key, value);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.loadKeys(adapter);
+        }
+    }
+
+    @Override
+    public void storeKeys() {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.storeKeys(records.keySet().iterator());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+        if (nearCachePreloader != null) {
+            nearCachePreloader.destroy();
+        }
+    }
+
+    @Override
+    protected NearCacheRecord getOrCreateToReserve(K key, Data keyData) {
+        return records.applyIfAbsent(key, new ReserveForUpdateFunction(keyData));
+    }
+
+    @Override
+    protected V updateAndGetReserved(K key, final V value, final long reservationId, boolean deserialize) {
+        NearCacheRecord existingRecord = records.applyIfPresent(key, new IBiFunction<K, NearCacheRecord, NearCacheRecord>() {
+            @Override
+            public NearCacheRecord apply(K key, NearCacheRecord reservedRecord) {
+                return updateReservedRecordInternal(key, value, reservedRecord, reservationId);
+            }
+        });
+
+        if (existingRecord == null || !deserialize) {
+            return null;
+        }
+        return toValue(existingRecord.getValue());
+    }
+
+    @Override
+    public Object selectToSave(Object... candidates) {
+        return NearCacheDataRecordStore.selectDataToSave(candidates);
+    }
+}
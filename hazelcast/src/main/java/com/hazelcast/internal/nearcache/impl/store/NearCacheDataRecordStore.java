@@ -104,6 +104,13 @@ public class NearCacheDataRecordStore<K, V> extends BaseHeapNearCacheRecordStore
 
     @Override
     public Object selectToSave(Object... candidates) {
+        return selectDataToSave(candidates);
+    }
+
+    /**
+     * Selects a {@link Data} typed candidate if there is one, otherwise the first non-null candidate.
+     */
+    static Object selectDataToSave(Object... candidates) {
         Object selectedCandidate = null;
         if (candidates != null && candidates.length > 0) {
             for (Object candidate : candidates) {
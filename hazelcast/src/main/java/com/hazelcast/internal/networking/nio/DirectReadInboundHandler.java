@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.ChannelInboundHandler;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link ChannelInboundHandler} that can have the remainder of a large frame read from the channel directly into
+ * the frame, bypassing the receive buffer of the {@link NioChannelReader}.
+ *
+ * For large frames on a heap receive buffer this saves a full copy of the frame: the data is no longer copied
+ * from the socket into the receive buffer and then from the receive buffer into the frame.
+ */
+public interface DirectReadInboundHandler extends ChannelInboundHandler {
+
+    /**
+     * Returns the buffer to read the next chunk of the current frame into.
+     *
+     * This method is only called when the receive buffer has been fully consumed.
+     *
+     * @param chunkSize the minimum number of missing bytes and the maximum number of bytes of the returned buffer
+     * @return the buffer to read into, or {@code null} if no direct read should be done
+     */
+    ByteBuffer directReadBuffer(int chunkSize);
+
+    /**
+     * Called after bytes were read into the buffer returned by {@link #directReadBuffer(int)}.
+     *
+     * @param bytesRead the number of bytes read
+     * @throws Exception if the completed frame could not be processed
+     */
+    void onDirectRead(int bytesRead) throws Exception;
+}
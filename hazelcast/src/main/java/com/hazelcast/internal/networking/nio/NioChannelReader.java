@@ -48,8 +48,11 @@ public final class NioChannelReader extends AbstractHandler {
     private final SwCounter normalFramesRead = newSwCounter();
     @Probe(name = "priorityFramesRead")
     private final SwCounter priorityFramesRead = newSwCounter();
+    @Probe(name = "bytesReadDirect")
+    private final SwCounter bytesReadDirect = newSwCounter();
     private final ChannelInitializer initializer;
     private ChannelInboundHandler inboundHandler;
+    private DirectReadInboundHandler directReadHandler;
     private volatile long lastReadTime;
 
     private volatile long bytesReadLastPublish;
@@ -124,6 +127,10 @@ public final class NioChannelReader extends AbstractHandler {
             return;
         }
 
+        if (directReadHandler != null && inputBuffer.position() == 0 && readDirect()) {
+            return;
+        }
+
         int readBytes = channel.read(inputBuffer);
         if (readBytes <= 0) {
             if (readBytes == -1) {
@@ -139,6 +146,31 @@ public final class NioChannelReader extends AbstractHandler {
         compactOrClear(inputBuffer);
     }
 
+    /**
+     * Reads the next chunk of a large frame straight into the frame instead of into the input buffer.
+     *
+     * @return {@code true} if a direct read was done, {@code false} if the regular read path should be used
+     */
+    private boolean readDirect() throws Exception {
+        ByteBuffer dst = directReadHandler.directReadBuffer(inputBuffer.capacity());
+        if (dst == null) {
+            return false;
+        }
+
+        int readBytes = channel.read(dst);
+        if (readBytes <= 0) {
+            if (readBytes == -1) {
+                throw new EOFException("Remote socket closed!");
+            }
+            return true;
+        }
+
+        bytesRead.inc(readBytes);
+        bytesReadDirect.inc(readBytes);
+        directReadHandler.onDirectRead(readBytes);
+        return true;
+    }
+
     private boolean init() throws IOException {
         InitResult<ChannelInboundHandler> init = initializer.initInbound(channel);
         if (init == null) {
@@ -154,6 +186,12 @@ public final class NioChannelReader extends AbstractHandler {
             withCounters.setPriorityPacketsRead(priorityFramesRead);
         }
 
+        // with a direct input buffer a read into a heap array goes through a temporary direct buffer anyway,
+        // so bypassing the input buffer would not save a copy
+        if (inboundHandler instanceof DirectReadInboundHandler && !inputBuffer.isDirect()) {
+            directReadHandler = (DirectReadInboundHandler) inboundHandler;
+        }
+
         return true;
     }
 
@@ -44,6 +44,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public final class NioChannelWriter extends AbstractHandler implements Runnable {
 
     private static final long TIMEOUT = 3;
+    // the maximum number of times the outputBuffer is filled and written within a single handle call, so that a
+    // busy channel can't starve the other channels of its NioThread
+    private static final int MAX_WRITE_ROUNDS = 8;
 
     @SuppressWarnings("checkstyle:visibilitymodifier")
     @Probe(name = "writeQueueSize")
@@ -62,6 +65,8 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = "priorityFramesWritten")
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = "flushes")
+    private final SwCounter flushes = newSwCounter();
     private ChannelOutboundHandler outboundHandler;
 
     private OutboundFrame currentFrame;
@@ -133,6 +138,15 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
         return max(currentTimeMillis() - lastWriteTime, 0);
     }
 
+    @Probe(level = DEBUG)
+    private double framesPerFlush() {
+        long flushCount = flushes.get();
+        if (flushCount == 0) {
+            return 0;
+        }
+        return (double) (normalFramesWritten.get() + priorityFramesWritten.get()) / flushCount;
+    }
+
     @Probe(level = DEBUG)
     private long isScheduled() {
         return scheduled.get() ? 1 : 0;
@@ -265,11 +279,16 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
             return;
         }
 
-        fillOutputBuffer();
+        int rounds = 0;
+        do {
+            fillOutputBuffer();
 
-        if (dirtyOutputBuffer()) {
-            writeOutputBufferToSocket();
-        }
+            if (dirtyOutputBuffer()) {
+                writeOutputBufferToSocket();
+            }
+            // If the outputBuffer got full before all frames were taken, but the socket accepted all of it, there is
+            // no point in waiting for an OP_WRITE event; we refill the outputBuffer and write again right away.
+        } while (++rounds < MAX_WRITE_ROUNDS && currentFrame != null && !dirtyOutputBuffer() && newOwner == null);
 
         if (newOwner == null) {
             unschedule();
@@ -322,6 +341,7 @@ public final class NioChannelWriter extends AbstractHandler implements Runnable
         int written = channel.write(outputBuffer);
 
         bytesWritten.inc(written);
+        flushes.inc();
 
         compactOrClear(outputBuffer);
     }
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.spi.FragmentedMigrationAwareService;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.PartitionReplicationEvent;
+import com.hazelcast.spi.ServiceNamespace;
+
+import java.util.Iterator;
+
+/**
+ * A {@link FragmentedMigrationAwareService} that can replicate the data of a single namespace in multiple chunks,
+ * so the memory needed for a migration depends on the chunk size instead of the size of the namespace.
+ * <p>
+ * The chunks are sent to the migration destination one at a time; the next chunk is only created once the previous
+ * one has been applied on the destination.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#PARTITION_MIGRATION_CHUNK_SIZE
+ */
+public interface ChunkedMigrationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Returns the replication operations for the given namespace as a sequence of chunks.
+     * <p>
+     * The first operation replaces the state of the namespace on the destination; every following operation adds
+     * to it. The iterator is consumed lazily on the partition thread while the partition is migrating, so it should
+     * create every chunk on demand.
+     *
+     * @param event     replication event
+     * @param namespace the namespace to replicate
+     * @param chunkSize the approximate maximum number of bytes of data per chunk
+     * @return the iterator over the replication operations
+     */
+    Iterator<Operation> prepareReplicationOperations(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                     int chunkSize);
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.spi.FragmentedMigrationAwareService;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.PartitionReplicationEvent;
+import com.hazelcast.spi.ServiceNamespace;
+
+/**
+ * A {@link FragmentedMigrationAwareService} that can bring a backup replica of a namespace up to date by only
+ * replicating the data that differs from the owner, instead of copying the whole namespace.
+ * <p>
+ * The backup replica sends a digest of its data along with the replica sync request. The owner compares it with
+ * the digest of its own data and replicates only the differing parts.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#PARTITION_REPLICA_SYNC_DELTA_ENABLED
+ */
+public interface DeltaReplicationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Returns the digest of the data of the given namespace in the given partition. Called on the partition thread
+     * of the backup replica.
+     *
+     * @param partitionId the partition id
+     * @param namespace   the namespace
+     * @return the digest, or {@code null} if the namespace needs to be replicated completely
+     */
+    long[] getReplicaDigest(int partitionId, ServiceNamespace namespace);
+
+    /**
+     * Returns an operation that brings a backup replica with the given digest up to date. Called on the partition
+     * thread of the owner replica.
+     *
+     * @param event     replication event
+     * @param namespace the namespace
+     * @param digest    the digest of the backup replica
+     * @return the replication operation, or {@code null} if the namespace needs to be replicated completely
+     */
+    Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace, long[] digest);
+}
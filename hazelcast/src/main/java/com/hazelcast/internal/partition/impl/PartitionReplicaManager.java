@@ -19,9 +19,11 @@ package com.hazelcast.internal.partition.impl;
 import com.hazelcast.instance.Node;
 import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
 import com.hazelcast.internal.partition.PartitionReplicaVersionManager;
+import com.hazelcast.internal.partition.operation.PartitionReplicaDeltaSyncRequest;
 import com.hazelcast.internal.partition.operation.PartitionReplicaSyncRequest;
 import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.logging.ILogger;
@@ -33,6 +35,8 @@ import com.hazelcast.spi.ServiceNamespaceAware;
 import com.hazelcast.spi.TaskScheduler;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
+import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.scheduler.EntryTaskScheduler;
@@ -45,8 +49,10 @@ import com.hazelcast.version.Version;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
@@ -78,6 +84,7 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
     private final MwCounter replicaSyncRequestsCounter = newMwCounter();
 
     private final long partitionMigrationTimeout;
+    private final boolean deltaSyncEnabled;
     private final int maxParallelReplications;
 
     private volatile Version clusterVersion;
@@ -95,6 +102,7 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         partitionMigrationTimeout = properties.getMillis(GroupProperty.PARTITION_MIGRATION_TIMEOUT);
         maxParallelReplications = properties.getInteger(GroupProperty.PARTITION_MAX_PARALLEL_REPLICATIONS);
         replicaSyncProcessLock = new Semaphore(maxParallelReplications);
+        deltaSyncEnabled = properties.getBoolean(GroupProperty.PARTITION_REPLICA_SYNC_DELTA_ENABLED);
 
         replicaVersions = new PartitionReplicaVersions[partitionCount];
         for (int i = 0; i < replicaVersions.length; i++) {
@@ -226,7 +234,68 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         replicaSyncRequestsCounter.inc();
 
         PartitionReplicaSyncRequest syncRequest = new PartitionReplicaSyncRequest(partitionId, namespaces, replicaIndex);
-        nodeEngine.getOperationService().send(syncRequest, target);
+        if (deltaSyncEnabled) {
+            sendDeltaSyncRequest(syncRequest, namespaces, target);
+        } else {
+            nodeEngine.getOperationService().send(syncRequest, target);
+        }
+    }
+
+    /**
+     * Sends a delta sync request for the given namespaces. The digests can only be computed on the partition thread
+     * since the replica data is not thread-safe. So when this is called on another thread, like a retry after a sync
+     * timeout, the request is created and sent on the partition thread.
+     */
+    private void sendDeltaSyncRequest(final PartitionReplicaSyncRequest syncRequest,
+            final Collection<ServiceNamespace> namespaces, final Address target) {
+        final InternalOperationService operationService = nodeEngine.getOperationService();
+        if (operationService.isRunAllowed(syncRequest)) {
+            operationService.send(createDeltaSyncRequest(syncRequest, namespaces), target);
+            return;
+        }
+
+        operationService.execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return syncRequest.getPartitionId();
+            }
+
+            @Override
+            public void run() {
+                operationService.send(createDeltaSyncRequest(syncRequest, namespaces), target);
+            }
+        });
+    }
+
+    /**
+     * Returns a delta sync request carrying the digests of the given namespaces, or the given request if no digest is
+     * available. Must be called on the partition thread.
+     */
+    private PartitionReplicaSyncRequest createDeltaSyncRequest(PartitionReplicaSyncRequest syncRequest,
+            Collection<ServiceNamespace> namespaces) {
+        int partitionId = syncRequest.getPartitionId();
+        Map<ServiceNamespace, long[]> digests = new HashMap<ServiceNamespace, long[]>();
+        Collection<ServiceInfo> services = nodeEngine.getServiceInfos(DeltaReplicationAwareService.class);
+        for (ServiceNamespace namespace : namespaces) {
+            if (namespace instanceof NonFragmentedServiceNamespace) {
+                continue;
+            }
+            for (ServiceInfo serviceInfo : services) {
+                DeltaReplicationAwareService service = serviceInfo.getService();
+                if (service.isKnownServiceNamespace(namespace)) {
+                    long[] digest = service.getReplicaDigest(partitionId, namespace);
+                    if (digest != null) {
+                        digests.put(namespace, digest);
+                    }
+                    break;
+                }
+            }
+        }
+
+        if (digests.isEmpty()) {
+            return syncRequest;
+        }
+        return new PartitionReplicaDeltaSyncRequest(partitionId, namespaces, syncRequest.getReplicaIndex(), digests);
     }
 
     private Collection<ServiceNamespace> registerSyncInfoFor(int partitionId,
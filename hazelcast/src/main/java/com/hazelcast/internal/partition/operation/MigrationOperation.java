@@ -27,6 +27,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.ServiceNamespace;
+import com.hazelcast.spi.impl.BulkDataOperation;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -41,7 +42,7 @@ import java.util.Map.Entry;
  * Sent by the partition owner to the migration destination to start the migration process on the destination.
  * Contains the operations which will be executed on the destination node to migrate the data and the replica versions to be set.
  */
-public class MigrationOperation extends BaseMigrationDestinationOperation {
+public class MigrationOperation extends BaseMigrationDestinationOperation implements BulkDataOperation {
 
     private ReplicaFragmentMigrationState fragmentMigrationState;
 
@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.partition.operation;
 
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationInfo;
@@ -40,6 +41,8 @@ import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.SimpleExecutionCallback;
 import com.hazelcast.spi.impl.operationservice.InternalOperationService;
 import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -63,6 +66,7 @@ public class MigrationRequestOperation extends BaseMigrationSourceOperation {
 
     private boolean fragmentedMigrationEnabled;
     private transient ServiceNamespacesContext namespacesContext;
+    private transient int chunkSize;
 
     public MigrationRequestOperation() {
     }
@@ -102,6 +106,7 @@ public class MigrationRequestOperation extends BaseMigrationSourceOperation {
         try {
             executeBeforeMigrations();
             namespacesContext = new ServiceNamespacesContext(nodeEngine, getPartitionReplicationEvent());
+            chunkSize = getChunkSize(nodeEngine);
             ReplicaFragmentMigrationState migrationState
                     = fragmentedMigrationEnabled ? createNextReplicaFragmentMigrationState()
                     : createAllReplicaFragmentsMigrationState();
@@ -121,7 +126,8 @@ public class MigrationRequestOperation extends BaseMigrationSourceOperation {
     private void invokeMigrationOperation(Address destination, ReplicaFragmentMigrationState migrationState,
                                           boolean firstFragment) throws IOException {
 
-        boolean lastFragment = !fragmentedMigrationEnabled || !namespacesContext.hasNext();
+        boolean lastFragment = !fragmentedMigrationEnabled
+                || !(namespacesContext.hasNext() || namespacesContext.hasNextChunk());
         Operation operation = new MigrationOperation(migrationInfo, partitionStateVersion, migrationState,
                                                      firstFragment, lastFragment);
 
@@ -180,6 +186,10 @@ public class MigrationRequestOperation extends BaseMigrationSourceOperation {
     private ReplicaFragmentMigrationState createNextReplicaFragmentMigrationState() {
         assert fragmentedMigrationEnabled : "Fragmented migration should be enabled!";
 
+        if (namespacesContext.hasNextChunk()) {
+            return createNextChunkReplicaFragmentMigrationState();
+        }
+
         if (!namespacesContext.hasNext()) {
              return null;
         }
@@ -188,9 +198,63 @@ public class MigrationRequestOperation extends BaseMigrationSourceOperation {
         if (namespace.equals(NonFragmentedServiceNamespace.INSTANCE)) {
             return createNonFragmentedReplicaFragmentMigrationState();
         }
+        if (startChunks(namespace)) {
+            return namespacesContext.hasNextChunk() ? createNextChunkReplicaFragmentMigrationState()
+                    : createReplicaFragmentMigrationState(singleton(namespace), Collections.<Operation>emptySet());
+        }
         return createReplicaFragmentMigrationStateFor(namespace);
     }
 
+    /**
+     * Returns the configured chunk size in bytes. When the bulk partition data is rate limited and no chunk size is
+     * configured, the data is sent in chunks of about one second of traffic, so a single large migration fragment
+     * doesn't hold back the following bulk packets for long.
+     */
+    private static int getChunkSize(NodeEngine nodeEngine) {
+        HazelcastProperties properties = nodeEngine.getProperties();
+        int chunkSize = properties.getInteger(GroupProperty.PARTITION_MIGRATION_CHUNK_SIZE) * 1024;
+        if (chunkSize > 0) {
+            return chunkSize;
+        }
+        long bulkBytesPerSecond = properties.getLong(GroupProperty.SOCKET_BULK_BYTES_PER_SECOND);
+        return (int) Math.min(bulkBytesPerSecond, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Starts replicating the namespace in chunks if chunked migration is enabled and the namespace belongs to a single
+     * {@link ChunkedMigrationAwareService}.
+     *
+     * @return {@code true} if the namespace is replicated in chunks, {@code false} otherwise
+     */
+    private boolean startChunks(ServiceNamespace namespace) {
+        if (chunkSize <= 0) {
+            return false;
+        }
+
+        Collection<String> serviceNames = namespacesContext.getServiceNames(namespace);
+        if (serviceNames.size() != 1) {
+            return false;
+        }
+
+        String serviceName = serviceNames.iterator().next();
+        Object service = getNodeEngine().getService(serviceName);
+        if (!(service instanceof ChunkedMigrationAwareService)) {
+            return false;
+        }
+
+        PartitionReplicationEvent event = getPartitionReplicationEvent();
+        Iterator<Operation> chunks = ((ChunkedMigrationAwareService) service)
+                .prepareReplicationOperations(event, namespace, chunkSize);
+        namespacesContext.setChunks(namespace, serviceName, chunks);
+        return true;
+    }
+
+    private ReplicaFragmentMigrationState createNextChunkReplicaFragmentMigrationState() {
+        Operation operation = namespacesContext.nextChunk();
+        operation.setServiceName(namespacesContext.chunksServiceName);
+        return createReplicaFragmentMigrationState(singleton(namespacesContext.chunksNamespace), singleton(operation));
+    }
+
     private ReplicaFragmentMigrationState createNonFragmentedReplicaFragmentMigrationState() {
         PartitionReplicationEvent event = getPartitionReplicationEvent();
         Collection<Operation> operations = createNonFragmentedReplicationOperations(event);
@@ -288,6 +352,11 @@ public class MigrationRequestOperation extends BaseMigrationSourceOperation {
 
         final Iterator<ServiceNamespace> namespaceIterator;
 
+        // the chunks of the namespace that is currently replicated in chunks
+        Iterator<Operation> chunks;
+        ServiceNamespace chunksNamespace;
+        String chunksServiceName;
+
         ServiceNamespacesContext(NodeEngineImpl nodeEngine, PartitionReplicationEvent event) {
             Collection<ServiceInfo> services = nodeEngine.getServiceInfos(FragmentedMigrationAwareService.class);
             for (ServiceInfo serviceInfo : services) {
@@ -329,6 +398,20 @@ public class MigrationRequestOperation extends BaseMigrationSourceOperation {
             return namespaceIterator.next();
         }
 
+        void setChunks(ServiceNamespace namespace, String serviceName, Iterator<Operation> chunks) {
+            this.chunksNamespace = namespace;
+            this.chunksServiceName = serviceName;
+            this.chunks = chunks;
+        }
+
+        boolean hasNextChunk() {
+            return chunks != null && chunks.hasNext();
+        }
+
+        Operation nextChunk() {
+            return chunks.next();
+        }
+
         Collection<String> getServiceNames(ServiceNamespace ns) {
             return namespaceToServices.get(ns);
         }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
+import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.PartitionReplicationEvent;
+import com.hazelcast.spi.ServiceNamespace;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.singleton;
+
+/**
+ * A {@link PartitionReplicaSyncRequest} which carries the digests of the replica data of the namespaces owned by
+ * {@link DeltaReplicationAwareService}s. The partition owner replicates only the differing data for these namespaces
+ * and falls back to full replication for the rest.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#PARTITION_REPLICA_SYNC_DELTA_ENABLED
+ */
+public final class PartitionReplicaDeltaSyncRequest extends PartitionReplicaSyncRequest {
+
+    private Map<ServiceNamespace, long[]> digests;
+
+    public PartitionReplicaDeltaSyncRequest() {
+        digests = Collections.emptyMap();
+    }
+
+    public PartitionReplicaDeltaSyncRequest(int partitionId, Collection<ServiceNamespace> namespaces, int replicaIndex,
+                                            Map<ServiceNamespace, long[]> digests) {
+        super(partitionId, namespaces, replicaIndex);
+        this.digests = digests;
+    }
+
+    @Override
+    Collection<Operation> createNamespaceReplicationOperations(PartitionReplicationEvent event, ServiceNamespace namespace) {
+        long[] digest = digests.get(namespace);
+        if (digest == null) {
+            return super.createNamespaceReplicationOperations(event, namespace);
+        }
+
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        for (ServiceInfo serviceInfo : nodeEngine.getServiceInfos(DeltaReplicationAwareService.class)) {
+            DeltaReplicationAwareService service = serviceInfo.getService();
+            if (!service.isKnownServiceNamespace(namespace)) {
+                continue;
+            }
+
+            Operation op = service.prepareDeltaReplicationOperation(event, namespace, digest);
+            if (op != null) {
+                op.setServiceName(serviceInfo.getName());
+                return singleton(op);
+            }
+        }
+        return super.createNamespaceReplicationOperations(event, namespace);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(digests.size());
+        for (Map.Entry<ServiceNamespace, long[]> entry : digests.entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeLongArray(entry.getValue());
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        int size = in.readInt();
+        digests = new HashMap<ServiceNamespace, long[]>(size);
+        for (int i = 0; i < size; i++) {
+            ServiceNamespace namespace = in.readObject();
+            digests.put(namespace, in.readLongArray());
+        }
+    }
+
+    @Override
+    public int getId() {
+        return PartitionDataSerializerHook.REPLICA_DELTA_SYNC_REQUEST;
+    }
+}
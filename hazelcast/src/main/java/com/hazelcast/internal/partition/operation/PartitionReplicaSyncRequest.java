@@ -55,7 +55,7 @@ import java.util.Collections;
  * </ul>
  * An empty response can be sent if the current replica version is 0.
  */
-public final class PartitionReplicaSyncRequest extends AbstractPartitionOperation
+public class PartitionReplicaSyncRequest extends AbstractPartitionOperation
         implements PartitionAwareOperation, MigrationCycleOperation, Versioned {
 
     private Collection<ServiceNamespace> allNamespaces;
@@ -112,7 +112,7 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
                 }
 
                 for (ServiceNamespace namespace : allNamespaces) {
-                    Collection<Operation> operations = createFragmentReplicationOperations(event, namespace);
+                    Collection<Operation> operations = createNamespaceReplicationOperations(event, namespace);
                     sendOperations(operations, namespace);
                 }
             }
@@ -121,6 +121,11 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
         }
     }
 
+    /** Creates the operations which replicate the data of the given fragmented namespace to the replica */
+    Collection<Operation> createNamespaceReplicationOperations(PartitionReplicationEvent event, ServiceNamespace namespace) {
+        return createFragmentReplicationOperations(event, namespace);
+    }
+
     private void sendOperations(Collection<Operation> operations, ServiceNamespace ns) throws Exception {
         if (operations.isEmpty()) {
             logNoReplicaDataFound(getPartitionId(), ns, getReplicaIndex());
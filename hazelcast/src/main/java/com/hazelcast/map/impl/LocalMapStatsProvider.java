@@ -20,7 +20,9 @@ import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.nearcache.MapNearCacheManager;
+import com.hazelcast.map.impl.recordstore.OffHeapStorage;
 import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.Storage;
 import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.monitor.NearCacheStats;
 import com.hazelcast.monitor.impl.LocalMapStatsImpl;
@@ -187,7 +189,7 @@ public class LocalMapStatsProvider {
         onDemandStats.incrementLockedEntryCount(recordStore.getLockedEntryCount());
         onDemandStats.incrementHits(recordStore.getHits());
         onDemandStats.incrementDirtyEntryCount(recordStore.getMapDataStore().notFinishedOperationsCount());
-        onDemandStats.incrementOwnedEntryMemoryCost(recordStore.getOwnedEntryCost());
+        onDemandStats.incrementOwnedEntryMemoryCost(recordStore.getOwnedEntryCost() + getNativeCost(recordStore));
         if (NATIVE  != recordStore.getMapContainer().getMapConfig().getInMemoryFormat()) {
             onDemandStats.incrementHeapCost(recordStore.getOwnedEntryCost());
         }
@@ -207,6 +209,7 @@ public class LocalMapStatsProvider {
 
         long backupEntryCount = 0;
         long backupEntryMemoryCost = 0;
+        long backupEntryNativeCost = 0;
 
         int totalBackupCount = recordStore.getMapContainer().getTotalBackupCount();
         for (int replicaNumber = 1; replicaNumber <= totalBackupCount; replicaNumber++) {
@@ -218,6 +221,7 @@ public class LocalMapStatsProvider {
             }
             if (isReplicaOnThisNode(replicaAddress)) {
                 backupEntryMemoryCost += recordStore.getOwnedEntryCost();
+                backupEntryNativeCost += getNativeCost(recordStore);
                 backupEntryCount += recordStore.size();
             }
         }
@@ -225,11 +229,21 @@ public class LocalMapStatsProvider {
         if (NATIVE  != recordStore.getMapContainer().getMapConfig().getInMemoryFormat()) {
             onDemandStats.incrementHeapCost(backupEntryMemoryCost);
         }
-        onDemandStats.incrementBackupEntryMemoryCost(backupEntryMemoryCost);
+        onDemandStats.incrementBackupEntryMemoryCost(backupEntryMemoryCost + backupEntryNativeCost);
         onDemandStats.incrementBackupEntryCount(backupEntryCount);
         onDemandStats.setBackupCount(recordStore.getMapContainer().getMapConfig().getTotalBackupCount());
     }
 
+    /**
+     * Returns the native bytes of {@link com.hazelcast.config.RecordStorageType#OFF_HEAP} record stores.
+     * They are part of the entry memory cost but, like the {@link com.hazelcast.config.InMemoryFormat#NATIVE}
+     * format, not of the heap cost.
+     */
+    private static long getNativeCost(RecordStore recordStore) {
+        Storage storage = recordStore.getStorage();
+        return storage instanceof OffHeapStorage ? ((OffHeapStorage) storage).getUsedNativeMemory() : 0;
+    }
+
     private static boolean hasRecords(RecordStore recordStore) {
         return recordStore != null && recordStore.size() > 0;
     }
@@ -18,6 +18,7 @@ package com.hazelcast.map.impl;
 
 import com.hazelcast.config.Config;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.RecordStorageType;
 import com.hazelcast.config.WanReplicationRef;
 import com.hazelcast.core.IFunction;
 import com.hazelcast.core.PartitioningStrategy;
@@ -31,6 +32,7 @@ import com.hazelcast.map.impl.nearcache.invalidation.InvalidationListener;
 import com.hazelcast.map.impl.query.QueryEntryFactory;
 import com.hazelcast.map.impl.record.DataRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
+import com.hazelcast.map.impl.record.OffHeapDataRecordFactory;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.merge.MapMergePolicy;
 import com.hazelcast.nio.ClassLoaderUtil;
@@ -183,6 +185,10 @@ public class MapContainer {
             public RecordFactory createNew(Void notUsedArg) {
                 switch (mapConfig.getInMemoryFormat()) {
                     case BINARY:
+                        if (mapConfig.getRecordStorageType() == RecordStorageType.OFF_HEAP) {
+                            return new OffHeapDataRecordFactory(mapConfig, serializationService, partitioningStrategy,
+                                    mapServiceContext.getNativeMemoryBudget());
+                        }
                         return new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
                     case OBJECT:
                         return new ObjectRecordFactory(mapConfig, serializationService);
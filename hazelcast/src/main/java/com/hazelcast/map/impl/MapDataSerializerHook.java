@@ -64,6 +64,8 @@ import com.hazelcast.map.impl.operation.KeyLoadStatusOperation;
 import com.hazelcast.map.impl.operation.KeyLoadStatusOperationFactory;
 import com.hazelcast.map.impl.operation.LoadAllOperation;
 import com.hazelcast.map.impl.operation.LoadMapOperation;
+import com.hazelcast.map.impl.operation.MapChunkReplicationOperation;
+import com.hazelcast.map.impl.operation.MapDeltaReplicationOperation;
 import com.hazelcast.map.impl.operation.MapFetchEntriesOperation;
 import com.hazelcast.map.impl.operation.MapFetchKeysOperation;
 import com.hazelcast.map.impl.operation.MapFetchWithQueryOperation;
@@ -304,8 +306,10 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int EVENT_JOURNAL_DESERIALIZING_MAP_EVENT = 143;
     public static final int EVENT_JOURNAL_INTERNAL_MAP_EVENT = 144;
     public static final int EVENT_JOURNAL_READ_RESULT_SET = 145;
+    public static final int MAP_CHUNK_REPLICATION = 146;
+    public static final int MAP_DELTA_REPLICATION = 147;
 
-    private static final int LEN = EVENT_JOURNAL_READ_RESULT_SET + 1;
+    private static final int LEN = MAP_DELTA_REPLICATION + 1;
 
     @Override
     public int getFactoryId() {
@@ -1026,6 +1030,16 @@ public final class MapDataSerializerHook implements DataSerializerHook {
                 return new MapEventJournalReadResultSetImpl<Object, Object, Object>();
             }
         };
+        constructors[MAP_CHUNK_REPLICATION] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new MapChunkReplicationOperation();
+            }
+        };
+        constructors[MAP_DELTA_REPLICATION] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new MapDeltaReplicationOperation();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
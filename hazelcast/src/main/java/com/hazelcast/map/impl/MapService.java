@@ -20,14 +20,17 @@ import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.core.DistributedObject;
 import com.hazelcast.internal.cluster.ClusterStateListener;
 import com.hazelcast.internal.cluster.ClusterVersionListener;
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.map.impl.event.MapEventPublishingService;
+import com.hazelcast.map.impl.operation.MapReplicaDigest;
+import com.hazelcast.map.impl.operation.MapReplicationChunkIterator;
 import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.spi.ClientAwareService;
 import com.hazelcast.spi.DistributedObjectNamespace;
 import com.hazelcast.spi.EventFilter;
 import com.hazelcast.spi.EventPublishingService;
 import com.hazelcast.spi.EventRegistration;
-import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.ManagedService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.NotifiableEventListener;
@@ -52,6 +55,7 @@ import com.hazelcast.version.Version;
 import com.hazelcast.wan.WanReplicationEvent;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
 
@@ -74,7 +78,7 @@ import static com.hazelcast.core.EntryEventType.INVALIDATION;
  * @see MapClientAwareService
  * @see MapServiceContext
  */
-public class MapService implements ManagedService, FragmentedMigrationAwareService,
+public class MapService implements ManagedService, ChunkedMigrationAwareService, DeltaReplicationAwareService,
         TransactionalService, RemoteService, EventPublishingService<Object, ListenerAdapter>,
         PostJoinAwareService, SplitBrainHandlerService, ReplicationSupportingService, StatisticsAwareService<LocalMapStats>,
         PartitionAwareService, ClientAwareService, QuorumAwareService, NotifiableEventListener, ClusterStateListener,
@@ -142,6 +146,25 @@ public class MapService implements ManagedService, FragmentedMigrationAwareServi
         return migrationAwareService.prepareReplicationOperation(event, namespaces);
     }
 
+    @Override
+    public Iterator<Operation> prepareReplicationOperations(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                            int chunkSize) {
+        return new MapReplicationChunkIterator(mapServiceContext, namespace, event.getPartitionId(),
+                event.getReplicaIndex(), chunkSize);
+    }
+
+    @Override
+    public long[] getReplicaDigest(int partitionId, ServiceNamespace namespace) {
+        return MapReplicaDigest.getDigest(mapServiceContext, partitionId, namespace);
+    }
+
+    @Override
+    public Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      long[] digest) {
+        return MapReplicaDigest.prepareDeltaOperation(mapServiceContext, namespace, event.getPartitionId(),
+                event.getReplicaIndex(), digest);
+    }
+
     @Override
     public void beforeMigration(PartitionMigrationEvent event) {
         migrationAwareService.beforeMigration(event);
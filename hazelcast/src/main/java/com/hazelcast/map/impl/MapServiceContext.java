@@ -21,6 +21,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.impl.NativeMemoryBudget;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.eviction.ExpirationManager;
 import com.hazelcast.map.impl.journal.MapEventJournal;
@@ -149,6 +150,12 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
 
     QueryOptimizer getQueryOptimizer();
 
+    /**
+     * @return the budget limiting the native memory of all {@link com.hazelcast.config.RecordStorageType#OFF_HEAP}
+     * record stores of this member to the size configured in {@link com.hazelcast.config.NativeMemoryConfig}
+     */
+    NativeMemoryBudget getNativeMemoryBudget();
+
     LocalMapStatsProvider getLocalMapStatsProvider();
 
     MapOperationProvider getMapOperationProvider(String name);
@@ -21,6 +21,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.impl.NativeMemoryBudget;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.MapInterceptor;
 import com.hazelcast.map.impl.event.MapEventPublisher;
@@ -99,6 +100,8 @@ import java.util.concurrent.atomic.AtomicReference;
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.query.impl.predicates.QueryOptimizerFactory.Type.COST;
+import static com.hazelcast.query.impl.predicates.QueryOptimizerFactory.getOptimizerType;
 import static com.hazelcast.query.impl.predicates.QueryOptimizerFactory.newOptimizer;
 import static com.hazelcast.spi.ExecutionService.QUERY_EXECUTOR;
 import static com.hazelcast.spi.properties.GroupProperty.AGGREGATION_ACCUMULATION_PARALLEL_EVALUATION;
@@ -115,7 +118,7 @@ class MapServiceContextImpl implements MapServiceContext {
 
     protected final ConcurrentMap<String, MapContainer> mapContainers = new ConcurrentHashMap<String, MapContainer>();
     protected final AtomicReference<Collection<Integer>> ownedPartitions = new AtomicReference<Collection<Integer>>();
-    protected final IndexProvider indexProvider = new DefaultIndexProvider();
+    protected final IndexProvider indexProvider;
     protected final ContextMutexFactory contextMutexFactory = new ContextMutexFactory();
     protected final Map<InMemoryFormat, RecordComparator> recordComparatorMap
             = new HashMap<InMemoryFormat, RecordComparator>();
@@ -140,6 +143,7 @@ class MapServiceContextImpl implements MapServiceContext {
     protected final QueryRunner mapQueryRunner;
     protected final PartitionScanRunner partitionScanRunner;
     protected final QueryOptimizer queryOptimizer;
+    protected final NativeMemoryBudget nativeMemoryBudget;
     protected final PartitioningStrategyFactory partitioningStrategyFactory;
     protected final QueryCacheContext queryCacheContext;
     protected final MapEventJournal eventJournal;
@@ -155,6 +159,8 @@ class MapServiceContextImpl implements MapServiceContext {
         this.serializationService = nodeEngine.getSerializationService();
         this.mapConstructor = createMapConstructor();
         this.queryCacheContext = new NodeQueryCacheContext(this);
+        // the index statistics are only used by the cost based optimizer
+        this.indexProvider = new DefaultIndexProvider(getOptimizerType(nodeEngine.getProperties()) == COST);
         this.partitionContainers = createPartitionContainers();
         this.expirationManager = new ExpirationManager(partitionContainers, nodeEngine);
         this.mapNearCacheManager = createMapNearCacheManager();
@@ -163,6 +169,7 @@ class MapServiceContextImpl implements MapServiceContext {
         this.mapEventPublisher = createMapEventPublisherSupport();
         this.eventJournal = createEventJournal();
         this.queryOptimizer = newOptimizer(nodeEngine.getProperties());
+        this.nativeMemoryBudget = new NativeMemoryBudget(nodeEngine.getConfig().getNativeMemoryConfig().getSize().bytes());
         this.resultProcessorRegistry = createResultProcessorRegistry(serializationService);
         this.partitionScanRunner = createPartitionScanRunner();
         this.mapQueryEngine = createMapQueryEngine();
@@ -307,6 +314,7 @@ class MapServiceContextImpl implements MapServiceContext {
                     recordStore.clearPartition(false);
                     eventJournal.destroy(mapContainer.getObjectNamespace(), partitionId);
                     iter.remove();
+                    container.onRecordStoresRemoved();
                 }
             }
         }
@@ -321,6 +329,7 @@ class MapServiceContextImpl implements MapServiceContext {
                 eventJournal.destroy(mapPartition.getMapContainer().getObjectNamespace(), partitionId);
             }
             container.getMaps().clear();
+            container.onRecordStoresRemoved();
         }
     }
 
@@ -502,6 +511,11 @@ class MapServiceContextImpl implements MapServiceContext {
         return queryOptimizer;
     }
 
+    @Override
+    public NativeMemoryBudget getNativeMemoryBudget() {
+        return nativeMemoryBudget;
+    }
+
     @Override
     public LocalMapStatsProvider getLocalMapStatsProvider() {
         return localMapStatsProvider;
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.config.RecordStorageType;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+
+/**
+ * Owned entry cost estimator for maps which have {@link RecordStorageType#OFF_HEAP} record storage.
+ * <p>
+ * Only the heap is counted: the slot in the table and the record header. The native bytes allocated for the
+ * keys and values are reported separately by
+ * {@link com.hazelcast.map.impl.recordstore.OffHeapStorage#getUsedNativeMemory()}, so the heap cost
+ * statistics and the {@code USED_HEAP_*} max-size policies do not count them as heap.
+ */
+class OffHeapMapEntryCostEstimator
+        implements EntryCostEstimator<Data, Record> {
+
+    private static final int SLOT_COST_IN_BYTES = INT_SIZE_IN_BYTES + REFERENCE_COST_IN_BYTES;
+
+    private volatile long estimate;
+
+    OffHeapMapEntryCostEstimator() {
+    }
+
+    @Override
+    public long getEstimate() {
+        return estimate;
+    }
+
+    @Override
+    public void adjustEstimateBy(long adjustment) {
+        this.estimate += adjustment;
+    }
+
+    @Override
+    public void reset() {
+        estimate = 0L;
+    }
+
+    @Override
+    public long calculateValueCost(Record value) {
+        return value.getCost();
+    }
+
+    @Override
+    public long calculateEntryCost(Data key, Record value) {
+        return SLOT_COST_IN_BYTES + value.getCost();
+    }
+}
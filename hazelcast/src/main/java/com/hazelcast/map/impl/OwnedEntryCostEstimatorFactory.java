@@ -40,6 +40,14 @@ public final class OwnedEntryCostEstimatorFactory {
         return ZERO_SIZE_ESTIMATOR;
     }
 
+    /**
+     * Returns an estimator which counts the heap cost of {@link com.hazelcast.config.RecordStorageType#OFF_HEAP}
+     * records without the native bytes of their keys and values.
+     */
+    public static <K, V> EntryCostEstimator<K, V> createOffHeapMapSizeEstimator() {
+        return (EntryCostEstimator<K, V>) new OffHeapMapEntryCostEstimator();
+    }
+
     private static class ZeroEntryCostEstimator
             implements EntryCostEstimator {
 
@@ -39,6 +39,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.map.impl.MapKeyLoaderUtil.getMaxSizePerNode;
 
@@ -97,6 +98,16 @@ public class PartitionContainer {
 
     private final ContextMutexFactory contextMutexFactory = new ContextMutexFactory();
 
+    /**
+     * The record store of the last lookup. The operations an operation thread processes in a batch are often on the
+     * same map, so consecutive operations share the lookup instead of going to {@link #maps} each time.
+     */
+    private volatile CachedRecordStore lastRecordStore = CachedRecordStore.NONE;
+    /**
+     * Incremented after record stores are removed from {@link #maps}, which invalidates {@link #lastRecordStore}.
+     */
+    private final AtomicInteger recordStoreRemovals = new AtomicInteger();
+
     public PartitionContainer(final MapService mapService, final int partitionId) {
         this.mapService = mapService;
         this.partitionId = partitionId;
@@ -167,7 +178,15 @@ public class PartitionContainer {
     }
 
     public RecordStore getRecordStore(String name) {
-        return ConcurrencyUtil.getOrPutSynchronized(maps, name, contextMutexFactory, recordStoreConstructor);
+        CachedRecordStore cached = lastRecordStore;
+        if (cached.isFor(name, recordStoreRemovals.get())) {
+            return cached.recordStore;
+        }
+        // read before the lookup, so a removal during the lookup invalidates the cached record store
+        int removals = recordStoreRemovals.get();
+        RecordStore recordStore = ConcurrencyUtil.getOrPutSynchronized(maps, name, contextMutexFactory, recordStoreConstructor);
+        lastRecordStore = new CachedRecordStore(recordStore, removals);
+        return recordStore;
     }
 
     public RecordStore getRecordStore(String name, boolean skipLoadingOnCreate) {
@@ -180,12 +199,24 @@ public class PartitionContainer {
     }
 
     public RecordStore getExistingRecordStore(String mapName) {
+        CachedRecordStore cached = lastRecordStore;
+        if (cached.isFor(mapName, recordStoreRemovals.get())) {
+            return cached.recordStore;
+        }
         return maps.get(mapName);
     }
 
+    /**
+     * Has to be called after record stores are removed from the {@link #getMaps() maps} of this container.
+     */
+    public void onRecordStoresRemoved() {
+        recordStoreRemovals.incrementAndGet();
+    }
+
     public void destroyMap(MapContainer mapContainer) {
         String name = mapContainer.getName();
         RecordStore recordStore = maps.remove(name);
+        onRecordStoresRemoved();
         if (recordStore != null) {
             // this call also clears and disposes Indexes for that partition
             recordStore.destroy();
@@ -222,6 +253,7 @@ public class PartitionContainer {
                     recordStore.getMapContainer().getObjectNamespace(), partitionId);
         }
         maps.clear();
+        onRecordStoresRemoved();
     }
 
     public boolean hasRunningCleanup() {
@@ -277,4 +309,22 @@ public class PartitionContainer {
         return ixs;
     }
 
+
+    private static final class CachedRecordStore {
+
+        static final CachedRecordStore NONE = new CachedRecordStore(null, -1);
+
+        final RecordStore recordStore;
+        final int recordStoreRemovals;
+
+        CachedRecordStore(RecordStore recordStore, int recordStoreRemovals) {
+            this.recordStore = recordStore;
+            this.recordStoreRemovals = recordStoreRemovals;
+        }
+
+        boolean isFor(String name, int currentRecordStoreRemovals) {
+            return recordStore != null && recordStoreRemovals == currentRecordStoreRemovals
+                    && recordStore.getName().equals(name);
+        }
+    }
 }
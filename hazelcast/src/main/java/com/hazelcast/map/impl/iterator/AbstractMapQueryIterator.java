@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.Predicate;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Base class for iterating the results of a query on all partitions of a map.
+ * <p>
+ * The partitions are queried one after another through partition query iterators, see
+ * {@link AbstractMapQueryPartitionIterator}, so the results are streamed in batches: the next batch is only
+ * fetched once the previous one has been consumed. Neither the members nor the caller ever hold more than one
+ * batch of results of the iterator, whatever the size of the whole result, and the result is not subject to the
+ * query result size limit.
+ * <p>
+ * The {@link Iterator#remove()} method is not supported and will throw an {@link UnsupportedOperationException}.
+ * <b>NOTE</b>
+ * Iterating the map should be done only when the {@link IMap} is not being
+ * mutated and the cluster is stable (there are no migrations or membership changes).
+ * In other cases, the iterator may not return some entries or may return an entry twice.
+ *
+ * @param <R> the type of the results, as returned by the projection of the {@link Predicate} matching entries
+ */
+public abstract class AbstractMapQueryIterator<R> implements Iterator<R> {
+
+    private final int partitionCount;
+    private int partitionId = -1;
+    private Iterator<R> partitionIterator;
+
+    protected AbstractMapQueryIterator(int partitionCount) {
+        this.partitionCount = partitionCount;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (partitionIterator == null || !partitionIterator.hasNext()) {
+            if (partitionId + 1 >= partitionCount) {
+                return false;
+            }
+            partitionId++;
+            partitionIterator = createPartitionIterator(partitionId);
+        }
+        return true;
+    }
+
+    @Override
+    public R next() {
+        if (hasNext()) {
+            return partitionIterator.next();
+        }
+        throw new NoSuchElementException();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing when iterating map with query is not supported");
+    }
+
+    /**
+     * @return the iterator of the results of the query on the given partition
+     */
+    protected abstract Iterator<R> createPartitionIterator(int partitionId);
+}
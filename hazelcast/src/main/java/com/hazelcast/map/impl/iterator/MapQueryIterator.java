@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+/**
+ * Iterator for iterating the results of a query on all partitions of a map, see {@link AbstractMapQueryIterator}.
+ */
+public class MapQueryIterator<K, V, R> extends AbstractMapQueryIterator<R> {
+
+    private final MapProxyImpl<K, V> mapProxy;
+    private final int fetchSize;
+    private final Predicate<K, V> predicate;
+    private final Projection<Entry<K, V>, R> projection;
+
+    public MapQueryIterator(MapProxyImpl<K, V> mapProxy, int fetchSize, Predicate<K, V> predicate,
+                            Projection<Entry<K, V>, R> projection) {
+        super(mapProxy.getNodeEngine().getPartitionService().getPartitionCount());
+        this.mapProxy = mapProxy;
+        this.fetchSize = fetchSize;
+        this.predicate = predicate;
+        this.projection = projection;
+    }
+
+    @Override
+    protected Iterator<R> createPartitionIterator(int partitionId) {
+        return new MapQueryPartitionIterator<K, V, R>(mapProxy, fetchSize, partitionId, predicate, projection);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.MutatingOperation;
+import com.hazelcast.util.Clock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.map.impl.record.Records.applyRecordInfo;
+
+/**
+ * Replicates a chunk of the records of an IMap partition to a replica partition.
+ *
+ * It is sent after a {@link MapReplicationOperation} that replicated the metadata of the map without its records,
+ * and adds its records to the ones already replicated.
+ *
+ * @see MapReplicationChunkIterator
+ */
+public class MapChunkReplicationOperation extends Operation implements MutatingOperation, IdentifiedDataSerializable {
+
+    private String mapName;
+    private List<RecordReplicationInfo> records;
+
+    public MapChunkReplicationOperation() {
+    }
+
+    public MapChunkReplicationOperation(String mapName, List<RecordReplicationInfo> records, int partitionId,
+                                        int replicaIndex) {
+        this.mapName = mapName;
+        this.records = records;
+        setPartitionId(partitionId).setReplicaIndex(replicaIndex);
+    }
+
+    @Override
+    public void run() {
+        final boolean skipLoadingOnRecordStoreCreate = true;
+        MapService mapService = getService();
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        RecordStore recordStore = mapServiceContext.getRecordStore(getPartitionId(), mapName, skipLoadingOnRecordStoreCreate);
+
+        for (RecordReplicationInfo recordReplicationInfo : records) {
+            Record newRecord = recordStore.createRecord(recordReplicationInfo.getValue(), -1L, Clock.currentTimeMillis());
+            applyRecordInfo(newRecord, recordReplicationInfo);
+            recordStore.putRecord(recordReplicationInfo.getKey(), newRecord);
+        }
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeUTF(mapName);
+        out.writeInt(records.size());
+        for (RecordReplicationInfo recordReplicationInfo : records) {
+            out.writeObject(recordReplicationInfo);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        mapName = in.readUTF();
+        int size = in.readInt();
+        records = new ArrayList<RecordReplicationInfo>(size);
+        for (int i = 0; i < size; i++) {
+            RecordReplicationInfo recordReplicationInfo = in.readObject();
+            records.add(recordReplicationInfo);
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.MAP_CHUNK_REPLICATION;
+    }
+}
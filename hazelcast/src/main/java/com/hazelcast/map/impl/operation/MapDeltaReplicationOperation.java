@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.ObjectNamespace;
+import com.hazelcast.spi.ServiceNamespace;
+import com.hazelcast.util.Clock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.hazelcast.map.impl.record.Records.applyRecordInfo;
+
+/**
+ * Replaces the records of a backup replica in the digest buckets which differ from the owner with the records of
+ * the owner. Like the {@link MapReplicationOperation}, it also replicates the state of the map that is kept outside
+ * of the records, like the loaded status, the indexes and the Near Cache invalidation metadata.
+ *
+ * @see MapReplicaDigest
+ */
+public class MapDeltaReplicationOperation extends MapReplicationOperation {
+
+    private String mapName;
+    private List<Integer> buckets;
+    private List<RecordReplicationInfo> records;
+
+    public MapDeltaReplicationOperation() {
+    }
+
+    public MapDeltaReplicationOperation(PartitionContainer container, ServiceNamespace namespace, List<Integer> buckets,
+                                        List<RecordReplicationInfo> records, int partitionId, int replicaIndex) {
+        super(container, Collections.singleton(namespace), partitionId, replicaIndex, false);
+        this.mapName = ((ObjectNamespace) namespace).getObjectName();
+        this.buckets = buckets;
+        this.records = records;
+    }
+
+    @Override
+    public void run() {
+        mapReplicationStateHolder.applyMetadata();
+        if (getReplicaIndex() == 0) {
+            mapNearCacheStateHolder.applyState();
+        }
+
+        RecordStore recordStore = getRecordStore(mapName);
+        removeRecordsInBuckets(recordStore);
+
+        for (RecordReplicationInfo recordReplicationInfo : records) {
+            Record newRecord = recordStore.createRecord(recordReplicationInfo.getValue(), -1L, Clock.currentTimeMillis());
+            applyRecordInfo(newRecord, recordReplicationInfo);
+            recordStore.putRecord(recordReplicationInfo.getKey(), newRecord);
+        }
+    }
+
+    private void removeRecordsInBuckets(RecordStore recordStore) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        boolean[] differingBuckets = new boolean[MapReplicaDigest.BUCKET_COUNT];
+        for (int bucket : buckets) {
+            differingBuckets[bucket] = true;
+        }
+
+        List<Data> keys = new ArrayList<Data>();
+        Iterator<Record> iterator = recordStore.iterator();
+        while (iterator.hasNext()) {
+            Data key = iterator.next().getKey();
+            if (differingBuckets[MapReplicaDigest.bucketOf(key)]) {
+                keys.add(key);
+            }
+        }
+
+        for (Data key : keys) {
+            recordStore.removeBackup(key);
+        }
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeUTF(mapName);
+        out.writeInt(buckets.size());
+        for (int bucket : buckets) {
+            out.writeInt(bucket);
+        }
+        out.writeInt(records.size());
+        for (RecordReplicationInfo recordReplicationInfo : records) {
+            out.writeObject(recordReplicationInfo);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        mapName = in.readUTF();
+        int bucketCount = in.readInt();
+        buckets = new ArrayList<Integer>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(in.readInt());
+        }
+        int size = in.readInt();
+        records = new ArrayList<RecordReplicationInfo>(size);
+        for (int i = 0; i < size; i++) {
+            RecordReplicationInfo recordReplicationInfo = in.readObject();
+            records.add(recordReplicationInfo);
+        }
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.MAP_DELTA_REPLICATION;
+    }
+}
@@ -72,6 +72,11 @@ public abstract class MapOperation extends AbstractNamedOperation implements Ide
         mapEventPublisher = mapServiceContext.getMapEventPublisher();
 
         innerBeforeRun();
+
+        if (recordStore != null) {
+            // blocks released by the previous operation on this partition can not be read anymore
+            recordStore.disposeDeferredBlocks();
+        }
     }
 
     public void innerBeforeRun() throws Exception {
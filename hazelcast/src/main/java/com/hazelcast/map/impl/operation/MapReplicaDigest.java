@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.ObjectNamespace;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.ServiceNamespace;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.hazelcast.map.impl.record.Records.buildRecordInfo;
+import static com.hazelcast.util.HashUtil.MurmurHash3_fmix;
+
+/**
+ * Computes the digests used by the delta replica sync of IMap partitions.
+ *
+ * The records of a partition are hashed into {@value #BUCKET_COUNT} buckets by their keys. The digest of a bucket is the
+ * sum of the hashes of its records, so it does not depend on the iteration order of the record store. The hash of a
+ * record covers its key, its value and the metadata that is replicated to the backups: the version, the TTL and the
+ * expiration time. The owner compares the digest of the backup replica with its own and only replicates the records
+ * in the differing buckets.
+ *
+ * @see MapDeltaReplicationOperation
+ */
+public final class MapReplicaDigest {
+
+    /**
+     * Number of buckets of a digest.
+     */
+    public static final int BUCKET_COUNT = 256;
+
+    private static final int BUCKET_MASK = BUCKET_COUNT - 1;
+    private static final int BUCKET_SHIFT = 32;
+    private static final long VALUE_HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final long METADATA_MULTIPLIER = 31;
+
+    private MapReplicaDigest() {
+    }
+
+    /**
+     * Returns the digest of the records of the given IMap namespace in the given partition.
+     *
+     * @return the digest, or {@code null} if the map does not support delta replica sync
+     */
+    public static long[] getDigest(MapServiceContext mapServiceContext, int partitionId, ServiceNamespace namespace) {
+        RecordStore recordStore = getRecordStore(mapServiceContext, partitionId, namespace);
+        return recordStore == null ? null : computeDigest(recordStore);
+    }
+
+    /**
+     * Returns the operation which updates the records of a backup replica with the given digest.
+     *
+     * @return the operation, or {@code null} if the namespace needs to be replicated completely
+     */
+    public static Operation prepareDeltaOperation(MapServiceContext mapServiceContext, ServiceNamespace namespace,
+                                                  int partitionId, int replicaIndex, long[] digest) {
+        RecordStore recordStore = getRecordStore(mapServiceContext, partitionId, namespace);
+        if (recordStore == null || digest.length != BUCKET_COUNT
+                || recordStore.getMapContainer().getMapConfig().getTotalBackupCount() < replicaIndex) {
+            return null;
+        }
+
+        long[] ownDigest = computeDigest(recordStore);
+        boolean[] differingBuckets = new boolean[BUCKET_COUNT];
+        List<Integer> buckets = new ArrayList<Integer>();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (ownDigest[i] != digest[i]) {
+                differingBuckets[i] = true;
+                buckets.add(i);
+            }
+        }
+
+        List<RecordReplicationInfo> records = new ArrayList<RecordReplicationInfo>();
+        if (!buckets.isEmpty()) {
+            Iterator<Record> iterator = recordStore.iterator();
+            while (iterator.hasNext()) {
+                Record record = iterator.next();
+                Data key = record.getKey();
+                if (differingBuckets[bucketOf(key)]) {
+                    Data value = mapServiceContext.toData(record.getValue());
+                    records.add(new RecordReplicationInfo(key, value, buildRecordInfo(record)));
+                }
+            }
+        }
+
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+        Operation operation = new MapDeltaReplicationOperation(container, namespace, buckets, records, partitionId,
+                replicaIndex);
+        operation.setService(mapServiceContext.getService());
+        return operation;
+    }
+
+    static int bucketOf(Data key) {
+        return (int) (key.hash64() >>> BUCKET_SHIFT) & BUCKET_MASK;
+    }
+
+    /**
+     * Computes the digest of a record store whose values are stored in serialized form, so they are hashed without
+     * being serialized.
+     */
+    static long[] computeDigest(RecordStore recordStore) {
+        long[] digest = new long[BUCKET_COUNT];
+        Iterator<Record> iterator = recordStore.iterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            Data key = record.getKey();
+            Data value = (Data) record.getValue();
+            long valueHash = value == null ? 0 : value.hash64();
+            long metadataHash = MurmurHash3_fmix(record.getVersion() * METADATA_MULTIPLIER + record.getTtl())
+                    + MurmurHash3_fmix(record.getExpirationTime());
+            digest[bucketOf(key)] += key.hash64() ^ (valueHash * VALUE_HASH_MULTIPLIER) ^ metadataHash;
+        }
+        return digest;
+    }
+
+    /**
+     * Returns the record store of the namespace if it exists and it can be synced incrementally. Maps with a
+     * write-behind map store also need to replicate their write-behind queues, so they are always synced completely.
+     * Maps with the {@link InMemoryFormat#OBJECT} format are synced completely too, since their digests would
+     * serialize every value on the partition threads of both replicas.
+     */
+    private static RecordStore getRecordStore(MapServiceContext mapServiceContext, int partitionId,
+                                              ServiceNamespace namespace) {
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+        RecordStore recordStore = container.getExistingRecordStore(((ObjectNamespace) namespace).getObjectName());
+        if (recordStore == null) {
+            return null;
+        }
+        MapContainer mapContainer = recordStore.getMapContainer();
+        if (mapContainer.getMapStoreContext().isWriteBehindMapStoreEnabled()
+                || mapContainer.getMapConfig().getInMemoryFormat() == InMemoryFormat.OBJECT) {
+            return null;
+        }
+        return recordStore;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.ObjectNamespace;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.ServiceNamespace;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.map.impl.record.Records.buildRecordInfo;
+import static java.util.Collections.singleton;
+
+/**
+ * Creates the replication operations of a single IMap namespace in chunks.
+ *
+ * The first operation is a {@link MapReplicationOperation} without records; it resets the record store on the
+ * destination and replicates the metadata, like the indexes and the write-behind queue. The records follow in
+ * {@link MapChunkReplicationOperation}s of approximately {@code chunkSize} bytes each, which are created on demand.
+ */
+public class MapReplicationChunkIterator implements Iterator<Operation> {
+
+    private final MapServiceContext mapServiceContext;
+    private final ServiceNamespace namespace;
+    private final int partitionId;
+    private final int replicaIndex;
+    private final int chunkSize;
+
+    private boolean metadataSent;
+    private Iterator<Record> records;
+
+    public MapReplicationChunkIterator(MapServiceContext mapServiceContext, ServiceNamespace namespace, int partitionId,
+                                       int replicaIndex, int chunkSize) {
+        this.mapServiceContext = mapServiceContext;
+        this.namespace = namespace;
+        this.partitionId = partitionId;
+        this.replicaIndex = replicaIndex;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !metadataSent || records.hasNext();
+    }
+
+    @Override
+    public Operation next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        if (!metadataSent) {
+            metadataSent = true;
+            return createMetadataOperation();
+        }
+
+        String mapName = ((ObjectNamespace) namespace).getObjectName();
+        List<RecordReplicationInfo> chunk = new ArrayList<RecordReplicationInfo>();
+        long size = 0;
+        while (records.hasNext() && size < chunkSize) {
+            Record record = records.next();
+            Data key = record.getKey();
+            Data value = mapServiceContext.toData(record.getValue());
+            chunk.add(new RecordReplicationInfo(key, value, buildRecordInfo(record)));
+            size += key.totalSize() + (value == null ? 0 : value.totalSize());
+        }
+
+        Operation operation = new MapChunkReplicationOperation(mapName, chunk, partitionId, replicaIndex);
+        operation.setService(mapServiceContext.getService());
+        return operation;
+    }
+
+    private Operation createMetadataOperation() {
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+        Operation operation = new MapReplicationOperation(container, singleton(namespace), partitionId, replicaIndex,
+                false);
+        operation.setService(mapServiceContext.getService());
+
+        String mapName = ((ObjectNamespace) namespace).getObjectName();
+        RecordStore recordStore = container.getExistingRecordStore(mapName);
+        if (recordStore == null
+                || recordStore.getMapContainer().getMapConfig().getTotalBackupCount() < replicaIndex) {
+            records = new ArrayList<Record>(0).iterator();
+        } else {
+            records = recordStore.iterator();
+        }
+        return operation;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
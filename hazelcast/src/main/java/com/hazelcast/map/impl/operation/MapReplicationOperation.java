@@ -60,8 +60,17 @@ public class MapReplicationOperation extends Operation implements MutatingOperat
 
     public MapReplicationOperation(PartitionContainer container, Collection<ServiceNamespace> namespaces,
                                    int partitionId, int replicaIndex) {
+        this(container, namespaces, partitionId, replicaIndex, true);
+    }
+
+    /**
+     * @param includeRecords {@code false} if the records are replicated separately using
+     *                       {@link MapChunkReplicationOperation}s
+     */
+    public MapReplicationOperation(PartitionContainer container, Collection<ServiceNamespace> namespaces,
+                                   int partitionId, int replicaIndex, boolean includeRecords) {
         setPartitionId(partitionId).setReplicaIndex(replicaIndex);
-        this.mapReplicationStateHolder.prepare(container, namespaces, replicaIndex);
+        this.mapReplicationStateHolder.prepare(container, namespaces, replicaIndex, includeRecords);
         this.writeBehindStateHolder.prepare(container, namespaces, replicaIndex);
         this.mapNearCacheStateHolder.prepare(container, namespaces, replicaIndex);
     }
@@ -85,6 +85,15 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
     }
 
     void prepare(PartitionContainer container, Collection<ServiceNamespace> namespaces, int replicaIndex) {
+        prepare(container, namespaces, replicaIndex, true);
+    }
+
+    /**
+     * @param includeRecords {@code false} if only the metadata of the maps is replicated and the records follow
+     *                       in {@link MapChunkReplicationOperation}s
+     */
+    void prepare(PartitionContainer container, Collection<ServiceNamespace> namespaces, int replicaIndex,
+                 boolean includeRecords) {
         data = new HashMap<String, Set<RecordReplicationInfo>>(namespaces.size());
         loaded = new HashMap<String, Boolean>(namespaces.size());
         mapIndexInfos = new ArrayList<MapIndexInfo>(namespaces.size());
@@ -106,14 +115,17 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
 
             loaded.put(mapName, recordStore.isLoaded());
             // now prepare data to migrate records
-            Set<RecordReplicationInfo> recordSet = new HashSet<RecordReplicationInfo>(recordStore.size());
-            final Iterator<Record> iterator = recordStore.iterator();
-            while (iterator.hasNext()) {
-                Record record = iterator.next();
-                Data key = record.getKey();
-                RecordReplicationInfo recordReplicationInfo
-                        = mapReplicationOperation.createRecordReplicationInfo(key, record, mapServiceContext);
-                recordSet.add(recordReplicationInfo);
+            Set<RecordReplicationInfo> recordSet
+                    = new HashSet<RecordReplicationInfo>(includeRecords ? recordStore.size() : 0);
+            if (includeRecords) {
+                final Iterator<Record> iterator = recordStore.iterator();
+                while (iterator.hasNext()) {
+                    Record record = iterator.next();
+                    Data key = record.getKey();
+                    RecordReplicationInfo recordReplicationInfo
+                            = mapReplicationOperation.createRecordReplicationInfo(key, record, mapServiceContext);
+                    recordSet.add(recordReplicationInfo);
+                }
             }
             data.put(mapName, recordSet);
 
@@ -140,6 +152,18 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
     }
 
     void applyState() {
+        applyState(true);
+    }
+
+    /**
+     * Applies the loaded status and the indexes of the maps, but leaves their records untouched. Used by the
+     * {@link MapDeltaReplicationOperation}, which only replaces some of the records.
+     */
+    void applyMetadata() {
+        applyState(false);
+    }
+
+    private void applyState(boolean replaceRecords) {
         ThreadUtil.assertRunningOnPartitionThread();
 
         // the null check can be removed in 3.10+ codebase
@@ -164,7 +188,9 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
                 Set<RecordReplicationInfo> recordReplicationInfos = dataEntry.getValue();
                 final String mapName = dataEntry.getKey();
                 RecordStore recordStore = mapReplicationOperation.getRecordStore(mapName);
-                recordStore.reset();
+                if (replaceRecords) {
+                    recordStore.reset();
+                }
                 recordStore.setPreMigrationLoadedStatus(loaded.get(mapName));
 
                 MapContainer mapContainer = recordStore.getMapContainer();
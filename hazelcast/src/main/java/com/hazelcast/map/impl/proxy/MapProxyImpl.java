@@ -35,6 +35,7 @@ import com.hazelcast.map.QueryCache;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.SimpleEntryView;
 import com.hazelcast.map.impl.iterator.MapPartitionIterator;
+import com.hazelcast.map.impl.iterator.MapQueryIterator;
 import com.hazelcast.map.impl.iterator.MapQueryPartitionIterator;
 import com.hazelcast.map.impl.journal.MapEventJournalReadOperation;
 import com.hazelcast.map.impl.journal.MapEventJournalSubscribeOperation;
@@ -964,6 +965,48 @@ public class MapProxyImpl<K, V> extends MapProxySupport<K, V> implements EventJo
         return new MapQueryPartitionIterator<K, V, R>(this, fetchSize, partitionId, predicate, projection);
     }
 
+    /**
+     * Returns an iterator for iterating the result of the projection on entries of all partitions which
+     * satisfy the {@code predicate}.
+     * <p>
+     * Unlike {@link #values(Predicate)} and the other query methods, the result is neither built on the members nor
+     * materialized on the caller: the partitions are queried one after another and the results are fetched in batches
+     * of {@code fetchSize}, the next batch being fetched only when the previous one has been consumed. So large
+     * results don't need to fit in memory and are not limited by the query result size limit.
+     * A too small {@code fetchSize} can affect performance since more data will have to be sent to and from the partition owner.
+     * A too high {@code fetchSize} means that more data will be sent which can block other operations from being sent,
+     * including internal operations.
+     * Predicates of type {@link PagingPredicate} are not supported.
+     * <p>
+     * <b>NOTE</b>
+     * Iterating the map should be done only when the {@link IMap} is not being
+     * mutated and the cluster is stable (there are no migrations or membership changes).
+     * In other cases, the iterator may not return some entries or may return an entry twice.
+     *
+     * @param fetchSize  the size of the batches which will be sent when iterating the data
+     * @param projection the projection to apply before returning the value. {@code null} value is not allowed
+     * @param predicate  the predicate which the entries must match. {@code null} value is not allowed
+     * @param <R>        the return type
+     * @return the iterator for the projected entries
+     * @throws UnsupportedOperationException when cluster version is less than {@link Versions#V3_9}
+     * @throws IllegalArgumentException      if the predicate is of type {@link PagingPredicate}
+     * @see #iterator(int, int, Projection, Predicate)
+     */
+    public <R> Iterator<R> iterator(int fetchSize, Projection<Map.Entry<K, V>, R> projection, Predicate<K, V> predicate) {
+        if (getNodeEngine().getClusterService().getClusterVersion().isLessThan(Versions.V3_9)) {
+            throw new UnsupportedOperationException("Iterate map by query is available when cluster version is 3.9 or higher");
+        }
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("Paging predicate is not allowed when iterating map by query");
+        }
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        // HazelcastInstanceAware handled by cloning
+        projection = serializationService.toObject(serializationService.toData(projection));
+        handleHazelcastInstanceAwareParams(predicate);
+        return new MapQueryIterator<K, V, R>(this, fetchSize, predicate, projection);
+    }
+
     @Override
     public ICompletableFuture<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final MapEventJournalSubscribeOperation op = new MapEventJournalSubscribeOperation(name);
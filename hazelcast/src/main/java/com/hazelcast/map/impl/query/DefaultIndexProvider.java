@@ -17,13 +17,29 @@
 package com.hazelcast.map.impl.query;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.query.impl.BitmapOrdinals;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.IndexImpl;
 import com.hazelcast.query.impl.getters.Extractors;
 
 public class DefaultIndexProvider implements IndexProvider {
+
+    private final boolean statisticsEnabled;
+
+    public DefaultIndexProvider() {
+        this(false);
+    }
+
+    /**
+     * @param statisticsEnabled {@code true} if the indexes keep the statistics of their values
+     */
+    public DefaultIndexProvider(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
     @Override
-    public Index createIndex(String attributeName, boolean ordered, Extractors extractors, InternalSerializationService ss) {
-        return new IndexImpl(attributeName, ordered, ss, extractors);
+    public Index createIndex(String attributeName, boolean ordered, Extractors extractors, InternalSerializationService ss,
+                             BitmapOrdinals bitmapOrdinals) {
+        return new IndexImpl(attributeName, ordered, ss, extractors, bitmapOrdinals, statisticsEnabled);
     }
 }
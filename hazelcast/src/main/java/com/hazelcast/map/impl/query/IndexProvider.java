@@ -17,11 +17,17 @@
 package com.hazelcast.map.impl.query;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.query.impl.BitmapOrdinals;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.getters.Extractors;
 
 public interface IndexProvider {
 
-    Index createIndex(String attributeName, boolean ordered, Extractors extractors, InternalSerializationService ss);
+    /**
+     * @param bitmapOrdinals the ordinals shared by the bitmap indexes of the same indexes instance,
+     *                       {@code null} unless the attribute is a bitmap attribute
+     */
+    Index createIndex(String attributeName, boolean ordered, Extractors extractors, InternalSerializationService ss,
+                      BitmapOrdinals bitmapOrdinals);
 
 }
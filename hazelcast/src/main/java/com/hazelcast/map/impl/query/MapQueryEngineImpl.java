@@ -16,6 +16,8 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.RecordStorageType;
 import com.hazelcast.core.HazelcastException;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -146,6 +148,10 @@ public class MapQueryEngineImpl implements MapQueryEngine {
 
     private Result doRunQueryOnQueryThreads(Query query, Collection<Integer> partitionIds, Target target) {
         Result result = populateResult(query, partitionIds);
+        if (isRecordStorageOffHeap(query.getMapName())) {
+            // native blocks are freed by the partition threads, so only they may scan the records
+            return result;
+        }
         List<Future<Result>> futures = dispatchOnQueryThreads(query, target);
         addResultsOfPredicate(futures, result, partitionIds, false);
         return result;
@@ -171,6 +177,11 @@ public class MapQueryEngineImpl implements MapQueryEngine {
         return Collections.emptyList();
     }
 
+    private boolean isRecordStorageOffHeap(String mapName) {
+        MapConfig mapConfig = mapServiceContext.getMapContainer(mapName).getMapConfig();
+        return mapConfig.getRecordStorageType() == RecordStorageType.OFF_HEAP;
+    }
+
     private Result populateResult(Query query, Collection<Integer> partitionIds) {
         return resultProcessorRegistry.get(query.getResultType()).populateResult(query,
                 queryResultSizeLimiter.getNodeResultLimit(partitionIds.size()));
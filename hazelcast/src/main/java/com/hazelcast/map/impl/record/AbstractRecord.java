@@ -203,12 +203,12 @@ public abstract class AbstractRecord<V> implements Record<V> {
         if (lastUpdateTime != that.lastUpdateTime) {
             return false;
         }
-        return key.equals(that.key);
+        return getKey().equals(that.getKey());
     }
 
     @Override
     public int hashCode() {
-        int result = key.hashCode();
+        int result = getKey().hashCode();
         result = 31 * result + (int) (version ^ (version >>> 32));
         result = 31 * result + (int) (ttl ^ (ttl >>> 32));
         result = 31 * result + (int) (creationTime ^ (creationTime >>> 32));
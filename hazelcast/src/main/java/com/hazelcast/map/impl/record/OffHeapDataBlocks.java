@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.impl.NativeMemoryBudget;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Keeps serialized {@link Data} in native memory blocks.
+ * <p>
+ * A block consists of an {@code int} holding the length of the payload, followed by the payload bytes
+ * as returned from {@link Data#toByteArray()}. Reading a block back always creates a {@link HeapData} copy,
+ * so the returned instance stays valid after the block is freed.
+ * <p>
+ * Blocks which may still be read by another thread, e.g. an old value replaced by an update, are not freed
+ * immediately but deferred until {@link #disposeDeferredBlocks()} is called by the owner thread.
+ * <p>
+ * NOTE: Assumed that blocks are allocated and freed by a single thread, e.g. a partition thread.
+ */
+public final class OffHeapDataBlocks {
+
+    private static final int INITIAL_DEFERRED_CAPACITY = 16;
+
+    private final UnsafeMallocMemoryManager memoryManager;
+    private final MemoryAccessor mem;
+
+    private long[] deferredAddresses = new long[INITIAL_DEFERRED_CAPACITY];
+    private int deferredCount;
+
+    public OffHeapDataBlocks(NativeMemoryBudget budget) {
+        this.memoryManager = new UnsafeMallocMemoryManager(budget);
+        this.mem = memoryManager.getAccessor();
+    }
+
+    /**
+     * Copies the given data into a newly allocated block.
+     *
+     * @throws com.hazelcast.memory.NativeOutOfMemoryError if the native memory budget is exhausted
+     * @return address of the block or {@link com.hazelcast.internal.memory.MemoryAllocator#NULL_ADDRESS}
+     * if {@code data} is {@code null}
+     */
+    public long allocate(Data data) {
+        if (data == null) {
+            return NULL_ADDRESS;
+        }
+        byte[] payload = data.toByteArray();
+        int length = payload == null ? 0 : payload.length;
+        long address = memoryManager.allocate(INT_SIZE_IN_BYTES + length);
+        mem.putInt(address, length);
+        if (length > 0) {
+            mem.copyFromByteArray(payload, 0, address + INT_SIZE_IN_BYTES, length);
+        }
+        return address;
+    }
+
+    /**
+     * @return a heap copy of the data in the block or {@code null} if the address is {@code NULL_ADDRESS}
+     */
+    public Data read(long address) {
+        if (address == NULL_ADDRESS) {
+            return null;
+        }
+        int length = mem.getInt(address);
+        byte[] payload = new byte[length];
+        if (length > 0) {
+            mem.copyToByteArray(address + INT_SIZE_IN_BYTES, payload, 0, length);
+        }
+        return new HeapData(payload);
+    }
+
+    /**
+     * Compares the given data with the block without copying the block to the heap.
+     * Follows {@link HeapData#equals(Object)}, so the partition hash is not taken into account.
+     */
+    public boolean contentEquals(long address, Data data) {
+        if (address == NULL_ADDRESS || data == null) {
+            return address == NULL_ADDRESS && data == null;
+        }
+        byte[] payload = data.toByteArray();
+        int length = payload == null ? 0 : payload.length;
+        if (mem.getInt(address) != length) {
+            return false;
+        }
+        long base = address + INT_SIZE_IN_BYTES;
+        for (int i = length - 1; i >= TYPE_OFFSET; i--) {
+            if (mem.getByte(base + i) != payload[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of native bytes occupied by the block
+     */
+    public long sizeOf(long address) {
+        return address == NULL_ADDRESS ? 0 : INT_SIZE_IN_BYTES + mem.getInt(address);
+    }
+
+    public void free(long address) {
+        if (address != NULL_ADDRESS) {
+            memoryManager.free(address, sizeOf(address));
+        }
+    }
+
+    /**
+     * Schedules the block to be freed on the next call to {@link #disposeDeferredBlocks()}.
+     */
+    public void deferFree(long address) {
+        if (address == NULL_ADDRESS) {
+            return;
+        }
+        if (deferredCount == deferredAddresses.length) {
+            deferredAddresses = Arrays.copyOf(deferredAddresses, deferredCount << 1);
+        }
+        deferredAddresses[deferredCount++] = address;
+    }
+
+    public void disposeDeferredBlocks() {
+        for (int i = 0; i < deferredCount; i++) {
+            free(deferredAddresses[i]);
+            deferredAddresses[i] = NULL_ADDRESS;
+        }
+        deferredCount = 0;
+        if (deferredAddresses.length > INITIAL_DEFERRED_CAPACITY) {
+            deferredAddresses = new long[INITIAL_DEFERRED_CAPACITY];
+        }
+    }
+
+    /**
+     * @return the number of native bytes currently allocated, including the blocks waiting to be freed
+     */
+    public long getUsedMemory() {
+        return memoryManager.getUsedMemory();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.nio.serialization.Data;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+
+class OffHeapDataRecord extends AbstractRecord<Data> implements OffHeapRecord {
+
+    private final OffHeapDataBlocks blocks;
+    private long keyAddress = NULL_ADDRESS;
+    private volatile long valueAddress = NULL_ADDRESS;
+
+    OffHeapDataRecord(OffHeapDataBlocks blocks, Data value) {
+        this.blocks = blocks;
+        this.valueAddress = blocks.allocate(value);
+    }
+
+    /**
+     * Get the on-heap record size in bytes. The native blocks of the key and value are not counted,
+     * they are reported by {@link OffHeapDataBlocks#getUsedMemory()}.
+     */
+    @Override
+    public long getCost() {
+        return super.getCost() + REFERENCE_COST_IN_BYTES + 2 * LONG_SIZE_IN_BYTES;
+    }
+
+    @Override
+    public Data getKey() {
+        return blocks.read(keyAddress);
+    }
+
+    @Override
+    public void setKey(Data key) {
+        long oldKeyAddress = keyAddress;
+        keyAddress = blocks.allocate(key);
+        blocks.deferFree(oldKeyAddress);
+    }
+
+    @Override
+    public Data getValue() {
+        return blocks.read(valueAddress);
+    }
+
+    @Override
+    public void setValue(Data o) {
+        long oldValueAddress = valueAddress;
+        valueAddress = blocks.allocate(o);
+        blocks.deferFree(oldValueAddress);
+    }
+
+    @Override
+    public boolean keyEquals(Data key) {
+        return blocks.contentEquals(keyAddress, key);
+    }
+
+    @Override
+    public void dispose(boolean deferred) {
+        if (deferred) {
+            // the record stays readable until the deferred blocks are disposed
+            blocks.deferFree(keyAddress);
+            blocks.deferFree(valueAddress);
+            return;
+        }
+        blocks.free(keyAddress);
+        blocks.free(valueAddress);
+        keyAddress = NULL_ADDRESS;
+        valueAddress = NULL_ADDRESS;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) {
+            return false;
+        }
+
+        OffHeapDataRecord that = (OffHeapDataRecord) o;
+
+        return getValue().equals(that.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + getValue().hashCode();
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.impl.NativeMemoryBudget;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+/**
+ * {@link RecordFactory} for {@link com.hazelcast.config.RecordStorageType#OFF_HEAP} maps.
+ * Every factory owns the {@link OffHeapDataBlocks} of the records it creates, so it must not be
+ * shared between record stores.
+ */
+public class OffHeapDataRecordFactory implements RecordFactory<Data> {
+
+    private final SerializationService serializationService;
+    private final PartitioningStrategy partitionStrategy;
+    private final boolean statisticsEnabled;
+    private final OffHeapDataBlocks blocks;
+
+    public OffHeapDataRecordFactory(MapConfig config, SerializationService serializationService,
+                                    PartitioningStrategy partitionStrategy, NativeMemoryBudget budget) {
+        this.blocks = new OffHeapDataBlocks(budget);
+        this.serializationService = serializationService;
+        this.partitionStrategy = partitionStrategy;
+        this.statisticsEnabled = config.isStatisticsEnabled();
+    }
+
+    @Override
+    public Record<Data> newRecord(Object value) {
+        assert value != null : "value can not be null";
+
+        Data data = serializationService.toData(value, partitionStrategy);
+        return statisticsEnabled ? new OffHeapDataRecordWithStats(blocks, data) : new OffHeapDataRecord(blocks, data);
+    }
+
+    @Override
+    public void setValue(Record<Data> record, Object value) {
+        assert value != null : "value can not be null";
+
+        final Data v;
+        if (value instanceof Data) {
+            v = (Data) value;
+        } else {
+            v = serializationService.toData(value, partitionStrategy);
+        }
+        record.setValue(v);
+    }
+
+    public OffHeapDataBlocks getBlocks() {
+        return blocks;
+    }
+}
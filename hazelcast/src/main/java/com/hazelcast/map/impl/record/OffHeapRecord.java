@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.nio.serialization.Data;
+
+/**
+ * A {@link Record} which keeps its serialized key and value in native memory.
+ * {@link Record#getKey()} and {@link Record#getValue()} return on-heap copies.
+ */
+public interface OffHeapRecord {
+
+    /**
+     * Compares the given key with the one of this record without copying the native key to the heap.
+     */
+    boolean keyEquals(Data key);
+
+    /**
+     * Releases the native blocks of this record.
+     *
+     * @param deferred {@code true} to keep the record readable until {@link OffHeapDataBlocks#disposeDeferredBlocks()}
+     *                 is called, otherwise the blocks are freed immediately
+     */
+    void dispose(boolean deferred);
+}
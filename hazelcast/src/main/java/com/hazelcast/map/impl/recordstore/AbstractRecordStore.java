@@ -20,6 +20,7 @@ import com.hazelcast.concurrent.lock.LockService;
 import com.hazelcast.concurrent.lock.LockStore;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.RecordStorageType;
 import com.hazelcast.map.impl.EntryCostEstimator;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapService;
@@ -27,6 +28,7 @@ import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.journal.MapEventJournal;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.record.OffHeapDataRecordFactory;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordComparator;
 import com.hazelcast.map.impl.record.RecordFactory;
@@ -108,6 +110,13 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
 
     @Override
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        RecordStorageType recordStorageType = mapContainer.getMapConfig().getRecordStorageType();
+        if (recordStorageType == RecordStorageType.OPEN_ADDRESSING) {
+            return new OpenAddressingStorage(recordFactory, memoryFormat, serializationService);
+        }
+        if (recordStorageType == RecordStorageType.OFF_HEAP) {
+            return new OffHeapStorage((OffHeapDataRecordFactory) recordFactory, serializationService);
+        }
         return new StorageImpl(recordFactory, memoryFormat, serializationService);
     }
 
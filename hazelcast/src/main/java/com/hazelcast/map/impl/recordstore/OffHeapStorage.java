@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.map.impl.record.OffHeapDataBlocks;
+import com.hazelcast.map.impl.record.OffHeapDataRecordFactory;
+import com.hazelcast.map.impl.record.OffHeapRecord;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordFactory;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createOffHeapMapSizeEstimator;
+
+/**
+ * {@link OpenAddressingStorage} for {@link com.hazelcast.config.RecordStorageType#OFF_HEAP} maps.
+ * <p>
+ * Keys and values of the records live in native memory owned by the {@link OffHeapDataBlocks} of the
+ * record factory. Lookups compare the keys in place, without copying them to the heap. Blocks of removed
+ * or replaced records are freed by {@link #disposeDeferredBlocks()}, which is called by the partition thread
+ * before running the next map operation, so a removed record stays readable until the current operation ends.
+ *
+ * @param <R> the value type to be put in this storage.
+ */
+public class OffHeapStorage<R extends Record> extends OpenAddressingStorage<R> {
+
+    private final OffHeapDataBlocks blocks;
+
+    OffHeapStorage(OffHeapDataRecordFactory recordFactory, SerializationService serializationService) {
+        super((RecordFactory) recordFactory, InMemoryFormat.BINARY, serializationService);
+        this.blocks = recordFactory.getBlocks();
+        setEntryCostEstimator(createOffHeapMapSizeEstimator());
+    }
+
+    @Override
+    public void put(Data key, R record) {
+        try {
+            super.put(key, record);
+        } catch (NativeOutOfMemoryError e) {
+            // the key of a new record did not fit, free the value which was copied when the record was created
+            if (get(key) != record) {
+                ((OffHeapRecord) record).dispose(false);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    protected boolean keyEquals(Data key, R record) {
+        return ((OffHeapRecord) record).keyEquals(key);
+    }
+
+    @Override
+    protected void disposeRecord(R record) {
+        ((OffHeapRecord) record).dispose(true);
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        for (R record : values()) {
+            ((OffHeapRecord) record).dispose(!isDuringShutdown);
+        }
+        super.clear(isDuringShutdown);
+        if (isDuringShutdown) {
+            blocks.disposeDeferredBlocks();
+        }
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        for (R record : values()) {
+            ((OffHeapRecord) record).dispose(false);
+        }
+        super.clear(isDuringShutdown);
+        blocks.disposeDeferredBlocks();
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        blocks.disposeDeferredBlocks();
+    }
+
+    /**
+     * @return the number of native bytes allocated for the records of this storage, these are not part of the
+     * heap cost returned by the entry cost estimator
+     */
+    public long getUsedNativeMemory() {
+        return blocks.getUsedMemory();
+    }
+}
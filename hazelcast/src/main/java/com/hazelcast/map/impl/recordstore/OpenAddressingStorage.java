@@ -0,0 +1,522 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.AbstractRecord;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordFactory;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createMapSizeEstimator;
+import static com.hazelcast.util.HashUtil.MurmurHash3_fmix;
+import static com.hazelcast.util.Preconditions.checkNotNegative;
+
+/**
+ * {@link Storage} implementation which keeps records in flat arrays using open addressing and linear probing.
+ * <p>
+ * Compared to {@link StorageImpl} there is no per-entry hash-entry node: a slot consists of the mixed key hash
+ * in an {@code int[]} and the record reference in an {@code Object[]}. The key itself is reachable from the
+ * record, so it is not stored separately. Removals compact the probe chain instead of leaving tombstones.
+ * <p>
+ * The table is mutated only by the partition thread which owns the {@link RecordStore}. Other threads, like the
+ * ones running partition scans, get a weakly consistent view: the hash array, the record array and the mask are
+ * kept in one immutable {@link Table} which is swapped through a single volatile field on resize, and every
+ * operation works on one such snapshot. An iteration running concurrently with a removal may repeat an entry
+ * which got shifted along its probe chain, but does not miss it.
+ *
+ * @param <R> the value type to be put in this storage.
+ */
+public class OpenAddressingStorage<R extends Record> implements Storage<Data, R> {
+
+    static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+    static final float LOAD_FACTOR = 0.75f;
+
+    private final RecordFactory<R> recordFactory;
+    private final SerializationService serializationService;
+
+    private volatile Table table;
+    private volatile int size;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator;
+
+    OpenAddressingStorage(RecordFactory<R> recordFactory, InMemoryFormat inMemoryFormat,
+                          SerializationService serializationService) {
+        this.recordFactory = recordFactory;
+        this.serializationService = serializationService;
+        this.entryCostEstimator = createMapSizeEstimator(inMemoryFormat);
+        this.table = new Table(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    @Override
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT", justification = "single-writer, many-reader")
+    public void put(Data key, R record) {
+        ((AbstractRecord) record).setKey(key);
+
+        Table table = this.table;
+        int hash = hash(key);
+        int index = hash & table.mask;
+        Object current;
+        while ((current = table.records[index]) != null) {
+            if (table.hashes[index] == hash && keyEquals(key, (R) current)) {
+                R previousRecord = (R) current;
+                table.records[index] = record;
+                updateCostEstimate(-entryCostEstimator.calculateValueCost(previousRecord));
+                updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+                if (previousRecord != record) {
+                    disposeRecord(previousRecord);
+                }
+                return;
+            }
+            index = (index + 1) & table.mask;
+        }
+
+        table.hashes[index] = hash;
+        table.records[index] = record;
+        size++;
+        updateCostEstimate(entryCostEstimator.calculateEntryCost(key, record));
+
+        if (size > table.resizeThreshold) {
+            rehash(table, table.records.length << 1);
+        }
+    }
+
+    @Override
+    public void updateRecordValue(Data key, R record, Object value) {
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+        try {
+            recordFactory.setValue(record, value);
+        } finally {
+            updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+        }
+    }
+
+    @Override
+    public R get(Data key) {
+        Table table = this.table;
+        int index = indexOf(table, key);
+        return index == -1 ? null : (R) table.records[index];
+    }
+
+    @Override
+    public R getIfSameKey(Data key) {
+        throw new UnsupportedOperationException("OpenAddressingStorage#getIfSameKey");
+    }
+
+    @Override
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT", justification = "single-writer, many-reader")
+    public void removeRecord(R record) {
+        if (record == null) {
+            return;
+        }
+
+        Data key = record.getKey();
+        Table table = this.table;
+        int index = indexOf(table, key);
+        if (index == -1) {
+            return;
+        }
+
+        compactChain(table, index);
+        size--;
+
+        updateCostEstimate(-entryCostEstimator.calculateEntryCost(key, record));
+        disposeRecord(record);
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return indexOf(table, key) != -1;
+    }
+
+    @Override
+    public Collection<R> values() {
+        return new AbstractCollection<R>() {
+            @Override
+            public Iterator<R> iterator() {
+                return new RecordIterator(false);
+            }
+
+            @Override
+            public int size() {
+                return OpenAddressingStorage.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<R> mutationTolerantIterator() {
+        return new RecordIterator(true);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        // reallocate instead of zeroing to give the memory of a once big partition back
+        table = new Table(DEFAULT_INITIAL_CAPACITY);
+        size = 0;
+
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        clear(isDuringShutdown);
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        // NOP intentionally.
+    }
+
+    @Override
+    public Iterable<LazyEntryViewFromRecord> getRandomSamples(int sampleCount) {
+        checkNotNegative(sampleCount, "Sample count cannot be a negative value.");
+        if (sampleCount == 0 || size == 0) {
+            return Collections.emptyList();
+        }
+        return new LazySamplingIterable(sampleCount);
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(int tableIndex, int size) {
+        Object[] records = table.records;
+        List<Data> keys = new ArrayList<Data>(size);
+        int nextTableIndex = startIndex(tableIndex, records.length);
+        while (nextTableIndex >= 0 && keys.size() < size) {
+            Object record = records[nextTableIndex--];
+            if (record != null) {
+                keys.add(((Record) record).getKey());
+            }
+        }
+        return new MapKeysWithCursor(keys, nextTableIndex);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(int tableIndex, int size, SerializationService serializationService) {
+        Object[] records = table.records;
+        List<Map.Entry<Data, Data>> entries = new ArrayList<Map.Entry<Data, Data>>(size);
+        int nextTableIndex = startIndex(tableIndex, records.length);
+        while (nextTableIndex >= 0 && entries.size() < size) {
+            Object record = records[nextTableIndex--];
+            if (record != null) {
+                Data key = ((Record) record).getKey();
+                Data dataValue = serializationService.toData(((Record) record).getValue());
+                entries.add(new AbstractMap.SimpleEntry<Data, Data>(key, dataValue));
+            }
+        }
+        return new MapEntriesWithCursor(entries, nextTableIndex);
+    }
+
+    /**
+     * @return the current length of the backing arrays
+     */
+    int capacity() {
+        return table.records.length;
+    }
+
+    protected void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    /**
+     * Compares the given key with the key of a stored record, called only for records with the same key hash.
+     */
+    protected boolean keyEquals(Data key, R record) {
+        return key.equals(record.getKey());
+    }
+
+    /**
+     * Called when a record leaves this storage by removal or by being replaced with another record.
+     */
+    protected void disposeRecord(R record) {
+        // NOP by default.
+    }
+
+    private int indexOf(Table table, Data key) {
+        Object[] records = table.records;
+        int[] hashes = table.hashes;
+        int mask = table.mask;
+        int hash = hash(key);
+        int index = hash & mask;
+        Object current;
+        while ((current = records[index]) != null) {
+            if (hashes[index] == hash && keyEquals(key, (R) current)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(Table oldTable, int newCapacity) {
+        if (newCapacity < 0) {
+            throw new IllegalStateException("Max capacity reached at size=" + size);
+        }
+        Table newTable = new Table(newCapacity);
+        int[] oldHashes = oldTable.hashes;
+        Object[] oldRecords = oldTable.records;
+        for (int i = 0; i < oldRecords.length; i++) {
+            Object record = oldRecords[i];
+            if (record != null) {
+                int hash = oldHashes[i];
+                int index = hash & newTable.mask;
+                while (newTable.records[index] != null) {
+                    index = (index + 1) & newTable.mask;
+                }
+                newTable.hashes[index] = hash;
+                newTable.records[index] = record;
+            }
+        }
+        // volatile write publishes the filled arrays
+        table = newTable;
+    }
+
+    /**
+     * Frees the slot and shifts back the entries following it, so lookups never stop early at a hole in their chain.
+     * <p>
+     * An entry is only ever moved towards the start of its run of occupied slots, which is what keeps the
+     * {@link RecordIterator} from missing entries.
+     */
+    private void compactChain(Table table, int deleteIndex) {
+        Object[] records = table.records;
+        int[] hashes = table.hashes;
+        int mask = table.mask;
+        records[deleteIndex] = null;
+        int index = deleteIndex;
+        while (true) {
+            index = (index + 1) & mask;
+            Object record = records[index];
+            if (record == null) {
+                return;
+            }
+            int home = hashes[index] & mask;
+            if ((index < home && (home <= deleteIndex || deleteIndex <= index))
+                    || (home <= deleteIndex && deleteIndex <= index)) {
+                hashes[deleteIndex] = hashes[index];
+                records[deleteIndex] = record;
+                records[index] = null;
+                deleteIndex = index;
+            }
+        }
+    }
+
+    private static int startIndex(int tableIndex, int length) {
+        return tableIndex >= 0 && tableIndex < length ? tableIndex : length - 1;
+    }
+
+    private static int hash(Data key) {
+        return MurmurHash3_fmix(key.hashCode());
+    }
+
+    /**
+     * The slots of the table. The arrays are mutated in place by the owning partition thread, but a resize or a
+     * clear always installs a new instance, so the mask always matches the array lengths of its snapshot.
+     */
+    private static final class Table {
+
+        final int[] hashes;
+        final Object[] records;
+        final int mask;
+        final int resizeThreshold;
+
+        Table(int capacity) {
+            this.hashes = new int[capacity];
+            this.records = new Object[capacity];
+            this.mask = capacity - 1;
+            this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+        }
+    }
+
+    /**
+     * Iterates the slots downwards, wrapping around the table end, starting below a slot which was empty at
+     * creation time. Does not fail fast on concurrent modifications.
+     * <p>
+     * Removals never fill an empty slot and only shift entries towards the start of their run of occupied slots.
+     * Since a run is visited from its end to its start, a shifted entry always lands in a slot which is yet to be
+     * visited or which was visited already together with its former slot, so removals do not make the iteration
+     * miss entries, also when a run wraps around the table end.
+     * <p>
+     * A mutation tolerant iterator stops when the table gets replaced by a resize or a clear, since the records of
+     * the old table are not the current ones anymore. A new iterator has to be created to continue.
+     */
+    private final class RecordIterator implements Iterator<R> {
+
+        private final Table table;
+        private final boolean stopOnResize;
+        private int index;
+        private int remainingSlots;
+        private R next;
+
+        RecordIterator(boolean stopOnResize) {
+            this.table = OpenAddressingStorage.this.table;
+            this.stopOnResize = stopOnResize;
+            Object[] records = table.records;
+            int start = records.length - 1;
+            while (start > 0 && records[start] != null) {
+                start--;
+            }
+            this.index = start;
+            this.remainingSlots = records.length;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            if (stopOnResize && table != OpenAddressingStorage.this.table) {
+                remainingSlots = 0;
+                return;
+            }
+            Object[] records = table.records;
+            while (remainingSlots > 0) {
+                Object record = records[index];
+                index = (index - 1) & table.mask;
+                remainingSlots--;
+                if (record != null) {
+                    next = (R) record;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null && stopOnResize && table != OpenAddressingStorage.this.table) {
+                next = null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public R next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            R current = next;
+            advance();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Removing is not supported");
+        }
+    }
+
+    /**
+     * Returns at most {@code sampleCount} records, visiting the slots from a random starting point.
+     * A single instance serves as both the {@link Iterable} and its {@link Iterator}.
+     * <p>
+     * NOTE: Assumed that it is not accessed by multiple threads. So there is no synchronization.
+     */
+    private final class LazySamplingIterable implements Iterable<LazyEntryViewFromRecord>,
+            Iterator<LazyEntryViewFromRecord> {
+
+        private final int maxEntryCount;
+        private final Object[] records;
+        private int index;
+        private int visitedSlotCount;
+        private int returnedEntryCount;
+        private LazyEntryViewFromRecord currentSample;
+
+        LazySamplingIterable(int maxEntryCount) {
+            this.maxEntryCount = maxEntryCount;
+            this.records = OpenAddressingStorage.this.table.records;
+            this.index = ThreadLocalRandomProvider.get().nextInt(records.length);
+        }
+
+        @Override
+        public Iterator<LazyEntryViewFromRecord> iterator() {
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (currentSample != null) {
+                return true;
+            }
+            if (returnedEntryCount >= maxEntryCount) {
+                return false;
+            }
+            int length = records.length;
+            while (visitedSlotCount < length) {
+                Object record = records[index];
+                index = (index + 1) & (length - 1);
+                visitedSlotCount++;
+                if (record != null) {
+                    currentSample = new LazyEntryViewFromRecord((R) record, serializationService);
+                    returnedEntryCount++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public LazyEntryViewFromRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LazyEntryViewFromRecord sample = currentSample;
+            currentSample = null;
+            return sample;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Removing is not supported");
+        }
+    }
+}
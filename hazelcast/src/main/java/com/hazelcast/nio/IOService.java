@@ -116,6 +116,21 @@ public interface IOService {
      */
     int getBalancerIntervalSeconds();
 
+    /**
+     * @return the number of connections to open to every other member for sending partition operations.
+     */
+    int getConnectionsPerMember();
+
+    /**
+     * @return {@code true} if bulk partition data is sent over a dedicated connection to every member.
+     */
+    boolean isBulkConnectionEnabled();
+
+    /**
+     * @return the maximum number of bytes per second sent as bulk partition data, 0 if there is no limit.
+     */
+    long getBulkBytesPerSecond();
+
     void onDisconnect(Address endpoint, Throwable cause);
 
     void executeAsync(Runnable runnable);
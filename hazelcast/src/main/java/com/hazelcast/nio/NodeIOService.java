@@ -291,6 +291,21 @@ public class NodeIOService implements IOService {
         return node.getProperties().getSeconds(GroupProperty.IO_BALANCER_INTERVAL_SECONDS);
     }
 
+    @Override
+    public int getConnectionsPerMember() {
+        return node.getProperties().getInteger(GroupProperty.SOCKET_CONNECTIONS_PER_MEMBER);
+    }
+
+    @Override
+    public boolean isBulkConnectionEnabled() {
+        return node.getProperties().getBoolean(GroupProperty.SOCKET_BULK_CONNECTION_ENABLED);
+    }
+
+    @Override
+    public long getBulkBytesPerSecond() {
+        return node.getProperties().getLong(GroupProperty.SOCKET_BULK_BYTES_PER_SECOND);
+    }
+
     @Override
     public void executeAsync(final Runnable runnable) {
         nodeEngine.getExecutionService().execute(ExecutionService.IO_EXECUTOR, runnable);
@@ -48,7 +48,7 @@ public final class Packet extends HeapData implements OutboundFrame {
     // Flags are dispatched against in a cascade:
     // 1. URGENT (bit 4)
     // 2. Packet type (bits 0, 2, 5)
-    // 3. Flags specific to a given packet type (bits 1, 6)
+    // 3. Flags specific to a given packet type (bits 1, 3, 6, 7)
 
 
     // 1. URGENT flag
@@ -93,6 +93,14 @@ public final class Packet extends HeapData implements OutboundFrame {
      * Marks an Operation packet as Operation control (like invocation-heartbeats)
      */
     public static final int FLAG_OP_CONTROL = 1 << 6;
+    /**
+     * Marks an Operation packet as carrying bulk partition data, like migration and replica sync data
+     */
+    public static final int FLAG_OP_BULK = 1 << 7;
+    /**
+     * Marks an Operation response packet as carrying several responses, each prefixed by its length
+     */
+    public static final int FLAG_OP_RESPONSE_BATCH = 1 << 3;
 
 
     // 3.b Jet packet flags
@@ -290,6 +298,40 @@ public final class Packet extends HeapData implements OutboundFrame {
         return readValue(src);
     }
 
+    /**
+     * Returns a {@code ByteBuffer} view on the part of the payload that still needs to be read. This allows the
+     * remainder of a large packet to be read from the channel straight into the payload, instead of copying it
+     * through the receive buffer first. Bytes read into the returned buffer need to be reported using
+     * {@link #onPayloadRead(int)}.
+     *
+     * @param chunkSize the minimum number of missing payload bytes and the maximum number of bytes exposed
+     * @return the buffer to read into, or {@code null} if the header isn't read yet or fewer than chunkSize
+     * payload bytes are missing
+     */
+    public ByteBuffer remainingPayload(int chunkSize) {
+        if (!headerComplete || payload == null) {
+            return null;
+        }
+
+        int bytesNeeded = size - valueOffset;
+        if (bytesNeeded < chunkSize) {
+            return null;
+        }
+
+        return ByteBuffer.wrap(payload, valueOffset, chunkSize);
+    }
+
+    /**
+     * Marks payload bytes that were read into the buffer returned by {@link #remainingPayload(int)} as read.
+     *
+     * @param bytesRead the number of bytes read
+     * @return {@code true} if all the packet's data is now read; {@code false} otherwise.
+     */
+    public boolean onPayloadRead(int bytesRead) {
+        valueOffset += bytesRead;
+        return valueOffset == size;
+    }
+
     // ========================= value =================================================
 
     private boolean readValue(ByteBuffer src) {
@@ -424,7 +466,9 @@ public final class Packet extends HeapData implements OutboundFrame {
             @Override
             public String describeFlags(char flags) {
                 return "[isResponse=" + isFlagRaised(flags, FLAG_OP_RESPONSE)
-                        + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL) + ']';
+                        + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL)
+                        + ", isBulk=" + isFlagRaised(flags, FLAG_OP_BULK)
+                        + ", isResponseBatch=" + isFlagRaised(flags, FLAG_OP_RESPONSE_BATCH) + ']';
             }
         },
         /**
@@ -18,6 +18,7 @@ package com.hazelcast.nio.tcp;
 
 import com.hazelcast.internal.networking.ChannelInboundHandler;
 import com.hazelcast.internal.networking.nio.ChannelInboundHandlerWithCounters;
+import com.hazelcast.internal.networking.nio.DirectReadInboundHandler;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.impl.PacketHandler;
 
@@ -27,11 +28,12 @@ import java.nio.ByteBuffer;
  * The {@link ChannelInboundHandler} for member to member communication.
  *
  * It reads as many packets from the src ByteBuffer as possible, and each of the Packets is send to the {@link PacketHandler}.
+ * The remainder of a large packet can be read directly into the packet payload; see {@link DirectReadInboundHandler}.
  *
  * @see PacketHandler
  * @see MemberChannelOutboundHandler
  */
-public class MemberChannelInboundHandler extends ChannelInboundHandlerWithCounters {
+public class MemberChannelInboundHandler extends ChannelInboundHandlerWithCounters implements DirectReadInboundHandler {
 
     protected final TcpIpConnection connection;
     protected Packet packet;
@@ -59,6 +61,19 @@ public class MemberChannelInboundHandler extends ChannelInboundHandlerWithCounte
         }
     }
 
+    @Override
+    public ByteBuffer directReadBuffer(int chunkSize) {
+        return packet == null ? null : packet.remainingPayload(chunkSize);
+    }
+
+    @Override
+    public void onDirectRead(int bytesRead) throws Exception {
+        if (packet.onPayloadRead(bytesRead)) {
+            handlePacket(packet);
+            packet = null;
+        }
+    }
+
     protected void handlePacket(Packet packet) throws Exception {
         if (packet.isFlagRaised(Packet.FLAG_URGENT)) {
             priorityPacketsRead.inc();
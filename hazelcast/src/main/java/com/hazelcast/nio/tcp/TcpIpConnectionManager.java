@@ -45,7 +45,9 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -53,7 +55,9 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
@@ -65,9 +69,14 @@ import static java.lang.System.getProperty;
 
 public class TcpIpConnectionManager implements ConnectionManager, PacketHandler {
 
+    // the maximum number of packets queued for the lanes of a member while they are being connected
+    static final int MAX_PENDING_LANE_PACKETS = 10000;
+
     private static final int RETRY_NUMBER = 5;
     private static final int DELAY_FACTOR = 100;
     private static final int SCHEDULER_POOL_SIZE = 4;
+    // used if the socket connect timeout is infinite
+    private static final int DEFAULT_LANE_CONNECT_TIMEOUT_SECONDS = 10;
 
     // TODO Introducing this to allow disabling the spoofing checks on-demand
     // if there is a use-case that gets affected by the change. If there are no reports of misbehaviour we can remove than in
@@ -101,6 +110,18 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
     private final Set<Address> connectionsInProgress =
             Collections.newSetFromMap(new ConcurrentHashMap<Address, Boolean>());
 
+    // the additional connections per member used for partition operations; see #selectConnection
+    private final ConcurrentHashMap<Address, MemberLanes> lanes = new ConcurrentHashMap<Address, MemberLanes>();
+
+    // the lane connections that are waiting for the bind reply before they can be used
+    @Probe(name = "lanesInProgressCount")
+    private final ConcurrentHashMap<TcpIpConnection, Integer> lanesInProgress =
+            new ConcurrentHashMap<TcpIpConnection, Integer>();
+
+    // the bound connections that are not the regular connection to their member, e.g. the lanes opened by the member
+    private final Set<Connection> secondaryConnections =
+            Collections.newSetFromMap(new ConcurrentHashMap<Connection, Boolean>());
+
     @Probe(name = "acceptedSocketCount", level = MANDATORY)
     private final Set<Channel> acceptedSockets =
             Collections.newSetFromMap(new ConcurrentHashMap<Channel, Boolean>());
@@ -127,6 +148,14 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
 
     private final ScheduledExecutorService scheduler;
 
+    private final int connectionsPerMember;
+    // the lane used for bulk partition data, or -1 if bulk data isn't sent over a dedicated connection
+    private final int bulkLane;
+    // null if bulk partition data isn't rate limited
+    private final WriteThrottle bulkThrottle;
+    // the lanes which are not connected after this time fall back to the regular connection
+    private final long laneConnectTimeoutMillis;
+
     // accessed only in synchronized block
     private volatile TcpIpAcceptor acceptor;
 
@@ -146,6 +175,15 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         this.logger = loggingService.getLogger(TcpIpConnectionManager.class);
         this.channelFactory = ioService.getChannelFactory();
         this.metricsRegistry = metricsRegistry;
+        this.connectionsPerMember = Math.max(1, ioService.getConnectionsPerMember());
+        this.bulkLane = ioService.isBulkConnectionEnabled() ? connectionsPerMember : -1;
+        int connectTimeoutSeconds = ioService.getSocketConnectTimeoutSeconds();
+        this.laneConnectTimeoutMillis = TimeUnit.SECONDS.toMillis(
+                connectTimeoutSeconds > 0 ? connectTimeoutSeconds : DEFAULT_LANE_CONNECT_TIMEOUT_SECONDS);
+        long bulkBytesPerSecond = ioService.getBulkBytesPerSecond();
+        this.bulkThrottle = bulkBytesPerSecond > 0
+                ? new WriteThrottle(createThreadPoolName(ioService.getHazelcastName(), "BulkWriteThrottle"), bulkBytesPerSecond)
+                : null;
         this.connector = new TcpIpConnector(this);
         this.scheduler = new ScheduledThreadPoolExecutor(SCHEDULER_POOL_SIZE,
                 new ThreadFactoryImpl(createThreadPoolName(ioService.getHazelcastName(), "TcpIpConnectionManager")));
@@ -237,10 +275,23 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
             sendBindRequest(connection, remoteEndPoint, false);
         }
 
+        Integer lane = lanesInProgress.remove(connection);
         if (checkAlreadyConnected(connection, remoteEndPoint)) {
+            if (lane != null) {
+                MemberLanes memberLanes = lanes.get(remoteEndPoint);
+                if (memberLanes != null) {
+                    memberLanes.connected(lane, connection);
+                } else {
+                    connection.close("Connection to member is closed", null);
+                }
+            }
             return false;
         }
 
+        if (lane != null) {
+            // the connection to the member got lost in the meantime; so the lane becomes the regular connection
+            failedLaneConnection(remoteEndPoint, lane);
+        }
         return registerConnection(remoteEndPoint, connection);
     }
 
@@ -343,6 +394,7 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
                             + ", new one is " + connection);
                 }
                 activeConnections.add(connection);
+                secondaryConnections.add(connection);
             }
             return true;
         }
@@ -391,6 +443,17 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         }
     }
 
+    void laneInProgress(TcpIpConnection connection, int lane) {
+        lanesInProgress.put(connection, lane);
+    }
+
+    void failedLaneConnection(Address address, int lane) {
+        MemberLanes memberLanes = lanes.get(address);
+        if (memberLanes != null) {
+            memberLanes.failed(lane);
+        }
+    }
+
     void failedConnection(Address address, Throwable t, boolean silent) {
         connectionsInProgress.remove(address);
         ioService.onFailedConnection(address);
@@ -437,15 +500,47 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         closedCount.inc();
 
         activeConnections.remove(connection);
+        boolean secondary = secondaryConnections.remove(connection);
 
         Address endPoint = connection.getEndPoint();
         if (endPoint != null) {
+            if (onLaneClose(connection, endPoint) || secondary) {
+                // the connection to the member is not lost, so the listeners are not notified
+                return;
+            }
+
             connectionsInProgress.remove(endPoint);
-            connectionsMap.remove(endPoint, connection);
+            if (connectionsMap.remove(endPoint, connection)) {
+                closeLanes(endPoint, connection);
+            }
             fireConnectionRemovedEvent(connection, endPoint);
         }
     }
 
+    /**
+     * Cleans up a closed connection if it is one of the lanes to a member.
+     *
+     * @return {@code true} if the connection was a lane, {@code false} otherwise.
+     */
+    private boolean onLaneClose(Connection connection, Address endPoint) {
+        Integer lane = lanesInProgress.remove(connection);
+        MemberLanes memberLanes = lanes.get(endPoint);
+        if (lane != null) {
+            if (memberLanes != null) {
+                memberLanes.failed(lane);
+            }
+            return true;
+        }
+        return memberLanes != null && memberLanes.closed(connection);
+    }
+
+    private void closeLanes(Address endPoint, Connection connection) {
+        MemberLanes memberLanes = lanes.get(endPoint);
+        if (memberLanes != null && memberLanes.memberConnection == connection && lanes.remove(endPoint, memberLanes)) {
+            memberLanes.close();
+        }
+    }
+
     private void fireConnectionRemovedEvent(final Connection connection, final Address endPoint) {
         if (live) {
             ioService.getEventService().executeEventCallback(new StripedRunnable() {
@@ -513,6 +608,9 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         acceptedSockets.clear();
         connectionsInProgress.clear();
         connectionsMap.clear();
+        lanes.clear();
+        lanesInProgress.clear();
+        secondaryConnections.clear();
         monitors.clear();
         activeConnections.clear();
     }
@@ -535,6 +633,9 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         closeServerSocket();
         stop();
         scheduler.shutdownNow();
+        if (bulkThrottle != null) {
+            bulkThrottle.shutdown();
+        }
         connectionListeners.clear();
     }
 
@@ -581,7 +682,7 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
             return false;
         }
 
-        return connection.write(packet);
+        return write(packet, connection);
     }
 
     /**
@@ -598,7 +699,7 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
     private boolean send(Packet packet, Address target, SendTask sendTask) {
         Connection connection = getConnection(target);
         if (connection != null) {
-            return connection.write(packet);
+            return write(packet, connection);
         }
 
         if (sendTask == null) {
@@ -620,6 +721,239 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         return false;
     }
 
+    private boolean write(Packet packet, Connection connection) {
+        int lane = selectLane(packet);
+        if (lane > 0) {
+            MemberLanes memberLanes = getMemberLanes(connection);
+            if (memberLanes != null) {
+                return memberLanes.write(packet, lane);
+            }
+        }
+        return writeTo(packet, connection);
+    }
+
+    private boolean writeTo(Packet packet, Connection connection) {
+        if (bulkThrottle != null && isBulk(packet)) {
+            return bulkThrottle.write(packet, connection);
+        }
+        return connection.write(packet);
+    }
+
+    private static boolean isBulk(Packet packet) {
+        return packet.getPacketType() == Packet.Type.OPERATION && packet.isFlagRaised(Packet.FLAG_OP_BULK);
+    }
+
+    /**
+     * Selects the lane to send the packet over.
+     *
+     * When multiple connections per member are configured, partition operations are sent over lane
+     * {@code partitionId % connectionsPerMember}, so the operations of a partition keep their order while the traffic
+     * is spread over multiple sockets and IO threads. Lane 0 is the regular connection. When the bulk connection is
+     * enabled, bulk partition data is sent over an additional dedicated lane. All other packets are sent over the
+     * regular connection.
+     */
+    private int selectLane(Packet packet) {
+        if (bulkLane > 0 && isBulk(packet)) {
+            return bulkLane;
+        }
+        int partitionId = packet.getPartitionId();
+        if (connectionsPerMember > 1 && partitionId >= 0 && packet.getPacketType() == Packet.Type.OPERATION) {
+            return partitionId % connectionsPerMember;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the lanes of the given connection, or {@code null} if it is not the regular connection to a member.
+     */
+    private MemberLanes getMemberLanes(Connection connection) {
+        Address endPoint = connection.getEndPoint();
+        if (!live || endPoint == null || connectionsMap.get(endPoint) != connection) {
+            return null;
+        }
+
+        for (; ; ) {
+            MemberLanes memberLanes = lanes.get(endPoint);
+            if (memberLanes != null && memberLanes.memberConnection == connection) {
+                return memberLanes;
+            }
+            MemberLanes newLanes = new MemberLanes(endPoint, connection);
+            if (memberLanes == null) {
+                if (lanes.putIfAbsent(endPoint, newLanes) == null) {
+                    return newLanes;
+                }
+            } else if (lanes.replace(endPoint, memberLanes, newLanes)) {
+                // the lanes of a previous connection to the member which is not cleaned up yet
+                memberLanes.close();
+                return newLanes;
+            }
+        }
+    }
+
+    /**
+     * The additional connections to a single member. Lane 0 is never used, since that is the regular connection.
+     * If enabled, the last lane is the bulk connection.
+     *
+     * A packet of a partition must never be sent over a different socket than the packets sent before it, otherwise it
+     * could overtake them. So all lanes are connected at once when the first packet for a lane is sent, and the packets
+     * for the lanes are queued until all lanes are bound. Then the queued packets are written to their lanes, and the
+     * lanes are used from then on. If a lane cannot be connected, the lanes are not connected within the socket connect
+     * timeout, or more than {@link #MAX_PENDING_LANE_PACKETS} packets are queued, the queued packets are written to the
+     * regular connection instead, and the lanes are not used for this connection to the member. A lane that is closed after
+     * it has been used closes the regular connection as well, since the packets written to it are lost anyway.
+     */
+    private final class MemberLanes {
+        private final Address endPoint;
+        private final Connection memberConnection;
+        private final AtomicReferenceArray<TcpIpConnection> connections;
+        private final AtomicBoolean connecting = new AtomicBoolean();
+
+        // guarded by this; null once the lanes are either ready or disabled
+        private List<Packet> pending = new ArrayList<Packet>();
+        // guarded by this
+        private int connectedCount;
+        private volatile boolean ready;
+        private volatile boolean disabled;
+
+        MemberLanes(Address endPoint, Connection memberConnection) {
+            this.endPoint = endPoint;
+            this.memberConnection = memberConnection;
+            this.connections = new AtomicReferenceArray<TcpIpConnection>(
+                    bulkLane > 0 ? connectionsPerMember + 1 : connectionsPerMember);
+        }
+
+        boolean write(Packet packet, int lane) {
+            if (ready) {
+                return writeTo(packet, connections.get(lane));
+            }
+            if (disabled) {
+                return writeTo(packet, memberConnection);
+            }
+
+            if (connecting.compareAndSet(false, true)) {
+                for (int i = 1; i < connections.length(); i++) {
+                    connector.asyncConnect(endPoint, i);
+                }
+                scheduleConnectDeadline();
+            }
+            boolean full = false;
+            synchronized (this) {
+                if (pending != null) {
+                    if (pending.size() < MAX_PENDING_LANE_PACKETS) {
+                        pending.add(packet);
+                        return true;
+                    }
+                    full = true;
+                }
+            }
+            if (full) {
+                if (logger.isFineEnabled()) {
+                    logger.fine("Too many packets queued for the lanes to " + endPoint + ", using the regular connection");
+                }
+                disable();
+            }
+            return write(packet, lane);
+        }
+
+        private void scheduleConnectDeadline() {
+            try {
+                scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (ready || disabled) {
+                            return;
+                        }
+                        if (logger.isFineEnabled()) {
+                            logger.fine("Lanes to " + endPoint + " are not connected within " + laneConnectTimeoutMillis
+                                    + " ms, using the regular connection");
+                        }
+                        disable();
+                    }
+                }, laneConnectTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // the connection manager is shutting down
+                disable();
+            }
+        }
+
+        void connected(int lane, TcpIpConnection connection) {
+            if (!connections.compareAndSet(lane, null, connection)) {
+                connection.close("Lane " + lane + " is already connected", null);
+                return;
+            }
+            synchronized (this) {
+                if (pending != null) {
+                    if (++connectedCount == connections.length() - 1) {
+                        for (Packet packet : pending) {
+                            writeTo(packet, connections.get(selectLane(packet)));
+                        }
+                        pending = null;
+                        ready = true;
+                    }
+                    return;
+                }
+            }
+            // the lanes got disabled or closed in the meantime
+            connection.close("Lanes to member are disabled", null);
+        }
+
+        void failed(int lane) {
+            if (logger.isFineEnabled()) {
+                logger.fine("Could not connect lane " + lane + " to " + endPoint + ", using the regular connection");
+            }
+            disable();
+        }
+
+        /**
+         * @return {@code true} if the connection is one of the lanes, {@code false} otherwise.
+         */
+        boolean closed(Connection connection) {
+            for (int lane = 1; lane < connections.length(); lane++) {
+                if (connections.get(lane) == connection) {
+                    if (ready) {
+                        memberConnection.close("Lane " + lane + " to member is closed", null);
+                    } else {
+                        disable();
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void close() {
+            synchronized (this) {
+                pending = null;
+                ready = false;
+                disabled = true;
+            }
+            closeConnections("Connection to member is closed");
+        }
+
+        private void disable() {
+            synchronized (this) {
+                if (pending == null) {
+                    return;
+                }
+                for (Packet packet : pending) {
+                    writeTo(packet, memberConnection);
+                }
+                pending = null;
+                disabled = true;
+            }
+            closeConnections("Lanes to member are disabled");
+        }
+
+        private void closeConnections(String reason) {
+            for (int lane = 1; lane < connections.length(); lane++) {
+                TcpIpConnection connection = connections.get(lane);
+                if (connection != null) {
+                    connection.close(reason, null);
+                }
+            }
+        }
+    }
+
     private final class SendTask implements Runnable {
         private final Packet packet;
         private final Address target;
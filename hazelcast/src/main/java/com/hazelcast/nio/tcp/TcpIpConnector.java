@@ -63,7 +63,14 @@ public class TcpIpConnector {
 
     void asyncConnect(Address address, boolean silent) {
         ioService.shouldConnectTo(address);
-        ioService.executeAsync(new ConnectTask(address, silent));
+        ioService.executeAsync(new ConnectTask(address, silent, 0));
+    }
+
+    /**
+     * Opens an additional connection to the given member that is used for the partition operations of the given lane.
+     */
+    void asyncConnect(Address address, int lane) {
+        ioService.executeAsync(new ConnectTask(address, true, lane));
     }
 
     private boolean useAnyOutboundPort() {
@@ -88,10 +95,12 @@ public class TcpIpConnector {
     private final class ConnectTask implements Runnable {
         private final Address address;
         private final boolean silent;
+        private final int lane;
 
-        public ConnectTask(Address address, boolean silent) {
+        public ConnectTask(Address address, boolean silent, int lane) {
             this.address = address;
             this.silent = silent;
+            this.lane = lane;
         }
 
         @Override
@@ -100,6 +109,9 @@ public class TcpIpConnector {
                 if (logger.isFinestEnabled()) {
                     logger.finest("ConnectionManager is not live, connection attempt to " + address + " is cancelled!");
                 }
+                if (lane > 0) {
+                    connectionManager.failedLaneConnection(address, lane);
+                }
                 return;
             }
 
@@ -128,7 +140,11 @@ public class TcpIpConnector {
                 }
             } catch (Throwable e) {
                 logger.finest(e);
-                connectionManager.failedConnection(address, e, silent);
+                if (lane > 0) {
+                    connectionManager.failedLaneConnection(address, lane);
+                } else {
+                    connectionManager.failedConnection(address, e, silent);
+                }
             }
         }
 
@@ -184,6 +200,9 @@ public class TcpIpConnector {
 
                 socketChannel.configureBlocking(false);
                 TcpIpConnection connection = connectionManager.newConnection(channel, address);
+                if (lane > 0) {
+                    connectionManager.laneInProgress(connection, lane);
+                }
                 connectionManager.sendBindRequest(connection, address, true);
             } catch (Exception e) {
                 closeSocket(socketChannel);
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.util.concurrent.ThreadFactoryImpl;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Limits the number of bytes per second written for a certain kind of packets.
+ *
+ * Every packet reserves a time slot proportional to its size. A packet whose slot has already started is written
+ * directly; otherwise the packet is written by the throttle thread once its slot starts. Since the slots are handed
+ * out in order and the throttle thread is single threaded, the packets are written in the order they are submitted.
+ *
+ * A large packet holds back the following ones for as long as its slot lasts, so the migration data is split into
+ * chunks of about one second of traffic when the throttle is enabled; see
+ * {@link com.hazelcast.spi.properties.GroupProperty#PARTITION_MIGRATION_CHUNK_SIZE}.
+ */
+final class WriteThrottle {
+
+    private final long nanosPerKilobyte;
+    private final AtomicLong nextSlotNanos = new AtomicLong(System.nanoTime());
+    private final AtomicInteger delayedCount = new AtomicInteger();
+    private final ScheduledExecutorService executor;
+
+    WriteThrottle(String threadNamePrefix, long bytesPerSecond) {
+        this.nanosPerKilobyte = Math.max(1, SECONDS.toNanos(1) * 1024 / bytesPerSecond);
+        this.executor = new ScheduledThreadPoolExecutor(1, new ThreadFactoryImpl(threadNamePrefix));
+    }
+
+    /**
+     * Writes the packet to the connection, or schedules it to be written later when the rate is exceeded.
+     *
+     * @return {@code true} if the packet was written or scheduled, {@code false} otherwise.
+     */
+    boolean write(final Packet packet, final Connection connection) {
+        long delayNanos = reserve(packet.packetSize());
+        if (delayNanos <= 0 && delayedCount.get() == 0) {
+            return connection.write(packet);
+        }
+
+        delayedCount.incrementAndGet();
+        try {
+            executor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    delayedCount.decrementAndGet();
+                    connection.write(packet);
+                }
+            }, delayNanos, NANOSECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            delayedCount.decrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Reserves the next time slot for the given number of bytes.
+     *
+     * @return the number of nanoseconds until the slot starts.
+     */
+    private long reserve(int bytes) {
+        long durationNanos = bytes * nanosPerKilobyte / 1024;
+        for (; ; ) {
+            long now = System.nanoTime();
+            long next = nextSlotNanos.get();
+            long start = Math.max(now, next);
+            if (nextSlotNanos.compareAndSet(next, start + durationNanos)) {
+                return start - now;
+            }
+        }
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -41,8 +41,10 @@ public class AndResultSet extends AbstractSet<QueryableEntry> {
 
     public AndResultSet(Set<QueryableEntry> setSmallest, List<Set<QueryableEntry>> otherIndexedResults,
                         List<Predicate> lsNoIndexPredicates) {
-        this.setSmallest = isNotNull(setSmallest, "setSmallest");
-        this.otherIndexedResults = otherIndexedResults;
+        isNotNull(setSmallest, "setSmallest");
+        // results of the same bitmap index are intersected as bitmaps instead of being probed entry by entry
+        this.setSmallest = BitmapResultSet.intersect(setSmallest, otherIndexedResults);
+        this.otherIndexedResults = BitmapResultSet.remaining(setSmallest, otherIndexedResults);
         this.lsNoIndexPredicates = lsNoIndexPredicates;
         this.cachedSize = SIZE_UNINITIALIZED;
     }
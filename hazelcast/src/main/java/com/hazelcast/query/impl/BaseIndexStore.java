@@ -35,7 +35,14 @@ public abstract class BaseIndexStore implements IndexStore {
     private final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
     private final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
 
-    private boolean multiResultHasToDetectDuplicates;
+    // null unless the statistics are enabled
+    private final IndexStatistics statistics;
+
+    boolean multiResultHasToDetectDuplicates;
+
+    BaseIndexStore(boolean statisticsEnabled) {
+        this.statistics = statisticsEnabled ? new IndexStatistics() : null;
+    }
 
     abstract void newIndexInternal(Comparable newValue, QueryableEntry record);
 
@@ -100,6 +107,29 @@ public abstract class BaseIndexStore implements IndexStore {
         }
     }
 
+    @Override
+    public IndexStatistics getStatistics() {
+        return statistics;
+    }
+
+    final void onEntryAdded(Comparable value, boolean newValue) {
+        if (statistics != null) {
+            statistics.onEntryAdded(value, newValue);
+        }
+    }
+
+    final void onEntryRemoved(Comparable value, boolean lastValue) {
+        if (statistics != null) {
+            statistics.onEntryRemoved(value, lastValue);
+        }
+    }
+
+    final void resetStatistics() {
+        if (statistics != null) {
+            statistics.reset();
+        }
+    }
+
     @Override
     public void destroy() {
         // NOOP
@@ -121,7 +151,7 @@ public abstract class BaseIndexStore implements IndexStore {
         readLock.unlock();
     }
 
-    private Comparable sanitizeValue(Object input) {
+    static Comparable sanitizeValue(Object input) {
         if (input == null || input instanceof Comparable) {
             Comparable value = (Comparable) input;
             if (value == null) {
@@ -137,6 +167,14 @@ public abstract class BaseIndexStore implements IndexStore {
 
     }
 
+    /**
+     * Reads the value an entry is indexed under, as it is passed to {@link #newIndex(Object, QueryableEntry)}.
+     */
+    public interface IndexedValueReader {
+
+        Object read(QueryableEntry entry);
+    }
+
     final MultiResultSet createMultiResultSet() {
         return multiResultHasToDetectDuplicates ? new DuplicateDetectingMultiResult() : new FastMultiResultSet();
     }
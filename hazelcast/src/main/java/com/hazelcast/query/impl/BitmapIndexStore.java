@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index store for attributes with few distinct values. Every indexed entry is assigned an ordinal and
+ * every distinct value maps to a {@link SparseBitmap} of the ordinals of the entries having it, so
+ * the memory cost per entry is a few bits per distinct value instead of a map entry.
+ * <p>
+ * The ordinals and the lock are shared by the bitmap index stores of the same {@link Indexes}, see
+ * {@link BitmapOrdinals}. Results are returned as {@link BitmapResultSet}s which are evaluated lazily,
+ * so that and/or combinations of results of these stores are computed as bitmap operations.
+ */
+public class BitmapIndexStore extends BaseIndexStore {
+
+    private final BitmapOrdinals ordinals;
+    private final Map<Comparable, SparseBitmap> bitmaps = new HashMap<Comparable, SparseBitmap>();
+
+    /**
+     * @param ordinals          the ordinals shared with the other bitmap index stores of the same {@link Indexes}
+     * @param statisticsEnabled {@code true} if the statistics of the indexed values are kept
+     */
+    public BitmapIndexStore(BitmapOrdinals ordinals, boolean statisticsEnabled) {
+        super(statisticsEnabled);
+        this.ordinals = ordinals;
+    }
+
+    @Override
+    void newIndexInternal(Comparable newValue, QueryableEntry record) {
+        int ordinal = ordinals.acquire(record);
+        SparseBitmap bitmap = bitmaps.get(newValue);
+        boolean newBitmap = bitmap == null;
+        if (newBitmap) {
+            bitmap = new SparseBitmap();
+            bitmaps.put(newValue, bitmap);
+        }
+        if (bitmap.set(ordinal)) {
+            ordinals.addReference(ordinal);
+            onEntryAdded(newValue, newBitmap);
+        }
+    }
+
+    @Override
+    void removeIndexInternal(Comparable oldValue, Data indexKey) {
+        int ordinal = ordinals.getOrdinal(indexKey);
+        if (ordinal == -1) {
+            return;
+        }
+        SparseBitmap bitmap = bitmaps.get(oldValue);
+        if (bitmap == null || !bitmap.clear(ordinal)) {
+            return;
+        }
+        boolean lastValue = bitmap.isEmpty();
+        if (lastValue) {
+            bitmaps.remove(oldValue);
+        }
+        onEntryRemoved(oldValue, lastValue);
+        ordinals.release(ordinal);
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            for (SparseBitmap bitmap : bitmaps.values()) {
+                for (int ordinal = bitmap.nextSetBit(0); ordinal != -1; ordinal = bitmap.nextSetBit(ordinal + 1)) {
+                    ordinals.release(ordinal);
+                }
+            }
+            bitmaps.clear();
+            resetStatistics();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    void takeWriteLock() {
+        ordinals.takeWriteLock();
+    }
+
+    @Override
+    void releaseWriteLock() {
+        ordinals.releaseWriteLock();
+    }
+
+    @Override
+    void takeReadLock() {
+        ordinals.takeReadLock();
+    }
+
+    @Override
+    void releaseReadLock() {
+        ordinals.releaseReadLock();
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        Comparable lower = from;
+        Comparable upper = to;
+        if (lower.compareTo(upper) > 0) {
+            lower = to;
+            upper = from;
+        }
+        takeReadLock();
+        try {
+            Set<Comparable> values = new HashSet<Comparable>();
+            for (Comparable value : bitmaps.keySet()) {
+                if (!(value instanceof IndexImpl.NullObject) && value.compareTo(lower) >= 0 && value.compareTo(upper) <= 0) {
+                    values.add(value);
+                }
+            }
+            return new BitmapResultSet(this, values);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            Set<Comparable> values = new HashSet<Comparable>();
+            for (Comparable value : bitmaps.keySet()) {
+                if (value instanceof IndexImpl.NullObject) {
+                    // null attributes are not equal to any value, like in NotEqualPredicate.apply()
+                    if (comparisonType == ComparisonType.NOT_EQUAL && !(searchedValue instanceof IndexImpl.NullObject)) {
+                        values.add(value);
+                    }
+                    continue;
+                }
+                boolean valid;
+                int result = searchedValue.compareTo(value);
+                switch (comparisonType) {
+                    case LESSER:
+                        valid = result > 0;
+                        break;
+                    case LESSER_EQUAL:
+                        valid = result >= 0;
+                        break;
+                    case GREATER:
+                        valid = result < 0;
+                        break;
+                    case GREATER_EQUAL:
+                        valid = result <= 0;
+                        break;
+                    case NOT_EQUAL:
+                        valid = result != 0;
+                        break;
+                    default:
+                        throw new IllegalStateException("Unrecognized comparisonType: " + comparisonType);
+                }
+                if (valid) {
+                    values.add(value);
+                }
+            }
+            return new BitmapResultSet(this, values);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return new BitmapResultSet(this, Collections.singleton(value));
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        return new BitmapResultSet(this, values);
+    }
+
+    BitmapOrdinals getOrdinals() {
+        return ordinals;
+    }
+
+    /**
+     * @return the bitmap of the entries indexed under the given value, {@code null} if there are none;
+     * to be called under the read lock of the ordinals
+     */
+    SparseBitmap getBitmap(Comparable value) {
+        return bitmaps.get(value);
+    }
+
+    @Override
+    public String toString() {
+        return "BitmapIndexStore{"
+                + "bitmaps=" + bitmaps.size()
+                + '}';
+    }
+}
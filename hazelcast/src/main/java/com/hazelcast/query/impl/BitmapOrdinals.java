@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.hazelcast.util.HashUtil.fastIntMix;
+
+/**
+ * Ordinals of the entries indexed by the bitmap indexes of an {@link Indexes} instance. All bitmap indexes of
+ * the instance number an entry with the same ordinal, so their bitmaps can be combined by bit operations even
+ * if they index different attributes.
+ * <p>
+ * Keys are mapped to ordinals by an open addressing table with linear probing, which stores the ordinals only:
+ * the key of an ordinal is the key of the entry kept for it. An ordinal is released once no bitmap refers to
+ * it anymore and reused by a later entry.
+ * <p>
+ * The bitmap index stores of the instance share the lock of the ordinals, so the bitmaps of different indexes
+ * can be read consistently.
+ */
+public final class BitmapOrdinals {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+    private final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+
+    // ordinal + 1 of the key hashed to the slot or a later one, 0 for a free slot; at most half full
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private int size;
+    private QueryableEntry[] entries = new QueryableEntry[INITIAL_CAPACITY];
+    // the number of bitmaps having the ordinal set
+    private int[] references = new int[INITIAL_CAPACITY];
+    private int[] freeOrdinals = new int[INITIAL_CAPACITY];
+    private int freeOrdinalCount;
+    private int nextOrdinal;
+
+    /**
+     * @return the ordinal of the entry with the given key, -1 if it has none
+     */
+    int getOrdinal(Data key) {
+        int mask = slots.length - 1;
+        for (int slot = hash(key, mask); slots[slot] != 0; slot = (slot + 1) & mask) {
+            int ordinal = slots[slot] - 1;
+            if (entries[ordinal].getKeyData().equals(key)) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the ordinal of the given entry, assigning it a new one if its key has none, and keeps the
+     * given entry as the current entry of the ordinal.
+     */
+    int acquire(QueryableEntry entry) {
+        Data key = entry.getKeyData();
+        int ordinal = getOrdinal(key);
+        if (ordinal == -1) {
+            ordinal = nextFreeOrdinal();
+            entries[ordinal] = entry;
+            if ((size + 1) << 1 > slots.length) {
+                rehash(slots.length << 1);
+            }
+            insert(ordinal);
+            size++;
+        } else {
+            entries[ordinal] = entry;
+        }
+        return ordinal;
+    }
+
+    /**
+     * Called once a bitmap has the given ordinal set.
+     */
+    void addReference(int ordinal) {
+        references[ordinal]++;
+    }
+
+    /**
+     * Called once a bitmap has the given ordinal cleared, releases the ordinal if no bitmap has it set anymore.
+     */
+    void release(int ordinal) {
+        if (--references[ordinal] > 0) {
+            return;
+        }
+        remove(ordinal);
+        size--;
+        entries[ordinal] = null;
+        if (freeOrdinalCount == freeOrdinals.length) {
+            int[] newFreeOrdinals = new int[freeOrdinals.length << 1];
+            System.arraycopy(freeOrdinals, 0, newFreeOrdinals, 0, freeOrdinals.length);
+            freeOrdinals = newFreeOrdinals;
+        }
+        freeOrdinals[freeOrdinalCount++] = ordinal;
+    }
+
+    QueryableEntry getEntry(int ordinal) {
+        return entries[ordinal];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void takeWriteLock() {
+        writeLock.lock();
+    }
+
+    void releaseWriteLock() {
+        writeLock.unlock();
+    }
+
+    void takeReadLock() {
+        readLock.lock();
+    }
+
+    void releaseReadLock() {
+        readLock.unlock();
+    }
+
+    private int nextFreeOrdinal() {
+        if (freeOrdinalCount > 0) {
+            return freeOrdinals[--freeOrdinalCount];
+        }
+        if (nextOrdinal == entries.length) {
+            int newCapacity = entries.length << 1;
+            QueryableEntry[] newEntries = new QueryableEntry[newCapacity];
+            System.arraycopy(entries, 0, newEntries, 0, entries.length);
+            entries = newEntries;
+            int[] newReferences = new int[newCapacity];
+            System.arraycopy(references, 0, newReferences, 0, references.length);
+            references = newReferences;
+        }
+        return nextOrdinal++;
+    }
+
+    private void insert(int ordinal) {
+        int mask = slots.length - 1;
+        int slot = hash(entries[ordinal].getKeyData(), mask);
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = ordinal + 1;
+    }
+
+    private void remove(int ordinal) {
+        int mask = slots.length - 1;
+        int free = hash(entries[ordinal].getKeyData(), mask);
+        while (slots[free] != ordinal + 1) {
+            free = (free + 1) & mask;
+        }
+        // shifts the following ordinals of the probe sequence back, so no tombstone is needed
+        for (int slot = (free + 1) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int home = hash(entries[slots[slot] - 1].getKeyData(), mask);
+            boolean reachable = free <= slot ? free < home && home <= slot : free < home || home <= slot;
+            if (!reachable) {
+                slots[free] = slots[slot];
+                free = slot;
+            }
+        }
+        slots[free] = 0;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldSlots = slots;
+        slots = new int[newCapacity];
+        for (int slot : oldSlots) {
+            if (slot != 0) {
+                insert(slot - 1);
+            }
+        }
+    }
+
+    private static int hash(Data key, int mask) {
+        return fastIntMix(key.hashCode()) & mask;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Result set of {@link BitmapIndexStore} queries. The result is described as a conjunction of disjunctions:
+ * an entry matches if, for every conjunct, it is indexed under one of the values the conjunct lists for one of
+ * the stores. It is evaluated with bitmap operations on first access, which allows results of the bitmap
+ * indexes sharing the same {@link BitmapOrdinals}, even of different attributes, to be combined by
+ * {@link AndResultSet} and {@link OrResultSet} before any entry is resolved.
+ * <p>
+ * {@link #contains(Object)} checks the current state of the stores and does not trigger the evaluation.
+ */
+public final class BitmapResultSet extends AbstractSet<QueryableEntry> {
+
+    private static final QueryableEntry[] NO_ENTRIES = new QueryableEntry[0];
+
+    private final BitmapOrdinals ordinals;
+    private final List<Map<BitmapIndexStore, Set<Comparable>>> conjuncts;
+    private QueryableEntry[] entries;
+
+    BitmapResultSet(BitmapIndexStore store, Set<Comparable> values) {
+        this(store.getOrdinals(), singletonList(singletonMap(store, values)));
+    }
+
+    private BitmapResultSet(BitmapOrdinals ordinals, List<Map<BitmapIndexStore, Set<Comparable>>> conjuncts) {
+        this.ordinals = ordinals;
+        this.conjuncts = conjuncts;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof QueryableEntry && matches(((QueryableEntry) o).getKeyData());
+    }
+
+    @Override
+    public Iterator<QueryableEntry> iterator() {
+        return Arrays.asList(getEntries()).iterator();
+    }
+
+    @Override
+    public int size() {
+        return getEntries().length;
+    }
+
+    private QueryableEntry[] getEntries() {
+        if (entries == null) {
+            entries = evaluate();
+        }
+        return entries;
+    }
+
+    private QueryableEntry[] evaluate() {
+        ordinals.takeReadLock();
+        try {
+            SparseBitmap result = null;
+            for (Map<BitmapIndexStore, Set<Comparable>> conjunct : conjuncts) {
+                SparseBitmap union = union(conjunct);
+                if (result == null) {
+                    result = union;
+                } else {
+                    result.and(union);
+                }
+                if (result.isEmpty()) {
+                    return NO_ENTRIES;
+                }
+            }
+            if (result == null) {
+                return NO_ENTRIES;
+            }
+            QueryableEntry[] matches = new QueryableEntry[result.cardinality()];
+            int count = 0;
+            for (int ordinal = result.nextSetBit(0); ordinal != -1; ordinal = result.nextSetBit(ordinal + 1)) {
+                matches[count++] = ordinals.getEntry(ordinal);
+            }
+            return matches;
+        } finally {
+            ordinals.releaseReadLock();
+        }
+    }
+
+    private static SparseBitmap union(Map<BitmapIndexStore, Set<Comparable>> conjunct) {
+        SparseBitmap union = new SparseBitmap();
+        for (Map.Entry<BitmapIndexStore, Set<Comparable>> storeValues : conjunct.entrySet()) {
+            BitmapIndexStore store = storeValues.getKey();
+            for (Comparable value : storeValues.getValue()) {
+                SparseBitmap bitmap = store.getBitmap(value);
+                if (bitmap != null) {
+                    union.or(bitmap);
+                }
+            }
+        }
+        return union;
+    }
+
+    private boolean matches(Data key) {
+        ordinals.takeReadLock();
+        try {
+            int ordinal = ordinals.getOrdinal(key);
+            if (ordinal == -1) {
+                return false;
+            }
+            for (Map<BitmapIndexStore, Set<Comparable>> conjunct : conjuncts) {
+                if (!matches(conjunct, ordinal)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            ordinals.releaseReadLock();
+        }
+    }
+
+    private static boolean matches(Map<BitmapIndexStore, Set<Comparable>> conjunct, int ordinal) {
+        for (Map.Entry<BitmapIndexStore, Set<Comparable>> storeValues : conjunct.entrySet()) {
+            BitmapIndexStore store = storeValues.getKey();
+            for (Comparable value : storeValues.getValue()) {
+                SparseBitmap bitmap = store.getBitmap(value);
+                if (bitmap != null && bitmap.get(ordinal)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Merges the results of bitmap index stores sharing the same ordinals into a single result evaluating
+     * their union.
+     *
+     * @param results the results of a disjunction
+     * @return the results to evaluate instead, the given list if nothing could be merged
+     */
+    static List<Set<QueryableEntry>> union(List<Set<QueryableEntry>> results) {
+        if (results.size() < 2) {
+            return results;
+        }
+        Object[] candidates = results.toArray();
+        List<Set<QueryableEntry>> merged = new ArrayList<Set<QueryableEntry>>(candidates.length);
+        boolean changed = false;
+        for (int i = 0; i < candidates.length; i++) {
+            Set<QueryableEntry> result = cast(candidates[i]);
+            if (result == null) {
+                continue;
+            }
+            if (isUnion(result)) {
+                BitmapResultSet bitmapResult = (BitmapResultSet) result;
+                Map<BitmapIndexStore, Set<Comparable>> disjunction = null;
+                for (int j = i + 1; j < candidates.length; j++) {
+                    Set<QueryableEntry> other = cast(candidates[j]);
+                    if (isUnion(other) && ((BitmapResultSet) other).ordinals == bitmapResult.ordinals) {
+                        if (disjunction == null) {
+                            disjunction = new HashMap<BitmapIndexStore, Set<Comparable>>();
+                            addAll(disjunction, bitmapResult.conjuncts.get(0));
+                        }
+                        addAll(disjunction, ((BitmapResultSet) other).conjuncts.get(0));
+                        candidates[j] = null;
+                    }
+                }
+                if (disjunction != null) {
+                    result = new BitmapResultSet(bitmapResult.ordinals, singletonList(disjunction));
+                    changed = true;
+                }
+            }
+            merged.add(result);
+        }
+        return changed ? merged : results;
+    }
+
+    private static void addAll(Map<BitmapIndexStore, Set<Comparable>> disjunction,
+                               Map<BitmapIndexStore, Set<Comparable>> values) {
+        for (Map.Entry<BitmapIndexStore, Set<Comparable>> storeValues : values.entrySet()) {
+            Set<Comparable> merged = disjunction.get(storeValues.getKey());
+            if (merged == null) {
+                merged = new HashSet<Comparable>();
+                disjunction.put(storeValues.getKey(), merged);
+            }
+            merged.addAll(storeValues.getValue());
+        }
+    }
+
+    /**
+     * Merges the results of bitmap index stores sharing the ordinals of the smallest result of a conjunction
+     * into it.
+     *
+     * @param smallest the smallest result of the conjunction
+     * @param others   the other results of the conjunction
+     * @return the result to evaluate instead of the smallest one
+     */
+    static Set<QueryableEntry> intersect(Set<QueryableEntry> smallest, List<Set<QueryableEntry>> others) {
+        if (!(smallest instanceof BitmapResultSet) || others == null) {
+            return smallest;
+        }
+        BitmapResultSet bitmapResult = (BitmapResultSet) smallest;
+        List<Map<BitmapIndexStore, Set<Comparable>>> conjuncts = null;
+        for (Set<QueryableEntry> other : others) {
+            if (isMergeable(bitmapResult, other)) {
+                if (conjuncts == null) {
+                    conjuncts = new ArrayList<Map<BitmapIndexStore, Set<Comparable>>>(bitmapResult.conjuncts);
+                }
+                conjuncts.addAll(((BitmapResultSet) other).conjuncts);
+            }
+        }
+        return conjuncts == null ? smallest : new BitmapResultSet(bitmapResult.ordinals, conjuncts);
+    }
+
+    /**
+     * @return the given other results of a conjunction without the ones merged by {@link #intersect}
+     */
+    static List<Set<QueryableEntry>> remaining(Set<QueryableEntry> smallest, List<Set<QueryableEntry>> others) {
+        if (!(smallest instanceof BitmapResultSet) || others == null) {
+            return others;
+        }
+        List<Set<QueryableEntry>> remaining = new ArrayList<Set<QueryableEntry>>(others.size());
+        for (Set<QueryableEntry> other : others) {
+            if (!isMergeable((BitmapResultSet) smallest, other)) {
+                remaining.add(other);
+            }
+        }
+        return remaining;
+    }
+
+    private static boolean isMergeable(BitmapResultSet bitmapResult, Set<QueryableEntry> other) {
+        return other instanceof BitmapResultSet && ((BitmapResultSet) other).ordinals == bitmapResult.ordinals;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<QueryableEntry> cast(Object result) {
+        return (Set<QueryableEntry>) result;
+    }
+
+    private static boolean isUnion(Set<QueryableEntry> result) {
+        return result instanceof BitmapResultSet && ((BitmapResultSet) result).conjuncts.size() == 1;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+
+import static com.hazelcast.query.impl.TypeConverters.NULL_CONVERTER;
+
+/**
+ * Converts the components of a {@link CompositeValue} with the converters of the corresponding attributes.
+ * <p>
+ * The converter of an attribute is known only once an entry having a non-null value for it is indexed,
+ * so the composite converter is {@linkplain #isResolved() resolved} step by step.
+ */
+final class CompositeConverter implements TypeConverter {
+
+    private final TypeConverter[] converters;
+
+    CompositeConverter(TypeConverter[] converters) {
+        this.converters = converters;
+    }
+
+    /**
+     * @return {@code true} if the converters of all the components are known
+     */
+    boolean isResolved() {
+        for (TypeConverter converter : converters) {
+            if (converter == NULL_CONVERTER) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a converter which takes the converters still unknown to this one from the given ones
+     */
+    CompositeConverter resolve(TypeConverter[] candidates) {
+        TypeConverter[] resolved = new TypeConverter[converters.length];
+        for (int i = 0; i < converters.length; i++) {
+            resolved[i] = converters[i] == NULL_CONVERTER ? candidates[i] : converters[i];
+        }
+        return new CompositeConverter(resolved);
+    }
+
+    @Override
+    public Comparable convert(Comparable value) {
+        if (!(value instanceof CompositeValue)) {
+            throw new IllegalArgumentException("Cannot convert " + value + " to a composite index value");
+        }
+        Comparable[] components = ((CompositeValue) value).getComponents();
+        Comparable[] converted = new Comparable[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Comparable component = components[i];
+            if (component == CompositeValue.NEGATIVE_INFINITY || component == CompositeValue.POSITIVE_INFINITY
+                    || component instanceof IndexImpl.NullObject || i >= converters.length) {
+                converted[i] = component;
+            } else {
+                converted[i] = converters[i].convert(component);
+            }
+        }
+        return new CompositeValue(converted);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * Value of a composite index: an ordered tuple of attribute values, compared component by component.
+ * <p>
+ * Components with a {@code null} value are represented by {@link IndexImpl#NULL}, which is lesser than any
+ * other value. The {@link #NEGATIVE_INFINITY} and {@link #POSITIVE_INFINITY} components are lesser or greater
+ * than anything, including {@code NULL}; they never appear in the index, only in the bounds of range lookups.
+ * A bound may have one more component than the indexed values; that trailing infinity places the bound right
+ * before or right after all the values it is a prefix of.
+ */
+@SuppressWarnings("unchecked")
+public final class CompositeValue implements Comparable<CompositeValue> {
+
+    /**
+     * Component which is lesser than any other component.
+     */
+    public static final Comparable NEGATIVE_INFINITY = new Infinity(-1);
+
+    /**
+     * Component which is greater than any other component.
+     */
+    public static final Comparable POSITIVE_INFINITY = new Infinity(1);
+
+    private final Comparable[] components;
+
+    public CompositeValue(Comparable[] components) {
+        this.components = components;
+    }
+
+    public Comparable[] getComponents() {
+        return components;
+    }
+
+    @Override
+    public int compareTo(CompositeValue that) {
+        int length = Math.min(components.length, that.components.length);
+        for (int i = 0; i < length; i++) {
+            int order = compareComponents(components[i], that.components[i]);
+            if (order != 0) {
+                return order;
+            }
+        }
+        if (components.length == that.components.length) {
+            return 0;
+        }
+        // only bounds are longer than the indexed values: the trailing component tells on which side they fall
+        return components.length > that.components.length
+                ? trailingOrder(components[length]) : -trailingOrder(that.components[length]);
+    }
+
+    private static int trailingOrder(Comparable trailingComponent) {
+        return trailingComponent == NEGATIVE_INFINITY ? -1 : 1;
+    }
+
+    private static int compareComponents(Comparable left, Comparable right) {
+        if (left == right) {
+            return 0;
+        }
+        if (left instanceof Infinity) {
+            return ((Infinity) left).sign;
+        }
+        if (right instanceof Infinity) {
+            return -((Infinity) right).sign;
+        }
+        if (left instanceof IndexImpl.NullObject) {
+            return right instanceof IndexImpl.NullObject ? 0 : -1;
+        }
+        if (right instanceof IndexImpl.NullObject) {
+            return 1;
+        }
+        return left.compareTo(right);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(components, ((CompositeValue) o).components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(components);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(components);
+    }
+
+    private static final class Infinity implements Comparable {
+
+        private final int sign;
+
+        Infinity(int sign) {
+            this.sign = sign;
+        }
+
+        @Override
+        public int compareTo(Object o) {
+            return o == this ? 0 : sign;
+        }
+
+        @Override
+        public String toString() {
+            return sign < 0 ? "-INF" : "+INF";
+        }
+    }
+}
@@ -65,5 +65,20 @@ public interface Index {
 
     String getAttributeName();
 
+    /**
+     * Returns the statistics of the indexed values, used to estimate the selectivity of lookups. They are only
+     * kept if the cost based query optimizer is configured.
+     *
+     * @return the statistics of this index, {@code null} if they are not kept
+     */
+    IndexStatistics getStatistics();
+
+    /**
+     * Returns the attributes of a composite index in the order of their significance.
+     *
+     * @return the attribute names of a composite index, or {@code null} if the index has a single attribute
+     */
+    String[] getComponents();
+
     boolean isOrdered();
 }
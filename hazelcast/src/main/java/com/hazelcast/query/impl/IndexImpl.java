@@ -24,6 +24,7 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.QueryException;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.getters.MultiResult;
 import com.hazelcast.query.impl.predicates.PredicateDataSerializerHook;
 
 import java.io.IOException;
@@ -42,20 +43,45 @@ public class IndexImpl implements Index {
 
     private volatile TypeConverter converter;
 
+    private final boolean statisticsEnabled;
+
     private final String attributeName;
+    private final String indexedAttribute;
+    private final String[] components;
     private final boolean ordered;
     private final Extractors extractors;
 
     public IndexImpl(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors) {
+        this(attributeName, ordered, ss, extractors, null, false);
+    }
+
+    /**
+     * @param bitmapOrdinals    the ordinals shared by the bitmap indexes of the same {@link Indexes}, {@code null}
+     *                          to let a bitmap index number its entries on its own
+     * @param statisticsEnabled {@code true} if the index keeps the statistics of its values
+     */
+    public IndexImpl(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors,
+                     BitmapOrdinals bitmapOrdinals, boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
         this.attributeName = attributeName;
+        this.indexedAttribute = Indexes.getIndexedAttribute(attributeName);
+        this.components = Indexes.getComponents(attributeName);
         this.ordered = ordered;
         this.ss = ss;
-        this.indexStore = createIndexStore(ordered);
+        if (Indexes.isBitmapAttribute(attributeName)) {
+            this.indexStore = new BitmapIndexStore(bitmapOrdinals != null ? bitmapOrdinals : new BitmapOrdinals(),
+                    statisticsEnabled);
+        } else {
+            this.indexStore = createIndexStore(ordered);
+        }
         this.extractors = extractors;
     }
 
     public IndexStore createIndexStore(boolean ordered) {
-        return ordered ? new SortedIndexStore() : new UnsortedIndexStore();
+        if (ordered) {
+            return new SortedIndexStore(new EntryValueReader(), statisticsEnabled);
+        }
+        return new UnsortedIndexStore(statisticsEnabled);
     }
 
     @Override
@@ -67,8 +93,10 @@ public class IndexImpl implements Index {
          * another thread can query over indexes without knowing the converter and
          * this causes to class cast exceptions.
          */
-        if (converter == null || converter == NULL_CONVERTER) {
-            converter = entry.getConverter(attributeName);
+        if (components != null) {
+            resolveCompositeConverter(entry);
+        } else if (converter == null || converter == NULL_CONVERTER) {
+            converter = entry.getConverter(indexedAttribute);
         }
 
         Object newAttributeValue = extractAttributeValue(entry.getKeyData(), entry.getTargetObject(false));
@@ -86,8 +114,44 @@ public class IndexImpl implements Index {
         indexStore.removeIndex(attributeValue, key);
     }
 
+    private void resolveCompositeConverter(QueryableEntry entry) {
+        TypeConverter current = converter;
+        if (current != null && ((CompositeConverter) current).isResolved()) {
+            return;
+        }
+        TypeConverter[] candidates = new TypeConverter[components.length];
+        for (int i = 0; i < components.length; i++) {
+            candidates[i] = entry.getConverter(components[i]);
+        }
+        converter = current == null ? new CompositeConverter(candidates) : ((CompositeConverter) current).resolve(candidates);
+    }
+
     private Object extractAttributeValue(Data key, Object value) {
-        return QueryableEntry.extractAttributeValue(extractors, ss, attributeName, key, value);
+        if (components != null) {
+            return extractCompositeValue(key, value);
+        }
+        return QueryableEntry.extractAttributeValue(extractors, ss, indexedAttribute, key, value);
+    }
+
+    private CompositeValue extractCompositeValue(Data key, Object value) {
+        Comparable[] values = new Comparable[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Object componentValue = QueryableEntry.extractAttributeValue(extractors, ss, components[i], key, value);
+            if (componentValue == null) {
+                values[i] = NULL;
+            } else if (componentValue instanceof MultiResult) {
+                throw new QueryException("Composite index " + attributeName + " does not support the multi-value attribute "
+                        + components[i]);
+            } else if (componentValue.getClass().isEnum()) {
+                values[i] = TypeConverters.ENUM_CONVERTER.convert((Comparable) componentValue);
+            } else if (componentValue instanceof Comparable) {
+                values[i] = (Comparable) componentValue;
+            } else {
+                throw new QueryException("It is not allowed to used a type that is not Comparable: " + componentValue.getClass()
+                        + " in composite index " + attributeName);
+            }
+        }
+        return new CompositeValue(values);
     }
 
     @Override
@@ -165,11 +229,29 @@ public class IndexImpl implements Index {
         return attributeName;
     }
 
+    @Override
+    public IndexStatistics getStatistics() {
+        return indexStore.getStatistics();
+    }
+
+    @Override
+    public String[] getComponents() {
+        return components;
+    }
+
     @Override
     public boolean isOrdered() {
         return ordered;
     }
 
+    private final class EntryValueReader implements BaseIndexStore.IndexedValueReader {
+
+        @Override
+        public Object read(QueryableEntry entry) {
+            return extractAttributeValue(entry.getKeyData(), entry.getTargetObject(false));
+        }
+    }
+
     public static final class NullObject implements Comparable, IdentifiedDataSerializable {
         @Override
         public int compareTo(Object o) {
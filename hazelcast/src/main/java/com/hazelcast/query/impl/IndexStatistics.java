@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of the values of an index, used to estimate the selectivity of index lookups.
+ * <p>
+ * The statistics keep the number of indexed entries, the number of distinct non-null values and a uniform
+ * sample of the indexed values, which serves as an equi-depth histogram. The sample follows the values which
+ * are currently indexed: it is maintained by reservoir sampling with random pairing, so a removed entry also
+ * leaves the sample if it was sampled, and the hole it leaves is refilled by a later addition with the same
+ * probability the removed entry had to be in the sample.
+ * <p>
+ * The sample keeps values, not entries. An entry is taken to be sampled if a sample has its value, with the
+ * overall sampling rate as probability, and all samples of a value are dropped once no entry has it anymore.
+ * The samples of a value are linked to each other and the first one is found by a hash lookup, so a removal
+ * does not scan the sample.
+ * <p>
+ * They are updated by the index store under its write lock; the estimations may read them concurrently and
+ * are approximate by nature. The statistics are only kept by the index stores if the cost based query
+ * optimizer is configured.
+ */
+public final class IndexStatistics {
+
+    /**
+     * Selectivity returned when it cannot be estimated.
+     */
+    public static final double UNKNOWN = -1;
+
+    static final int SAMPLE_SIZE = 256;
+
+    private static final int NONE = -1;
+
+    private final Comparable[] samples = new Comparable[SAMPLE_SIZE];
+    // the previous and the next slot having the same value as a slot
+    private final int[] previousSlots = new int[SAMPLE_SIZE];
+    private final int[] nextSlots = new int[SAMPLE_SIZE];
+    // the first slot having a value
+    private final Map<Comparable, Integer> firstSlots = new HashMap<Comparable, Integer>();
+
+    private final AtomicLong entryCount = new AtomicLong();
+    private final AtomicLong distinctValueCount = new AtomicLong();
+    private volatile int sampleCount;
+    // removals which took a value out of the sample and removals which did not, not yet paired with an addition
+    private long sampledRemovalCount;
+    private long unsampledRemovalCount;
+
+    /**
+     * @return the number of indexed entries, counting an entry once per value it is indexed under
+     */
+    public long getEntryCount() {
+        return entryCount.get();
+    }
+
+    /**
+     * @return the number of distinct non-null values
+     */
+    public long getDistinctValueCount() {
+        return distinctValueCount.get();
+    }
+
+    /**
+     * Estimates the fraction of the indexed entries having the given value.
+     *
+     * @param value the value, converted by the converter of the index
+     * @return the estimated selectivity, from 0 to 1, or {@link #UNKNOWN}
+     */
+    public double estimateEqualSelectivity(Comparable value) {
+        int count = sampleCount;
+        if (count == 0) {
+            return entryCount.get() == 0 ? 0 : UNKNOWN;
+        }
+        try {
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                if (compare(samples[i], value) == 0) {
+                    matches++;
+                }
+            }
+            if (matches > 0) {
+                return (double) matches / count;
+            }
+        } catch (ClassCastException e) {
+            return UNKNOWN;
+        }
+        // the value is not frequent enough to show up in the sample
+        long distinct = distinctValueCount.get();
+        return Math.min(1.0 / count, distinct == 0 ? 1.0 : 1.0 / distinct);
+    }
+
+    /**
+     * Estimates the fraction of the indexed entries having a non-null value in the given range.
+     *
+     * @param from          the lower bound, converted by the converter of the index, or {@code null} if unbounded
+     * @param fromInclusive {@code true} if the lower bound is inclusive
+     * @param to            the upper bound, converted by the converter of the index, or {@code null} if unbounded
+     * @param toInclusive   {@code true} if the upper bound is inclusive
+     * @return the estimated selectivity, from 0 to 1, or {@link #UNKNOWN}
+     */
+    public double estimateRangeSelectivity(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        int count = sampleCount;
+        if (count == 0) {
+            return entryCount.get() == 0 ? 0 : UNKNOWN;
+        }
+        try {
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                Comparable sample = samples[i];
+                if (sample instanceof IndexImpl.NullObject) {
+                    continue;
+                }
+                if (from != null) {
+                    int order = compare(sample, from);
+                    if (order < 0 || order == 0 && !fromInclusive) {
+                        continue;
+                    }
+                }
+                if (to != null) {
+                    int order = compare(sample, to);
+                    if (order > 0 || order == 0 && !toInclusive) {
+                        continue;
+                    }
+                }
+                matches++;
+            }
+            return (double) matches / count;
+        } catch (ClassCastException e) {
+            return UNKNOWN;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Comparable sample, Comparable value) {
+        if (sample == null) {
+            // a slot being written concurrently
+            return -1;
+        }
+        if (value instanceof IndexImpl.NullObject) {
+            return sample instanceof IndexImpl.NullObject ? 0 : 1;
+        }
+        return sample instanceof IndexImpl.NullObject ? -1 : sample.compareTo(value);
+    }
+
+    /**
+     * Called by the index store once an entry is indexed under a value.
+     *
+     * @param value    the value
+     * @param newValue {@code true} if no other entry was indexed under the value
+     */
+    void onEntryAdded(Comparable value, boolean newValue) {
+        long population = entryCount.incrementAndGet();
+        if (newValue && !(value instanceof IndexImpl.NullObject)) {
+            distinctValueCount.incrementAndGet();
+        }
+
+        long pendingRemovals = sampledRemovalCount + unsampledRemovalCount;
+        if (pendingRemovals > 0) {
+            // random pairing: the addition compensates one of the removals
+            if (nextRandom() * pendingRemovals < sampledRemovalCount) {
+                sampledRemovalCount--;
+                appendSample(value);
+            } else {
+                unsampledRemovalCount--;
+            }
+        } else if (sampleCount < SAMPLE_SIZE) {
+            appendSample(value);
+        } else {
+            long slot = (long) (nextRandom() * population);
+            if (slot < SAMPLE_SIZE) {
+                unlink((int) slot);
+                samples[(int) slot] = value;
+                link((int) slot);
+            }
+        }
+    }
+
+    /**
+     * Called by the index store once an entry is not indexed under a value anymore.
+     *
+     * @param value     the value
+     * @param lastValue {@code true} if no other entry is indexed under the value anymore
+     */
+    void onEntryRemoved(Comparable value, boolean lastValue) {
+        long population = entryCount.getAndDecrement();
+        if (lastValue && !(value instanceof IndexImpl.NullObject)) {
+            distinctValueCount.decrementAndGet();
+        }
+
+        if (lastValue) {
+            // no entry has the value anymore, so none of its samples may stay
+            int removedSamples = removeSamples(value, Integer.MAX_VALUE);
+            if (removedSamples == 0) {
+                unsampledRemovalCount++;
+            } else {
+                // the samples beyond the first one were stale already, their removals were not paired yet
+                sampledRemovalCount += removedSamples;
+                unsampledRemovalCount = Math.max(0, unsampledRemovalCount - (removedSamples - 1));
+            }
+        } else if (population > 0 && nextRandom() * population < sampleCount && removeSamples(value, 1) == 1) {
+            sampledRemovalCount++;
+        } else {
+            unsampledRemovalCount++;
+        }
+    }
+
+    private static double nextRandom() {
+        // the statistics of different indexes are updated concurrently, so they do not share a generator
+        return ThreadLocalRandomProvider.get().nextDouble();
+    }
+
+    private void appendSample(Comparable value) {
+        int count = sampleCount;
+        samples[count] = value;
+        link(count);
+        sampleCount = count + 1;
+    }
+
+    /**
+     * Removes at most {@code maxCount} samples equal to the given value, moving the last samples into the freed slots.
+     *
+     * @return the number of removed samples
+     */
+    private int removeSamples(Comparable value, int maxCount) {
+        int removed = 0;
+        Integer slot;
+        while (removed < maxCount && (slot = firstSlots.get(value)) != null) {
+            removeSample(slot);
+            removed++;
+        }
+        return removed;
+    }
+
+    private void removeSample(int slot) {
+        unlink(slot);
+        int last = sampleCount - 1;
+        if (slot != last) {
+            unlink(last);
+            samples[slot] = samples[last];
+            link(slot);
+        }
+        sampleCount = last;
+        samples[last] = null;
+    }
+
+    private void link(int slot) {
+        Integer first = firstSlots.put(samples[slot], slot);
+        previousSlots[slot] = NONE;
+        nextSlots[slot] = first == null ? NONE : first;
+        if (first != null) {
+            previousSlots[first] = slot;
+        }
+    }
+
+    private void unlink(int slot) {
+        int previous = previousSlots[slot];
+        int next = nextSlots[slot];
+        if (previous != NONE) {
+            nextSlots[previous] = next;
+        } else if (next != NONE) {
+            firstSlots.put(samples[slot], next);
+        } else {
+            firstSlots.remove(samples[slot]);
+        }
+        if (next != NONE) {
+            previousSlots[next] = previous;
+        }
+    }
+
+    void reset() {
+        firstSlots.clear();
+        entryCount.set(0);
+        distinctValueCount.set(0);
+        sampleCount = 0;
+        sampledRemovalCount = 0;
+        unsampledRemovalCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexStatistics{"
+                + "entryCount=" + entryCount.get()
+                + ", distinctValueCount=" + distinctValueCount.get()
+                + ", sampleCount=" + sampleCount
+                + '}';
+    }
+}
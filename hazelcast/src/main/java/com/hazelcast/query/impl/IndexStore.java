@@ -35,4 +35,9 @@ public interface IndexStore {
     Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue);
     Set<QueryableEntry> getRecords(Comparable value);
     Set<QueryableEntry> getRecords(Set<Comparable> values);
+
+    /**
+     * @return the statistics of the indexed values
+     */
+    IndexStatistics getStatistics();
 }
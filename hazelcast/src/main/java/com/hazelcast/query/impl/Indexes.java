@@ -34,13 +34,18 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class Indexes {
     private static final Index[] EMPTY_INDEX = {};
+    private static final String COMPOSITE_SEPARATOR = ",";
+    private static final String BITMAP_PREFIX = "bitmap:";
     private final ConcurrentMap<String, Index> mapIndexes = new ConcurrentHashMap<String, Index>(3);
     private final AtomicReference<Index[]> indexes = new AtomicReference<Index[]>(EMPTY_INDEX);
+    private final AtomicReference<Index[]> compositeIndexes = new AtomicReference<Index[]>(EMPTY_INDEX);
     private volatile boolean hasIndex;
     private final InternalSerializationService serializationService;
     private final IndexProvider indexProvider;
     private final Extractors extractors;
     private final boolean global;
+    // shared by the bitmap indexes, created with the first of them
+    private BitmapOrdinals bitmapOrdinals;
 
 
     public Indexes(InternalSerializationService serializationService, IndexProvider indexProvider,
@@ -51,23 +56,103 @@ public class Indexes {
         this.global = global;
     }
 
+    /**
+     * Returns the canonical form of an index attribute. The attribute of a composite index lists its
+     * components separated by commas, e.g. {@code "customerId, status, date"}; the canonical form trims
+     * the components and separates them with a comma and a single space.
+     *
+     * @param attribute the index attribute as given by the user
+     * @return the canonical form of the attribute
+     */
+    public static String canonicalizeAttribute(String attribute) {
+        if (isBitmapAttribute(attribute)) {
+            String indexedAttribute = attribute.substring(BITMAP_PREFIX.length()).trim();
+            if (indexedAttribute.length() == 0 || indexedAttribute.contains(COMPOSITE_SEPARATOR)) {
+                throw new IllegalArgumentException("Bitmap index must be defined on a single attribute: " + attribute);
+            }
+            return BITMAP_PREFIX + indexedAttribute;
+        }
+        if (attribute.indexOf(COMPOSITE_SEPARATOR) == -1) {
+            return attribute;
+        }
+        String[] components = attribute.split(COMPOSITE_SEPARATOR);
+        StringBuilder sb = new StringBuilder(attribute.length());
+        for (int i = 0; i < components.length; i++) {
+            String component = components[i].trim();
+            if (component.length() == 0) {
+                throw new IllegalArgumentException("Composite index attribute contains an empty component: " + attribute);
+            }
+            if (i > 0) {
+                sb.append(COMPOSITE_SEPARATOR).append(' ');
+            }
+            sb.append(component);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param attribute the index attribute
+     * @return {@code true} if the attribute declares a bitmap index, e.g. {@code "bitmap:status"}
+     */
+    public static boolean isBitmapAttribute(String attribute) {
+        return attribute.startsWith(BITMAP_PREFIX);
+    }
+
+    /**
+     * @param attribute the index attribute, in the canonical form
+     * @return the attribute the index is queried by, i.e. the attribute without the bitmap index prefix
+     */
+    public static String getIndexedAttribute(String attribute) {
+        return isBitmapAttribute(attribute) ? attribute.substring(BITMAP_PREFIX.length()) : attribute;
+    }
+
+    /**
+     * @param attribute the index attribute, in the canonical form
+     * @return the components of a composite index attribute, or {@code null} if the attribute is not composite
+     */
+    public static String[] getComponents(String attribute) {
+        if (attribute.indexOf(COMPOSITE_SEPARATOR) == -1) {
+            return null;
+        }
+        String[] components = attribute.split(COMPOSITE_SEPARATOR);
+        for (int i = 0; i < components.length; i++) {
+            components[i] = components[i].trim();
+        }
+        return components;
+    }
+
     public synchronized Index destroyIndex(String attribute) {
-        return mapIndexes.remove(attribute);
+        return mapIndexes.remove(getIndexedAttribute(canonicalizeAttribute(attribute)));
     }
 
     public synchronized Index addOrGetIndex(String attribute, boolean ordered) {
-        Index index = mapIndexes.get(attribute);
+        attribute = canonicalizeAttribute(attribute);
+        String indexedAttribute = getIndexedAttribute(attribute);
+        Index index = mapIndexes.get(indexedAttribute);
         if (index != null) {
             return index;
         }
-        index = indexProvider.createIndex(attribute, ordered, extractors, serializationService);
-        mapIndexes.put(attribute, index);
+        if (ordered && isBitmapAttribute(attribute)) {
+            throw new IllegalArgumentException("Bitmap index cannot be ordered: " + attribute);
+        }
+        BitmapOrdinals ordinals = null;
+        if (isBitmapAttribute(attribute)) {
+            if (bitmapOrdinals == null) {
+                bitmapOrdinals = new BitmapOrdinals();
+            }
+            ordinals = bitmapOrdinals;
+        }
+        index = indexProvider.createIndex(attribute, ordered, extractors, serializationService, ordinals);
+        mapIndexes.put(indexedAttribute, index);
         Object[] indexObjects = mapIndexes.values().toArray();
         Index[] newIndexes = new Index[indexObjects.length];
         for (int i = 0; i < indexObjects.length; i++) {
             newIndexes[i] = (Index) indexObjects[i];
         }
         indexes.set(newIndexes);
+        if (index.getComponents() != null) {
+            compositeIndexes.set(appendIndex(compositeIndexes.get(), index));
+        }
         hasIndex = true;
         return index;
     }
@@ -76,13 +161,24 @@ public class Indexes {
         return indexes.get();
     }
 
+    /**
+     * @return the composite indexes, which index more than one attribute
+     */
+    public Index[] getCompositeIndexes() {
+        return compositeIndexes.get();
+    }
+
     public void clearIndexes() {
         for (Index index : getIndexes()) {
             index.destroy();
         }
 
         indexes.set(EMPTY_INDEX);
+        compositeIndexes.set(EMPTY_INDEX);
         mapIndexes.clear();
+        synchronized (this) {
+            bitmapOrdinals = null;
+        }
         hasIndex = false;
     }
 
@@ -122,7 +218,14 @@ public class Indexes {
      * @return Index for attribute or null if the index does not exist.
      */
     public Index getIndex(String attribute) {
-        return mapIndexes.get(attribute);
+        return mapIndexes.get(getIndexedAttribute(canonicalizeAttribute(attribute)));
+    }
+
+    private static Index[] appendIndex(Index[] indexes, Index index) {
+        Index[] newIndexes = new Index[indexes.length + 1];
+        System.arraycopy(indexes, 0, newIndexes, 0, indexes.length);
+        newIndexes[indexes.length] = index;
+        return newIndexes;
     }
 
     public Set<QueryableEntry> query(Predicate predicate) {
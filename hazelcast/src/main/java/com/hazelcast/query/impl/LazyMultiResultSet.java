@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Result set which walks the buckets of an index lazily instead of copying them up front.
+ * <p>
+ * The result is given as maps of indexed value to bucket, usually live range views of the index store. A bucket is
+ * either a single {@link QueryableEntry} or a {@link Map} of index key to entry. The result is weakly consistent:
+ * entries indexed or removed while the result is iterated may or may not be seen, an entry which is moved to a
+ * bucket already walked is missed and one which is moved to a bucket not walked yet may be seen again.
+ * <p>
+ * An entry found in a map bucket is skipped if the bucket does not hold it anymore, so the iteration does not
+ * return stale entries. Only when the index has seen a multi-value attribute, whose entries are indexed under more
+ * than one value, the returned keys are tracked to return each entry once.
+ * <p>
+ * {@link #contains(Object)} probes the index with the value of the given entry, {@link #size()} walks the result
+ * once and caches the size, {@link #estimatedSize()} only counts the entries of the first buckets.
+ */
+public class LazyMultiResultSet extends AbstractSet<QueryableEntry> {
+
+    /**
+     * Number of buckets {@link #estimatedSize()} looks at before it gives up.
+     */
+    static final int ESTIMATE_BUCKET_LIMIT = 256;
+
+    private static final int SIZE_UNINITIALIZED = -1;
+
+    private final List<Map<Comparable, Object>> bucketMaps;
+    private final BaseIndexStore.IndexedValueReader valueReader;
+    private final boolean detectDuplicates;
+
+    private int cachedSize = SIZE_UNINITIALIZED;
+
+    /**
+     * @param bucketMaps       maps of indexed value to bucket to be walked in order
+     * @param valueReader      reads the value an entry is indexed under, to probe the buckets in {@link #contains(Object)}
+     * @param detectDuplicates {@code true} if an entry may be indexed under more than one value
+     */
+    public LazyMultiResultSet(List<Map<Comparable, Object>> bucketMaps, BaseIndexStore.IndexedValueReader valueReader,
+                              boolean detectDuplicates) {
+        this.bucketMaps = bucketMaps;
+        this.valueReader = valueReader;
+        this.detectDuplicates = detectDuplicates;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        QueryableEntry entry = (QueryableEntry) o;
+        Object value = valueReader.read(entry);
+        if (value instanceof MultiResult) {
+            for (Object result : ((MultiResult) value).getResults()) {
+                if (isIndexedUnder(BaseIndexStore.sanitizeValue(result), entry.getKeyData())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return isIndexedUnder(BaseIndexStore.sanitizeValue(value), entry.getKeyData());
+    }
+
+    @Override
+    public int size() {
+        if (cachedSize == SIZE_UNINITIALIZED) {
+            int calculatedSize = 0;
+            for (Iterator<QueryableEntry> it = iterator(); it.hasNext(); it.next()) {
+                calculatedSize++;
+            }
+            cachedSize = calculatedSize;
+        }
+        return cachedSize;
+    }
+
+    /**
+     * Estimates the size without walking the entries: the sizes of the buckets are summed up, as long as there are
+     * at most {@link #ESTIMATE_BUCKET_LIMIT} of them.
+     *
+     * @return the estimated size, or {@link Integer#MAX_VALUE} if there are too many buckets to count
+     */
+    public int estimatedSize() {
+        if (cachedSize != SIZE_UNINITIALIZED) {
+            return cachedSize;
+        }
+        int bucketCount = 0;
+        long estimatedSize = 0;
+        for (Map<Comparable, Object> bucketMap : bucketMaps) {
+            for (Object bucket : bucketMap.values()) {
+                if (++bucketCount > ESTIMATE_BUCKET_LIMIT) {
+                    return Integer.MAX_VALUE;
+                }
+                estimatedSize += bucket instanceof QueryableEntry ? 1 : ((Map) bucket).size();
+            }
+        }
+        return (int) Math.min(estimatedSize, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Iterator<QueryableEntry> iterator() {
+        return new It();
+    }
+
+    private boolean isIndexedUnder(Comparable value, Data key) {
+        for (Map<Comparable, Object> bucketMap : bucketMaps) {
+            Object bucket;
+            try {
+                bucket = bucketMap.get(value);
+            } catch (ClassCastException e) {
+                // a value of another type is not indexed
+                return false;
+            }
+            if (bucket instanceof QueryableEntry) {
+                if (((QueryableEntry) bucket).getKeyData().equals(key)) {
+                    return true;
+                }
+            } else if (bucket != null && ((Map) bucket).containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class It implements Iterator<QueryableEntry> {
+
+        private final Iterator<Map<Comparable, Object>> bucketMapIterator = bucketMaps.iterator();
+        private final Set<Data> seenKeys = detectDuplicates ? new HashSet<Data>() : null;
+        private Iterator<Object> bucketIterator = Collections.emptyList().iterator();
+        private Map<Data, QueryableEntry> bucket;
+        private Iterator<QueryableEntry> entryIterator = Collections.<QueryableEntry>emptyList().iterator();
+        private QueryableEntry next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                QueryableEntry entry = nextCandidate();
+                if (entry == null) {
+                    return false;
+                }
+                if (seenKeys == null || seenKeys.add(entry.getKeyData())) {
+                    next = entry;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public QueryableEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            QueryableEntry entry = next;
+            next = null;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @SuppressWarnings("unchecked")
+        private QueryableEntry nextCandidate() {
+            while (true) {
+                if (entryIterator.hasNext()) {
+                    QueryableEntry entry = entryIterator.next();
+                    // the iterator of a concurrent map may return an entry removed from the bucket in the meantime
+                    if (bucket.get(entry.getKeyData()) == entry) {
+                        return entry;
+                    }
+                } else if (bucketIterator.hasNext()) {
+                    Object nextBucket = bucketIterator.next();
+                    if (nextBucket instanceof QueryableEntry) {
+                        return (QueryableEntry) nextBucket;
+                    }
+                    bucket = (Map<Data, QueryableEntry>) nextBucket;
+                    entryIterator = bucket.values().iterator();
+                } else if (bucketMapIterator.hasNext()) {
+                    bucketIterator = bucketMapIterator.next().values().iterator();
+                } else {
+                    return null;
+                }
+            }
+        }
+    }
+}
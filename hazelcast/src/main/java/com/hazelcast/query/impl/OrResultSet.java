@@ -32,7 +32,8 @@ public class OrResultSet extends AbstractSet<QueryableEntry> {
     private Set<QueryableEntry> entries;
 
     public OrResultSet(List<Set<QueryableEntry>> indexedResults) {
-        this.indexedResults = indexedResults;
+        // results of the same bitmap index are united as bitmaps instead of being copied entry by entry
+        this.indexedResults = BitmapResultSet.union(indexedResults);
     }
 
     @Override
@@ -74,7 +75,9 @@ public class OrResultSet extends AbstractSet<QueryableEntry> {
             if (indexedResults.isEmpty()) {
                 entries = Collections.emptySet();
             } else {
-                if (indexedResults.size() == 1) {
+                if (indexedResults.size() == 1 && indexedResults.get(0) instanceof BitmapResultSet) {
+                    entries = indexedResults.get(0);
+                } else if (indexedResults.size() == 1) {
                     entries = new HashSet<QueryableEntry>(indexedResults.get(0));
                 } else {
                     entries = new HashSet<QueryableEntry>();
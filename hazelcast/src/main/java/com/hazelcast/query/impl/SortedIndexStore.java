@@ -18,9 +18,12 @@ package com.hazelcast.query.impl;
 
 import com.hazelcast.nio.serialization.Data;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
@@ -28,49 +31,102 @@ import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * Store indexes rankly.
+ * <p>
+ * Every attribute value is mapped to a bucket, which is the single {@link QueryableEntry} having that value or,
+ * once there are more of them, a {@link ConcurrentMap} of index key to entry. Most values of attributes which are
+ * used in range queries, like ids and timestamps, are unique, so this spares a map per distinct value.
+ * <p>
+ * Updates are serialized by the write lock of {@link BaseIndexStore}. Reads do not lock: they run against the
+ * concurrent skip list and the buckets directly, and range results are walked lazily through
+ * {@link LazyMultiResultSet} instead of being copied. As a result, a query running concurrently with an update
+ * may or may not see the updated entry.
  */
 public class SortedIndexStore extends BaseIndexStore {
 
     private final ConcurrentMap<Data, QueryableEntry> recordsWithNullValue
             = new ConcurrentHashMap<Data, QueryableEntry>();
 
-    private final ConcurrentSkipListMap<Comparable, ConcurrentMap<Data, QueryableEntry>> recordMap
-            = new ConcurrentSkipListMap<Comparable, ConcurrentMap<Data, QueryableEntry>>();
+    // values are either QueryableEntry or ConcurrentMap<Data, QueryableEntry>
+    private final ConcurrentSkipListMap<Comparable, Object> recordMap
+            = new ConcurrentSkipListMap<Comparable, Object>();
+
+    private final IndexedValueReader valueReader;
+
+    /**
+     * @param valueReader       reads the value an entry is indexed under, used to probe the range results
+     * @param statisticsEnabled {@code true} if the statistics of the indexed values are kept
+     */
+    public SortedIndexStore(IndexedValueReader valueReader, boolean statisticsEnabled) {
+        super(statisticsEnabled);
+        this.valueReader = valueReader;
+    }
 
     @Override
     void newIndexInternal(Comparable newValue, QueryableEntry record) {
         if (newValue instanceof IndexImpl.NullObject) {
-            recordsWithNullValue.put(record.getKeyData(), record);
+            if (recordsWithNullValue.put(record.getKeyData(), record) == null) {
+                onEntryAdded(newValue, recordsWithNullValue.size() == 1);
+            }
         } else {
             mapAttributeToEntry(newValue, record);
         }
     }
 
+    @SuppressWarnings("unchecked")
     private void mapAttributeToEntry(Comparable attribute, QueryableEntry entry) {
-        ConcurrentMap<Data, QueryableEntry> records = recordMap.get(attribute);
-        if (records == null) {
-            records = new ConcurrentHashMap<Data, QueryableEntry>(1, LOAD_FACTOR, 1);
-            recordMap.put(attribute, records);
+        Object bucket = recordMap.get(attribute);
+        if (bucket == null) {
+            recordMap.put(attribute, entry);
+            onEntryAdded(attribute, true);
+        } else if (bucket instanceof QueryableEntry) {
+            QueryableEntry existingEntry = (QueryableEntry) bucket;
+            if (existingEntry.getKeyData().equals(entry.getKeyData())) {
+                recordMap.put(attribute, entry);
+            } else {
+                ConcurrentMap<Data, QueryableEntry> records = new ConcurrentHashMap<Data, QueryableEntry>(2, LOAD_FACTOR, 1);
+                records.put(existingEntry.getKeyData(), existingEntry);
+                records.put(entry.getKeyData(), entry);
+                // published only when filled, so lock-free readers see either the old or the new bucket
+                recordMap.put(attribute, records);
+                onEntryAdded(attribute, false);
+            }
+        } else if (((ConcurrentMap<Data, QueryableEntry>) bucket).put(entry.getKeyData(), entry) == null) {
+            onEntryAdded(attribute, false);
         }
-        records.put(entry.getKeyData(), entry);
     }
 
     @Override
     void removeIndexInternal(Comparable oldValue, Data indexKey) {
         if (oldValue instanceof IndexImpl.NullObject) {
-            recordsWithNullValue.remove(indexKey);
+            if (recordsWithNullValue.remove(indexKey) != null) {
+                onEntryRemoved(oldValue, recordsWithNullValue.isEmpty());
+            }
         } else {
             removeMappingForAttribute(oldValue, indexKey);
         }
     }
 
+    @SuppressWarnings("unchecked")
     private void removeMappingForAttribute(Comparable attribute, Data indexKey) {
-        ConcurrentMap<Data, QueryableEntry> records = recordMap.get(attribute);
-        if (records != null) {
-            records.remove(indexKey);
-            if (records.size() == 0) {
+        Object bucket = recordMap.get(attribute);
+        if (bucket == null) {
+            return;
+        }
+        if (bucket instanceof QueryableEntry) {
+            if (((QueryableEntry) bucket).getKeyData().equals(indexKey)) {
                 recordMap.remove(attribute);
+                onEntryRemoved(attribute, true);
             }
+            return;
+        }
+        ConcurrentMap<Data, QueryableEntry> records = (ConcurrentMap<Data, QueryableEntry>) bucket;
+        boolean removed = records.remove(indexKey) != null;
+        boolean lastValue = records.size() == 0;
+        if (lastValue) {
+            recordMap.remove(attribute);
+        }
+        if (removed) {
+            onEntryRemoved(attribute, lastValue);
         }
     }
 
@@ -80,102 +136,78 @@ public class SortedIndexStore extends BaseIndexStore {
         try {
             recordsWithNullValue.clear();
             recordMap.clear();
+            resetStatistics();
         } finally {
             releaseWriteLock();
         }
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
-        takeReadLock();
-        try {
-            MultiResultSet results = createMultiResultSet();
-            SortedMap<Comparable, ConcurrentMap<Data, QueryableEntry>> subMap =
-                    recordMap.subMap(from, true, to, true);
-            for (ConcurrentMap<Data, QueryableEntry> value : subMap.values()) {
-                copyToMultiResultSet(results, value);
-            }
-            return results;
-        } finally {
-            releaseReadLock();
+        if (from.compareTo(to) > 0) {
+            return Collections.emptySet();
         }
+        return toLazyResultSet(recordMap.subMap(from, true, to, true));
     }
 
     @Override
     public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
-        takeReadLock();
-        try {
-            MultiResultSet results = createMultiResultSet();
-            SortedMap<Comparable, ConcurrentMap<Data, QueryableEntry>> subMap;
-            switch (comparisonType) {
-                case LESSER:
-                    subMap = recordMap.headMap(searchedValue, false);
-                    break;
-                case LESSER_EQUAL:
-                    subMap = recordMap.headMap(searchedValue, true);
-                    break;
-                case GREATER:
-                    subMap = recordMap.tailMap(searchedValue, false);
-                    break;
-                case GREATER_EQUAL:
-                    subMap = recordMap.tailMap(searchedValue, true);
-                    break;
-                case NOT_EQUAL:
-                    // TODO There maybe more efficient way such as
-                    // Make a copy of current record map and just remove searched value.
-                    // So remaining records are not equal to searched value
-                    for (Map.Entry<Comparable, ConcurrentMap<Data, QueryableEntry>> entry : recordMap.entrySet()) {
-                        if (!searchedValue.equals(entry.getKey())) {
-                            copyToMultiResultSet(results, entry.getValue());
-                        }
-                    }
-                    return results;
-                default:
-                    throw new IllegalArgumentException("Unrecognized comparisonType: " + comparisonType);
-            }
-            for (ConcurrentMap<Data, QueryableEntry> value : subMap.values()) {
-                copyToMultiResultSet(results, value);
-            }
-            return results;
-        } finally {
-            releaseReadLock();
+        switch (comparisonType) {
+            case LESSER:
+                return toLazyResultSet(recordMap.headMap(searchedValue, false));
+            case LESSER_EQUAL:
+                return toLazyResultSet(recordMap.headMap(searchedValue, true));
+            case GREATER:
+                return toLazyResultSet(recordMap.tailMap(searchedValue, false));
+            case GREATER_EQUAL:
+                return toLazyResultSet(recordMap.tailMap(searchedValue, true));
+            case NOT_EQUAL:
+                List<Map<Comparable, Object>> bucketMaps = new ArrayList<Map<Comparable, Object>>(2);
+                bucketMaps.add(recordMap.headMap(searchedValue, false));
+                bucketMaps.add(recordMap.tailMap(searchedValue, false));
+                return new LazyMultiResultSet(bucketMaps, valueReader, multiResultHasToDetectDuplicates);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparisonType: " + comparisonType);
         }
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public Set<QueryableEntry> getRecords(Comparable value) {
-        takeReadLock();
-        try {
-            if (value instanceof IndexImpl.NullObject) {
-                return toSingleResultSet(recordsWithNullValue);
-            } else {
-                return toSingleResultSet(recordMap.get(value));
-            }
-        } finally {
-            releaseReadLock();
+        if (value instanceof IndexImpl.NullObject) {
+            return new SingleResultSet(recordsWithNullValue);
+        }
+        Object bucket = recordMap.get(value);
+        if (bucket == null) {
+            return new SingleResultSet(null);
+        }
+        if (bucket instanceof QueryableEntry) {
+            QueryableEntry entry = (QueryableEntry) bucket;
+            return new SingleResultSet(Collections.singletonMap(entry.getKeyData(), entry));
         }
+        return new SingleResultSet((Map<Data, QueryableEntry>) bucket);
     }
 
     @Override
     public Set<QueryableEntry> getRecords(Set<Comparable> values) {
-        takeReadLock();
-        try {
-            MultiResultSet results = createMultiResultSet();
-            for (Comparable value : values) {
-                ConcurrentMap<Data, QueryableEntry> records;
-                if (value instanceof IndexImpl.NullObject) {
-                    records = recordsWithNullValue;
-                } else {
-                    records = recordMap.get(value);
-                }
-                if (records != null) {
-                    copyToMultiResultSet(results, records);
-                }
+        Map<Comparable, Object> buckets = new LinkedHashMap<Comparable, Object>(values.size());
+        for (Comparable value : values) {
+            Object bucket;
+            if (value instanceof IndexImpl.NullObject) {
+                bucket = recordsWithNullValue;
+            } else {
+                bucket = recordMap.get(value);
+            }
+            if (bucket != null) {
+                buckets.put(value, bucket);
             }
-            return results;
-        } finally {
-            releaseReadLock();
         }
+        return toLazyResultSet(buckets);
+    }
+
+    private LazyMultiResultSet toLazyResultSet(Map<Comparable, Object> buckets) {
+        return new LazyMultiResultSet(Collections.singletonList(buckets), valueReader, multiResultHasToDetectDuplicates);
     }
 
     @Override
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+/**
+ * A bitmap over non-negative int positions compressed at the block level: the bits are grouped in
+ * blocks of {@value #BLOCK_BITS} bits and blocks without any bit set are not allocated.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class SparseBitmap {
+
+    private static final int WORD_SHIFT = 6;
+    private static final int BLOCK_WORD_SHIFT = 6;
+    private static final int BLOCK_SHIFT = WORD_SHIFT + BLOCK_WORD_SHIFT;
+    private static final int BLOCK_BITS = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_WORDS = 1 << BLOCK_WORD_SHIFT;
+    private static final int WORD_MASK = (1 << WORD_SHIFT) - 1;
+    private static final int BLOCK_WORD_MASK = BLOCK_WORDS - 1;
+    private static final long[][] EMPTY_BLOCKS = new long[0][];
+
+    private long[][] blocks = EMPTY_BLOCKS;
+
+    SparseBitmap() {
+    }
+
+    /**
+     * @return {@code true} if the bit was not set before
+     */
+    boolean set(int position) {
+        int blockIndex = position >>> BLOCK_SHIFT;
+        if (blockIndex >= blocks.length) {
+            long[][] newBlocks = new long[Math.max(blockIndex + 1, blocks.length << 1)][];
+            System.arraycopy(blocks, 0, newBlocks, 0, blocks.length);
+            blocks = newBlocks;
+        }
+        long[] block = blocks[blockIndex];
+        if (block == null) {
+            block = new long[BLOCK_WORDS];
+            blocks[blockIndex] = block;
+        }
+        int wordIndex = (position >>> WORD_SHIFT) & BLOCK_WORD_MASK;
+        long mask = 1L << (position & WORD_MASK);
+        boolean wasSet = (block[wordIndex] & mask) != 0;
+        block[wordIndex] |= mask;
+        return !wasSet;
+    }
+
+    /**
+     * @return {@code true} if the bit was set before
+     */
+    boolean clear(int position) {
+        int blockIndex = position >>> BLOCK_SHIFT;
+        long[] block = blockIndex < blocks.length ? blocks[blockIndex] : null;
+        if (block == null) {
+            return false;
+        }
+        int wordIndex = (position >>> WORD_SHIFT) & BLOCK_WORD_MASK;
+        long mask = 1L << (position & WORD_MASK);
+        if ((block[wordIndex] & mask) == 0) {
+            return false;
+        }
+        block[wordIndex] &= ~mask;
+        if (block[wordIndex] == 0 && isEmpty(block)) {
+            blocks[blockIndex] = null;
+        }
+        return true;
+    }
+
+    boolean get(int position) {
+        int blockIndex = position >>> BLOCK_SHIFT;
+        long[] block = blockIndex < blocks.length ? blocks[blockIndex] : null;
+        return block != null && (block[(position >>> WORD_SHIFT) & BLOCK_WORD_MASK] & (1L << (position & WORD_MASK))) != 0;
+    }
+
+    boolean isEmpty() {
+        for (long[] block : blocks) {
+            if (block != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int cardinality() {
+        int cardinality = 0;
+        for (long[] block : blocks) {
+            if (block != null) {
+                for (long word : block) {
+                    cardinality += Long.bitCount(word);
+                }
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return the first position set at or after the given one, or {@code -1} if there is none
+     */
+    int nextSetBit(int fromPosition) {
+        int blockIndex = fromPosition >>> BLOCK_SHIFT;
+        int wordIndex = (fromPosition >>> WORD_SHIFT) & BLOCK_WORD_MASK;
+        long firstWordMask = -1L << (fromPosition & WORD_MASK);
+        for (; blockIndex < blocks.length; blockIndex++) {
+            long[] block = blocks[blockIndex];
+            if (block != null) {
+                for (; wordIndex < BLOCK_WORDS; wordIndex++) {
+                    long word = block[wordIndex] & firstWordMask;
+                    firstWordMask = -1L;
+                    if (word != 0) {
+                        return (blockIndex << BLOCK_SHIFT) + (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+                    }
+                }
+            }
+            wordIndex = 0;
+            firstWordMask = -1L;
+        }
+        return -1;
+    }
+
+    /**
+     * Sets all the bits set in the given bitmap.
+     */
+    void or(SparseBitmap other) {
+        long[][] otherBlocks = other.blocks;
+        if (otherBlocks.length > blocks.length) {
+            long[][] newBlocks = new long[otherBlocks.length][];
+            System.arraycopy(blocks, 0, newBlocks, 0, blocks.length);
+            blocks = newBlocks;
+        }
+        for (int i = 0; i < otherBlocks.length; i++) {
+            long[] otherBlock = otherBlocks[i];
+            if (otherBlock == null) {
+                continue;
+            }
+            long[] block = blocks[i];
+            if (block == null) {
+                blocks[i] = otherBlock.clone();
+            } else {
+                for (int j = 0; j < BLOCK_WORDS; j++) {
+                    block[j] |= otherBlock[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears all the bits not set in the given bitmap.
+     */
+    void and(SparseBitmap other) {
+        long[][] otherBlocks = other.blocks;
+        for (int i = 0; i < blocks.length; i++) {
+            long[] block = blocks[i];
+            if (block == null) {
+                continue;
+            }
+            long[] otherBlock = i < otherBlocks.length ? otherBlocks[i] : null;
+            if (otherBlock == null) {
+                blocks[i] = null;
+                continue;
+            }
+            for (int j = 0; j < BLOCK_WORDS; j++) {
+                block[j] &= otherBlock[j];
+            }
+            if (isEmpty(block)) {
+                blocks[i] = null;
+            }
+        }
+    }
+
+    private static boolean isEmpty(long[] block) {
+        for (long word : block) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
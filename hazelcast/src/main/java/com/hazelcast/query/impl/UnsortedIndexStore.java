@@ -34,10 +34,19 @@ public class UnsortedIndexStore extends BaseIndexStore {
     private final ConcurrentMap<Comparable, ConcurrentMap<Data, QueryableEntry>> recordMap
             = new ConcurrentHashMap<Comparable, ConcurrentMap<Data, QueryableEntry>>(1000);
 
+    /**
+     * @param statisticsEnabled {@code true} if the statistics of the indexed values are kept
+     */
+    public UnsortedIndexStore(boolean statisticsEnabled) {
+        super(statisticsEnabled);
+    }
+
     @Override
     void newIndexInternal(Comparable newValue, QueryableEntry record) {
         if (newValue instanceof IndexImpl.NullObject) {
-            recordsWithNullValue.put(record.getKeyData(), record);
+            if (recordsWithNullValue.put(record.getKeyData(), record) == null) {
+                onEntryAdded(newValue, recordsWithNullValue.size() == 1);
+            }
         } else {
             mapAttributeToEntry(newValue, record);
         }
@@ -45,29 +54,38 @@ public class UnsortedIndexStore extends BaseIndexStore {
 
     private void mapAttributeToEntry(Comparable attribute, QueryableEntry entry) {
         ConcurrentMap<Data, QueryableEntry> records = recordMap.get(attribute);
-        if (records == null) {
+        boolean newValue = records == null;
+        if (newValue) {
             records = new ConcurrentHashMap<Data, QueryableEntry>(1, LOAD_FACTOR, 1);
             recordMap.put(attribute, records);
         }
-        records.put(entry.getKeyData(), entry);
+        if (records.put(entry.getKeyData(), entry) == null) {
+            onEntryAdded(attribute, newValue);
+        }
     }
 
     @Override
     void removeIndexInternal(Comparable oldValue, Data indexKey) {
         if (oldValue instanceof IndexImpl.NullObject) {
-            recordsWithNullValue.remove(indexKey);
+            if (recordsWithNullValue.remove(indexKey) != null) {
+                onEntryRemoved(oldValue, recordsWithNullValue.isEmpty());
+            }
         } else {
             removeMappingForAttribute(oldValue, indexKey);
         }
     }
 
-    private void removeMappingForAttribute(Object attribute, Data indexKey) {
+    private void removeMappingForAttribute(Comparable attribute, Data indexKey) {
         ConcurrentMap<Data, QueryableEntry> records = recordMap.get(attribute);
         if (records != null) {
-            records.remove(indexKey);
-            if (records.size() == 0) {
+            boolean removed = records.remove(indexKey) != null;
+            boolean lastValue = records.size() == 0;
+            if (lastValue) {
                 recordMap.remove(attribute);
             }
+            if (removed) {
+                onEntryRemoved(attribute, lastValue);
+            }
         }
     }
 
@@ -77,6 +95,7 @@ public class UnsortedIndexStore extends BaseIndexStore {
         try {
             recordsWithNullValue.clear();
             recordMap.clear();
+            resetStatistics();
         } finally {
             releaseWriteLock();
         }
@@ -16,20 +16,80 @@
 
 package com.hazelcast.query.impl.getters;
 
-
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
 
+/**
+ * Extracts the value of a field.
+ * <p/>
+ * When the memory accessor is available, plain instance fields are read directly at their offset. This avoids the
+ * access checks and the argument validation of {@link Field#get(Object)} on every extraction, which dominates the
+ * cost of full-scan predicates and aggregations. Static and volatile fields, fields whose offset the JVM does not
+ * expose (e.g. the fields of record and hidden classes on newer JDKs) and targets which are {@code null} or of an
+ * unrelated class are still read reflectively, so they keep the behavior of {@link Field#get(Object)}.
+ */
 public class FieldGetter extends AbstractMultiValueGetter {
+
+    private static final long NO_OFFSET = -1;
+
     private final Field field;
+    private final Class declaringClass;
+    private final Class fieldType;
+    private final long offset;
 
     public FieldGetter(Getter parent, Field field, String modifierSuffix, Class resultType) {
         super(parent, modifierSuffix, field.getType(), resultType);
         this.field = field;
+        this.declaringClass = field.getDeclaringClass();
+        this.fieldType = field.getType();
+        this.offset = fieldOffset(field);
+    }
+
+    private static long fieldOffset(Field field) {
+        int modifiers = field.getModifiers();
+        if (!MEM_AVAILABLE || Modifier.isStatic(modifiers) || Modifier.isVolatile(modifiers)) {
+            return NO_OFFSET;
+        }
+        try {
+            return MEM.objectFieldOffset(field);
+        } catch (UnsupportedOperationException e) {
+            return NO_OFFSET;
+        }
     }
 
     @Override
     protected Object extractFrom(Object object) throws IllegalAccessException {
-        return field.get(object);
+        // an offset must never be applied to an object of an unrelated class, Field.get() throws the proper exception
+        if (offset == NO_OFFSET || !declaringClass.isInstance(object)) {
+            return field.get(object);
+        }
+        if (!fieldType.isPrimitive()) {
+            return MEM.getObject(object, offset);
+        }
+        return extractPrimitiveFrom(object);
+    }
+
+    private Object extractPrimitiveFrom(Object object) {
+        if (fieldType == int.class) {
+            return MEM.getInt(object, offset);
+        } else if (fieldType == long.class) {
+            return MEM.getLong(object, offset);
+        } else if (fieldType == double.class) {
+            return MEM.getDouble(object, offset);
+        } else if (fieldType == boolean.class) {
+            return MEM.getBoolean(object, offset);
+        } else if (fieldType == float.class) {
+            return MEM.getFloat(object, offset);
+        } else if (fieldType == short.class) {
+            return MEM.getShort(object, offset);
+        } else if (fieldType == byte.class) {
+            return MEM.getByte(object, offset);
+        } else {
+            return MEM.getChar(object, offset);
+        }
     }
 
     @Override
@@ -25,6 +25,7 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.query.VisitablePredicate;
 import com.hazelcast.query.impl.AndResultSet;
 import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.LazyMultiResultSet;
 import com.hazelcast.query.impl.OrResultSet;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
@@ -101,11 +102,14 @@ public final class AndPredicate
     }
 
     private int size(Set<QueryableEntry> result) {
-        // In case of AndResultSet and OrResultSet calling size() may be very expensive so quicker estimatedSize() is used
+        // In case of AndResultSet, OrResultSet and LazyMultiResultSet calling size() may be very expensive
+        // so quicker estimatedSize() is used
         if (result instanceof AndResultSet) {
             return ((AndResultSet) result).estimatedSize();
         } else if (result instanceof OrResultSet) {
             return ((OrResultSet) result).estimatedSize();
+        } else if (result instanceof LazyMultiResultSet) {
+            return ((LazyMultiResultSet) result).estimatedSize();
         }
         return result.size();
     }
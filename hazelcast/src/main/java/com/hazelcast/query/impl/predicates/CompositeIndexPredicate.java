@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Looks up the entries matching a set of equality predicates and an optional range predicate through a
+ * composite index covering their attributes.
+ * <p>
+ * It is created by {@link CompositeIndexVisitor} while optimizing a query and lives only within the execution
+ * of that query, so it is not serializable. Entries are matched against the original predicates when the query
+ * is not answered from the index.
+ */
+final class CompositeIndexPredicate implements IndexAwarePredicate {
+
+    final String indexName;
+    final CompositeValue from;
+    final CompositeValue to;
+    private final Predicate[] originalPredicates;
+
+    /**
+     * @param indexName          name of the composite index
+     * @param from               the inclusive lower bound
+     * @param to                 the inclusive upper bound, the same instance as {@code from} for a point lookup
+     * @param originalPredicates the predicates replaced by this one
+     */
+    CompositeIndexPredicate(String indexName, CompositeValue from, CompositeValue to, Predicate[] originalPredicates) {
+        this.indexName = indexName;
+        this.from = from;
+        this.to = to;
+        this.originalPredicates = originalPredicates;
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        Index index = queryContext.getIndex(indexName);
+        if (from == to) {
+            return index.getRecords(from);
+        }
+        return index.getSubRecordsBetween(from, to);
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return queryContext.getIndex(indexName) != null;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        for (Predicate predicate : originalPredicates) {
+            if (!predicate.apply(mapEntry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (from == to) {
+            return "(" + indexName + ")=" + from;
+        }
+        return "(" + indexName + ") BETWEEN " + from + " AND " + to;
+    }
+}
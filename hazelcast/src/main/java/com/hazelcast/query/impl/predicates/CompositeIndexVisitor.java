@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.Indexes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+
+/**
+ * Replaces the equality predicates on a prefix of the attributes of a composite index, and an optional range
+ * predicate on the next attribute, with a single lookup on that composite index.
+ * <p>
+ * Imagine a composite index on {@code (customerId, status, date)}. Then
+ * {@code (customerId = 1 and status = 'OPEN' and date > X and amount > 10)} is rewritten as
+ * {@code (composite(customerId, status, date) between [1, 'OPEN', X, +INF] and [1, 'OPEN', +INF, +INF] and amount > 10)}.
+ * <p>
+ * Range lookups are only done on ordered indexes; unordered ones are used when all their attributes are matched
+ * by equality predicates. An index is used only when it replaces at least two predicates. When several indexes
+ * qualify, the one replacing the most predicates wins.
+ */
+public class CompositeIndexVisitor extends AbstractVisitor {
+
+    private static final int MIN_MATCHED_PREDICATES = 2;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        Index[] compositeIndexes = indexes.getCompositeIndexes();
+        if (compositeIndexes.length == 0) {
+            return andPredicate;
+        }
+
+        Predicate[] originalPredicates = andPredicate.predicates;
+        Map<String, EqualPredicate> equalities = new HashMap<String, EqualPredicate>();
+        Map<String, Predicate> ranges = new HashMap<String, Predicate>();
+        for (Predicate predicate : originalPredicates) {
+            if (predicate.getClass() == EqualPredicate.class) {
+                EqualPredicate equalPredicate = (EqualPredicate) predicate;
+                if (!equalities.containsKey(equalPredicate.attributeName)) {
+                    equalities.put(equalPredicate.attributeName, equalPredicate);
+                }
+            } else if (predicate instanceof GreaterLessPredicate || predicate instanceof BetweenPredicate) {
+                String attributeName = ((AbstractPredicate) predicate).attributeName;
+                if (!ranges.containsKey(attributeName)) {
+                    ranges.put(attributeName, predicate);
+                }
+            }
+        }
+        if (equalities.isEmpty()) {
+            return andPredicate;
+        }
+
+        Index bestIndex = null;
+        int bestPrefixLength = 0;
+        Predicate bestRange = null;
+        int bestMatchedCount = MIN_MATCHED_PREDICATES - 1;
+        for (Index index : compositeIndexes) {
+            String[] components = index.getComponents();
+            int prefixLength = 0;
+            while (prefixLength < components.length && equalities.containsKey(components[prefixLength])) {
+                prefixLength++;
+            }
+            Predicate range = null;
+            if (prefixLength < components.length) {
+                if (!index.isOrdered()) {
+                    continue;
+                }
+                range = ranges.get(components[prefixLength]);
+            }
+            int matchedCount = prefixLength + (range == null ? 0 : 1);
+            if (matchedCount > bestMatchedCount) {
+                bestIndex = index;
+                bestPrefixLength = prefixLength;
+                bestRange = range;
+                bestMatchedCount = matchedCount;
+            }
+        }
+        if (bestIndex == null) {
+            return andPredicate;
+        }
+
+        return rewrite(originalPredicates, bestIndex, bestPrefixLength, bestRange, equalities);
+    }
+
+    private Predicate rewrite(Predicate[] originalPredicates, Index index, int prefixLength, Predicate range,
+                              Map<String, EqualPredicate> equalities) {
+        String[] components = index.getComponents();
+        List<Predicate> replaced = new ArrayList<Predicate>(prefixLength + 1);
+        for (int i = 0; i < prefixLength; i++) {
+            replaced.add(equalities.get(components[i]));
+        }
+        if (range != null) {
+            replaced.add(range);
+        }
+
+        CompositeIndexPredicate compositePredicate;
+        Predicate[] replacedPredicates = replaced.toArray(new Predicate[0]);
+        if (prefixLength == components.length) {
+            CompositeValue value = new CompositeValue(prefix(replaced, prefixLength, components.length));
+            compositePredicate = new CompositeIndexPredicate(index.getAttributeName(), value, value, replacedPredicates);
+        } else {
+            Comparable[] from = prefix(replaced, prefixLength, components.length + 1);
+            Comparable[] to = prefix(replaced, prefixLength, components.length + 1);
+            fillBounds(range, prefixLength, from, to);
+            compositePredicate = new CompositeIndexPredicate(index.getAttributeName(), new CompositeValue(from),
+                    new CompositeValue(to), replacedPredicates);
+        }
+
+        List<Predicate> newPredicates = new ArrayList<Predicate>(originalPredicates.length - replaced.size() + 1);
+        newPredicates.add(compositePredicate);
+        for (Predicate predicate : originalPredicates) {
+            if (!replaced.contains(predicate)) {
+                newPredicates.add(predicate);
+            }
+        }
+        if (newPredicates.size() == 1) {
+            return compositePredicate;
+        }
+        return new AndPredicate(newPredicates.toArray(new Predicate[0]));
+    }
+
+    private static Comparable[] prefix(List<Predicate> equalities, int prefixLength, int length) {
+        Comparable[] values = new Comparable[length];
+        for (int i = 0; i < prefixLength; i++) {
+            Comparable value = ((EqualPredicate) equalities.get(i)).value;
+            values[i] = value == null ? IndexImpl.NULL : value;
+        }
+        return values;
+    }
+
+    /**
+     * Fills the bounds from the component following the prefix. The bounds are one component longer than the
+     * indexed values, so the trailing infinity can place them right before or after the values sharing their prefix.
+     */
+    private static void fillBounds(Predicate range, int position, Comparable[] from, Comparable[] to) {
+        Comparable fromFiller = NEGATIVE_INFINITY;
+        Comparable toFiller = POSITIVE_INFINITY;
+        if (range == null) {
+            from[position] = NEGATIVE_INFINITY;
+            to[position] = POSITIVE_INFINITY;
+        } else if (range instanceof BetweenPredicate) {
+            BetweenPredicate between = (BetweenPredicate) range;
+            from[position] = between.from;
+            to[position] = between.to;
+        } else {
+            GreaterLessPredicate greaterLess = (GreaterLessPredicate) range;
+            if (greaterLess.less) {
+                // null attribute values never match a range, and they are the lowest ones
+                from[position] = IndexImpl.NULL;
+                fromFiller = POSITIVE_INFINITY;
+                to[position] = greaterLess.value;
+                toFiller = greaterLess.equal ? POSITIVE_INFINITY : NEGATIVE_INFINITY;
+            } else {
+                from[position] = greaterLess.value;
+                fromFiller = greaterLess.equal ? NEGATIVE_INFINITY : POSITIVE_INFINITY;
+                to[position] = POSITIVE_INFINITY;
+            }
+        }
+        for (int i = position + 1; i < from.length; i++) {
+            from[i] = fromFiller;
+            to[i] = toFiller;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexStatistics;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryContext;
+
+/**
+ * Chooses the indexes used by conjunctions according to the statistics of the indexes.
+ * <p>
+ * By default, {@link AndPredicate} looks up every indexed predicate and intersects the results, so a predicate
+ * matching most entries, like {@code active = true}, makes the query slower. This visitor estimates the
+ * selectivity of the indexed predicates of a conjunction and keeps only the most selective one indexed; the
+ * others are evaluated against its result. When even the most selective predicate is expected to match more
+ * than half of the entries, none of them is looked up and the query falls back to
+ * a full scan.
+ * <p>
+ * Predicates which are indexed but whose selectivity cannot be estimated are left untouched.
+ */
+public class IndexSelectionVisitor extends AbstractVisitor {
+
+    /**
+     * The fraction of the indexed entries above which an index lookup is expected to be slower than a scan.
+     */
+    static final double MAX_INDEX_SELECTIVITY = 0.5;
+
+    private static final double NOT_INDEXED = -2;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        Predicate[] predicates = andPredicate.predicates;
+        double[] selectivities = new double[predicates.length];
+        int mostSelective = -1;
+        int estimatedCount = 0;
+        boolean unknownIndexed = false;
+        for (int i = 0; i < predicates.length; i++) {
+            double selectivity = estimateSelectivity(predicates[i], indexes);
+            selectivities[i] = selectivity;
+            if (selectivity == IndexStatistics.UNKNOWN) {
+                unknownIndexed = true;
+            } else if (selectivity != NOT_INDEXED) {
+                estimatedCount++;
+                if (mostSelective == -1 || selectivity < selectivities[mostSelective]) {
+                    mostSelective = i;
+                }
+            }
+        }
+        if (mostSelective == -1) {
+            return andPredicate;
+        }
+        boolean scan = !unknownIndexed && selectivities[mostSelective] > MAX_INDEX_SELECTIVITY;
+        if (!scan && estimatedCount == 1) {
+            return andPredicate;
+        }
+        Predicate[] rewritten = new Predicate[predicates.length];
+        for (int i = 0; i < predicates.length; i++) {
+            boolean estimated = selectivities[i] != NOT_INDEXED && selectivities[i] != IndexStatistics.UNKNOWN;
+            rewritten[i] = estimated && (scan || i != mostSelective) ? new SkipIndexPredicate(predicates[i]) : predicates[i];
+        }
+        return new AndPredicate(rewritten);
+    }
+
+    /**
+     * Makes a standalone predicate evaluated by a full scan if it is expected to match most of the indexed entries.
+     */
+    static Predicate skipUnselectiveIndex(Predicate predicate, Indexes indexes) {
+        return estimateSelectivity(predicate, indexes) > MAX_INDEX_SELECTIVITY ? new SkipIndexPredicate(predicate) : predicate;
+    }
+
+    /**
+     * @return the estimated fraction of the indexed entries matching the predicate, {@link IndexStatistics#UNKNOWN}
+     * if the predicate is indexed but its selectivity cannot be estimated or {@link #NOT_INDEXED}
+     */
+    static double estimateSelectivity(Predicate predicate, Indexes indexes) {
+        if (indexes == null || !(predicate instanceof IndexAwarePredicate)) {
+            return NOT_INDEXED;
+        }
+        Class predicateClass = predicate.getClass();
+        if (predicateClass == EqualPredicate.class) {
+            EqualPredicate equalPredicate = (EqualPredicate) predicate;
+            Index index = indexes.getIndex(equalPredicate.attributeName);
+            return index == null ? NOT_INDEXED : estimateEqual(index, equalPredicate.value);
+        } else if (predicateClass == InPredicate.class) {
+            InPredicate inPredicate = (InPredicate) predicate;
+            Index index = indexes.getIndex(inPredicate.attributeName);
+            return index == null ? NOT_INDEXED : estimateIn(index, inPredicate.values);
+        } else if (predicateClass == GreaterLessPredicate.class) {
+            GreaterLessPredicate greaterLessPredicate = (GreaterLessPredicate) predicate;
+            Index index = indexes.getIndex(greaterLessPredicate.attributeName);
+            if (index == null) {
+                return NOT_INDEXED;
+            }
+            Comparable value = greaterLessPredicate.value;
+            boolean equal = greaterLessPredicate.equal;
+            return greaterLessPredicate.less
+                    ? estimateRange(index, null, false, value, equal) : estimateRange(index, value, equal, null, false);
+        } else if (predicateClass == BetweenPredicate.class) {
+            BetweenPredicate betweenPredicate = (BetweenPredicate) predicate;
+            Index index = indexes.getIndex(betweenPredicate.attributeName);
+            return index == null ? NOT_INDEXED : estimateRange(index, betweenPredicate.from, true, betweenPredicate.to, true);
+        } else if (predicateClass == CompositeIndexPredicate.class) {
+            CompositeIndexPredicate compositePredicate = (CompositeIndexPredicate) predicate;
+            Index index = indexes.getIndex(compositePredicate.indexName);
+            if (index == null) {
+                return NOT_INDEXED;
+            }
+            return compositePredicate.from == compositePredicate.to
+                    ? estimateEqual(index, compositePredicate.from)
+                    : estimateRange(index, compositePredicate.from, true, compositePredicate.to, true);
+        }
+        return ((IndexAwarePredicate) predicate).isIndexed(new QueryContext(indexes)) ? IndexStatistics.UNKNOWN : NOT_INDEXED;
+    }
+
+    private static double estimateEqual(Index index, Comparable value) {
+        TypeConverter converter = index.getConverter();
+        if (converter == null) {
+            // nothing is indexed yet
+            return 0;
+        }
+        IndexStatistics statistics = index.getStatistics();
+        if (statistics == null) {
+            return IndexStatistics.UNKNOWN;
+        }
+        return statistics.estimateEqualSelectivity(converter.convert(value));
+    }
+
+    private static double estimateIn(Index index, Comparable[] values) {
+        double selectivity = 0;
+        for (Comparable value : values) {
+            double valueSelectivity = estimateEqual(index, value);
+            if (valueSelectivity == IndexStatistics.UNKNOWN) {
+                return IndexStatistics.UNKNOWN;
+            }
+            selectivity += valueSelectivity;
+        }
+        return Math.min(selectivity, 1);
+    }
+
+    private static double estimateRange(Index index, Comparable from, boolean fromInclusive,
+                                        Comparable to, boolean toInclusive) {
+        TypeConverter converter = index.getConverter();
+        if (converter == null) {
+            return 0;
+        }
+        IndexStatistics statistics = index.getStatistics();
+        if (statistics == null) {
+            return IndexStatistics.UNKNOWN;
+        }
+        return statistics.estimateRangeSelectivity(from == null ? null : converter.convert(from), fromInclusive,
+                to == null ? null : converter.convert(to), toInclusive);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+
+/**
+ * Rewrites And/Or predicates so that the inner predicates reading only the key are evaluated first:
+ * (age = 10 and __key = 1) into (__key = 1 and age = 10)
+ * <p/>
+ * Keys are usually much smaller than values and are deserialized independently of them. When a full scan
+ * over a BINARY map rejects or accepts an entry based on its key alone, the short-circuit of And/Or means
+ * the value is never deserialized. The relative order of the other inner predicates is preserved.
+ */
+public class KeyPredicatesFirstVisitor extends AbstractVisitor {
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        Predicate[] reordered = keyPredicatesFirst(andPredicate.predicates);
+        if (reordered == andPredicate.predicates) {
+            return andPredicate;
+        }
+        return new AndPredicate(reordered);
+    }
+
+    @Override
+    public Predicate visit(OrPredicate orPredicate, Indexes indexes) {
+        Predicate[] reordered = keyPredicatesFirst(orPredicate.predicates);
+        if (reordered == orPredicate.predicates) {
+            return orPredicate;
+        }
+        return new OrPredicate(reordered);
+    }
+
+    private static Predicate[] keyPredicatesFirst(Predicate[] predicates) {
+        if (predicates == null) {
+            return null;
+        }
+        boolean valuePredicateSeen = false;
+        boolean reorderingNeeded = false;
+        for (Predicate predicate : predicates) {
+            if (!readsOnlyKey(predicate)) {
+                valuePredicateSeen = true;
+            } else if (valuePredicateSeen) {
+                reorderingNeeded = true;
+                break;
+            }
+        }
+        if (!reorderingNeeded) {
+            return predicates;
+        }
+
+        Predicate[] reordered = new Predicate[predicates.length];
+        int position = 0;
+        for (Predicate predicate : predicates) {
+            if (readsOnlyKey(predicate)) {
+                reordered[position++] = predicate;
+            }
+        }
+        for (Predicate predicate : predicates) {
+            if (!readsOnlyKey(predicate)) {
+                reordered[position++] = predicate;
+            }
+        }
+        return reordered;
+    }
+
+    static boolean readsOnlyKey(Predicate predicate) {
+        if (predicate instanceof AbstractPredicate) {
+            return ((AbstractPredicate) predicate).attributeName.startsWith(KEY_ATTRIBUTE_NAME.value());
+        } else if (predicate instanceof NotPredicate) {
+            return readsOnlyKey(((NotPredicate) predicate).predicate);
+        } else if (predicate instanceof AndPredicate) {
+            return allReadOnlyKey(((AndPredicate) predicate).predicates);
+        } else if (predicate instanceof OrPredicate) {
+            return allReadOnlyKey(((OrPredicate) predicate).predicates);
+        }
+        return false;
+    }
+
+    private static boolean allReadOnlyKey(Predicate[] predicates) {
+        if (predicates == null || predicates.length == 0) {
+            return false;
+        }
+        for (Predicate predicate : predicates) {
+            if (!readsOnlyKey(predicate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -29,7 +29,8 @@ public final class QueryOptimizerFactory {
 
     public enum Type {
         NONE,
-        RULES
+        RULES,
+        COST
     }
 
     private QueryOptimizerFactory() {
@@ -39,20 +40,27 @@ public final class QueryOptimizerFactory {
      * Creates new QueryOptimizer. The exact implementation depends on {@link HazelcastProperties}.
      */
     public static QueryOptimizer newOptimizer(HazelcastProperties properties) {
+        switch (getOptimizerType(properties)) {
+            case RULES:
+                return new RuleBasedQueryOptimizer();
+            case COST:
+                return new CostBasedQueryOptimizer();
+            default:
+                return new EmptyOptimizer();
+        }
+    }
+
+    /**
+     * Returns the type of the configured QueryOptimizer.
+     */
+    public static Type getOptimizerType(HazelcastProperties properties) {
         HazelcastProperty property = GroupProperty.QUERY_OPTIMIZER_TYPE;
         String string = properties.getString(property);
-        Type type;
         try {
-            type = Type.valueOf(string);
+            return Type.valueOf(string);
         } catch (IllegalArgumentException e) {
             throw onInvalidOptimizerType(string);
         }
-        switch (type) {
-            case RULES:
-                return new RuleBasedQueryOptimizer();
-            default:
-                return new EmptyOptimizer();
-        }
     }
 
     private static IllegalArgumentException onInvalidOptimizerType(String type) {
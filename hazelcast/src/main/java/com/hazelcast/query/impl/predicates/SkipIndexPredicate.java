@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+
+import java.util.Map;
+
+/**
+ * Hides the index awareness of a predicate, so that it is evaluated against the candidate entries selected
+ * by another predicate, or by a full scan, instead of through an index.
+ * <p>
+ * It is created by {@link IndexSelectionVisitor} while optimizing a query and lives only within the execution
+ * of that query, so it is not serializable.
+ */
+final class SkipIndexPredicate implements Predicate {
+
+    private final Predicate predicate;
+
+    SkipIndexPredicate(Predicate predicate) {
+        this.predicate = predicate;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        return predicate.apply(mapEntry);
+    }
+
+    @Override
+    public String toString() {
+        return predicate.toString();
+    }
+}
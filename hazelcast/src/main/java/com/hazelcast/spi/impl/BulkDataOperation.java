@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl;
+
+/**
+ * Marker interface for operations that carry bulk partition data, like migration operations.
+ * <p/>
+ * The packets of these operations can be sent over a dedicated connection and can be rate limited, so they don't
+ * delay the regular operations. Operations that have to keep their order with the regular operations of a partition,
+ * like replica sync responses that may be overwritten by newer backups, must not implement this interface.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#SOCKET_BULK_CONNECTION_ENABLED
+ * @see com.hazelcast.spi.properties.GroupProperty#SOCKET_BULK_BYTES_PER_SECOND
+ */
+public interface BulkDataOperation {
+}
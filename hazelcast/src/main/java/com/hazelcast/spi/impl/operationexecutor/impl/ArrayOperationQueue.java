@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.util.concurrent.ManyToOneConcurrentArrayQueue;
+import com.hazelcast.util.concurrent.IdleStrategy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * An {@link OperationQueue} for a single consumer thread, e.g. a {@link PartitionOperationThread}.
+ * <p/>
+ * Normal tasks are offered to a bounded {@link ManyToOneConcurrentArrayQueue}, so that offering a task doesn't
+ * allocate a node and producers only contend on a single cas. When the array queue is full, tasks spill over to an
+ * unbounded overflow queue; producers never block or fail since they can be IO threads or other operation threads.
+ * Once a task has spilled over, subsequent tasks also go to the overflow queue till it has been drained, and the
+ * consumer always empties the array queue before taking from the overflow queue, so the FIFO ordering of normal
+ * tasks is preserved.
+ * <p/>
+ * If no task is available, the consumer idles using the {@link IdleStrategy} till the strategy reaches its longest
+ * pause, and then parks till a producer unparks it. Without an idle strategy, the consumer parks right away.
+ */
+public final class ArrayOperationQueue implements OperationQueue {
+
+    private final ManyToOneConcurrentArrayQueue<Object> normalQueue;
+    private final Queue<Object> overflowQueue = new ConcurrentLinkedQueue<Object>();
+    private final Queue<Object> priorityQueue = new ConcurrentLinkedQueue<Object>();
+    private final IdleStrategy idleStrategy;
+
+    private volatile Thread consumerThread;
+    private volatile boolean parked;
+
+    /**
+     * @param capacity     the capacity of the array queue, rounded up to the next power of two
+     * @param idleStrategy the idleStrategy. If null, the consumer will park as soon as there is nothing to take.
+     */
+    public ArrayOperationQueue(int capacity, IdleStrategy idleStrategy) {
+        this.normalQueue = new ManyToOneConcurrentArrayQueue<Object>(checkPositive(capacity, "capacity should be positive"));
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * Sets the consumer thread. This needs to be done before any task is taken.
+     *
+     * @param consumerThread the thread taking the tasks
+     */
+    public void setConsumerThread(Thread consumerThread) {
+        this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
+    }
+
+    @Override
+    public int normalSize() {
+        return normalQueue.size() + overflowQueue.size();
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalSize() + prioritySize();
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            priorityQueue.add(task);
+        } else if (!overflowQueue.isEmpty() || !normalQueue.offer(task)) {
+            overflowQueue.add(task);
+        }
+
+        // the offer/add above is a full fence, so either we see the consumer parked or the consumer sees the task
+        if (parked) {
+            LockSupport.unpark(consumerThread);
+        }
+    }
+
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        long iteration = 0;
+        boolean block = idleStrategy == null;
+        for (; ; ) {
+            Object task = poll(priorityOnly);
+            if (task != null) {
+                return task;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (!block) {
+                block = idleStrategy.idle(iteration++);
+                continue;
+            }
+
+            parked = true;
+            if (isEmpty(priorityOnly)) {
+                LockSupport.park(this);
+            }
+            parked = false;
+        }
+    }
+
+    @Override
+    public Object poll(boolean priorityOnly) {
+        Object task = priorityQueue.poll();
+        if (task != null || priorityOnly) {
+            return task;
+        }
+
+        task = normalQueue.poll();
+        if (task != null || normalQueue.addedCount() != normalQueue.removedCount()) {
+            // a task is being offered to the array queue; it needs to be taken before any task in the overflow queue
+            return task;
+        }
+        return overflowQueue.poll();
+    }
+
+    private boolean isEmpty(boolean priorityOnly) {
+        if (!priorityQueue.isEmpty()) {
+            return false;
+        }
+        return priorityOnly
+                || normalQueue.addedCount() == normalQueue.removedCount() && overflowQueue.isEmpty();
+    }
+}
@@ -90,4 +90,19 @@ public final class DefaultOperationQueue implements OperationQueue {
             return normalItem;
         }
     }
+
+    @Override
+    public Object poll(boolean priorityOnly) {
+        Object priorityItem = priorityQueue.poll();
+        if (priorityItem != null || priorityOnly) {
+            return priorityItem;
+        }
+
+        for (; ; ) {
+            Object normalItem = normalQueue.poll();
+            if (normalItem != TRIGGER_TASK) {
+                return normalItem;
+            }
+        }
+    }
 }
@@ -34,6 +34,11 @@ public final class GenericOperationThread extends OperationThread {
         this.operationRunner = operationRunner;
     }
 
+    @Override
+    boolean isBatchingResponses() {
+        return false;
+    }
+
     @Override
     public OperationRunner getOperationRunner(int partitionId) {
         return operationRunner;
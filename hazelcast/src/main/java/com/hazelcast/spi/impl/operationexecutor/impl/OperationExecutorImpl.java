@@ -78,6 +78,12 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public final class OperationExecutorImpl implements OperationExecutor, MetricsProvider {
     public static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
+    /**
+     * The capacity of the array based {@link ArrayOperationQueue} of each partition thread. If 0, the partition threads
+     * use a linked {@link MPSCQueue} instead.
+     */
+    public static final HazelcastProperty QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.operation.partitionthread.queue.capacity", 0);
 
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
 
@@ -154,19 +160,25 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         }
 
         IdleStrategy idleStrategy = getIdleStrategy(properties, IDLE_STRATEGY);
+        int queueCapacity = properties.getInteger(QUEUE_CAPACITY);
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
-            // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(idleStrategy);
-
-            OperationQueue operationQueue = new DefaultOperationQueue(normalQueue, new ConcurrentLinkedQueue<Object>());
-
-            PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
-                    nodeExtension, partitionOperationRunners, configClassLoader);
-
+            PartitionOperationThread partitionThread;
+            if (queueCapacity > 0) {
+                ArrayOperationQueue operationQueue = new ArrayOperationQueue(queueCapacity, idleStrategy);
+                partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
+                        nodeExtension, partitionOperationRunners, configClassLoader);
+                operationQueue.setConsumerThread(partitionThread);
+            } else {
+                // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
+                MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(idleStrategy);
+                OperationQueue operationQueue = new DefaultOperationQueue(normalQueue, new ConcurrentLinkedQueue<Object>());
+                partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
+                        nodeExtension, partitionOperationRunners, configClassLoader);
+                normalQueue.setConsumerThread(partitionThread);
+            }
             threads[threadId] = partitionThread;
-            normalQueue.setConsumerThread(partitionThread);
         }
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
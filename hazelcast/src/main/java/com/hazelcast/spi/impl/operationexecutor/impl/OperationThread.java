@@ -26,6 +26,7 @@ import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationservice.impl.OutboundResponseBatch;
 import com.hazelcast.util.executor.HazelcastManagedThread;
 
 import java.util.concurrent.TimeUnit;
@@ -41,9 +42,15 @@ import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
  * - threads that deal with non partition specific tasks
  * <p/>
  * The actual processing of an operation is forwarded to the {@link com.hazelcast.spi.impl.operationexecutor.OperationRunner}.
+ * <p/>
+ * Per wakeup, the thread processes the task it took and the tasks queued behind it as one batch of at most
+ * {@link #MAX_BATCH_SIZE} tasks. The responses a partition thread sends during a batch are collected in its
+ * {@link OutboundResponseBatch} and sent once the batch is done, one packet per member.
  */
 public abstract class OperationThread extends HazelcastManagedThread implements MetricsProvider {
 
+    static final int MAX_BATCH_SIZE = 64;
+
     final int threadId;
     final OperationQueue queue;
     // This field wil only be accessed by the thread itself when doing 'self' calls. So no need
@@ -63,6 +70,10 @@ public abstract class OperationThread extends HazelcastManagedThread implements
     private final SwCounter completedRunnableCount = newSwCounter();
     @Probe
     private final SwCounter errorCount = newSwCounter();
+    @Probe
+    private final SwCounter completedBatchCount = newSwCounter();
+
+    private final OutboundResponseBatch responseBatch = new OutboundResponseBatch();
 
     private final boolean priority;
     private final NodeExtension nodeExtension;
@@ -85,6 +96,19 @@ public abstract class OperationThread extends HazelcastManagedThread implements
 
     public abstract OperationRunner getOperationRunner(int partitionId);
 
+    /**
+     * Returns the batch collecting the responses sent by this thread. Can only be used by this thread.
+     */
+    public final OutboundResponseBatch getResponseBatch() {
+        return responseBatch;
+    }
+
+    /**
+     * Checks if the responses sent while processing a batch are sent once the batch is done. Only for the threads
+     * whose tasks don't block, since a blocking task would hold back the responses of the tasks before it.
+     */
+    abstract boolean isBatchingResponses();
+
     @Override
     public final void run() {
         nodeExtension.onThreadStart(this);
@@ -97,7 +121,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
                     continue;
                 }
 
-                process(task);
+                processBatch(task);
             }
         } catch (Throwable t) {
             inspectOutOfMemoryError(t);
@@ -107,7 +131,46 @@ public abstract class OperationThread extends HazelcastManagedThread implements
         }
     }
 
-    private void process(Object task) {
+    /**
+     * Processes the taken task and the tasks queued behind it without going back to the blocking take of the queue,
+     * and then sends the responses of the batch.
+     */
+    private void processBatch(Object firstTask) {
+        boolean batchingResponses = isBatchingResponses();
+        if (batchingResponses) {
+            responseBatch.open();
+        }
+
+        Object task = firstTask;
+        int batchSize = 0;
+        int completed = 0;
+        try {
+            do {
+                if (process(task)) {
+                    completed++;
+                }
+                batchSize++;
+            } while (batchSize < MAX_BATCH_SIZE && !shutdown && (task = queue.poll(priority)) != null);
+        } finally {
+            if (batchingResponses) {
+                closeResponseBatch();
+            }
+            completedTotalCount.inc(completed);
+            completedBatchCount.inc();
+        }
+    }
+
+    private void closeResponseBatch() {
+        try {
+            responseBatch.close();
+        } catch (Throwable t) {
+            errorCount.inc();
+            inspectOutOfMemoryError(t);
+            logger.severe("Failed to send the responses of a batch on " + getName(), t);
+        }
+    }
+
+    private boolean process(Object task) {
         try {
             if (task.getClass() == Packet.class) {
                 Packet packet = (Packet) task;
@@ -131,11 +194,12 @@ public abstract class OperationThread extends HazelcastManagedThread implements
             } else {
                 throw new IllegalStateException("Unhandled task type for task:" + task);
             }
-            completedTotalCount.inc();
+            return true;
         } catch (Throwable t) {
             errorCount.inc();
             inspectOutOfMemoryError(t);
             logger.severe("Failed to process packet: " + task + " on " + getName(), t);
+            return false;
         } finally {
             currentRunner = null;
         }
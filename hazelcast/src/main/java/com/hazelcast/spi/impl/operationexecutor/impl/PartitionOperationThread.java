@@ -41,6 +41,11 @@ public final class PartitionOperationThread extends OperationThread {
      * For each partition there is a {@link com.hazelcast.spi.impl.operationexecutor.OperationRunner} instance.
      * So we need to find the right one based on the partition ID.
      */
+    @Override
+    boolean isBatchingResponses() {
+        return true;
+    }
+
     @Override
     public OperationRunner getOperationRunner(int partitionId) {
         return partitionOperationRunners[partitionId];
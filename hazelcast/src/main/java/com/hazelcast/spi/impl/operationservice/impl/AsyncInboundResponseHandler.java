@@ -54,11 +54,20 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
  * The reason that the IO thread doesn't immediately deals with the response is that deserializing the
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} and let the invocation-future
  * deal with the response can be rather expensive.
+ *
+ * For latency sensitive deployments the hand-over can be disabled using {@link #RESPONSE_THREAD_ENABLED}. Then the
+ * responses are processed directly on the IO thread that read them, which saves a thread hop per remote call at the
+ * expense of occupying the IO thread while the response is being processed.
  */
 public class AsyncInboundResponseHandler implements PacketHandler, MetricsProvider {
 
     public static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.responsequeue.idlestrategy", "block");
+    /**
+     * If false, responses are processed on the IO thread that read them instead of being queued to the response thread.
+     */
+    public static final HazelcastProperty RESPONSE_THREAD_ENABLED
+            = new HazelcastProperty("hazelcast.operation.responsethread.enabled", true);
 
     private static final long IDLE_MAX_SPINS = 20;
     private static final long IDLE_MAX_YIELDS = 50;
@@ -67,12 +76,16 @@ public class AsyncInboundResponseHandler implements PacketHandler, MetricsProvid
 
     final ResponseThread responseThread;
     private final ILogger logger;
+    private final PacketHandler responsePacketHandler;
+    private final boolean responseThreadEnabled;
 
     AsyncInboundResponseHandler(ClassLoader classLoader, String hzName,
                                 ILogger logger,
                                 PacketHandler responsePacketHandler,
                                 HazelcastProperties properties) {
         this.logger = logger;
+        this.responsePacketHandler = responsePacketHandler;
+        this.responseThreadEnabled = properties.getBoolean(RESPONSE_THREAD_ENABLED);
         this.responseThread = new ResponseThread(classLoader, hzName, responsePacketHandler, properties);
     }
 
@@ -86,7 +99,18 @@ public class AsyncInboundResponseHandler implements PacketHandler, MetricsProvid
         checkNotNull(packet, "packet can't be null");
         checkTrue(packet.getPacketType() == Packet.Type.OPERATION, "Packet type is not OPERATION");
         checkTrue(packet.isFlagRaised(FLAG_OP_RESPONSE), "FLAG_OP_RESPONSE is not set");
-        responseThread.responseQueue.add(packet);
+        if (responseThreadEnabled) {
+            responseThread.responseQueue.add(packet);
+            return;
+        }
+
+        // the calling IO thread is an OperationHostileThread, so the response handling will never run operations on it
+        try {
+            responsePacketHandler.handle(packet);
+        } catch (Throwable e) {
+            inspectOutOfMemoryError(e);
+            logger.severe("Failed to process response: " + packet + " on:" + Thread.currentThread().getName(), e);
+        }
     }
 
     @Override
@@ -95,7 +119,9 @@ public class AsyncInboundResponseHandler implements PacketHandler, MetricsProvid
     }
 
     public void start() {
-        responseThread.start();
+        if (responseThreadEnabled) {
+            responseThread.start();
+        }
     }
 
     public void shutdown() {
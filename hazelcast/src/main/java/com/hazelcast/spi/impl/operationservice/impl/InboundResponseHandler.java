@@ -36,6 +36,9 @@ import java.nio.ByteOrder;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE_BATCH;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.CALL_TIMEOUT_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.ERROR_RESPONSE;
@@ -84,6 +87,11 @@ public final class InboundResponseHandler implements PacketHandler, MetricsProvi
 
     @Override
     public void handle(Packet packet) throws Exception {
+        if (packet.isFlagRaised(FLAG_OP_RESPONSE_BATCH)) {
+            handleBatch(packet);
+            return;
+        }
+
         byte[] bytes = packet.toByteArray();
         int typeId = Bits.readInt(bytes, OFFSET_TYPE_ID, useBigEndian);
         long callId = Bits.readLong(bytes, OFFSET_CALL_ID, useBigEndian);
@@ -112,6 +120,28 @@ public final class InboundResponseHandler implements PacketHandler, MetricsProvi
         }
     }
 
+    /**
+     * Handles each of the length prefixed responses of a packet sent by
+     * {@link OutboundResponseHandler#toResponseBatchPacket(java.util.List)}.
+     */
+    private void handleBatch(Packet batch) throws Exception {
+        byte[] bytes = batch.toByteArray();
+        int offset = 0;
+        while (offset < bytes.length) {
+            int length = Bits.readIntB(bytes, offset);
+            offset += INT_SIZE_IN_BYTES;
+            byte[] response = new byte[length];
+            System.arraycopy(bytes, offset, response, 0, length);
+            offset += length;
+
+            Packet packet = new Packet(response, -1)
+                    .setPacketType(Packet.Type.OPERATION)
+                    .raiseFlags(FLAG_OP_RESPONSE)
+                    .setConn(batch.getConn());
+            handle(packet);
+        }
+    }
+
     public void notifyBackupComplete(long callId) {
         responsesBackup.inc();
 
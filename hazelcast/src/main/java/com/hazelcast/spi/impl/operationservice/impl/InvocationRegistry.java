@@ -22,15 +22,10 @@ import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
-import com.hazelcast.internal.util.RuntimeAvailableProcessors;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.sequence.CallIdSequence;
 
 import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.spi.OperationAccessor.deactivate;
@@ -45,27 +40,16 @@ import static com.hazelcast.spi.OperationAccessor.setCallId;
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} comes in, the
  * appropriate invocation can be looked up.
  * <p>
- * Some ideas:
- * <ul>
- * <li>Use a ringbuffer to store all invocations instead of a CHM. The call ID can be used as sequence ID for this
- * ringbuffer. It can be that you run in slots that have not been released; if that happens, just keep increasing
- * the sequence (although you now get sequence-gaps).</li>
- * <li>Pre-allocate all invocations. Because the ringbuffer has a fixed capacity, pre-allocation should be easy. Also
- * the PartitionInvocation and TargetInvocation can be folded into Invocation.</li>
- * </ul>
+ * The invocations are kept in an {@link InvocationTable}, a lock-free open addressing table keyed by the primitive
+ * call ID: registering, deregistering and looking up the invocation of a response neither box the call ID nor
+ * allocate a node, and the iteration by the {@link InvocationMonitor} is weakly consistent, so invocations can be
+ * deregistered while iterating without copying the registry first.
  */
 public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider {
 
-    private static final int CORE_SIZE_CHECK = 8;
-    private static final int CORE_SIZE_FACTOR = 4;
-    private static final int CONCURRENCY_LEVEL = 16;
-
-    private static final int INITIAL_CAPACITY = 1000;
-    private static final float LOAD_FACTOR = 0.75f;
     private static final double HUNDRED_PERCENT = 100d;
 
-    @Probe(name = "invocations.pending", level = MANDATORY)
-    private final ConcurrentMap<Long, Invocation> invocations;
+    private final InvocationTable invocations = new InvocationTable();
     private final ILogger logger;
     private final CallIdSequence callIdSequence;
 
@@ -74,12 +58,6 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
     public InvocationRegistry(ILogger logger, CallIdSequence callIdSequence) {
         this.logger = logger;
         this.callIdSequence = callIdSequence;
-
-        int coreSize = RuntimeAvailableProcessors.get();
-        boolean reallyMultiCore = coreSize >= CORE_SIZE_CHECK;
-        int concurrencyLevel = reallyMultiCore ? coreSize * CORE_SIZE_FACTOR : CONCURRENCY_LEVEL;
-
-        this.invocations = new ConcurrentHashMap<Long, Invocation>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
     }
 
     @Override
@@ -152,22 +130,14 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
      *
      * @return the number of pending invocations
      */
+    @Probe(name = "invocations.pending", level = MANDATORY)
     public int size() {
         return invocations.size();
     }
 
     @Override
     public Iterator<Invocation> iterator() {
-        return invocations.values().iterator();
-    }
-
-    /**
-     * Intention to expose the entry set is to mutate it.
-     *
-     * @return set of invocations in this registry
-     */
-    public Set<Map.Entry<Long, Invocation>> entrySet() {
-        return invocations.entrySet();
+        return invocations.iterator();
     }
 
     /**
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * Lock-free open addressing table of the pending invocations by call ID.
+ * <p>
+ * The call IDs and the invocations are kept in an {@link AtomicLongArray} and an {@link AtomicReferenceArray},
+ * so neither the call IDs are boxed nor a node is allocated per invocation. Call IDs are handed out in sequence, so
+ * the slot of a call ID is its lowest bits, which places the pending invocations next to each other and almost
+ * always in their own slot; a call ID whose slot is taken is placed in the next free one (linear probing). A lookup
+ * only probes as many slots as the largest displacement of a call ID, so it does not depend on free slots and the
+ * slots of removed call IDs can be reused without cleaning them up.
+ * <p>
+ * A slot is claimed by a CAS on its call ID and filled by a CAS on its invocation, and a removal clears the
+ * invocation by a CAS. Once more than half of the slots are taken, the table is copied to a table twice as big.
+ * Copying is serialized, but it doesn't block the other operations: the next table is published before the first
+ * slot is copied, each slot is marked as moved by a CAS, and the operations which find a moved slot continue on the
+ * next table.
+ * <p>
+ * Iteration is weakly consistent, like the iteration of a {@link java.util.concurrent.ConcurrentHashMap}.
+ */
+final class InvocationTable implements Iterable<Invocation> {
+
+    static final int INITIAL_CAPACITY = 1024;
+
+    // call IDs start at 1
+    private static final long FREE = 0;
+    private static final long REMOVED = -1;
+    private static final long MOVED = -2;
+    // the invocation of a slot which was copied to the next table
+    private static final Object MOVED_INVOCATION = new Object();
+
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile Slots slots;
+
+    InvocationTable() {
+        this(INITIAL_CAPACITY);
+    }
+
+    InvocationTable(int initialCapacity) {
+        this.slots = new Slots(nextPowerOfTwo(initialCapacity));
+    }
+
+    /**
+     * Adds an invocation, the call ID is not in the table yet.
+     */
+    void put(long callId, Invocation invocation) {
+        Slots current = slots;
+        while (true) {
+            if (current.insert(callId, invocation)) {
+                break;
+            }
+            Slots next = current.next;
+            if (next == null) {
+                // no free slot left, which the load factor makes very unlikely
+                resize(current);
+                next = slots;
+            }
+            current = next;
+        }
+        if (size.incrementAndGet() > current.capacity() >> 1) {
+            resize(current);
+        }
+    }
+
+    /**
+     * @return the invocation of the call ID, {@code null} if there is none
+     */
+    Invocation get(long callId) {
+        if (callId <= FREE) {
+            return null;
+        }
+        for (Slots current = slots; current != null; current = current.next) {
+            int slot = current.find(callId);
+            if (slot != -1) {
+                Object invocation = current.invocations.get(slot);
+                if (invocation != MOVED_INVOCATION) {
+                    return (Invocation) invocation;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the invocation of the call ID.
+     *
+     * @return {@code true} if the call ID had an invocation
+     */
+    boolean remove(long callId) {
+        if (callId <= FREE) {
+            return false;
+        }
+        Slots current = slots;
+        while (current != null) {
+            int slot = current.find(callId);
+            if (slot == -1) {
+                current = current.next;
+                continue;
+            }
+            Object invocation = current.invocations.get(slot);
+            if (invocation == MOVED_INVOCATION) {
+                current = current.next;
+            } else if (invocation == null) {
+                return false;
+            } else if (current.invocations.compareAndSet(slot, invocation, null)) {
+                current.callIds.set(slot, REMOVED);
+                size.decrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int capacity() {
+        return slots.capacity();
+    }
+
+    @Override
+    public Iterator<Invocation> iterator() {
+        return new InvocationIterator(slots);
+    }
+
+    private synchronized void resize(Slots current) {
+        if (slots != current) {
+            return;
+        }
+        Slots next = new Slots(current.capacity() << 1);
+        current.next = next;
+        for (int slot = 0; slot < current.capacity(); slot++) {
+            current.move(slot, next);
+        }
+        slots = next;
+    }
+
+    private static final class Slots {
+
+        final AtomicLongArray callIds;
+        final AtomicReferenceArray<Object> invocations;
+        final int mask;
+        // the largest number of slots a call ID was placed after its own one
+        final AtomicInteger maxDisplacement = new AtomicInteger();
+        volatile Slots next;
+
+        Slots(int capacity) {
+            callIds = new AtomicLongArray(capacity);
+            invocations = new AtomicReferenceArray<Object>(capacity);
+            mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * @return the slot of the call ID, -1 if it isn't in this table
+         */
+        int find(long callId) {
+            int maxProbes = maxDisplacement.get();
+            int slot = (int) callId & mask;
+            for (int probe = 0; probe <= maxProbes; probe++) {
+                if (callIds.get(slot) == callId) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * @return {@code false} if the call ID has to be inserted into the next table
+         */
+        boolean insert(long callId, Object invocation) {
+            int slot = (int) callId & mask;
+            for (int probe = 0; probe <= mask; probe++) {
+                long current = callIds.get(slot);
+                if (current == MOVED) {
+                    return false;
+                }
+                if ((current == FREE || current == REMOVED) && callIds.compareAndSet(slot, current, callId)) {
+                    if (!invocations.compareAndSet(slot, null, invocation)) {
+                        // the slot was moved before it was filled
+                        return false;
+                    }
+                    updateMaxDisplacement(probe);
+                    return true;
+                }
+                if (current == FREE || current == REMOVED) {
+                    // lost the race for the slot, read it again
+                    probe--;
+                    continue;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private void updateMaxDisplacement(int displacement) {
+            int current = maxDisplacement.get();
+            while (displacement > current && !maxDisplacement.compareAndSet(current, displacement)) {
+                current = maxDisplacement.get();
+            }
+        }
+
+        /**
+         * Copies the slot to the next table and marks it as moved.
+         */
+        void move(int slot, Slots next) {
+            while (true) {
+                long callId = callIds.get(slot);
+                if (callId == FREE || callId == REMOVED) {
+                    if (callIds.compareAndSet(slot, callId, MOVED)) {
+                        return;
+                    }
+                    continue;
+                }
+                Object invocation = invocations.get(slot);
+                if (invocation == null) {
+                    // being filled or being removed
+                    if (invocations.compareAndSet(slot, null, MOVED_INVOCATION)) {
+                        return;
+                    }
+                    continue;
+                }
+                // copied first, so the invocation can always be found
+                next.insert(callId, invocation);
+                if (invocations.compareAndSet(slot, invocation, MOVED_INVOCATION)) {
+                    return;
+                }
+                // removed in the meantime
+                next.removeCopy(callId, invocation);
+            }
+        }
+
+        private void removeCopy(long callId, Object invocation) {
+            int slot = find(callId);
+            if (slot != -1 && invocations.compareAndSet(slot, invocation, null)) {
+                callIds.set(slot, REMOVED);
+            }
+        }
+    }
+
+    private final class InvocationIterator implements Iterator<Invocation> {
+
+        private final Slots current;
+        private int slot;
+        private Invocation next;
+
+        InvocationIterator(Slots current) {
+            this.current = current;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && slot < current.capacity()) {
+                Object invocation = current.invocations.get(slot);
+                if (invocation == MOVED_INVOCATION) {
+                    next = get(current.callIds.get(slot));
+                } else {
+                    next = (Invocation) invocation;
+                }
+                slot++;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Invocation next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Invocation invocation = next;
+            next = null;
+            return invocation;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -23,7 +23,9 @@ import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.ConnectionManager;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.BulkDataOperation;
 
+import static com.hazelcast.nio.Packet.FLAG_OP_BULK;
 import static com.hazelcast.nio.Packet.FLAG_URGENT;
 import static com.hazelcast.util.Preconditions.checkNotNull;
 
@@ -55,6 +57,9 @@ public class OutboundOperationHandler {
         if (op.isUrgent()) {
             packet.raiseFlags(FLAG_URGENT);
         }
+        if (op instanceof BulkDataOperation) {
+            packet.raiseFlags(FLAG_OP_BULK);
+        }
 
         ConnectionManager connectionManager = node.getConnectionManager();
         Connection connection = connectionManager.getOrConnect(target);
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Packet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the response packets an operation thread sends while it processes a batch of tasks, grouped by the member
+ * they are sent to. When the batch is done, the responses to the same member are sent as a single packet by the
+ * {@link OutboundResponseHandler}.
+ * <p>
+ * Only accessed by the operation thread owning it.
+ */
+public final class OutboundResponseBatch {
+
+    private final Map<Address, List<Packet>> packetsByTarget = new HashMap<Address, List<Packet>>();
+    private OutboundResponseHandler responseHandler;
+    private boolean open;
+
+    /**
+     * Starts collecting the response packets of a batch.
+     */
+    public void open() {
+        open = true;
+    }
+
+    /**
+     * Adds a response packet to the open batch.
+     *
+     * @return {@code false} if there is no open batch and the packet has to be sent right away
+     */
+    boolean add(OutboundResponseHandler responseHandler, Address target, Packet packet) {
+        if (!open) {
+            return false;
+        }
+        this.responseHandler = responseHandler;
+        List<Packet> packets = packetsByTarget.get(target);
+        if (packets == null) {
+            packets = new ArrayList<Packet>();
+            packetsByTarget.put(target, packets);
+        }
+        packets.add(packet);
+        return true;
+    }
+
+    /**
+     * Sends the collected response packets and stops collecting them.
+     */
+    public void close() {
+        open = false;
+        if (responseHandler == null) {
+            return;
+        }
+        Iterator<Map.Entry<Address, List<Packet>>> iterator = packetsByTarget.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Address, List<Packet>> entry = iterator.next();
+            List<Packet> packets = entry.getValue();
+            if (packets.isEmpty()) {
+                // no responses to this member in the batch, so it might have left
+                iterator.remove();
+                continue;
+            }
+            try {
+                responseHandler.transmit(entry.getKey(), packets);
+            } finally {
+                packets.clear();
+            }
+        }
+    }
+}
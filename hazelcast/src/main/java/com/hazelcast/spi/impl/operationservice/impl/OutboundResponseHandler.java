@@ -26,11 +26,14 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.OperationResponseHandler;
 import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.Response;
 
+import java.util.List;
+
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DATA_SERIALIZABLE;
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_NULL;
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
@@ -38,6 +41,7 @@ import static com.hazelcast.nio.Bits.writeInt;
 import static com.hazelcast.nio.Bits.writeIntB;
 import static com.hazelcast.nio.Bits.writeLong;
 import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE_BATCH;
 import static com.hazelcast.nio.Packet.FLAG_URGENT;
 import static com.hazelcast.nio.Packet.Type.OPERATION;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
@@ -61,6 +65,10 @@ import static java.nio.ByteOrder.BIG_ENDIAN;
  * An {@link OperationResponseHandler} that is used for a remotely executed Operation. So when a calling member
  * sends an Operation to the receiving member, the receiving member attaches this OutboundResponseHandler
  * to that operation so that the response is returned to the right machine.
+ * <p>
+ * The responses sent by an operation thread while it processes a batch of tasks are collected in its
+ * {@link OutboundResponseBatch}, and the responses of a batch to the same member are sent as a single packet
+ * flagged with {@link Packet#FLAG_OP_RESPONSE_BATCH}.
  */
 public final class OutboundResponseHandler implements OperationResponseHandler {
 
@@ -212,10 +220,47 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     }
 
     private boolean transmit(Address target, Packet packet) {
+        Thread currentThread = Thread.currentThread();
+        if (currentThread instanceof OperationThread
+                && ((OperationThread) currentThread).getResponseBatch().add(this, target, packet)) {
+            return true;
+        }
+
         ConnectionManager connectionManager = node.getConnectionManager();
         return connectionManager.transmit(packet, target);
     }
 
+    /**
+     * Sends the response packets of a batch to the target, in a single packet if there is more than one.
+     */
+    void transmit(Address target, List<Packet> packets) {
+        Packet packet = packets.size() == 1 ? packets.get(0) : toResponseBatchPacket(packets);
+        if (!node.getConnectionManager().transmit(packet, target)) {
+            logger.warning("Cannot send " + packets.size() + " responses to " + target);
+        }
+    }
+
+    Packet toResponseBatchPacket(List<Packet> packets) {
+        int length = 0;
+        boolean urgent = false;
+        for (Packet packet : packets) {
+            length += INT_SIZE_IN_BYTES + packet.totalSize();
+            urgent |= packet.isUrgent();
+        }
+
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (Packet packet : packets) {
+            int responseLength = packet.totalSize();
+            writeIntB(bytes, offset, responseLength);
+            offset += INT_SIZE_IN_BYTES;
+            packet.copyTo(bytes, offset);
+            offset += responseLength;
+        }
+
+        return newResponsePacket(bytes, urgent).raiseFlags(FLAG_OP_RESPONSE_BATCH);
+    }
+
     private void checkTarget(Address target) {
         checkNotNull(target, "Target is required!");
 
@@ -328,6 +328,38 @@ public final class GroupProperty {
     public static final HazelcastProperty SOCKET_NO_DELAY
             = new HazelcastProperty("hazelcast.socket.no.delay", true);
 
+    /**
+     * The number of connections a member opens to every other member for sending partition operations.
+     * <p/>
+     * Partition operations are routed over connection {@code partitionId % count}, so the ordering of the operations
+     * of a single partition is preserved, while the load is spread over multiple sockets and IO threads. All other
+     * traffic, like responses and cluster messages, keeps using the first connection.
+     * <p/>
+     * The default is 1.
+     */
+    public static final HazelcastProperty SOCKET_CONNECTIONS_PER_MEMBER
+            = new HazelcastProperty("hazelcast.socket.connections.per.member", 1);
+
+    /**
+     * Enables a dedicated connection to every other member for bulk partition data, like migration data, so this
+     * traffic doesn't delay the regular operations. Replica sync data is not sent over this connection, since it has
+     * to keep its order with the backup operations of the partition.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty SOCKET_BULK_CONNECTION_ENABLED
+            = new HazelcastProperty("hazelcast.socket.bulk.connection.enabled", false);
+
+    /**
+     * The maximum number of bytes per second a member sends as bulk partition data, like migration data. Packets
+     * exceeding this rate are delayed and written by a dedicated thread. Unless
+     * {@link #PARTITION_MIGRATION_CHUNK_SIZE} is set, the migration data is sent in chunks of one second of traffic.
+     * <p/>
+     * The default is 0, which means no limit.
+     */
+    public static final HazelcastProperty SOCKET_BULK_BYTES_PER_SECOND
+            = new HazelcastProperty("hazelcast.socket.bulk.bytes.per.second", 0);
+
     public static final HazelcastProperty SHUTDOWNHOOK_ENABLED
             = new HazelcastProperty("hazelcast.shutdownhook.enabled", true);
 
@@ -487,6 +519,16 @@ public final class GroupProperty {
             = new HazelcastProperty("hazelcast.partition.migration.timeout", 300, SECONDS);
     public static final HazelcastProperty PARTITION_FRAGMENTED_MIGRATION_ENABLED
             = new HazelcastProperty("hazelcast.partition.migration.fragments.enabled", true);
+    /**
+     * The approximate maximum size in kilobytes of the data of a single migration fragment. Services that support it,
+     * like IMap, split the data of a namespace into chunks of this size, which are sent one at a time. This requires
+     * fragmented migration to be enabled.
+     * <p/>
+     * The default is 0, which disables chunked migration, unless {@link #SOCKET_BULK_BYTES_PER_SECOND} is set. Then
+     * the chunks are as large as the data sent in one second.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_CHUNK_SIZE
+            = new HazelcastProperty("hazelcast.partition.migration.chunk.size", 0);
     public static final HazelcastProperty DISABLE_STALE_READ_ON_PARTITION_MIGRATION
             = new HazelcastProperty("hazelcast.partition.migration.stale.read.disabled", false);
 
@@ -496,6 +538,15 @@ public final class GroupProperty {
             = new HazelcastProperty("hazelcast.partition.backup.sync.interval", 30, SECONDS);
     public static final HazelcastProperty PARTITION_MAX_PARALLEL_REPLICATIONS
             = new HazelcastProperty("hazelcast.partition.max.parallel.replications", 5);
+    /**
+     * Enables delta replica sync. A backup replica that is out of sync sends a digest of its data to the partition
+     * owner, which then only sends the data that differs, for services that support it, like IMap. All members of
+     * the cluster need to support delta replica sync when this is enabled.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty PARTITION_REPLICA_SYNC_DELTA_ENABLED
+            = new HazelcastProperty("hazelcast.partition.replica.sync.delta.enabled", false);
     public static final HazelcastProperty PARTITIONING_STRATEGY_CLASS
             = new HazelcastProperty("hazelcast.partitioning.strategy.class", "");
 
@@ -736,6 +787,8 @@ public final class GroupProperty {
      * Valid Values:
      * <ul>
      * <li>RULES - for optimizations based on static rules</li>
+     * <li>COST - for optimizations based on static rules and on the statistics of the indexes,
+     * which choose the most selective index of a conjunction or a full scan</li>
      * <li>NONE - optimization are disabled</li>
      * </ul>
      * <p/>
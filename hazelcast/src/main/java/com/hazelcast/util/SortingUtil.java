@@ -21,10 +21,12 @@ import com.hazelcast.query.PagingPredicateAccessor;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.replicatedmap.impl.record.ResultSet;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 import static com.hazelcast.query.PagingPredicateAccessor.getNearestAnchorEntry;
 
@@ -143,15 +145,11 @@ public final class SortingUtil {
             return list;
         }
         Comparator<Map.Entry> comparator = SortingUtil.newComparator(pagingPredicate);
-        Collections.sort(list, comparator);
         int nearestPage = nearestAnchorEntry.getKey();
         int pageSize = pagingPredicate.getPageSize();
         int page = pagingPredicate.getPage();
         int totalSize = pageSize * (page - nearestPage);
-        if (list.size() > totalSize) {
-            list = list.subList(0, totalSize);
-        }
-        return list;
+        return sortFirst(list, comparator, totalSize);
     }
 
     @SuppressWarnings("unchecked")
@@ -161,13 +159,12 @@ public final class SortingUtil {
             return new ResultSet();
         }
         Comparator<Map.Entry> comparator = SortingUtil.newComparator(pagingPredicate.getComparator(), iterationType);
-        Collections.sort(list, comparator);
-
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry(pagingPredicate);
         int nearestPage = nearestAnchorEntry.getKey();
         int page = pagingPredicate.getPage();
         int pageSize = pagingPredicate.getPageSize();
         int begin = pageSize * (page - nearestPage - 1);
+        list = sortFirst(list, comparator, begin + pageSize);
         int size = list.size();
         if (begin > size) {
             return new ResultSet();
@@ -181,6 +178,37 @@ public final class SortingUtil {
         return new ResultSet(subList, iterationType);
     }
 
+    /**
+     * Returns the first {@code count} items of the list in the order of the comparator, sorted. Unless the list
+     * is not longer than {@code count}, they are selected with a bounded heap in O(n log(count)) time instead of
+     * sorting the whole list, since only the pages up to the requested one are ever needed.
+     */
+    static <T> List<T> sortFirst(List<T> list, Comparator<? super T> comparator, int count) {
+        if (list.size() <= count) {
+            Collections.sort(list, comparator);
+            return list;
+        }
+        if (count <= 0) {
+            return new ArrayList<T>(0);
+        }
+        // the head of the heap is the greatest of the first items seen so far
+        PriorityQueue<T> heap = new PriorityQueue<T>(count, Collections.reverseOrder(comparator));
+        for (T item : list) {
+            if (heap.size() < count) {
+                heap.add(item);
+            } else if (comparator.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+        List<T> first = new ArrayList<T>(heap.size());
+        while (!heap.isEmpty()) {
+            first.add(heap.poll());
+        }
+        Collections.reverse(first);
+        return first;
+    }
+
     public static boolean compareAnchor(PagingPredicate pagingPredicate, QueryableEntry queryEntry,
                                         Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
         if (pagingPredicate == null) {
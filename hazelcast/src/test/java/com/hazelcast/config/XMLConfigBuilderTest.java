@@ -732,6 +732,48 @@ public class XMLConfigBuilderTest extends HazelcastTestSupport {
         assertEquals(CacheDeserializedValues.INDEX_ONLY, mapConfig.getCacheDeserializedValues());
     }
 
+    @Test
+    public void testMapConfig_recordStorageType_defaultValue() {
+        String xml = HAZELCAST_START_TAG
+                + "<map name=\"mymap\">"
+                + "</map>"
+                + HAZELCAST_END_TAG;
+
+        Config config = buildConfig(xml);
+        MapConfig mapConfig = config.getMapConfig("mymap");
+
+        assertEquals(RecordStorageType.CONCURRENT_HASH_MAP, mapConfig.getRecordStorageType());
+    }
+
+    @Test
+    public void testMapConfig_recordStorageType_openAddressing() {
+        String xml = HAZELCAST_START_TAG
+                + "<map name=\"mymap\">"
+                + "<record-storage-type>OPEN-ADDRESSING</record-storage-type>"
+                + "</map>"
+                + HAZELCAST_END_TAG;
+
+        Config config = buildConfig(xml);
+        MapConfig mapConfig = config.getMapConfig("mymap");
+
+        assertEquals(RecordStorageType.OPEN_ADDRESSING, mapConfig.getRecordStorageType());
+    }
+
+    @Test
+    public void testMapConfig_recordStorageType_offHeap() {
+        String xml = HAZELCAST_START_TAG
+                + "<map name=\"mymap\">"
+                + "<in-memory-format>BINARY</in-memory-format>"
+                + "<record-storage-type>OFF-HEAP</record-storage-type>"
+                + "</map>"
+                + HAZELCAST_END_TAG;
+
+        Config config = buildConfig(xml);
+        MapConfig mapConfig = config.getMapConfig("mymap");
+
+        assertEquals(RecordStorageType.OFF_HEAP, mapConfig.getRecordStorageType());
+    }
+
     @Test
     public void testMapStoreInitialModeEager() {
         String xml = HAZELCAST_START_TAG
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.core;
+
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PipeliningTest extends HazelcastTestSupport {
+
+    private HazelcastInstance hz;
+
+    @Before
+    public void setup() {
+        hz = createHazelcastInstance();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenZeroDepth() {
+        new Pipelining<String>(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testAdd_whenNull() throws Exception {
+        Pipelining<String> pipelining = new Pipelining<String>(1);
+        pipelining.add((ICompletableFuture<String>) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testAdd_whenNullSupplier() throws Exception {
+        Pipelining<String> pipelining = new Pipelining<String>(1);
+        pipelining.add((Pipelining.RequestSupplier<String>) null);
+    }
+
+    @Test
+    public void testResults_inOrder() throws Exception {
+        IMap<Integer, String> map = hz.getMap(randomMapName());
+        int count = 1000;
+        for (int k = 0; k < count; k++) {
+            map.put(k, "value" + k);
+        }
+
+        Pipelining<String> pipelining = new Pipelining<String>(10);
+        for (int k = 0; k < count; k++) {
+            pipelining.add(map.getAsync(k));
+        }
+
+        List<String> results = pipelining.results();
+        assertEquals(count, results.size());
+        for (int k = 0; k < count; k++) {
+            assertEquals("value" + k, results.get(k));
+        }
+    }
+
+    @Test
+    public void testPutAsync() throws Exception {
+        IMap<Integer, String> map = hz.getMap(randomMapName());
+        int count = 1000;
+
+        Pipelining<String> pipelining = new Pipelining<String>(1);
+        for (int k = 0; k < count; k++) {
+            pipelining.add(map.putAsync(k, "value" + k));
+        }
+        pipelining.results();
+
+        assertEquals(count, map.size());
+    }
+
+    @Test
+    public void testAddSupplier_resultsInOrder() throws Exception {
+        final IMap<Integer, String> map = hz.getMap(randomMapName());
+        int count = 1000;
+        for (int k = 0; k < count; k++) {
+            map.put(k, "value" + k);
+        }
+
+        Pipelining<String> pipelining = new Pipelining<String>(10);
+        for (int k = 0; k < count; k++) {
+            pipelining.add(getAsync(map, k));
+        }
+
+        List<String> results = pipelining.results();
+        assertEquals(count, results.size());
+        for (int k = 0; k < count; k++) {
+            assertEquals("value" + k, results.get(k));
+        }
+    }
+
+    @Test
+    public void testAddSupplier_whenDepthReached_thenRequestNotIssued() throws Exception {
+        final IMap<Integer, String> map = hz.getMap(randomMapName());
+        // a put on a key locked by another thread stays in flight until the key is unlocked
+        spawn(new Runnable() {
+            @Override
+            public void run() {
+                map.lock(1);
+            }
+        }).get();
+
+        final Pipelining<String> pipelining = new Pipelining<String>(1);
+        pipelining.add(putAsync(map, 1, new CountDownLatch(1)));
+
+        final CountDownLatch issued = new CountDownLatch(1);
+        Future future = spawn(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    pipelining.add(putAsync(map, 2, issued));
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(1, issued.getCount());
+            }
+        }, 3);
+
+        map.forceUnlock(1);
+        future.get();
+        assertOpenEventually(issued);
+        pipelining.results();
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testAddSupplier_whenSupplierThrows_thenPermitReleased() throws Exception {
+        IMap<Integer, String> map = hz.getMap(randomMapName());
+        Pipelining<String> pipelining = new Pipelining<String>(1);
+
+        try {
+            pipelining.add(new Pipelining.RequestSupplier<String>() {
+                @Override
+                public ICompletableFuture<String> get() {
+                    throw new IllegalStateException();
+                }
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        map.put(1, "value");
+        pipelining.add(getAsync(map, 1));
+        assertEquals("value", pipelining.results().get(0));
+    }
+
+    private static Pipelining.RequestSupplier<String> getAsync(final IMap<Integer, String> map, final int key) {
+        return new Pipelining.RequestSupplier<String>() {
+            @Override
+            public ICompletableFuture<String> get() {
+                return map.getAsync(key);
+            }
+        };
+    }
+
+    private static Pipelining.RequestSupplier<String> putAsync(final IMap<Integer, String> map, final int key,
+                                                                 final CountDownLatch issued) {
+        return new Pipelining.RequestSupplier<String>() {
+            @Override
+            public ICompletableFuture<String> get() {
+                issued.countDown();
+                return map.putAsync(key, "value" + key);
+            }
+        };
+    }
+}
@@ -23,6 +23,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.RecordStorageType;
 import com.hazelcast.internal.eviction.EvictableEntryView;
 import com.hazelcast.internal.eviction.EvictionPolicyComparator;
 import com.hazelcast.test.HazelcastParallelClassRunner;
@@ -89,6 +90,21 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
         checkMapConfig(mapConfig);
     }
 
+    @Test
+    public void checkMapConfig_OFF_HEAP_withBINARY() {
+        checkMapConfig(getMapConfig(BINARY).setRecordStorageType(RecordStorageType.OFF_HEAP));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void checkMapConfig_OFF_HEAP_withOBJECT() {
+        checkMapConfig(getMapConfig(OBJECT).setRecordStorageType(RecordStorageType.OFF_HEAP));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void checkMapConfig_OFF_HEAP_withReadBackupData() {
+        checkMapConfig(getMapConfig(BINARY).setRecordStorageType(RecordStorageType.OFF_HEAP).setReadBackupData(true));
+    }
+
     @Test
     public void checkNearCacheConfig_BINARY() {
         checkNearCacheConfig(MAP_NAME, getNearCacheConfig(BINARY), null, false);
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.admission;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class TinyLfuAdmissionFilterTest {
+
+    @Test
+    public void testSketch_frequencyOfUnknownKey() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+
+        assertEquals(0, sketch.frequency("unknown"));
+    }
+
+    @Test
+    public void testSketch_frequencyIsIncremented() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+
+        sketch.increment("key");
+        sketch.increment("key");
+        sketch.increment("key");
+
+        assertEquals(3, sketch.frequency("key"));
+    }
+
+    @Test
+    public void testSketch_frequencySaturates() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("key");
+        }
+
+        assertEquals(15, sketch.frequency("key"));
+    }
+
+    @Test
+    public void testSketch_countersAreAged() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment("hot");
+        }
+
+        // enough distinct keys to trigger at least one reset
+        for (int i = 0; i < 1000; i++) {
+            sketch.increment(i);
+        }
+
+        assertTrue(sketch.frequency("hot") < 8);
+    }
+
+    @Test
+    public void testFilter_rejectsOneHitWonder() {
+        TinyLfuAdmissionFilter filter = new TinyLfuAdmissionFilter(1000);
+        filter.recordAccess("hot");
+        filter.recordAccess("hot");
+        filter.recordAccess("scan");
+
+        assertFalse(filter.admit("scan", "hot"));
+    }
+
+    @Test
+    public void testFilter_rejectsOnEqualFrequency() {
+        TinyLfuAdmissionFilter filter = new TinyLfuAdmissionFilter(1000);
+        filter.recordAccess("candidate");
+        filter.recordAccess("victim");
+
+        assertFalse(filter.admit("candidate", "victim"));
+    }
+
+    @Test
+    public void testFilter_admitsMoreFrequentCandidate() {
+        TinyLfuAdmissionFilter filter = new TinyLfuAdmissionFilter(1000);
+        filter.recordAccess("candidate");
+        filter.recordAccess("candidate");
+        filter.recordAccess("victim");
+
+        assertTrue(filter.admit("candidate", "victim"));
+    }
+}
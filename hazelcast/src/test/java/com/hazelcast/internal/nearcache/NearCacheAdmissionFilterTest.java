@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.nearcache;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.nearcache.impl.DefaultNearCache;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Properties;
+
+import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
+import static com.hazelcast.config.EvictionPolicy.LRU;
+import static com.hazelcast.config.InMemoryFormat.BINARY;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.impl.DefaultNearCache.ADMISSION_FILTER;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NearCacheAdmissionFilterTest extends CommonNearCacheTestSupport {
+
+    private static final int MAX_SIZE = 100;
+    private static final int HOT_KEY_ACCESS_COUNT = 10;
+    private static final int SCAN_KEY_COUNT = 10 * MAX_SIZE;
+    // the frequency sketch is approximate, a few scan keys may collide with the counters of the hot keys
+    private static final int MIN_HOT_KEYS_AFTER_SCAN = MAX_SIZE * 9 / 10;
+
+    @Test
+    public void testScan_withPut_whenAdmissionFilterEnabled_thenHotKeysKept() {
+        NearCache<Integer, String> nearCache = createNearCache(true);
+
+        populateAndScan(nearCache, false);
+
+        assertTrue(nearCache.size() <= MAX_SIZE);
+        assertTrue(countHotKeys(nearCache) >= MIN_HOT_KEYS_AFTER_SCAN);
+    }
+
+    @Test
+    public void testScan_withReservation_whenAdmissionFilterEnabled_thenHotKeysKept() {
+        NearCache<Integer, String> nearCache = createNearCache(true);
+
+        populateAndScan(nearCache, true);
+
+        assertTrue(nearCache.size() <= MAX_SIZE);
+        assertTrue(countHotKeys(nearCache) >= MIN_HOT_KEYS_AFTER_SCAN);
+    }
+
+    @Test
+    public void testScan_whenAdmissionFilterDisabled_thenHotKeysEvicted() {
+        NearCache<Integer, String> nearCache = createNearCache(false);
+
+        populateAndScan(nearCache, false);
+
+        assertTrue(nearCache.size() <= MAX_SIZE);
+        assertTrue(countHotKeys(nearCache) < MIN_HOT_KEYS_AFTER_SCAN);
+    }
+
+    private NearCache<Integer, String> createNearCache(boolean admissionFilterEnabled) {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, BINARY)
+                .setEvictionConfig(new EvictionConfig(MAX_SIZE, ENTRY_COUNT, LRU));
+        Properties properties = new Properties();
+        properties.setProperty(ADMISSION_FILTER.getName(), String.valueOf(admissionFilterEnabled));
+
+        NearCache<Integer, String> nearCache = new DefaultNearCache<Integer, String>(DEFAULT_NEAR_CACHE_NAME,
+                nearCacheConfig, ss, null, null, new HazelcastProperties(properties));
+        nearCache.initialize();
+        return nearCache;
+    }
+
+    /**
+     * Reads the hot keys repeatedly and then scans keys which are read only once, caching every miss like a
+     * Near Cached proxy does.
+     */
+    private static void populateAndScan(NearCache<Integer, String> nearCache, boolean reserve) {
+        for (int i = 0; i < HOT_KEY_ACCESS_COUNT; i++) {
+            for (int key = 0; key < MAX_SIZE; key++) {
+                getOrCache(nearCache, key, reserve);
+            }
+        }
+        for (int key = MAX_SIZE; key < MAX_SIZE + SCAN_KEY_COUNT; key++) {
+            getOrCache(nearCache, key, reserve);
+        }
+    }
+
+    private static void getOrCache(NearCache<Integer, String> nearCache, int key, boolean reserve) {
+        if (nearCache.get(key) != null) {
+            return;
+        }
+        String value = "value-" + key;
+        if (reserve) {
+            long reservationId = nearCache.tryReserveForUpdate(key, null);
+            if (reservationId != NOT_RESERVED) {
+                nearCache.tryPublishReserved(key, value, reservationId, false);
+            }
+        } else {
+            nearCache.put(key, null, value);
+        }
+    }
+
+    private static int countHotKeys(NearCache<Integer, String> nearCache) {
+        int count = 0;
+        for (int key = 0; key < MAX_SIZE; key++) {
+            if (nearCache.get(key) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
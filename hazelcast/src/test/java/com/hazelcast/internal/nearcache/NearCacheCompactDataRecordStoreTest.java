@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.nearcache;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.nearcache.impl.DefaultNearCache;
+import com.hazelcast.internal.nearcache.impl.store.NearCacheCompactDataRecordStore;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Properties;
+
+import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
+import static com.hazelcast.config.InMemoryFormat.BINARY;
+import static com.hazelcast.internal.nearcache.impl.DefaultNearCache.COMPACT_RECORDS;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NearCacheCompactDataRecordStoreTest extends NearCacheRecordStoreTestSupport {
+
+    @Test
+    public void putAndGetRecord() {
+        putAndGetRecord(BINARY);
+    }
+
+    @Test
+    public void putAndRemoveRecord() {
+        putAndRemoveRecord(BINARY);
+    }
+
+    @Test
+    public void clearRecords() {
+        clearRecordsOrDestroyStore(BINARY, false);
+    }
+
+    @Test
+    public void statsCalculated() {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                statsCalculated(BINARY);
+            }
+        });
+    }
+
+    @Test
+    public void ttlEvaluated() {
+        ttlEvaluated(BINARY);
+    }
+
+    @Test
+    public void maxIdleTimeEvaluatedSuccessfully() {
+        maxIdleTimeEvaluatedSuccessfully(BINARY);
+    }
+
+    @Test
+    public void expiredRecordsCleanedUpSuccessfullyBecauseOfTTL() {
+        expiredRecordsCleanedUpSuccessfully(BINARY, false);
+    }
+
+    @Test
+    public void evictionTriggeredAndHandledSuccessfullyWithEntryCountMaxSizePolicy() {
+        int maxSize = DEFAULT_RECORD_COUNT / 2;
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, BINARY);
+        nearCacheConfig.setEvictionConfig(new EvictionConfig(maxSize, ENTRY_COUNT, EvictionPolicy.LRU));
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, BINARY);
+
+        for (int i = 0; i < DEFAULT_RECORD_COUNT; i++) {
+            nearCacheRecordStore.put(i, null, "Record-" + i);
+            nearCacheRecordStore.doEvictionIfRequired();
+            assertTrue(maxSize >= nearCacheRecordStore.size());
+        }
+    }
+
+    @Test
+    public void testNearCache_whenCompactRecordsEnabled() {
+        Properties properties = new Properties();
+        properties.setProperty(COMPACT_RECORDS.getName(), "true");
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, BINARY);
+        DefaultNearCache<Integer, String> nearCache = new DefaultNearCache<Integer, String>(DEFAULT_NEAR_CACHE_NAME,
+                nearCacheConfig, ss, null, null, new HazelcastProperties(properties));
+        nearCache.initialize();
+
+        assertTrue(nearCache.getNearCacheRecordStore() instanceof NearCacheCompactDataRecordStore);
+    }
+
+    @Override
+    protected <K, V> NearCacheRecordStore<K, V> createNearCacheRecordStore(NearCacheConfig nearCacheConfig,
+                                                                           InMemoryFormat inMemoryFormat) {
+        NearCacheRecordStore<K, V> recordStore
+                = new NearCacheCompactDataRecordStore<K, V>(DEFAULT_NEAR_CACHE_NAME, nearCacheConfig, ss, null);
+        recordStore.initialize();
+        return recordStore;
+    }
+}
@@ -30,7 +30,7 @@ public class NearCacheManagerTest extends NearCacheManagerTestSupport {
 
     @Override
     protected NearCacheManager createNearCacheManager() {
-        return new DefaultNearCacheManager(ss, executionService.getGlobalTaskScheduler(), null);
+        return new DefaultNearCacheManager(ss, executionService.getGlobalTaskScheduler(), null, properties);
     }
 
     @Test
@@ -19,6 +19,7 @@ package com.hazelcast.internal.nearcache;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.serialization.SerializationService;
 import org.junit.Before;
 
@@ -41,12 +42,14 @@ public abstract class NearCacheManagerTestSupport extends CommonNearCacheTestSup
 
     protected SerializationService ss;
     protected ExecutionService executionService;
+    protected HazelcastProperties properties;
 
     @Before
     public void setUp() throws Exception {
         HazelcastInstance instance = createHazelcastInstance();
         ss = getSerializationService(instance);
         executionService = getNodeEngineImpl(instance).getExecutionService();
+        properties = getNodeEngineImpl(instance).getProperties();
     }
 
     protected NearCache createNearCache(NearCacheManager nearCacheManager, String name) {
@@ -25,6 +25,7 @@ import com.hazelcast.monitor.NearCacheStats;
 import com.hazelcast.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.test.AssertTask;
 import org.junit.Before;
@@ -43,12 +44,14 @@ public abstract class NearCacheTestSupport extends CommonNearCacheTestSupport {
 
     protected SerializationService ss;
     protected ExecutionService executionService;
+    protected HazelcastProperties properties;
 
     @Before
     public void setUp() throws Exception {
         HazelcastInstance instance = createHazelcastInstance();
         ss = getSerializationService(instance);
         executionService = getNodeEngineImpl(instance).getExecutionService();
+        properties = getNodeEngineImpl(instance).getProperties();
     }
 
     protected abstract NearCache<Integer, String> createNearCache(String name,
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheDataRecord;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.internal.nearcache.impl.store.CompactNearCacheRecordMap.toMillis;
+import static com.hazelcast.internal.nearcache.impl.store.CompactNearCacheRecordMap.toSeconds;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompactNearCacheRecordMapTest {
+
+    private static final long NOW = 1500000000000L;
+    private static final UUID PARTITION_UUID = UUID.randomUUID();
+
+    private SerializationService serializationService;
+    private CompactNearCacheRecordMap<Integer> map;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        map = new CompactNearCacheRecordMap<Integer>(serializationService, false);
+    }
+
+    @Test
+    public void put_thenGetReturnsAllFields() {
+        map.put(1, newRecord("value"));
+
+        NearCacheRecord record = map.get(1);
+        assertEquals("value", serializationService.toObject(record.getValue()));
+        assertEquals(NOW, record.getCreationTime());
+        assertEquals(NOW + 5000, record.getExpirationTime());
+        assertEquals(TIME_NOT_SET, record.getLastAccessTime());
+        assertEquals(READ_PERMITTED, record.getRecordState());
+        assertEquals(23, record.getPartitionId());
+        assertEquals(42, record.getInvalidationSequence());
+        assertTrue(record.hasSameUuid(PARTITION_UUID));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void put_whenKeyExists_thenOldRecordReturned() {
+        map.put(1, newRecord("value1"));
+
+        NearCacheRecord oldRecord = map.put(1, newRecord("value2"));
+
+        assertEquals("value1", serializationService.toObject(oldRecord.getValue()));
+        assertEquals("value2", serializationService.toObject(map.get(1).getValue()));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void put_whenNullValue() {
+        map.put(1, newRecord(null));
+
+        assertNull(map.get(1).getValue());
+        assertTrue(map.containsKey(1));
+    }
+
+    @Test
+    public void record_whenChanged_thenChangeVisibleInMap() {
+        map.put(1, newRecord("value"));
+        NearCacheRecord record = map.get(1);
+
+        record.setValue(serializationService.toData("a longer value"));
+        record.setAccessTime(NOW + 1000);
+        record.incrementAccessHit();
+        assertTrue(record.casRecordState(READ_PERMITTED, RESERVED));
+
+        NearCacheRecord sameRecord = map.get(1);
+        assertEquals("a longer value", serializationService.toObject(sameRecord.getValue()));
+        assertEquals(NOW + 1000, sameRecord.getLastAccessTime());
+        assertEquals(1, sameRecord.getAccessHit());
+        assertEquals(RESERVED, sameRecord.getRecordState());
+    }
+
+    @Test
+    public void remove_thenRecordIsStale() {
+        map.put(1, newRecord("value"));
+        NearCacheRecord record = map.get(1);
+
+        NearCacheRecord removedRecord = map.remove(1);
+        // the slot is reused by the next entry
+        map.put(2, newRecord("other"));
+
+        assertEquals("value", serializationService.toObject(removedRecord.getValue()));
+        assertNull(map.get(1));
+        assertNull(record.getValue());
+        assertEquals(NOT_RESERVED, record.getRecordState());
+        assertFalse(record.casRecordState(READ_PERMITTED, RESERVED));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void setValue_whenSlabCompacted_thenAllEntriesKept() {
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, newRecord("value-" + i));
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 1000; i += 2) {
+                map.get(i).setValue(serializationService.toData("value-" + i + "-" + round));
+            }
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            String expected = i % 2 == 0 ? "value-" + i + "-9" : "value-" + i;
+            assertEquals(expected, serializationService.toObject(map.get(i).getValue()));
+        }
+    }
+
+    @Test
+    public void entrySet_containsAllEntries() {
+        for (int i = 0; i < 100; i++) {
+            map.put(i, newRecord("value-" + i));
+        }
+
+        Set<Integer> keys = new HashSet<Integer>();
+        for (Map.Entry<Integer, NearCacheRecord> entry : map.entrySet()) {
+            assertEquals("value-" + entry.getKey(), serializationService.toObject(entry.getValue().getValue()));
+            keys.add(entry.getKey());
+        }
+        assertEquals(100, keys.size());
+    }
+
+    @Test
+    public void sample_thenTryEvict() {
+        for (int i = 0; i < 100; i++) {
+            map.put(i, newRecord("value-" + i));
+        }
+
+        int sampleCount = 0;
+        EvictionCandidate<Integer, NearCacheRecord> candidate = null;
+        for (EvictionCandidate<Integer, NearCacheRecord> sample : map.<EvictionCandidate<Integer, NearCacheRecord>>sample(15)) {
+            candidate = sample;
+            sampleCount++;
+        }
+        assertEquals(15, sampleCount);
+        assertNotNull(candidate);
+
+        final Integer key = candidate.getAccessor();
+        final boolean[] evicted = new boolean[1];
+        assertTrue(map.tryEvict(candidate, new EvictionListener<Integer, NearCacheRecord>() {
+            @Override
+            public void onEvict(Integer evictedKey, NearCacheRecord record, boolean wasExpired) {
+                assertEquals(key, evictedKey);
+                assertEquals("value-" + key, serializationService.toObject(record.getValue()));
+                evicted[0] = true;
+            }
+        }));
+        assertTrue(evicted[0]);
+        assertNull(map.get(key));
+        assertEquals(99, map.size());
+        assertFalse(map.tryEvict(candidate, null));
+    }
+
+    @Test
+    public void clear_thenEmpty() {
+        for (int i = 0; i < 100; i++) {
+            map.put(i, newRecord("value-" + i));
+        }
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertNull(map.get(1));
+        assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void times_roundedUpToSeconds() {
+        assertEquals(NOW, toMillis(toSeconds(NOW)));
+        assertEquals(NOW + 1000, toMillis(toSeconds(NOW + 1)));
+        assertEquals(TIME_NOT_SET, toMillis(toSeconds(TIME_NOT_SET)));
+    }
+
+    private NearCacheRecord newRecord(String value) {
+        NearCacheDataRecord record = new NearCacheDataRecord(serializationService.toData(value), NOW, NOW + 5000);
+        record.setPartitionId(23);
+        record.setInvalidationSequence(42);
+        record.setUuid(PARTITION_UUID);
+        return record;
+    }
+}
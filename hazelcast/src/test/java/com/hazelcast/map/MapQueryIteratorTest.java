@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapQueryIteratorTest extends HazelcastTestSupport {
+
+    private MapProxyImpl<Integer, Integer> proxy;
+
+    @Before
+    public void init() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance = factory.newHazelcastInstance();
+        factory.newHazelcastInstance();
+        proxy = (MapProxyImpl<Integer, Integer>) instance.<Integer, Integer>getMap(randomMapName());
+    }
+
+    @Test
+    public void test_HasNext_Returns_False_On_EmptyMap() {
+        Iterator<Integer> iterator = proxy.iterator(10, new GetValueProjection(),
+                TruePredicate.<Integer, Integer>truePredicate());
+
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_next_Throws_Exception_On_EmptyMap() {
+        proxy.iterator(10, new GetValueProjection(), TruePredicate.<Integer, Integer>truePredicate()).next();
+    }
+
+    @Test
+    public void test_Iterates_All_Partitions_With_Predicate() {
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            proxy.put(i, i);
+        }
+
+        Iterator<Integer> iterator = proxy.iterator(7, new GetValueProjection(), new EvenPredicate());
+        Set<Integer> values = new HashSet<Integer>();
+        while (iterator.hasNext()) {
+            Integer value = iterator.next();
+            assertEquals(0, value % 2);
+            values.add(value);
+        }
+
+        assertEquals(count / 2, values.size());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_PagingPredicate_Throws_Exception() {
+        proxy.iterator(10, new GetValueProjection(), new PagingPredicate<Integer, Integer>(10));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_null_projection_throws_exception() {
+        proxy.iterator(10, null, TruePredicate.<Integer, Integer>truePredicate());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_remove_Throws_Exception() {
+        proxy.iterator(10, new GetValueProjection(), TruePredicate.<Integer, Integer>truePredicate()).remove();
+    }
+
+    private static class EvenPredicate implements Predicate<Integer, Integer> {
+        @Override
+        public boolean apply(Entry<Integer, Integer> mapEntry) {
+            return mapEntry.getValue() % 2 == 0;
+        }
+    }
+
+    private static class GetValueProjection extends Projection<Entry<Integer, Integer>, Integer> {
+        @Override
+        public Integer transform(Entry<Integer, Integer> input) {
+            return input.getValue();
+        }
+    }
+}
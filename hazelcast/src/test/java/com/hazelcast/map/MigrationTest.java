@@ -20,7 +20,11 @@ import com.hazelcast.config.Config;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
+import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.nio.Address;
+import com.hazelcast.nio.tcp.FirewallingConnectionManager;
+import com.hazelcast.nio.tcp.OperationPacketFilter;
+import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
@@ -33,6 +37,7 @@ import org.junit.runner.RunWith;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.internal.partition.TestPartitionUtils.getAllReplicaAddresses;
 import static com.hazelcast.internal.partition.TestPartitionUtils.getOngoingReplicaSyncRequests;
@@ -40,6 +45,7 @@ import static com.hazelcast.internal.partition.TestPartitionUtils.getScheduledRe
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -109,6 +115,57 @@ public class MigrationTest extends HazelcastTestSupport {
         assertThatMigrationIsDoneAndReplicasAreIntact(singletonList(instance1));
     }
 
+    @Test
+    public void testMigration_whenChunked() {
+        int size = 1000;
+        String name = randomString();
+        // about 100 KB of values in a single partition, which is migrated in chunks of 1 KB
+        String value = randomString() + randomString() + randomString();
+        Config config = getConfig();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "1");
+        config.setProperty(GroupProperty.PARTITION_MIGRATION_CHUNK_SIZE.getName(), "1");
+        TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = nodeFactory.newHazelcastInstance(config);
+
+        IMap<Integer, String> map = instance1.getMap(name);
+        for (int i = 0; i < size; i++) {
+            map.put(i, value + i);
+        }
+
+        // each chunk of the map is sent in a migration operation of its own
+        final AtomicInteger migrationOperations = new AtomicInteger();
+        FirewallingConnectionManager connectionManager
+                = (FirewallingConnectionManager) getNode(instance1).getConnectionManager();
+        connectionManager.setDroppingPacketFilter(new OperationPacketFilter(getSerializationService(instance1)) {
+            @Override
+            protected boolean allowOperation(Address endpoint, int factory, int type) {
+                if (factory == PartitionDataSerializerHook.F_ID && type == PartitionDataSerializerHook.MIGRATION) {
+                    migrationOperations.incrementAndGet();
+                }
+                return true;
+            }
+        });
+
+        HazelcastInstance instance2 = nodeFactory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2);
+
+        // the values alone need this many chunks
+        int minChunks = size * value.length() / 1024;
+        assertTrue("Expected at least " + minChunks + " chunks, but only " + migrationOperations.get()
+                + " migration operations were sent", migrationOperations.get() > minChunks);
+
+        IMap<Integer, String> map2 = instance2.getMap(name);
+        assertEquals("Some records have been lost.", size, map2.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(value + i, map2.get(i));
+        }
+
+        List<HazelcastInstance> list = new ArrayList<HazelcastInstance>(2);
+        list.add(instance1);
+        list.add(instance2);
+        assertThatMigrationIsDoneAndReplicasAreIntact(list);
+    }
+
     private static void assertThatMigrationIsDoneAndReplicasAreIntact(List<HazelcastInstance> list) {
         // assert that we have as much replicas as instances in the given list
         for (Map.Entry<Integer, List<Address>> entry : getAllReplicaAddresses(list).entrySet()) {
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapStoreAdapter;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.ServiceNamespace;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_BACKUP_SYNC_INTERVAL;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_REPLICA_SYNC_DELTA_ENABLED;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapDeltaReplicaSyncTest extends HazelcastTestSupport {
+
+    @Test
+    public void testDigest_whenReplicasInSync() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance owner = factory.newHazelcastInstance(newConfig());
+        HazelcastInstance backup = factory.newHazelcastInstance(newConfig());
+        warmUpPartitions(owner, backup);
+
+        String mapName = randomMapName();
+        String key = generateKeyOwnedBy(owner);
+        int partitionId = getPartitionService(owner).getPartitionId(key);
+        IMap<String, String> map = owner.getMap(mapName);
+        map.put(key, "value");
+        waitAllForSafeState(owner, backup);
+
+        long[] ownerDigest = getDigest(owner, partitionId, mapName);
+        long[] backupDigest = getDigest(backup, partitionId, mapName);
+        assertNotNull(ownerDigest);
+        assertEquals(MapReplicaDigest.BUCKET_COUNT, ownerDigest.length);
+        assertArrayEquals(ownerDigest, backupDigest);
+    }
+
+    @Test
+    public void testDigest_whenWriteBehindMap() {
+        Config config = newConfig();
+        String mapName = randomMapName();
+        config.getMapConfig(mapName).setMapStoreConfig(new MapStoreConfig()
+                .setEnabled(true)
+                .setWriteDelaySeconds(10)
+                .setImplementation(new MapStoreAdapter<String, String>()));
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        String key = generateKeyOwnedBy(instance);
+        int partitionId = getPartitionService(instance).getPartitionId(key);
+        instance.getMap(mapName).put(key, "value");
+
+        assertNull(getDigest(instance, partitionId, mapName));
+    }
+
+    @Test
+    public void testDigest_whenObjectInMemoryFormat() {
+        Config config = newConfig();
+        String mapName = randomMapName();
+        config.getMapConfig(mapName).setInMemoryFormat(InMemoryFormat.OBJECT);
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        String key = generateKeyOwnedBy(instance);
+        int partitionId = getPartitionService(instance).getPartitionId(key);
+        instance.getMap(mapName).put(key, "value");
+
+        assertNull(getDigest(instance, partitionId, mapName));
+    }
+
+    @Test
+    public void testDigest_coversRecordMetadata() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig());
+        String mapName = randomMapName();
+        String key = generateKeyOwnedBy(instance);
+        int partitionId = getPartitionService(instance).getPartitionId(key);
+        instance.getMap(mapName).put(key, "value");
+        long[] digest = getDigest(instance, partitionId, mapName);
+
+        Data keyData = getSerializationService(instance).toData(key);
+        Record record = getRecordStore(instance, partitionId, mapName).getRecord(keyData);
+        record.setTtl(record.getTtl() + 1000);
+
+        assertFalse(Arrays.equals(digest, getDigest(instance, partitionId, mapName)));
+    }
+
+    @Test
+    public void testDeltaSync_repairsMissingBackupRecord() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance owner = factory.newHazelcastInstance(newConfig());
+        final HazelcastInstance backup = factory.newHazelcastInstance(newConfig());
+        warmUpPartitions(owner, backup);
+
+        final String mapName = randomMapName();
+        String key = generateKeyOwnedBy(owner);
+        final int partitionId = getPartitionService(owner).getPartitionId(key);
+        final Data keyData = getSerializationService(owner).toData(key);
+        IMap<String, String> map = owner.getMap(mapName);
+        map.put(key, "value");
+        waitAllForSafeState(owner, backup);
+
+        // drop the backup record and make the backup replica out of sync
+        getOperationService(backup).execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+
+            @Override
+            public void run() {
+                getRecordStore(backup, partitionId, mapName).removeBackup(keyData);
+                ServiceNamespace namespace = MapService.getObjectNamespace(mapName);
+                InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(backup);
+                partitionService.getReplicaManager().clearPartitionReplicaVersions(partitionId, namespace);
+            }
+        });
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(getRecordStore(backup, partitionId, mapName).existInMemory(keyData));
+            }
+        });
+        assertEquals(1, getRecordStore(backup, partitionId, mapName).size());
+    }
+
+    private static Config newConfig() {
+        return new Config()
+                .setProperty(PARTITION_REPLICA_SYNC_DELTA_ENABLED.getName(), "true")
+                .setProperty(PARTITION_BACKUP_SYNC_INTERVAL.getName(), "1");
+    }
+
+    private static long[] getDigest(HazelcastInstance instance, int partitionId, String mapName) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return mapService.getReplicaDigest(partitionId, MapService.getObjectNamespace(mapName));
+    }
+
+    private static RecordStore getRecordStore(HazelcastInstance instance, int partitionId, String mapName) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        return mapServiceContext.getPartitionContainer(partitionId).getRecordStore(mapName);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.impl.NativeMemoryBudget;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.record.OffHeapDataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class OffHeapStorageTest {
+
+    private static final long MAX_NATIVE_MEMORY = 1 << 20;
+
+    private SerializationService serializationService;
+    private OffHeapDataRecordFactory recordFactory;
+    private OffHeapStorage<Record> storage;
+    private NativeMemoryBudget budget;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        budget = new NativeMemoryBudget(MAX_NATIVE_MEMORY);
+        recordFactory = new OffHeapDataRecordFactory(new MapConfig(), serializationService, mock(PartitioningStrategy.class),
+                budget);
+        storage = new OffHeapStorage<Record>(recordFactory, serializationService);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+    }
+
+    @Test
+    public void testPutAndGet_copiesKeyAndValueToNativeMemory() {
+        Record record = put(1, "value");
+
+        assertSame(record, storage.get(key(1)));
+        assertEquals(key(1), record.getKey());
+        assertEquals(serializationService.toData("value"), record.getValue());
+        assertTrue(storage.getUsedNativeMemory() > 0);
+    }
+
+    @Test
+    public void testGet_manyKeys() {
+        for (int i = 0; i < 1000; i++) {
+            put(i, "value" + i);
+        }
+
+        assertEquals(1000, storage.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(serializationService.toData("value" + i), storage.get(key(i)).getValue());
+        }
+        assertNull(storage.get(key(1000)));
+    }
+
+    @Test
+    public void testUpdateRecordValue_freesOldValueOnDisposeDeferredBlocks() {
+        Record record = put(1, "value");
+        long usedMemory = storage.getUsedNativeMemory();
+
+        storage.updateRecordValue(key(1), record, "new-value");
+        long usedMemoryWithOldValue = storage.getUsedNativeMemory();
+        assertTrue(usedMemoryWithOldValue > usedMemory);
+
+        storage.disposeDeferredBlocks();
+        assertTrue(storage.getUsedNativeMemory() < usedMemoryWithOldValue);
+        assertTrue(storage.getUsedNativeMemory() > usedMemory);
+        assertEquals(serializationService.toData("new-value"), storage.get(key(1)).getValue());
+    }
+
+    @Test
+    public void testRemoveRecord_keepsRecordReadableUntilDisposeDeferredBlocks() {
+        Record record = put(1, "value");
+
+        storage.removeRecord(record);
+
+        assertNull(storage.get(key(1)));
+        assertEquals(serializationService.toData("value"), record.getValue());
+        assertNotEquals(0, storage.getUsedNativeMemory());
+
+        storage.disposeDeferredBlocks();
+        assertEquals(0, storage.getUsedNativeMemory());
+    }
+
+    @Test
+    public void testCostEstimate_excludesNativeMemory() {
+        put(0, "value");
+        long estimate = storage.getEntryCostEstimator().getEstimate();
+
+        Record record = put(1, new byte[1000]);
+        assertTrue(storage.getEntryCostEstimator().getEstimate() - estimate < 1000);
+        assertTrue(storage.getUsedNativeMemory() > 1000);
+
+        storage.removeRecord(record);
+        storage.removeRecord(storage.get(key(0)));
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void testPut_whenBudgetExhausted_thenNativeOutOfMemoryError() {
+        put(1, "value");
+        long usedMemory = storage.getUsedNativeMemory();
+
+        try {
+            put(2, new byte[(int) MAX_NATIVE_MEMORY]);
+            fail();
+        } catch (NativeOutOfMemoryError expected) {
+        }
+
+        assertEquals(usedMemory, storage.getUsedNativeMemory());
+        assertEquals(usedMemory, budget.getUsedMemory());
+        assertNull(storage.get(key(2)));
+        assertEquals(1, storage.size());
+    }
+
+    @Test
+    public void testUpdateRecordValue_whenBudgetExhausted_thenOldValueKept() {
+        Record record = put(1, "value");
+
+        try {
+            storage.updateRecordValue(key(1), record, new byte[(int) MAX_NATIVE_MEMORY]);
+            fail();
+        } catch (NativeOutOfMemoryError expected) {
+        }
+
+        assertEquals(serializationService.toData("value"), storage.get(key(1)).getValue());
+    }
+
+    @Test
+    public void testBudget_isReleasedOnFree() {
+        for (int i = 0; i < 100; i++) {
+            put(i, "value" + i);
+        }
+        assertEquals(storage.getUsedNativeMemory(), budget.getUsedMemory());
+
+        storage.destroy(false);
+
+        assertEquals(0, budget.getUsedMemory());
+    }
+
+    @Test
+    public void testClear_freesNativeMemory() {
+        for (int i = 0; i < 100; i++) {
+            put(i, "value" + i);
+        }
+
+        storage.clear(false);
+        storage.disposeDeferredBlocks();
+
+        assertTrue(storage.isEmpty());
+        assertEquals(0, storage.getUsedNativeMemory());
+    }
+
+    @Test
+    public void testDestroy_freesNativeMemoryImmediately() {
+        for (int i = 0; i < 100; i++) {
+            put(i, "value" + i);
+        }
+
+        storage.destroy(false);
+
+        assertEquals(0, storage.getUsedNativeMemory());
+    }
+
+    private Record put(int key, Object value) {
+        Record record = recordFactory.newRecord(value);
+        storage.put(key(key), record);
+        return record;
+    }
+
+    private Data key(int key) {
+        return serializationService.toData(key);
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.map.impl.recordstore.OpenAddressingStorage.DEFAULT_INITIAL_CAPACITY;
+import static com.hazelcast.util.HashUtil.MurmurHash3_fmix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class OpenAddressingStorageTest {
+
+    private SerializationService serializationService;
+    private DataRecordFactory recordFactory;
+    private OpenAddressingStorage<Record> storage;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        recordFactory = new DataRecordFactory(new MapConfig(), serializationService, mock(PartitioningStrategy.class));
+        storage = new OpenAddressingStorage(recordFactory, InMemoryFormat.BINARY, serializationService);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Record record = put(1, "value");
+
+        assertSame(record, storage.get(key(1)));
+        assertEquals(1, storage.size());
+        assertTrue(storage.containsKey(key(1)));
+        assertFalse(storage.containsKey(key(2)));
+    }
+
+    @Test
+    public void testPut_replacesExistingRecord() {
+        put(1, "value1");
+        Record record = put(1, "value2");
+
+        assertSame(record, storage.get(key(1)));
+        assertEquals(1, storage.size());
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCapacity() {
+        int count = OpenAddressingStorage.DEFAULT_INITIAL_CAPACITY * 4;
+        for (int i = 0; i < count; i++) {
+            put(i, "value" + i);
+        }
+
+        assertEquals(count, storage.size());
+        assertTrue(storage.capacity() > OpenAddressingStorage.DEFAULT_INITIAL_CAPACITY);
+        for (int i = 0; i < count; i++) {
+            assertEquals(serializationService.toData("value" + i), storage.get(key(i)).getValue());
+        }
+    }
+
+    @Test
+    public void testRemoveRecord_keepsOtherKeysReachable() {
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            put(i, "value" + i);
+        }
+        for (int i = 0; i < count; i += 2) {
+            storage.removeRecord(storage.get(key(i)));
+        }
+
+        assertEquals(count / 2, storage.size());
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                assertNull(storage.get(key(i)));
+            } else {
+                assertEquals(key(i), storage.get(key(i)).getKey());
+            }
+        }
+    }
+
+    @Test
+    public void testCostEstimate_isZeroAfterRemovingAllRecords() {
+        for (int i = 0; i < 100; i++) {
+            put(i, "value" + i);
+        }
+        assertTrue(storage.getEntryCostEstimator().getEstimate() > 0);
+
+        for (int i = 0; i < 100; i++) {
+            storage.removeRecord(storage.get(key(i)));
+        }
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < 1000; i++) {
+            put(i, "value" + i);
+        }
+
+        storage.clear(false);
+
+        assertTrue(storage.isEmpty());
+        assertEquals(OpenAddressingStorage.DEFAULT_INITIAL_CAPACITY, storage.capacity());
+        assertNull(storage.get(key(1)));
+    }
+
+    @Test
+    public void testMutationTolerantIterator_visitsAllRecords() {
+        for (int i = 0; i < 100; i++) {
+            put(i, "value" + i);
+        }
+
+        Set<Data> keys = new HashSet<Data>();
+        Iterator<Record> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            keys.add(record.getKey());
+            storage.removeRecord(record);
+        }
+
+        assertEquals(100, keys.size());
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void testMutationTolerantIterator_visitsAllRecords_whenRemovalShiftsChainAroundTableEnd() {
+        // the chain starts in the last slot and wraps around to the first slots
+        List<Integer> wrappingKeys = keysWithHomeSlot(DEFAULT_INITIAL_CAPACITY - 1, 3);
+        for (int key : wrappingKeys) {
+            put(key, "value" + key);
+        }
+        for (int i = 0; i < 50; i++) {
+            if (!wrappingKeys.contains(i)) {
+                put(i, "value" + i);
+            }
+        }
+        int expectedSize = storage.size();
+
+        Set<Data> keys = new HashSet<Data>();
+        Iterator<Record> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            keys.add(record.getKey());
+            storage.removeRecord(record);
+        }
+
+        assertEquals(expectedSize, keys.size());
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void testMutationTolerantIterator_stopsWhenTableIsResized() {
+        for (int i = 0; i < 10; i++) {
+            put(i, "value" + i);
+        }
+        Iterator<Record> iterator = storage.mutationTolerantIterator();
+        iterator.next();
+
+        for (int i = 10; i < DEFAULT_INITIAL_CAPACITY; i++) {
+            put(i, "value" + i);
+        }
+
+        assertFalse(iterator.hasNext());
+        Set<Data> keys = new HashSet<Data>();
+        iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            assertSame(record, storage.get(record.getKey()));
+            keys.add(record.getKey());
+        }
+        assertEquals(DEFAULT_INITIAL_CAPACITY, keys.size());
+    }
+
+    @Test
+    public void testValuesIterator_continuesOnSnapshot_whenTableIsResized() {
+        for (int i = 0; i < 10; i++) {
+            put(i, "value" + i);
+        }
+        Iterator<Record> iterator = storage.values().iterator();
+
+        for (int i = 10; i < DEFAULT_INITIAL_CAPACITY; i++) {
+            put(i, "value" + i);
+        }
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        assertEquals(10, count);
+    }
+
+    @Test
+    public void testGetRandomSamples() {
+        for (int i = 0; i < 100; i++) {
+            put(i, "value" + i);
+        }
+
+        int sampleCount = 0;
+        for (LazyEntryViewFromRecord sample : storage.getRandomSamples(15)) {
+            assertSame(sample.getRecord(), storage.get(sample.getRecord().getKey()));
+            sampleCount++;
+        }
+
+        assertEquals(15, sampleCount);
+    }
+
+    @Test
+    public void testGetRandomSamples_whenEmpty() {
+        assertFalse(storage.getRandomSamples(15).iterator().hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetRandomSamples_whenNegativeSampleCount() {
+        storage.getRandomSamples(-1);
+    }
+
+    @Test
+    public void testFetchKeys_resumesFromTableIndex() {
+        for (int i = 0; i < 100; i++) {
+            put(i, "value" + i);
+        }
+
+        Set<Data> keys = new HashSet<Data>();
+        int tableIndex = Integer.MAX_VALUE;
+        do {
+            MapKeysWithCursor cursor = storage.fetchKeys(tableIndex, 10);
+            keys.addAll(cursor.getBatch());
+            tableIndex = cursor.getNextTableIndexToReadFrom();
+        } while (tableIndex >= 0);
+
+        assertEquals(100, keys.size());
+    }
+
+    @Test
+    public void testFetchEntries() {
+        put(1, "value");
+
+        MapEntriesWithCursor cursor = storage.fetchEntries(Integer.MAX_VALUE, 10, serializationService);
+
+        assertEquals(1, cursor.getBatch().size());
+        assertEquals(key(1), cursor.getBatch().get(0).getKey());
+        assertEquals(serializationService.toData("value"), cursor.getBatch().get(0).getValue());
+    }
+
+    private Record put(int key, Object value) {
+        Record record = recordFactory.newRecord(value);
+        storage.put(key(key), record);
+        return record;
+    }
+
+    private List<Integer> keysWithHomeSlot(int slot, int count) {
+        List<Integer> keys = new ArrayList<Integer>(count);
+        for (int i = 0; keys.size() < count; i++) {
+            if ((MurmurHash3_fmix(key(i).hashCode()) & (DEFAULT_INITIAL_CAPACITY - 1)) == slot) {
+                keys.add(i);
+            }
+        }
+        return keys;
+    }
+
+    private Data key(int key) {
+        return serializationService.toData(key);
+    }
+}
@@ -30,6 +30,8 @@ import java.util.Random;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -93,6 +95,51 @@ public class PacketTransportTest extends HazelcastTestSupport {
         }
     }
 
+    /**
+     * Checks if the remainder of a large value can be read directly into the payload using
+     * {@link Packet#remainingPayload(int)} and {@link Packet#onPayloadRead(int)}.
+     */
+    @Test
+    public void largeValue_remainingPayload() {
+        Packet originalPacket = new Packet(generateRandomString(100000).getBytes());
+        ByteBuffer bb = ByteBuffer.allocate(100000 + 100);
+        assertTrue(originalPacket.writeTo(bb));
+        bb.flip();
+
+        ByteBuffer head = bb.duplicate();
+        head.limit(100);
+        Packet clonedPacket = new Packet();
+        assertFalse(clonedPacket.readFrom(head));
+        bb.position(head.position());
+
+        int chunkSize = 1000;
+        boolean readCompleted = false;
+        ByteBuffer dst;
+        while ((dst = clonedPacket.remainingPayload(chunkSize)) != null) {
+            assertEquals(chunkSize, dst.remaining());
+            int bytes = dst.remaining();
+            for (int k = 0; k < bytes; k++) {
+                dst.put(bb.get());
+            }
+            readCompleted = clonedPacket.onPayloadRead(bytes);
+        }
+
+        if (!readCompleted) {
+            readCompleted = clonedPacket.readFrom(bb);
+        }
+
+        assertTrue(readCompleted);
+        assertFalse(bb.hasRemaining());
+        assertPacketEquals(originalPacket, clonedPacket);
+    }
+
+    @Test
+    public void remainingPayload_whenHeaderNotRead() {
+        Packet packet = new Packet();
+
+        assertNull(packet.remainingPayload(1));
+    }
+
     /**
      * Verifies that writing a Packet to a ByteBuffer and then reading it from the ByteBuffer, gives the same Packet (content).
      */
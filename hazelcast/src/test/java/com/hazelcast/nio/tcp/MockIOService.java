@@ -57,6 +57,9 @@ public class MockIOService implements IOService {
     public final ConcurrentHashMap<Long, DummyPayload> payloads = new ConcurrentHashMap<Long, DummyPayload>();
     private final ChannelFactory channelFactory;
     public volatile PacketHandler packetHandler;
+    public int connectionsPerMember = 1;
+    public boolean bulkConnectionEnabled;
+    public long bulkBytesPerSecond;
 
     public MockIOService(int port, ChannelFactory channelFactory) throws Exception {
         loggingService = new LoggingServiceImpl("somegroup", "log4j2", BuildInfoProvider.getBuildInfo());
@@ -228,6 +231,21 @@ public class MockIOService implements IOService {
         return 0;
     }
 
+    @Override
+    public int getConnectionsPerMember() {
+        return connectionsPerMember;
+    }
+
+    @Override
+    public boolean isBulkConnectionEnabled() {
+        return bulkConnectionEnabled;
+    }
+
+    @Override
+    public long getBulkBytesPerSecond() {
+        return bulkBytesPerSecond;
+    }
+
     @Override
     public void onDisconnect(Address endpoint, Throwable cause) {
     }
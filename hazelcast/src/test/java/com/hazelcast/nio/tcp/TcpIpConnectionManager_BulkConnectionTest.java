@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class TcpIpConnectionManager_BulkConnectionTest extends TcpIpConnection_AbstractTest {
+
+    private final List<Packet> packetsB = Collections.synchronizedList(new ArrayList<Packet>());
+    private int packetCount;
+
+    @Override
+    @Before
+    public void setup() throws Exception {
+        bulkConnectionEnabled = true;
+        super.setup();
+        connManagerA.start();
+        connManagerB.start();
+
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                packetsB.add(packet);
+            }
+        };
+    }
+
+    @Test
+    public void bulkPackets_areSentOverDedicatedConnection() {
+        Connection connection = connect(connManagerA, addressB);
+
+        final Packet bulk1 = newOperationPacket(1).raiseFlags(Packet.FLAG_OP_BULK);
+        final Packet bulk2 = newOperationPacket(2).raiseFlags(Packet.FLAG_OP_BULK);
+        final Packet regular = newOperationPacket(1);
+        connManagerA.transmit(bulk1, connection);
+        connManagerA.transmit(regular, connection);
+        connManagerA.transmit(bulk2, addressB);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(3, packetsB.size());
+            }
+        });
+        assertEquals(2, connManagerA.getActiveConnectionCount());
+        assertSame(received(bulk1).getConn(), received(bulk2).getConn());
+        assertNotSame(received(bulk1).getConn(), received(regular).getConn());
+        assertSame(connManagerB.getConnection(addressA), received(regular).getConn());
+    }
+
+    @Test
+    public void bulkPackets_whenMorePendingThanLanesQueue_thenSentInOrder() {
+        Connection connection = connect(connManagerA, addressB);
+
+        final List<Packet> sent = new ArrayList<Packet>();
+        for (int i = 0; i < TcpIpConnectionManager.MAX_PENDING_LANE_PACKETS + 100; i++) {
+            Packet packet = newOperationPacket(1).raiseFlags(Packet.FLAG_OP_BULK);
+            sent.add(packet);
+            connManagerA.transmit(packet, connection);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(sent.size(), packetsB.size());
+            }
+        });
+        assertEquals(sent, packetsB);
+    }
+
+    @Test
+    public void responsesAndPacketsWithoutPartition_areSentOverRegularConnection() {
+        Connection connection = connect(connManagerA, addressB);
+
+        final Packet response = newOperationPacket(-1).raiseFlags(Packet.FLAG_OP_RESPONSE);
+        final Packet event = newOperationPacket(1).setPacketType(Packet.Type.EVENT);
+        connManagerA.transmit(response, connection);
+        connManagerA.transmit(event, connection);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(2, packetsB.size());
+            }
+        });
+        assertEquals(1, connManagerA.getActiveConnectionCount());
+        assertSame(connManagerB.getConnection(addressA), received(response).getConn());
+        assertSame(connManagerB.getConnection(addressA), received(event).getConn());
+    }
+
+    private Packet newOperationPacket(int partitionId) {
+        return new Packet(serializationService.toBytes("foo" + packetCount++), partitionId)
+                .setPacketType(Packet.Type.OPERATION);
+    }
+
+    private Packet received(Packet packet) {
+        synchronized (packetsB) {
+            return packetsB.get(packetsB.indexOf(packet));
+        }
+    }
+}
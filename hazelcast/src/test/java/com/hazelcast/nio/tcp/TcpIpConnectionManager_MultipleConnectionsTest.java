@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.ConnectionListener;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class TcpIpConnectionManager_MultipleConnectionsTest extends TcpIpConnection_AbstractTest {
+
+    private final List<Packet> packetsB = Collections.synchronizedList(new ArrayList<Packet>());
+    private int packetCount;
+
+    @Override
+    @Before
+    public void setup() throws Exception {
+        connectionsPerMember = 2;
+        super.setup();
+        connManagerA.start();
+        connManagerB.start();
+
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                packetsB.add(packet);
+            }
+        };
+    }
+
+    @Test
+    public void partitionOperations_areSpreadOverConnections() {
+        final Connection connection = connect(connManagerA, addressB);
+
+        // triggers the creation of the second connection
+        assertTrue(connManagerA.transmit(newOperationPacket(1), connection));
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(2, connManagerA.getActiveConnectionCount());
+            }
+        });
+
+        final Packet packet0 = newOperationPacket(0);
+        final Packet packet1 = newOperationPacket(1);
+        final Packet packet2 = newOperationPacket(2);
+        assertTrue(connManagerA.transmit(packet0, connection));
+        assertTrue(connManagerA.transmit(packet1, connection));
+        assertTrue(connManagerA.transmit(packet2, addressB));
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertContains(packetsB, packet0);
+                assertContains(packetsB, packet1);
+                assertContains(packetsB, packet2);
+            }
+        });
+        assertSame(received(packet0).getConn(), received(packet2).getConn());
+        assertNotSame(received(packet0).getConn(), received(packet1).getConn());
+        assertSame(connection, connManagerA.getConnection(addressB));
+    }
+
+    @Test
+    public void whenRegularConnectionClosed_thenAdditionalConnectionsClosed() {
+        final Connection connection = connect(connManagerA, addressB);
+        connManagerA.transmit(newOperationPacket(1), connection);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(2, connManagerA.getActiveConnectionCount());
+            }
+        });
+
+        connection.close("test", null);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(0, connManagerA.getActiveConnectionCount());
+            }
+        });
+    }
+
+    @Test
+    public void partitionOperations_sentBeforeConnectionsAreBound_keepTheirOrder() {
+        Connection connection = connect(connManagerA, addressB);
+
+        final List<Packet> sent = new ArrayList<Packet>();
+        for (int i = 0; i < 100; i++) {
+            Packet packet = newOperationPacket(1);
+            sent.add(packet);
+            assertTrue(connManagerA.transmit(packet, connection));
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(sent.size(), packetsB.size());
+            }
+        });
+        synchronized (packetsB) {
+            assertEquals(sent, packetsB);
+            for (Packet packet : packetsB) {
+                assertSame(packetsB.get(0).getConn(), packet.getConn());
+            }
+        }
+    }
+
+    @Test
+    public void whenAdditionalConnectionClosed_thenNoConnectionRemovedEvent() {
+        final List<Connection> removedB = Collections.synchronizedList(new ArrayList<Connection>());
+        connManagerB.addConnectionListener(new ConnectionListener() {
+            @Override
+            public void connectionAdded(Connection connection) {
+            }
+
+            @Override
+            public void connectionRemoved(Connection connection) {
+                removedB.add(connection);
+            }
+        });
+        final Connection connection = connect(connManagerA, addressB);
+        connManagerA.transmit(newOperationPacket(1), connection);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                // the packet is sent over the second connection once it is bound
+                assertEquals(1, packetsB.size());
+                assertEquals(2, connManagerB.getActiveConnectionCount());
+            }
+        });
+        final Connection connectionB = connManagerB.getConnection(addressA);
+
+        connection.close("test", null);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(0, connManagerB.getActiveConnectionCount());
+                assertEquals(1, removedB.size());
+            }
+        });
+        assertSame(connectionB, removedB.get(0));
+    }
+
+    private Packet newOperationPacket(int partitionId) {
+        return new Packet(serializationService.toBytes("foo" + packetCount++), partitionId)
+                .setPacketType(Packet.Type.OPERATION);
+    }
+
+    private Packet received(Packet packet) {
+        synchronized (packetsB) {
+            return packetsB.get(packetsB.indexOf(packet));
+        }
+    }
+}
@@ -63,6 +63,9 @@ public abstract class TcpIpConnection_AbstractTest extends HazelcastTestSupport
     protected MetricsRegistryImpl metricsRegistryB;
     protected MetricsRegistryImpl metricsRegistryC;
 
+    protected int connectionsPerMember = 1;
+    protected boolean bulkConnectionEnabled;
+
     @Before
     public void setup() throws Exception {
         addressA = new Address("127.0.0.1", 5701);
@@ -112,6 +115,8 @@ public abstract class TcpIpConnection_AbstractTest extends HazelcastTestSupport
 
     protected TcpIpConnectionManager newConnectionManager(int port, MetricsRegistry metricsRegistry) throws Exception {
         MockIOService ioService = new MockIOService(port, eventLoopGroupFactory.createChannelFactory());
+        ioService.connectionsPerMember = connectionsPerMember;
+        ioService.bulkConnectionEnabled = bulkConnectionEnabled;
 
         return new TcpIpConnectionManager(
                 ioService,
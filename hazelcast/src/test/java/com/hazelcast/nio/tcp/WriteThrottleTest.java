@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class WriteThrottleTest extends HazelcastTestSupport {
+
+    private WriteThrottle throttle;
+    private Connection connection;
+
+    @Before
+    public void setup() {
+        // 10 KB per second
+        throttle = new WriteThrottle("throttle", 10 * 1024);
+        connection = mock(Connection.class);
+        when(connection.write(any(Packet.class))).thenReturn(true);
+    }
+
+    @After
+    public void tearDown() {
+        throttle.shutdown();
+    }
+
+    @Test
+    public void whenRateNotExceeded_thenWrittenDirectly() {
+        Packet packet = new Packet(new byte[1000]);
+
+        assertTrue(throttle.write(packet, connection));
+
+        verify(connection).write(packet);
+    }
+
+    @Test
+    public void whenRateExceeded_thenDelayedInOrder() {
+        Packet packet1 = new Packet(new byte[5 * 1024]);
+        Packet packet2 = new Packet(new byte[1]);
+        Packet packet3 = new Packet(new byte[2]);
+
+        assertTrue(throttle.write(packet1, connection));
+        assertTrue(throttle.write(packet2, connection));
+        assertTrue(throttle.write(packet3, connection));
+
+        verify(connection).write(packet1);
+        verify(connection, never()).write(packet2);
+
+        ArgumentCaptor<Packet> captor = ArgumentCaptor.forClass(Packet.class);
+        verify(connection, timeout(ASSERT_TRUE_EVENTUALLY_TIMEOUT * 1000L).times(3)).write(captor.capture());
+        assertEquals(asList(packet1, packet2, packet3), captor.getAllValues());
+    }
+
+    @Test
+    public void whenShutdown_thenDelayedWriteRejected() {
+        assertTrue(throttle.write(new Packet(new byte[20 * 1024]), connection));
+        throttle.shutdown();
+
+        Packet packet = new Packet(new byte[1]);
+        assertFalse(throttle.write(packet, connection));
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.query.DefaultIndexProvider;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.SampleTestObjects.Employee;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.instance.TestUtil.toData;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class BitmapIndexTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    private Indexes indexes;
+
+    @Before
+    public void setUp() {
+        indexes = new Indexes(serializationService, new DefaultIndexProvider(), Extractors.empty(), true);
+    }
+
+    @Test
+    public void testSparseBitmap() {
+        SparseBitmap bitmap = new SparseBitmap();
+        assertTrue(bitmap.isEmpty());
+        assertEquals(-1, bitmap.nextSetBit(0));
+
+        assertTrue(bitmap.set(3));
+        assertFalse(bitmap.set(3));
+        assertTrue(bitmap.set(10000));
+        assertTrue(bitmap.get(3));
+        assertTrue(bitmap.get(10000));
+        assertFalse(bitmap.get(4));
+        assertEquals(2, bitmap.cardinality());
+        assertEquals(3, bitmap.nextSetBit(0));
+        assertEquals(10000, bitmap.nextSetBit(4));
+
+        SparseBitmap other = new SparseBitmap();
+        other.set(10000);
+        other.set(20000);
+        SparseBitmap union = new SparseBitmap();
+        union.or(bitmap);
+        union.or(other);
+        assertEquals(3, union.cardinality());
+        bitmap.and(other);
+        assertEquals(1, bitmap.cardinality());
+        assertTrue(bitmap.get(10000));
+
+        assertTrue(bitmap.clear(10000));
+        assertFalse(bitmap.clear(10000));
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    public void testIndexDefinition() {
+        Index index = indexes.addOrGetIndex("bitmap: age", false);
+
+        assertEquals("bitmap:age", index.getAttributeName());
+        assertSame(index, indexes.getIndex("age"));
+        assertSame(index, indexes.getIndex("bitmap:age"));
+        assertSame(index, indexes.addOrGetIndex("age", false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIndexDefinition_ordered() {
+        indexes.addOrGetIndex("bitmap:age", true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIndexDefinition_composite() {
+        indexes.addOrGetIndex("bitmap:age, name", false);
+    }
+
+    @Test
+    public void testQueries() {
+        indexes.addOrGetIndex("bitmap:age", false);
+        indexes.addOrGetIndex("bitmap:active", false);
+        populate();
+
+        assertResult(100, Predicates.equal("age", 3));
+        assertResult(300, Predicates.in("age", 1, 3, 5));
+        assertResult(300, Predicates.or(Predicates.equal("age", 1), Predicates.equal("age", 3),
+                Predicates.equal("age", 5)));
+        assertResult(300, Predicates.between("age", 2, 4));
+        assertResult(200, Predicates.greaterThan("age", 7));
+        assertResult(200, Predicates.and(Predicates.in("age", 1, 2, 3, 4), Predicates.in("age", 3, 4, 5)));
+        assertResult(100, Predicates.and(Predicates.in("age", 1, 2, 3), Predicates.equal("active", true)));
+        assertResult(0, Predicates.and(Predicates.equal("age", 3), Predicates.equal("active", true)));
+        assertResult(600, Predicates.or(Predicates.equal("age", 3), Predicates.equal("active", true)));
+        assertEquals(900, indexes.getIndex("age").getSubRecords(ComparisonType.NOT_EQUAL, 3).size());
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        indexes.addOrGetIndex("bitmap:age", false);
+        populate();
+
+        Employee updated = new Employee(3, "name3", 4, false, 3.0);
+        indexes.saveEntryIndex(new QueryEntry(serializationService, toData(3), updated, Extractors.empty()),
+                new Employee(3, "name3", 3, false, 3.0));
+        assertResult(99, Predicates.equal("age", 3));
+        assertResult(101, Predicates.equal("age", 4));
+
+        indexes.removeEntryIndex(toData(3), updated);
+        indexes.removeEntryIndex(toData(13), new Employee(13, "name13", 3, false, 13.0));
+        assertResult(98, Predicates.equal("age", 3));
+        assertResult(100, Predicates.equal("age", 4));
+
+        // the released ordinals are reused by new entries
+        populate();
+        assertResult(100, Predicates.equal("age", 3));
+        assertResult(100, Predicates.equal("age", 4));
+    }
+
+    @Test
+    public void testResultsOfDifferentAttributes_areCombinedAsBitmaps() {
+        Index age = indexes.addOrGetIndex("bitmap:age", false);
+        Index active = indexes.addOrGetIndex("bitmap:active", false);
+        populate();
+
+        Set<QueryableEntry> ages = age.getRecords(new Comparable[]{2, 3});
+        Set<QueryableEntry> actives = active.getRecords(true);
+        List<Set<QueryableEntry>> others = singletonList(actives);
+
+        Set<QueryableEntry> intersection = BitmapResultSet.intersect(ages, others);
+        assertTrue(intersection instanceof BitmapResultSet);
+        assertTrue(BitmapResultSet.remaining(ages, others).isEmpty());
+        assertEquals(100, intersection.size());
+
+        List<Set<QueryableEntry>> union = BitmapResultSet.union(Arrays.asList(ages, actives));
+        assertEquals(1, union.size());
+        assertTrue(union.get(0) instanceof BitmapResultSet);
+        assertEquals(600, union.get(0).size());
+    }
+
+    @Test
+    public void testOrdinals_areSharedAndReleased() {
+        Index age = indexes.addOrGetIndex("bitmap:age", false);
+        indexes.addOrGetIndex("bitmap:active", false);
+        BitmapOrdinals ordinals = ((BitmapIndexStore) ((IndexImpl) age).indexStore).getOrdinals();
+        populate();
+
+        assertEquals(ENTRY_COUNT, ordinals.size());
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            indexes.removeEntryIndex(toData(i), new Employee(i, "name" + i, i % 10, i % 2 == 0, i));
+        }
+        assertEquals(0, ordinals.size());
+        assertResult(0, Predicates.equal("age", 3));
+
+        populate();
+        assertEquals(ENTRY_COUNT, ordinals.size());
+        assertResult(100, Predicates.and(Predicates.equal("age", 2), Predicates.equal("active", true)));
+    }
+
+    private void populate() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Employee employee = new Employee(i, "name" + i, i % 10, i % 2 == 0, i);
+            indexes.saveEntryIndex(new QueryEntry(serializationService, toData(i), employee, Extractors.empty()), null);
+        }
+    }
+
+    private void assertResult(int expected, Predicate predicate) {
+        Set<QueryableEntry> result = indexes.query(predicate);
+        assertNotNull(result);
+        assertEquals(expected, result.size());
+        int count = 0;
+        for (QueryableEntry entry : result) {
+            assertTrue(predicate.apply(entry));
+            count++;
+        }
+        assertEquals(expected, count);
+    }
+}
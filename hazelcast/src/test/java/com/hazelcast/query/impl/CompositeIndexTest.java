@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.query.DefaultIndexProvider;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.SampleTestObjects.Employee;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.RuleBasedQueryOptimizer;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Set;
+
+import static com.hazelcast.instance.TestUtil.toData;
+import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompositeIndexTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final RuleBasedQueryOptimizer optimizer = new RuleBasedQueryOptimizer();
+
+    private Indexes indexes;
+
+    @Before
+    public void setUp() {
+        indexes = new Indexes(serializationService, new DefaultIndexProvider(), Extractors.empty(), true);
+    }
+
+    @Test
+    public void testCanonicalization() {
+        assertEquals("age, salary", Indexes.canonicalizeAttribute(" age ,salary"));
+        assertEquals("age", Indexes.canonicalizeAttribute("age"));
+        assertArrayEquals(new String[]{"age", "salary"}, Indexes.getComponents("age,  salary"));
+        assertNull(Indexes.getComponents("age"));
+
+        Index index = indexes.addOrGetIndex("age,salary", true);
+        assertSame(index, indexes.getIndex("age, salary"));
+        assertEquals(1, indexes.getCompositeIndexes().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCanonicalization_emptyComponent() {
+        Indexes.canonicalizeAttribute("age, , salary");
+    }
+
+    @Test
+    public void testCompositeValueOrdering() {
+        CompositeValue value = value(10, 5.0);
+
+        assertEquals(0, value.compareTo(value(10, 5.0)));
+        assertTrue(value.compareTo(value(10, 6.0)) < 0);
+        assertTrue(value.compareTo(value(11, 1.0)) < 0);
+        assertTrue(value(10, IndexImpl.NULL).compareTo(value) < 0);
+
+        assertTrue(value(10, NEGATIVE_INFINITY).compareTo(value) < 0);
+        assertTrue(value(10, POSITIVE_INFINITY).compareTo(value) > 0);
+        assertTrue(value(10, NEGATIVE_INFINITY).compareTo(value(10, IndexImpl.NULL)) < 0);
+
+        // a prefix bound followed by an infinity falls right before or after all values sharing the prefix
+        assertTrue(value(10, 5.0, NEGATIVE_INFINITY).compareTo(value) < 0);
+        assertTrue(value(10, 5.0, POSITIVE_INFINITY).compareTo(value) > 0);
+        assertTrue(value.compareTo(value(10, 5.0, POSITIVE_INFINITY)) < 0);
+    }
+
+    @Test
+    public void testUnorderedIndex_fullEquality() {
+        indexes.addOrGetIndex("name, age", false);
+        populate();
+
+        Predicate predicate = optimizer.optimize(Predicates.and(Predicates.equal("name", "name3"),
+                Predicates.equal("age", 3)), indexes);
+        assertResult(1, predicate);
+
+        predicate = optimizer.optimize(Predicates.and(Predicates.equal("age", 4),
+                Predicates.equal("name", "name3")), indexes);
+        assertResult(0, predicate);
+    }
+
+    @Test
+    public void testUnorderedIndex_prefixNotUsed() {
+        indexes.addOrGetIndex("name, age", false);
+        populate();
+
+        Predicate predicate = optimizer.optimize(Predicates.and(Predicates.equal("name", "name3"),
+                Predicates.greaterThan("age", 1)), indexes);
+        assertNull(indexes.query(predicate));
+    }
+
+    @Test
+    public void testOrderedIndex_ranges() {
+        indexes.addOrGetIndex("active, age, salary", true);
+        populate();
+
+        assertResult(50, optimizer.optimize(Predicates.and(Predicates.equal("active", true),
+                Predicates.equal("age", 4)), indexes));
+        assertResult(10, optimizer.optimize(Predicates.and(Predicates.equal("active", true),
+                Predicates.equal("age", 4), Predicates.greaterThan("salary", 39.0)), indexes));
+        assertResult(20, optimizer.optimize(Predicates.and(Predicates.equal("active", true),
+                Predicates.equal("age", 4), Predicates.greaterEqual("salary", 30.0)), indexes));
+        assertResult(20, optimizer.optimize(Predicates.and(Predicates.equal("active", true),
+                Predicates.equal("age", 4), Predicates.lessThan("salary", 20.0)), indexes));
+        assertResult(30, optimizer.optimize(Predicates.and(Predicates.equal("active", true),
+                Predicates.equal("age", 4), Predicates.lessEqual("salary", 20.0)), indexes));
+        assertResult(30, optimizer.optimize(Predicates.and(Predicates.equal("active", true),
+                Predicates.equal("age", 4), Predicates.between("salary", 10.0, 30.0)), indexes));
+        assertResult(150, optimizer.optimize(Predicates.and(Predicates.equal("active", false),
+                Predicates.between("age", 1, 5)), indexes));
+    }
+
+    @Test
+    public void testOrderedIndex_remainingPredicatesApplied() {
+        indexes.addOrGetIndex("active, age", true);
+        populate();
+
+        Predicate predicate = optimizer.optimize(Predicates.and(Predicates.equal("active", true),
+                Predicates.equal("age", 4), Predicates.equal("name", "name14")), indexes);
+        Set<QueryableEntry> result = indexes.query(predicate);
+        assertNotNull(result);
+        int matching = 0;
+        for (QueryableEntry entry : result) {
+            if (predicate.apply(entry)) {
+                matching++;
+            }
+        }
+        assertEquals(1, matching);
+    }
+
+    /**
+     * Populates 500 employees: ages 0..9, salaries 0..49 in steps of 10 per age, active for even ids.
+     */
+    private void populate() {
+        for (int i = 0; i < 500; i++) {
+            Employee employee = new Employee(i, "name" + i, i % 10, i % 2 == 0, (i / 10) % 5 * 10.0);
+            indexes.saveEntryIndex(new QueryEntry(serializationService, toData(i), employee, Extractors.empty()), null);
+        }
+    }
+
+    private void assertResult(int expected, Predicate predicate) {
+        Set<QueryableEntry> result = indexes.query(predicate);
+        assertNotNull(result);
+        assertEquals(expected, result.size());
+    }
+
+    private static CompositeValue value(Comparable... components) {
+        return new CompositeValue(components);
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class IndexStatisticsTest {
+
+    private static final double DELTA = 0.1;
+
+    private IndexStatistics statistics = new IndexStatistics();
+
+    @Test
+    public void testEstimateRangeSelectivity() {
+        addValues(0, 1000);
+
+        assertEquals(0.5, statistics.estimateRangeSelectivity(null, false, 500, false), DELTA);
+        assertEquals(1000, statistics.getEntryCount());
+        assertEquals(1000, statistics.getDistinctValueCount());
+    }
+
+    @Test
+    public void testRemovedValues_doNotAffectEstimate() {
+        addValues(0, 1000);
+
+        for (int i = 0; i < 500; i++) {
+            statistics.onEntryRemoved(i, true);
+        }
+
+        assertEquals(0.0, statistics.estimateRangeSelectivity(null, false, 500, false), 0.0);
+        assertEquals(1.0, statistics.estimateRangeSelectivity(500, true, null, false), 0.0);
+        assertEquals(500, statistics.getEntryCount());
+    }
+
+    @Test
+    public void testSampleFollowsChurn() {
+        addValues(0, 1000);
+
+        // every entry gets updated to a value of a new range
+        for (int i = 0; i < 1000; i++) {
+            statistics.onEntryRemoved(i, true);
+            statistics.onEntryAdded(1000 + i, true);
+        }
+
+        assertEquals(0.0, statistics.estimateRangeSelectivity(null, false, 1000, false), 0.0);
+        assertEquals(0.5, statistics.estimateRangeSelectivity(1000, true, 1500, false), DELTA);
+        assertEquals(1000, statistics.getEntryCount());
+    }
+
+    @Test
+    public void testRemovedDuplicateValues_doNotAffectEstimate() {
+        // half of the entries share one value
+        for (int i = 0; i < 1000; i++) {
+            statistics.onEntryAdded(-1, i == 0);
+        }
+        addValues(0, 1000);
+
+        for (int i = 0; i < 1000; i++) {
+            statistics.onEntryRemoved(-1, i == 999);
+        }
+
+        assertEquals(0.0, statistics.estimateRangeSelectivity(null, false, 0, false), 0.0);
+        assertEquals(1.0, statistics.estimateRangeSelectivity(0, true, null, false), 0.0);
+    }
+
+    @Test
+    public void testReset() {
+        addValues(0, 100);
+
+        statistics.reset();
+
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(0.0, statistics.estimateRangeSelectivity(null, false, null, false), 0.0);
+    }
+
+    private void addValues(int from, int to) {
+        for (int i = from; i < to; i++) {
+            statistics.onEntryAdded(i, true);
+        }
+    }
+}
@@ -36,6 +36,7 @@ import java.util.Set;
 
 import static com.hazelcast.instance.TestUtil.toData;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 @RunWith(HazelcastSerialClassRunner.class)
@@ -44,6 +45,16 @@ public class IndexesTest {
 
     private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
 
+    @Test
+    public void testStatistics_keptOnlyWhenEnabled() {
+        Indexes indexes = new Indexes(serializationService, new DefaultIndexProvider(), Extractors.empty(), true);
+        assertNull(indexes.addOrGetIndex("name", false).getStatistics());
+
+        indexes = new Indexes(serializationService, new DefaultIndexProvider(true), Extractors.empty(), true);
+        assertNotNull(indexes.addOrGetIndex("name", false).getStatistics());
+        assertNotNull(indexes.addOrGetIndex("age", true).getStatistics());
+    }
+
     @Test
     public void testAndWithSingleEntry() throws Exception {
         Indexes indexes = new Indexes(serializationService, new DefaultIndexProvider(), Extractors.empty(), true);
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SortedIndexStoreTest {
+
+    private final Map<QueryableEntry, Object> indexedValues = new IdentityHashMap<QueryableEntry, Object>();
+
+    private SortedIndexStore store = new SortedIndexStore(new BaseIndexStore.IndexedValueReader() {
+        @Override
+        public Object read(QueryableEntry entry) {
+            return indexedValues.get(entry);
+        }
+    }, false);
+
+    @Test
+    public void testGetRecords_singleEntryBucket() {
+        QueryableEntry entry = entry();
+        store.newIndex(1L, entry);
+
+        Set<QueryableEntry> result = store.getRecords(1L);
+
+        assertEquals(1, result.size());
+        assertTrue(result.contains(entry));
+    }
+
+    @Test
+    public void testGetRecords_bucketGrowsAndShrinks() {
+        QueryableEntry entry1 = entry();
+        QueryableEntry entry2 = entry();
+        store.newIndex(1L, entry1);
+        store.newIndex(1L, entry2);
+
+        assertEquals(2, store.getRecords(1L).size());
+
+        store.removeIndex(1L, entry1.getKeyData());
+        assertEquals(1, store.getRecords(1L).size());
+        assertTrue(store.getRecords(1L).contains(entry2));
+
+        store.removeIndex(1L, entry2.getKeyData());
+        assertTrue(store.getRecords(1L).isEmpty());
+    }
+
+    @Test
+    public void testNewIndex_sameKeyReplacesEntry() {
+        QueryableEntry entry = entry();
+        QueryableEntry updatedEntry = entry(entry.getKeyData());
+        store.newIndex(1L, entry);
+        store.newIndex(1L, updatedEntry);
+
+        Set<QueryableEntry> result = store.getRecords(1L);
+        assertEquals(1, result.size());
+        assertTrue(result.iterator().next() == updatedEntry);
+    }
+
+    @Test
+    public void testUpdateIndex_movesEntry() {
+        QueryableEntry entry = entry();
+        store.newIndex(1L, entry);
+
+        store.updateIndex(1L, 5L, entry);
+
+        assertTrue(store.getRecords(1L).isEmpty());
+        assertTrue(store.getRecords(5L).contains(entry));
+    }
+
+    @Test
+    public void testGetSubRecordsBetween() {
+        QueryableEntry[] entries = populate(10);
+
+        Set<QueryableEntry> result = store.getSubRecordsBetween(3L, 6L);
+
+        assertEquals(new HashSet<QueryableEntry>(Arrays.asList(entries[3], entries[4], entries[5], entries[6])),
+                new HashSet<QueryableEntry>(result));
+    }
+
+    @Test
+    public void testGetSubRecords() {
+        populate(10);
+
+        assertEquals(3, store.getSubRecords(ComparisonType.LESSER, 3L).size());
+        assertEquals(4, store.getSubRecords(ComparisonType.LESSER_EQUAL, 3L).size());
+        assertEquals(6, store.getSubRecords(ComparisonType.GREATER, 3L).size());
+        assertEquals(7, store.getSubRecords(ComparisonType.GREATER_EQUAL, 3L).size());
+        assertEquals(9, store.getSubRecords(ComparisonType.NOT_EQUAL, 3L).size());
+    }
+
+    @Test
+    public void testGetSubRecords_isLazy() {
+        populate(10);
+        Set<QueryableEntry> result = store.getSubRecords(ComparisonType.GREATER_EQUAL, 5L);
+
+        store.newIndex(20L, entry());
+
+        assertEquals(6, result.size());
+    }
+
+    @Test
+    public void testGetRecords_multipleValues() {
+        QueryableEntry[] entries = populate(10);
+        Set<Comparable> values = new HashSet<Comparable>(Arrays.<Comparable>asList(2L, 7L, 42L));
+
+        Set<QueryableEntry> result = store.getRecords(values);
+
+        assertEquals(2, result.size());
+        assertTrue(result.contains(entries[2]));
+        assertTrue(result.contains(entries[7]));
+        assertFalse(result.contains(entries[3]));
+    }
+
+    @Test
+    public void testGetRecords_nullValue() {
+        QueryableEntry entry = entry();
+        store.newIndex(null, entry);
+
+        assertTrue(store.getRecords(IndexImpl.NULL).contains(entry));
+        assertTrue(store.getSubRecords(ComparisonType.GREATER_EQUAL, 0L).isEmpty());
+    }
+
+    @Test
+    public void testGetSubRecordsBetween_multiValueAttribute_detectsDuplicates() {
+        QueryableEntry entry = entry();
+        MultiResult<Long> multiResult = new MultiResult<Long>();
+        multiResult.add(1L);
+        multiResult.add(2L);
+        store.newIndex(multiResult, entry);
+
+        Set<QueryableEntry> result = store.getSubRecordsBetween(0L, 5L);
+
+        assertEquals(1, result.size());
+        assertEquals(1, new HashSet<QueryableEntry>(result).size());
+    }
+
+    @Test
+    public void testGetSubRecords_entryMovedOutOfBucketBeingWalked_isReturnedOnce() {
+        QueryableEntry entry1 = entry();
+        QueryableEntry entry2 = entry();
+        QueryableEntry entry3 = entry();
+        index(1L, entry1);
+        index(1L, entry2);
+        index(2L, entry3);
+        Iterator<QueryableEntry> iterator = store.getSubRecords(ComparisonType.GREATER_EQUAL, 0L).iterator();
+        QueryableEntry first = iterator.next();
+        QueryableEntry second = first == entry1 ? entry2 : entry1;
+
+        // the bucket being walked does not hold the entry anymore, so it is only returned from its new bucket
+        update(1L, 20L, second);
+
+        List<QueryableEntry> rest = new ArrayList<QueryableEntry>();
+        while (iterator.hasNext()) {
+            rest.add(iterator.next());
+        }
+        assertEquals(Arrays.asList(entry3, second), rest);
+    }
+
+    @Test
+    public void testGetSubRecords_contains_probesIndex() {
+        QueryableEntry[] entries = populate(10);
+        Set<QueryableEntry> result = store.getSubRecords(ComparisonType.GREATER, 3L);
+
+        assertTrue(result.contains(entries[5]));
+        assertFalse(result.contains(entries[3]));
+        assertFalse(result.contains(entries[2]));
+
+        update(5L, 1L, entries[5]);
+        assertFalse(result.contains(entries[5]));
+    }
+
+    @Test
+    public void testGetSubRecords_notEqual_contains() {
+        QueryableEntry[] entries = populate(10);
+        Set<QueryableEntry> result = store.getSubRecords(ComparisonType.NOT_EQUAL, 3L);
+
+        assertTrue(result.contains(entries[0]));
+        assertTrue(result.contains(entries[9]));
+        assertFalse(result.contains(entries[3]));
+    }
+
+    @Test
+    public void testGetSubRecordsBetween_multiValueAttribute_contains() {
+        QueryableEntry entry = entry();
+        MultiResult<Long> multiResult = new MultiResult<Long>();
+        multiResult.add(1L);
+        multiResult.add(7L);
+        index(multiResult, entry);
+
+        assertTrue(store.getSubRecordsBetween(5L, 10L).contains(entry));
+        assertFalse(store.getSubRecordsBetween(2L, 6L).contains(entry));
+    }
+
+    @Test
+    public void testGetSubRecords_estimatedSize_countsBucketEntries() {
+        populate(10);
+        index(7L, entry());
+
+        LazyMultiResultSet result = (LazyMultiResultSet) store.getSubRecords(ComparisonType.GREATER_EQUAL, 5L);
+
+        assertEquals(6, result.estimatedSize());
+    }
+
+    @Test
+    public void testGetSubRecords_estimatedSize_whenTooManyBuckets() {
+        populate(LazyMultiResultSet.ESTIMATE_BUCKET_LIMIT + 1);
+
+        LazyMultiResultSet result = (LazyMultiResultSet) store.getSubRecords(ComparisonType.GREATER_EQUAL, 0L);
+
+        assertEquals(Integer.MAX_VALUE, result.estimatedSize());
+        assertEquals(LazyMultiResultSet.ESTIMATE_BUCKET_LIMIT + 1, result.size());
+    }
+
+    @Test
+    public void testGetSubRecords_entryMovedBehindIteration_isMissed() {
+        QueryableEntry[] entries = populate(10);
+        Iterator<QueryableEntry> iterator = store.getSubRecords(ComparisonType.GREATER_EQUAL, 0L).iterator();
+        iterator.next();
+        iterator.next();
+
+        // weakly consistent: an entry moved to a bucket which was already walked is not seen
+        update(8L, 0L, entries[8]);
+
+        List<QueryableEntry> rest = new ArrayList<QueryableEntry>();
+        while (iterator.hasNext()) {
+            rest.add(iterator.next());
+        }
+        assertEquals(7, rest.size());
+        assertFalse(rest.contains(entries[8]));
+    }
+
+    @Test
+    public void testClear() {
+        populate(10);
+
+        store.clear();
+
+        assertTrue(store.getSubRecords(ComparisonType.GREATER_EQUAL, 0L).isEmpty());
+    }
+
+    private QueryableEntry[] populate(int count) {
+        QueryableEntry[] entries = new QueryableEntry[count];
+        for (int i = 0; i < count; i++) {
+            entries[i] = entry();
+            index((long) i, entries[i]);
+        }
+        return entries;
+    }
+
+    private void index(Object value, QueryableEntry entry) {
+        indexedValues.put(entry, value);
+        store.newIndex(value, entry);
+    }
+
+    private void update(Object oldValue, Object newValue, QueryableEntry entry) {
+        indexedValues.put(entry, newValue);
+        store.updateIndex(oldValue, newValue, entry);
+    }
+
+    private static QueryableEntry entry() {
+        return entry(mock(Data.class));
+    }
+
+    private static QueryableEntry entry(Data key) {
+        QueryEntry entry = mock(QueryEntry.class);
+        when(entry.getKeyData()).thenReturn(key);
+        return entry;
+    }
+}
@@ -380,6 +380,50 @@ public class FieldGetterTest {
         assertEquals(Limb[].class, returnType);
     }
 
+    @Test
+    public void getValue_whenPrimitiveFields_thenReturnBoxedValues() throws Exception {
+        PrimitiveFields fields = new PrimitiveFields();
+
+        assertEquals((byte) 1, getFieldValue(fields, "byteField"));
+        assertEquals((short) 2, getFieldValue(fields, "shortField"));
+        assertEquals('c', getFieldValue(fields, "charField"));
+        assertEquals(4, getFieldValue(fields, "intField"));
+        assertEquals(5L, getFieldValue(fields, "longField"));
+        assertEquals(6.0f, getFieldValue(fields, "floatField"));
+        assertEquals(7.0d, getFieldValue(fields, "doubleField"));
+        assertEquals(true, getFieldValue(fields, "booleanField"));
+        assertEquals(8L, getFieldValue(fields, "volatileField"));
+    }
+
+    @Test
+    public void getValue_whenFieldOfSuperclass_thenReturnValue() throws Exception {
+        Field field = Body.class.getDeclaredField("name");
+        FieldGetter getter = new FieldGetter(null, field, null, null);
+
+        assertEquals("subBody", getter.getValue(new SubBody("subBody")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getValue_whenObjectOfUnrelatedClass_thenThrowIllegalArgumentException() throws Exception {
+        Field field = Body.class.getDeclaredField("name");
+        FieldGetter getter = new FieldGetter(null, field, null, null);
+
+        getter.getValue(new Nail("red"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void getValue_whenNullObject_thenThrowNullPointerException() throws Exception {
+        Field field = Body.class.getDeclaredField("name");
+        FieldGetter getter = new FieldGetter(null, field, null, null);
+
+        getter.extractFrom(null);
+    }
+
+    private static Object getFieldValue(Object object, String fieldName) throws Exception {
+        Field field = object.getClass().getDeclaredField(fieldName);
+        return new FieldGetter(null, field, null, null).getValue(object);
+    }
+
     private void assertContainsInAnyOrder(MultiResult multiResult, Object... items) {
         List results = multiResult.getResults();
         if (results.size() != items.length) {
@@ -404,6 +448,12 @@ public class FieldGetterTest {
         }
     }
 
+    static class SubBody extends Body {
+        SubBody(String name) {
+            super(name);
+        }
+    }
+
     static class Limb {
         String name;
         Nail[] nailArray = new Nail[0];
@@ -435,4 +485,16 @@ public class FieldGetterTest {
         public boolean[] booleans = new boolean[]{false};
 
     }
+
+    static class PrimitiveFields {
+        byte byteField = 1;
+        short shortField = 2;
+        char charField = 'c';
+        int intField = 4;
+        long longField = 5;
+        float floatField = 6.0f;
+        double doubleField = 7.0d;
+        boolean booleanField = true;
+        volatile long volatileField = 8;
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.query.DefaultIndexProvider;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.SampleTestObjects.Employee;
+import com.hazelcast.query.impl.IndexStatistics;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Set;
+
+import static com.hazelcast.instance.TestUtil.toData;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class IndexSelectionVisitorTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final CostBasedQueryOptimizer optimizer = new CostBasedQueryOptimizer();
+
+    private Indexes indexes;
+
+    @Before
+    public void setUp() {
+        indexes = new Indexes(serializationService, new DefaultIndexProvider(true), Extractors.empty(), true);
+        indexes.addOrGetIndex("id", true);
+        indexes.addOrGetIndex("active", false);
+        indexes.addOrGetIndex("age", false);
+        // ids are unique, 90% of the employees are active, ages are uniformly distributed over 0..9
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Employee employee = new Employee(i, "name" + i, i % 10, i % 10 != 0, i);
+            indexes.saveEntryIndex(new QueryEntry(serializationService, toData(i), employee, Extractors.empty()), null);
+        }
+    }
+
+    @Test
+    public void testStatistics() {
+        IndexStatistics statistics = indexes.getIndex("age").getStatistics();
+        assertEquals(ENTRY_COUNT, statistics.getEntryCount());
+        assertEquals(10, statistics.getDistinctValueCount());
+
+        double selectivity = statistics.estimateEqualSelectivity(3);
+        assertTrue("selectivity: " + selectivity, selectivity > 0.02 && selectivity < 0.25);
+        selectivity = statistics.estimateRangeSelectivity(null, false, 4, true);
+        assertTrue("selectivity: " + selectivity, selectivity > 0.3 && selectivity < 0.7);
+        assertEquals(0, statistics.estimateRangeSelectivity(10, false, null, false), 0);
+
+        indexes.removeEntryIndex(toData(3), new Employee(3, "name3", 3, true, 3));
+        assertEquals(ENTRY_COUNT - 1, statistics.getEntryCount());
+        indexes.getIndex("age").clear();
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(0, statistics.getDistinctValueCount());
+    }
+
+    @Test
+    public void testMostSelectiveIndexIsLookedUp() {
+        Predicate predicate = optimizer.optimize(Predicates.and(Predicates.equal("active", true),
+                Predicates.lessThan("id", 20)), indexes);
+
+        AndPredicate andPredicate = (AndPredicate) predicate;
+        assertThat(andPredicate.predicates[0], instanceOf(SkipIndexPredicate.class));
+        assertThat(andPredicate.predicates[1], instanceOf(GreaterLessPredicate.class));
+        assertResult(18, predicate);
+    }
+
+    @Test
+    public void testScanWhenNoIndexIsSelective() {
+        Predicate predicate = optimizer.optimize(Predicates.and(Predicates.equal("active", true),
+                Predicates.greaterThan("id", 100)), indexes);
+
+        AndPredicate andPredicate = (AndPredicate) predicate;
+        assertThat(andPredicate.predicates[0], instanceOf(SkipIndexPredicate.class));
+        assertThat(andPredicate.predicates[1], instanceOf(SkipIndexPredicate.class));
+        assertNull(indexes.query(predicate));
+
+        predicate = optimizer.optimize(Predicates.equal("active", true), indexes);
+        assertThat(predicate, instanceOf(SkipIndexPredicate.class));
+        assertNull(indexes.query(predicate));
+    }
+
+    @Test
+    public void testSelectiveStandalonePredicateIsUnchanged() {
+        Predicate original = Predicates.equal("active", false);
+        assertSame(original, optimizer.optimize(original, indexes));
+    }
+
+    @Test
+    public void testScanIsNotForcedWhenSelectivityIsUnknown() {
+        Predicate original = Predicates.and(Predicates.equal("active", true),
+                Predicates.or(Predicates.equal("age", 3), Predicates.equal("id", 5)));
+
+        assertSame(original, optimizer.optimize(original, indexes));
+    }
+
+    @Test
+    public void testNotIndexedPredicatesAreKept() {
+        Predicate predicate = optimizer.optimize(Predicates.and(Predicates.equal("active", true),
+                Predicates.equal("age", 3), Predicates.like("name", "name1%")), indexes);
+
+        AndPredicate andPredicate = (AndPredicate) predicate;
+        assertThat(andPredicate.predicates[0], instanceOf(SkipIndexPredicate.class));
+        assertThat(andPredicate.predicates[1], instanceOf(EqualPredicate.class));
+        assertThat(andPredicate.predicates[2], instanceOf(LikePredicate.class));
+        assertResult(11, predicate);
+    }
+
+    private void assertResult(int expected, Predicate predicate) {
+        Set<QueryableEntry> result = indexes.query(predicate);
+        assertNotNull(result);
+        assertEquals(expected, result.size());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.not;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class KeyPredicatesFirstVisitorTest {
+
+    private KeyPredicatesFirstVisitor visitor;
+    private Indexes indexes;
+
+    @Before
+    public void setUp() {
+        visitor = new KeyPredicatesFirstVisitor();
+        indexes = mock(Indexes.class);
+    }
+
+    @Test
+    public void visitAnd_whenKeyPredicatesAlreadyFirst_thenReturnItself() {
+        AndPredicate predicate = (AndPredicate) and(equal("__key", 1), equal("age", 10));
+
+        assertSame(predicate, visitor.visit(predicate, indexes));
+    }
+
+    @Test
+    public void visitAnd_whenNoKeyPredicate_thenReturnItself() {
+        AndPredicate predicate = (AndPredicate) and(equal("name", "a"), equal("age", 10));
+
+        assertSame(predicate, visitor.visit(predicate, indexes));
+    }
+
+    @Test
+    public void visitAnd_whenKeyPredicatesLast_thenMoveThemFirstKeepingOrder() {
+        Predicate age = equal("age", 10);
+        Predicate key = equal("__key", 1);
+        Predicate name = equal("name", "a");
+        Predicate keyField = equal("__key.id", 2);
+
+        AndPredicate result = (AndPredicate) visitor.visit((AndPredicate) and(age, key, name, keyField), indexes);
+
+        assertArrayEquals(new Predicate[]{key, keyField, age, name}, result.predicates);
+    }
+
+    @Test
+    public void visitOr_whenKeyPredicatesLast_thenMoveThemFirst() {
+        Predicate age = equal("age", 10);
+        Predicate key = equal("__key", 1);
+
+        OrPredicate result = (OrPredicate) visitor.visit((OrPredicate) or(age, key), indexes);
+
+        assertArrayEquals(new Predicate[]{key, age}, result.predicates);
+    }
+
+    @Test
+    public void readsOnlyKey_whenCompoundPredicates() {
+        assertTrue(KeyPredicatesFirstVisitor.readsOnlyKey(not(equal("__key", 1))));
+        assertTrue(KeyPredicatesFirstVisitor.readsOnlyKey(or(equal("__key", 1), equal("__key.id", 2))));
+        assertFalse(KeyPredicatesFirstVisitor.readsOnlyKey(and(equal("__key", 1), equal("age", 2))));
+        assertFalse(KeyPredicatesFirstVisitor.readsOnlyKey(new OrPredicate()));
+    }
+}
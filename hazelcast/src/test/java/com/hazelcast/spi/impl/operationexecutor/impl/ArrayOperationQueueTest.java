@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ArrayOperationQueueTest extends HazelcastTestSupport {
+
+    private ArrayOperationQueue operationQueue;
+
+    @Before
+    public void setup() {
+        operationQueue = new ArrayOperationQueue(4, null);
+        operationQueue.setConsumerThread(Thread.currentThread());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        operationQueue.add(null, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construct_whenCapacityNotPositive() {
+        new ArrayOperationQueue(0, null);
+    }
+
+    @Test
+    public void add_whenPriority() {
+        operationQueue.add("task", true);
+
+        assertEquals(1, operationQueue.prioritySize());
+        assertEquals(0, operationQueue.normalSize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void take_whenPriorityAndNormalAvailable_thenPriorityFirst() throws InterruptedException {
+        operationQueue.add("normal", false);
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.take(false));
+        assertSame("normal", operationQueue.take(false));
+    }
+
+    @Test
+    public void take_whenArrayQueueOverflows_thenOrderPreserved() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            operationQueue.add(i, false);
+        }
+        assertEquals(10, operationQueue.normalSize());
+
+        // taking from the array queue frees capacity, but new tasks need to go behind the overflowed ones
+        assertEquals(0, operationQueue.take(false));
+        operationQueue.add(10, false);
+
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i, operationQueue.take(false));
+        }
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void take_whenPriorityOnly_thenNormalTasksIgnored() throws InterruptedException {
+        operationQueue.add("normal", false);
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.take(true));
+        assertEquals(1, operationQueue.normalSize());
+    }
+
+    @Test
+    public void take_whenEmpty_thenBlocksTillTaskAdded() throws Exception {
+        final ArrayOperationQueue queue = new ArrayOperationQueue(4, null);
+        Future<Object> future = spawn(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                queue.setConsumerThread(Thread.currentThread());
+                return queue.take(false);
+            }
+        });
+
+        sleepMillis(100);
+        queue.add("task", false);
+
+        assertSame("task", future.get());
+    }
+}
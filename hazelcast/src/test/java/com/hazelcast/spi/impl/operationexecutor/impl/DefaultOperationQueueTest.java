@@ -31,6 +31,7 @@ import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 @RunWith(HazelcastSerialClassRunner.class)
@@ -82,6 +83,30 @@ public class DefaultOperationQueueTest extends HazelcastTestSupport {
         assertEquals(1, operationQueue.size());
     }
 
+    // ================== poll =====================
+
+    @Test
+    public void poll_whenEmpty() {
+        assertNull(operationQueue.poll(false));
+    }
+
+    @Test
+    public void poll_whenPriorityAndNormalAvailable_thenPriorityFirstAndTriggerTasksSkipped() {
+        operationQueue.add("normal", false);
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.poll(false));
+        assertSame("normal", operationQueue.poll(false));
+        assertNull(operationQueue.poll(false));
+    }
+
+    @Test
+    public void poll_whenPriorityOnly() {
+        operationQueue.add("normal", false);
+
+        assertNull(operationQueue.poll(true));
+    }
+
     // ================== take =====================
 
     @Test
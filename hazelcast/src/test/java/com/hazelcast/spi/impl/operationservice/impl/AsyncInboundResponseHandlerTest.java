@@ -37,6 +37,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -98,6 +99,24 @@ public class AsyncInboundResponseHandlerTest extends HazelcastTestSupport {
         });
     }
 
+    @Test
+    public void whenResponseThreadDisabled_thenPacketHandledOnCallingThread() throws Exception {
+        Config config = new Config();
+        config.setProperty(AsyncInboundResponseHandler.RESPONSE_THREAD_ENABLED.getName(), "false");
+        AsyncInboundResponseHandler handler = new AsyncInboundResponseHandler(getClass().getClassLoader(), "hz",
+                Logger.getLogger(getClass()), responsePacketHandler, new HazelcastProperties(config));
+        handler.start();
+
+        Packet packet = new Packet(serializationService.toBytes(new NormalResponse("foo", 1, 0, false)))
+                .setPacketType(Packet.Type.OPERATION)
+                .raiseFlags(FLAG_OP_RESPONSE);
+        handler.handle(packet);
+
+        verify(responsePacketHandler).handle(packet);
+        assertFalse(((Thread) handler.responseThread).isAlive());
+        handler.shutdown();
+    }
+
     @Test
     public void whenShutdown() throws InterruptedException {
         asyncHandler.shutdown();
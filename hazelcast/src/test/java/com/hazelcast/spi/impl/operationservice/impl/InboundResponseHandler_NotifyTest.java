@@ -19,6 +19,8 @@ package com.hazelcast.spi.impl.operationservice.impl;
 import com.hazelcast.config.Config;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.OperationTimeoutException;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.test.AssertTask;
 import com.hazelcast.test.ExpectedRuntimeException;
@@ -36,10 +38,13 @@ import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_ENABLED;
 import static com.hazelcast.spi.properties.GroupProperty.OPERATION_CALL_TIMEOUT_MILLIS;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -218,6 +223,31 @@ public class InboundResponseHandler_NotifyTest extends HazelcastTestSupport {
         assertInvocationDeregisteredEventually(callId);
     }
 
+    // ==================== response batch =====================
+
+    @Test
+    public void responseBatch_thenEachResponseHandled() throws Exception {
+        Invocation first = newInvocation(new DummyOperation());
+        invocationRegistry.register(first);
+        Invocation second = newInvocation(new DummyOperation());
+        invocationRegistry.register(second);
+
+        OutboundResponseHandler outboundResponseHandler = operationService.getOutboundResponseHandler();
+        Packet batch = outboundResponseHandler.toResponseBatchPacket(asList(
+                outboundResponseHandler.toNormalResponsePacket(first.op.getCallId(), 0, false, "foo"),
+                outboundResponseHandler.toNormalResponsePacket(second.op.getCallId(), 0, false, "bar")));
+        Connection connection = mock(Connection.class);
+        when(connection.getEndPoint()).thenReturn(getAddress(local));
+        batch.setConn(connection);
+
+        inboundResponseHandler.handle(batch);
+
+        assertEquals("foo", first.future.join());
+        assertEquals("bar", second.future.join());
+        assertInvocationDeregisteredEventually(first.op.getCallId());
+        assertInvocationDeregisteredEventually(second.op.getCallId());
+    }
+
     private void assertInvocationDeregisteredEventually(final long callId) {
         assertTrueEventually(new AssertTask() {
             @Override
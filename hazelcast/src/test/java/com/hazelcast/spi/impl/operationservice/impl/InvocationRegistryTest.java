@@ -31,6 +31,8 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -149,6 +151,40 @@ public class InvocationRegistryTest extends HazelcastTestSupport {
         assertEquals(2, invocationRegistry.size());
     }
 
+    // ====================== iteration ===============================
+
+    @Test
+    public void iterator_containsAllRegisteredInvocations() {
+        Invocation firstInvocation = newInvocation();
+        invocationRegistry.register(firstInvocation);
+        Invocation secondInvocation = newInvocation();
+        invocationRegistry.register(secondInvocation);
+
+        Map<Long, Invocation> entries = new HashMap<Long, Invocation>();
+        for (Invocation invocation : invocationRegistry) {
+            entries.put(invocation.op.getCallId(), invocation);
+        }
+
+        assertEquals(2, entries.size());
+        assertSame(firstInvocation, entries.get(firstInvocation.op.getCallId()));
+        assertSame(secondInvocation, entries.get(secondInvocation.op.getCallId()));
+    }
+
+    @Test
+    public void iterator_whenDeregisteringWhileIterating() {
+        invocationRegistry.register(newInvocation());
+        invocationRegistry.register(newInvocation());
+
+        int count = 0;
+        for (Invocation invocation : invocationRegistry) {
+            invocationRegistry.deregister(invocation);
+            count++;
+        }
+
+        assertEquals(2, count);
+        assertEquals(0, invocationRegistry.size());
+    }
+
 
     // ===================== reset ============================
 
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class InvocationTableTest extends HazelcastTestSupport {
+
+    private InvocationTable table;
+
+    @Before
+    public void setup() {
+        table = new InvocationTable(8);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Invocation invocation = mock(Invocation.class);
+
+        table.put(1, invocation);
+
+        assertSame(invocation, table.get(1));
+        assertNull(table.get(2));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testRemove() {
+        table.put(1, mock(Invocation.class));
+
+        assertTrue(table.remove(1));
+        assertFalse(table.remove(1));
+        assertNull(table.get(1));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testGetAndRemove_whenCallIdNotSet() {
+        assertNull(table.get(0));
+        assertFalse(table.remove(0));
+    }
+
+    @Test
+    public void testCallIdsOfSameSlot_areDisplaced() {
+        Invocation first = mock(Invocation.class);
+        Invocation second = mock(Invocation.class);
+        // the capacity is 8, so both call IDs belong to slot 1
+        table.put(1, first);
+        table.put(9, second);
+
+        assertSame(first, table.get(1));
+        assertSame(second, table.get(9));
+
+        table.remove(1);
+        assertSame(second, table.get(9));
+    }
+
+    @Test
+    public void testResize_keepsInvocations() {
+        List<Invocation> invocations = new ArrayList<Invocation>();
+        for (int callId = 1; callId <= 100; callId++) {
+            Invocation invocation = mock(Invocation.class);
+            invocations.add(invocation);
+            table.put(callId, invocation);
+        }
+
+        assertTrue(table.capacity() > 100);
+        assertEquals(100, table.size());
+        for (int callId = 1; callId <= 100; callId++) {
+            assertSame(invocations.get(callId - 1), table.get(callId));
+        }
+    }
+
+    @Test
+    public void testSlotsOfRemovedCallIds_areReused() {
+        // keeps a few old call IDs pending while the call IDs wrap around the table many times
+        for (long callId = 1; callId <= 10000; callId++) {
+            table.put(callId, mock(Invocation.class));
+            if (callId % 1000 != 0) {
+                table.remove(callId);
+            }
+        }
+
+        assertEquals(10, table.size());
+        // only grown for the pending call IDs
+        assertEquals(32, table.capacity());
+    }
+
+    @Test
+    public void testIterator() {
+        Set<Invocation> expected = new HashSet<Invocation>();
+        for (int callId = 1; callId <= 20; callId++) {
+            Invocation invocation = mock(Invocation.class);
+            table.put(callId, invocation);
+            if (callId % 5 != 0) {
+                expected.add(invocation);
+            }
+        }
+        for (int callId = 5; callId <= 20; callId += 5) {
+            table.remove(callId);
+        }
+
+        Set<Invocation> found = new HashSet<Invocation>();
+        for (Invocation invocation : table) {
+            found.add(invocation);
+        }
+
+        assertEquals(expected, found);
+    }
+
+    @Test
+    public void testConcurrentPutAndRemove() throws Exception {
+        final AtomicLong callIds = new AtomicLong();
+        final AtomicBoolean failed = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    List<Long> pending = new ArrayList<Long>();
+                    for (int round = 0; round < 10000; round++) {
+                        long callId = callIds.incrementAndGet();
+                        Invocation invocation = mock(Invocation.class);
+                        table.put(callId, invocation);
+                        pending.add(callId);
+                        if (table.get(callId) != invocation) {
+                            failed.set(true);
+                        }
+                        if (pending.size() > 100) {
+                            if (!table.remove(pending.remove(0)) || !table.remove(pending.remove(pending.size() - 1))) {
+                                failed.set(true);
+                            }
+                        }
+                    }
+                    for (Long callId : pending) {
+                        table.remove(callId);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(failed.get());
+        assertEquals(0, table.size());
+        assertFalse(table.iterator().hasNext());
+    }
+}
@@ -28,11 +28,19 @@ import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
 
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.readIntB;
 import static com.hazelcast.spi.OperationAccessor.setCallId;
 import static com.hazelcast.spi.OperationAccessor.setCallerAddress;
+import static java.util.Arrays.asList;
+import static java.util.Arrays.copyOfRange;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -218,6 +226,34 @@ public class OutboundResponseHandlerTest {
         assertEquals(expected, new HeapData(packet.toByteArray()));
     }
 
+    @Test
+    public void toResponseBatchPacket() {
+        Packet first = handler.toNormalResponsePacket(1, 0, false, "foo");
+        Packet second = handler.toBackupAckPacket(2, true);
+
+        Packet batch = handler.toResponseBatchPacket(asList(first, second));
+
+        assertTrue(batch.isFlagRaised(Packet.FLAG_OP_RESPONSE));
+        assertTrue(batch.isFlagRaised(Packet.FLAG_OP_RESPONSE_BATCH));
+        assertTrue(batch.isUrgent());
+        byte[] bytes = batch.toByteArray();
+        int secondOffset = INT_SIZE_IN_BYTES + first.totalSize();
+        assertEquals(first.totalSize(), readIntB(bytes, 0));
+        assertArrayEquals(first.toByteArray(), copyOfRange(bytes, INT_SIZE_IN_BYTES, secondOffset));
+        assertEquals(second.totalSize(), readIntB(bytes, secondOffset));
+        assertArrayEquals(second.toByteArray(), copyOfRange(bytes, secondOffset + INT_SIZE_IN_BYTES, bytes.length));
+    }
+
+    @Test
+    public void transmit_whenSinglePacket_thenSentAsIs() {
+        Packet packet = handler.toNormalResponsePacket(1, 0, false, "foo");
+        when(connectionManager.transmit(packet, thatAddress)).thenReturn(true);
+
+        handler.transmit(thatAddress, singletonList(packet));
+
+        verify(connectionManager).transmit(packet, thatAddress);
+    }
+
     static class PortableAddress implements Portable {
 
         private String street;
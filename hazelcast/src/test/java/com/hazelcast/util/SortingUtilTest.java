@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SortingUtilTest {
+
+    private static final Comparator<Integer> DESCENDING = Collections.reverseOrder();
+
+    @Test
+    public void testSortFirst_selectsSmallestInOrder() {
+        List<Integer> list = new ArrayList<Integer>();
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            list.add(random.nextInt(100));
+        }
+        List<Integer> expected = new ArrayList<Integer>(list);
+        Collections.sort(expected, DESCENDING);
+
+        List<Integer> first = SortingUtil.sortFirst(list, DESCENDING, 25);
+
+        assertEquals(expected.subList(0, 25), first);
+    }
+
+    @Test
+    public void testSortFirst_whenListShorterThanCount() {
+        List<Integer> list = new ArrayList<Integer>();
+        list.add(2);
+        list.add(3);
+        list.add(1);
+
+        List<Integer> first = SortingUtil.sortFirst(list, DESCENDING, 10);
+
+        assertEquals(3, first.size());
+        assertEquals(Integer.valueOf(3), first.get(0));
+        assertEquals(Integer.valueOf(1), first.get(2));
+    }
+
+    @Test
+    public void testSortFirst_whenCountIsZero() {
+        List<Integer> list = new ArrayList<Integer>();
+        list.add(1);
+
+        assertTrue(SortingUtil.sortFirst(list, DESCENDING, 0).isEmpty());
+    }
+}